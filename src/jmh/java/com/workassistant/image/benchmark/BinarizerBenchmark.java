@@ -0,0 +1,79 @@
+package com.workassistant.image.benchmark;
+
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.Binarizer;
+import com.workassistant.image.BinarizerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end binarization of a synthetic document, including grayscale conversion.
+ *
+ * {@code implementation=opencv} runs the same configuration through
+ * {@link com.workassistant.image.impl.OpenCVBinarizer}; it needs the opencv profile as well
+ * ({@code -Pjmh,opencv}), so it is not in the default parameter set. The OpenCV binarizer
+ * still hands small images and bare thresholds to Java unless the forked JVM gets
+ * {@code -Dworkassistant.image.opencv.minPixels=0}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BinarizerBenchmark {
+
+    @Param({"1240x1754", "2480x3508"})
+    public String size;
+
+    @Param({"BYTE_GRAY", "INT_RGB", "3BYTE_BGR"})
+    public String imageType;
+
+    @Param({"GLOBAL", "OTSU", "ADAPTIVE_MEAN", "SAUVOLA"})
+    public String algorithm;
+
+    @Param({"0", "3"})
+    public int blur;
+
+    /** Opening and closing with a 3x3 kernel after thresholding */
+    @Param({"false"})
+    public boolean morphology;
+
+    @Param({"java"})
+    public String implementation;
+
+    private BufferedImage image;
+    private BinarizeConfig config;
+    private Binarizer binarizer;
+
+    @Setup
+    public void setUp() {
+        int[] dimensions = SyntheticDocuments.parseSize(size);
+        image = SyntheticDocuments.generate(dimensions[0], dimensions[1], SyntheticDocuments.parseType(imageType), 42);
+        config = new BinarizeConfig()
+            .setAlgorithm(BinarizeConfig.Algorithm.valueOf(algorithm))
+            .setBlockSize(25)
+            .setBlurKernelSize(blur)
+            .setUseMorphologicalOpening(morphology)
+            .setUseMorphologicalClosing(morphology)
+            .setUseOpenCV(implementation.equals("opencv"));
+        binarizer = BinarizerFactory.createBinarizer(config);
+    }
+
+    @Benchmark
+    public BufferedImage binarize() {
+        return binarizer.binarize(image, config);
+    }
+}
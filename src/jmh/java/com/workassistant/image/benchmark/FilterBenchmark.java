@@ -0,0 +1,66 @@
+package com.workassistant.image.benchmark;
+
+import com.workassistant.image.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link ImageUtils} filters on their own. Blurs read a grayscale document; erosion and
+ * dilation read its thresholded (TYPE_BYTE_BINARY) version, as they do inside the binarizers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FilterBenchmark {
+
+    @Param({"1240x1754", "2480x3508"})
+    public String size;
+
+    @Param({"3", "7", "15"})
+    public int kernelSize;
+
+    private BufferedImage gray;
+    private BufferedImage binary;
+
+    @Setup
+    public void setUp() {
+        int[] dimensions = SyntheticDocuments.parseSize(size);
+        gray = SyntheticDocuments.generate(dimensions[0], dimensions[1], BufferedImage.TYPE_BYTE_GRAY, 42);
+        binary = ImageUtils.threshold(gray, 128);
+    }
+
+    @Benchmark
+    public BufferedImage gaussianBlur() {
+        return ImageUtils.applyGaussianBlur(gray, kernelSize);
+    }
+
+    @Benchmark
+    public BufferedImage medianBlur() {
+        return ImageUtils.applyMedianBlur(gray, kernelSize);
+    }
+
+    @Benchmark
+    public BufferedImage erode() {
+        return ImageUtils.erode(binary, kernelSize);
+    }
+
+    @Benchmark
+    public BufferedImage dilate() {
+        return ImageUtils.dilate(binary, kernelSize);
+    }
+}
@@ -0,0 +1,113 @@
+package com.workassistant.image.benchmark;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.Random;
+
+/**
+ * Deterministic document-like test images: off-white paper under an uneven light, lines of
+ * dark text and a little sensor noise. Benchmarks should not depend on files that are not
+ * in the repository, and a seeded generator gives every run (and every machine) the same
+ * pixels.
+ */
+public final class SyntheticDocuments {
+
+    private static final String[] WORDS = {
+        "build", "failed", "missing", "dependency", "run", "mvn", "install", "status", "errors",
+        "warning", "deploy", "server", "ticket", "assigned", "resolved", "page", "invoice", "total"
+    };
+
+    private SyntheticDocuments() {
+    }
+
+    /**
+     * Parse a size such as {@code 2480x3508} (A4 at 300 dpi).
+     */
+    public static int[] parseSize(String size) {
+        String[] parts = size.toLowerCase().split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Size must be WIDTHxHEIGHT: " + size);
+        }
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    /**
+     * Parse a {@link BufferedImage} type name without the {@code TYPE_} prefix, such as
+     * {@code BYTE_GRAY}, {@code INT_RGB} or {@code 3BYTE_BGR}.
+     */
+    public static int parseType(String type) {
+        switch (type) {
+            case "BYTE_GRAY":
+                return BufferedImage.TYPE_BYTE_GRAY;
+            case "INT_RGB":
+                return BufferedImage.TYPE_INT_RGB;
+            case "INT_ARGB":
+                return BufferedImage.TYPE_INT_ARGB;
+            case "3BYTE_BGR":
+                return BufferedImage.TYPE_3BYTE_BGR;
+            case "4BYTE_ABGR":
+                return BufferedImage.TYPE_4BYTE_ABGR;
+            default:
+                throw new IllegalArgumentException("Unsupported image type: " + type);
+        }
+    }
+
+    /**
+     * Generate a document image of the given size and {@link BufferedImage} type.
+     */
+    public static BufferedImage generate(int width, int height, int imageType, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Light falls off towards one corner, as on a phone photo of a page
+        g.setPaint(new GradientPaint(0, 0, new Color(245, 242, 235), width, height, new Color(170, 165, 158)));
+        g.fillRect(0, 0, width, height);
+
+        int fontSize = Math.max(8, height / 80);
+        g.setFont(new Font(Font.SERIF, Font.PLAIN, fontSize));
+        int margin = width / 12;
+        int lineHeight = fontSize * 3 / 2;
+        for (int y = margin + fontSize; y < height - margin; y += lineHeight) {
+            if (random.nextInt(8) == 0) {
+                continue;  // paragraph break
+            }
+            int gray = 20 + random.nextInt(50);
+            g.setColor(new Color(gray, gray, gray + 10));
+            StringBuilder line = new StringBuilder();
+            while (g.getFontMetrics().stringWidth(line.toString()) < width - 2 * margin - 8 * fontSize) {
+                line.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            g.drawString(line.toString(), margin, y);
+        }
+        g.dispose();
+
+        addNoise(image.getRaster(), random);
+        if (imageType == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage converted = new BufferedImage(width, height, imageType);
+        Graphics2D cg = converted.createGraphics();
+        cg.drawImage(image, 0, 0, null);
+        cg.dispose();
+        return converted;
+    }
+
+    private static void addNoise(WritableRaster raster, Random random) {
+        int width = raster.getWidth();
+        int[] row = new int[width * 3];
+        for (int y = 0; y < raster.getHeight(); y++) {
+            raster.getPixels(0, y, width, 1, row);
+            for (int i = 0; i < row.length; i++) {
+                row[i] = Math.max(0, Math.min(255, row[i] + random.nextInt(13) - 6));
+            }
+            raster.setPixels(0, y, width, 1, row);
+        }
+    }
+}
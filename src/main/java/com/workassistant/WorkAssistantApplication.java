@@ -89,6 +89,11 @@ public class WorkAssistantApplication {
         com.workassistant.service.ElasticsearchService esService = com.workassistant.service.ElasticsearchService.getInstance();
         com.workassistant.controller.ElasticsearchController esController = new com.workassistant.controller.ElasticsearchController(esService);
         app.get("/api/elasticsearch/status", esController::getStatus);
+        app.get("/api/kb/suggest", esController::suggest);
+        
+        // OCR status (engine pool metrics)
+        app.get("/api/ocr/status", ctx -> ctx.json(com.workassistant.model.ApiResponse.success(
+            com.workassistant.service.OCRService.getInstance().getStatus())));
         
         // Chat API routes
         app.post("/api/chat/login", chatController::login);
@@ -98,6 +103,7 @@ public class WorkAssistantApplication {
         app.get("/api/chat/channels/{channelId}/messages", chatController::getMessages);
         app.post("/api/chat/messages", chatController::sendMessage);
         app.post("/api/chat/clipboard", chatController::sendClipboardContent);
+        app.get("/api/ingest/status", chatController::getIngestStatus);
         app.get("/api/chat/images/{imagePath}", chatController::serveImage);
         // Simple remote image proxy to avoid CORS when fetching remote images from the client
         app.post("/api/remote-image-proxy", ctx -> {
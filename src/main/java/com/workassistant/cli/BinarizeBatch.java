@@ -0,0 +1,446 @@
+package com.workassistant.cli;
+
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.Binarizer;
+import com.workassistant.image.BinarizerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Binarizes many images in one JVM.
+ *
+ * Every file goes through read, decode, binarize, encode and write. Reads and writes run on
+ * a small I/O pool and the other stages on a worker pool, so one file's read overlaps
+ * another's binarization. At most {@code maxInFlight} files are between read and write at
+ * a time, which bounds the decoded images held in memory. An output at least as new as its
+ * input is skipped unless {@code force} is set; outputs are written to a temporary file and
+ * moved into place, so an interrupted run never leaves a truncated output that looks current.
+ */
+public class BinarizeBatch {
+
+    private static final int IO_THREADS = 2;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * Processing stages, in order, with the unit their throughput is reported in
+     */
+    public enum Stage {
+        READ("MB/s"), DECODE("Mpx/s"), BINARIZE("Mpx/s"), ENCODE("MB/s"), WRITE("MB/s");
+
+        private final String unit;
+
+        Stage(String unit) {
+            this.unit = unit;
+        }
+    }
+
+    /**
+     * One input file and the output it is written to
+     */
+    public static class Job {
+        private final File input;
+        private final File output;
+
+        public Job(File input, File output) {
+            this.input = input;
+            this.output = output;
+        }
+
+        public File getInput() {
+            return input;
+        }
+
+        public File getOutput() {
+            return output;
+        }
+    }
+
+    private final BinarizeConfig config;
+    private final Binarizer binarizer;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int maxInFlight = 0;  // 0 means 2 per worker
+    private boolean force = false;
+    private String format = "png";
+
+    public BinarizeBatch(BinarizeConfig config) {
+        this.config = config;
+        this.binarizer = BinarizerFactory.createBinarizer(config);
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public BinarizeBatch setWorkers(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive");
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight > 0 ? maxInFlight : 2 * workers;
+    }
+
+    /**
+     * Most files read but not yet written at any time
+     */
+    public BinarizeBatch setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("Max in-flight must not be negative");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public boolean isForce() {
+        return force;
+    }
+
+    public BinarizeBatch setForce(boolean force) {
+        this.force = force;
+        return this;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * ImageIO format name of the outputs, also used as their extension
+     */
+    public BinarizeBatch setFormat(String format) {
+        this.format = format.toLowerCase();
+        return this;
+    }
+
+    /**
+     * Expand inputs into jobs. Each input is a directory (searched recursively), a glob such
+     * as {@code work/images/**.png}, a file, or {@code @list.txt} naming one input per line.
+     * Outputs keep the path below the directory or the glob's fixed prefix, with the
+     * extension replaced by the output format. Files inside the output directory are never
+     * inputs, and a file named by several inputs is planned once.
+     *
+     * @throws IOException if two different inputs would write the same output (such as
+     *         {@code x.png} and {@code x.jpg}, or equal names from two directories)
+     */
+    public List<Job> plan(List<String> inputs, File outputDir) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        collect(inputs, outputDir, jobs);
+
+        Path excluded = canonical(outputDir.toPath());
+        Map<Path, Job> byOutput = new LinkedHashMap<>();
+        List<String> collisions = new ArrayList<>();
+        for (Job job : jobs) {
+            Path input = canonical(job.getInput().toPath());
+            if (input.startsWith(excluded)) {
+                continue;
+            }
+            Job previous = byOutput.putIfAbsent(canonical(job.getOutput().toPath()), job);
+            if (previous != null && !canonical(previous.getInput().toPath()).equals(input)) {
+                collisions.add(previous.getInput() + " and " + job.getInput() + " -> " + job.getOutput());
+            }
+        }
+        if (!collisions.isEmpty()) {
+            throw new IOException("Inputs would overwrite each other's output: " + String.join("; ", collisions));
+        }
+        return new ArrayList<>(byOutput.values());
+    }
+
+    private void collect(List<String> inputs, File outputDir, List<Job> jobs) throws IOException {
+        for (String input : inputs) {
+            if (input.startsWith("@")) {
+                List<String> listed = Files.readAllLines(Paths.get(input.substring(1)), StandardCharsets.UTF_8).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .collect(Collectors.toList());
+                collect(listed, outputDir, jobs);
+            } else if (isGlob(input)) {
+                addGlob(input, outputDir, jobs);
+            } else {
+                Path path = Paths.get(input);
+                if (Files.isDirectory(path)) {
+                    addMatching(path, null, outputDir, jobs);
+                } else if (Files.isRegularFile(path)) {
+                    jobs.add(new Job(path.toFile(), outputFor(path.getFileName(), outputDir)));
+                } else {
+                    System.err.println("Skipping missing path: " + input);
+                }
+            }
+        }
+    }
+
+    /**
+     * Process the jobs and wait for all of them. Failures are reported on stderr and
+     * counted; they do not stop the batch.
+     */
+    public Stats run(List<Job> jobs) throws InterruptedException {
+        Stats stats = new Stats();
+        ExecutorService io = newPool("binarize-io-", IO_THREADS);
+        ExecutorService cpu = newPool("binarize-worker-", workers);
+        Semaphore inFlight = new Semaphore(getMaxInFlight());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (Job job : jobs) {
+                if (!force && isUpToDate(job)) {
+                    stats.skipped.incrementAndGet();
+                    continue;
+                }
+                inFlight.acquire();
+                CompletableFuture<Void> done = CompletableFuture
+                    .supplyAsync(() -> stats.time(Stage.READ, () -> read(job.getInput()), bytes -> bytes.length), io)
+                    .thenApplyAsync(bytes -> stats.time(Stage.DECODE, () -> decode(bytes, job.getInput()), BinarizeBatch::pixels), cpu)
+                    .thenApplyAsync(image -> stats.time(Stage.BINARIZE, () -> binarizer.binarize(image, config), BinarizeBatch::pixels), cpu)
+                    .thenApplyAsync(binary -> stats.time(Stage.ENCODE, () -> encode(binary), bytes -> bytes.length), cpu)
+                    .thenAcceptAsync(bytes -> stats.time(Stage.WRITE, () -> write(bytes, job.getOutput()), written -> written), io)
+                    .whenComplete((ignored, error) -> {
+                        inFlight.release();
+                        if (error == null) {
+                            stats.processed.incrementAndGet();
+                        } else {
+                            stats.failed.incrementAndGet();
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                            System.err.println("Failed: " + job.getInput() + ": " + cause.getMessage());
+                        }
+                    });
+                pending.add(done);
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        } finally {
+            stats.wallNanos = System.nanoTime() - start;
+            io.shutdownNow();
+            cpu.shutdownNow();
+        }
+        return stats;
+    }
+
+    /**
+     * Counts and per-stage busy time of a batch run
+     */
+    public static class Stats {
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final LongAdder[] nanos = new LongAdder[Stage.values().length];
+        private final LongAdder[] amounts = new LongAdder[Stage.values().length];
+        private volatile long wallNanos;
+
+        Stats() {
+            for (int i = 0; i < nanos.length; i++) {
+                nanos[i] = new LongAdder();
+                amounts[i] = new LongAdder();
+            }
+        }
+
+        public int getProcessed() {
+            return processed.get();
+        }
+
+        public int getSkipped() {
+            return skipped.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * Thread time spent in a stage, summed over all files
+         */
+        public long getBusyNanos(Stage stage) {
+            return nanos[stage.ordinal()].sum();
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * Throughput of each stage on one thread (bytes or pixels per busy second), and of
+         * the whole batch in files per wall-clock second.
+         */
+        public void print(PrintStream out) {
+            out.printf("%-10s %10s %12s %12s%n", "Stage", "Busy (ms)", "Avg (ms)", "Throughput");
+            int files = Math.max(1, processed.get() + failed.get());
+            for (Stage stage : Stage.values()) {
+                long busy = getBusyNanos(stage);
+                double seconds = busy / 1e9;
+                double rate = seconds > 0 ? amounts[stage.ordinal()].sum() / 1e6 / seconds : 0;
+                out.printf("%-10s %10d %12.1f %6.1f %s%n",
+                    stage.name().toLowerCase(), busy / 1_000_000, busy / 1e6 / files, rate, stage.unit);
+            }
+            double wallSeconds = wallNanos / 1e9;
+            out.printf("Processed %d, skipped %d (up to date), failed %d in %.1f s (%.1f files/s)%n",
+                processed.get(), skipped.get(), failed.get(), wallSeconds,
+                wallSeconds > 0 ? processed.get() / wallSeconds : 0);
+        }
+
+        private <T> T time(Stage stage, Supplier<T> work, java.util.function.ToLongFunction<T> amount) {
+            long start = System.nanoTime();
+            T result = work.get();
+            nanos[stage.ordinal()].add(System.nanoTime() - start);
+            amounts[stage.ordinal()].add(amount.applyAsLong(result));
+            return result;
+        }
+    }
+
+    private boolean isUpToDate(Job job) {
+        File output = job.getOutput();
+        return output.isFile() && output.lastModified() >= job.getInput().lastModified();
+    }
+
+    private void addGlob(String glob, File outputDir, List<Job> jobs) throws IOException {
+        // Walk from the longest leading directory without wildcards
+        String normalized = glob.replace(File.separatorChar, '/');
+        int firstWildcard = 0;
+        while (firstWildcard < normalized.length() && "*?[{".indexOf(normalized.charAt(firstWildcard)) < 0) {
+            firstWildcard++;
+        }
+        int slash = normalized.lastIndexOf('/', firstWildcard);
+        Path base = Paths.get(slash < 0 ? "." : slash == 0 ? "/" : normalized.substring(0, slash));
+        String pattern = normalized.substring(slash + 1);
+        if (!Files.isDirectory(base)) {
+            System.err.println("Skipping missing path: " + glob);
+            return;
+        }
+        addMatching(base, FileSystems.getDefault().getPathMatcher("glob:" + pattern), outputDir, jobs);
+    }
+
+    private void addMatching(Path base, PathMatcher matcher, File outputDir, List<Job> jobs) throws IOException {
+        try (Stream<Path> paths = Files.walk(base)) {
+            paths.filter(Files::isRegularFile)
+                .sorted()
+                .forEach(path -> {
+                    Path relative = base.relativize(path);
+                    boolean matches = matcher != null ? matcher.matches(relative) : isImage(path);
+                    if (matches) {
+                        jobs.add(new Job(path.toFile(), outputFor(relative, outputDir)));
+                    }
+                });
+        }
+    }
+
+    private File outputFor(Path relative, File outputDir) {
+        String name = relative.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String outputName = (dot > 0 ? name.substring(0, dot) : name) + "." + format;
+        Path parent = relative.getParent();
+        Path target = parent == null ? outputDir.toPath().resolve(outputName) : outputDir.toPath().resolve(parent).resolve(outputName);
+        return target.toFile();
+    }
+
+    /**
+     * Absolute normalized path with symbolic links resolved in its longest existing prefix,
+     * so outputs that are not written yet compare equal to ones that are.
+     */
+    private static Path canonical(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath().normalize();
+        Path existing = absolute;
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        return existing == null ? absolute : existing.toRealPath().resolve(existing.relativize(absolute));
+    }
+
+    private static boolean isGlob(String input) {
+        return input.indexOf('*') >= 0 || input.indexOf('?') >= 0 || input.indexOf('[') >= 0 || input.indexOf('{') >= 0;
+    }
+
+    private static boolean isImage(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg")
+            || name.endsWith(".bmp") || name.endsWith(".gif") || name.endsWith(".tif") || name.endsWith(".tiff");
+    }
+
+    private static byte[] read(File file) {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedImage decode(byte[] bytes, File source) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + source.getName());
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (!ImageIO.write(image, format, out)) {
+                throw new IOException("No writer for format: " + format);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long write(byte[] bytes, File output) {
+        try {
+            Path target = output.toPath();
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return bytes.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long pixels(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight();
+    }
+
+    private static ExecutorService newPool(String prefix, int threads) {
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, prefix + THREAD_COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
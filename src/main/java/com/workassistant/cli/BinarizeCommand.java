@@ -4,10 +4,14 @@ import com.workassistant.image.BinarizeConfig;
 import com.workassistant.image.Binarizer;
 import com.workassistant.image.BinarizerFactory;
 import com.workassistant.image.ImageUtils;
+import com.workassistant.image.StreamingBinarizer;
+import com.workassistant.image.impl.AutoBinarizer;
 import com.workassistant.image.impl.OtsuBinarizer;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Command-line utility for image binarization.
@@ -17,10 +21,17 @@ import java.io.File;
  *   java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm OTSU --blur 3
  *   java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm ADAPTIVE_MEAN --block-size 11 --c 2
  *   java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm GLOBAL --threshold 128
+ *   java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm AUTO
+ *   java com.workassistant.cli.BinarizeCommand --batch out/ work/images "scans/**.jpg" --workers 4
+ *   java com.workassistant.cli.BinarizeCommand scroll.png output.png --stream
  */
 public class BinarizeCommand {
     
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args);
+            return;
+        }
         if (args.length < 2) {
             printUsage();
             System.exit(1);
@@ -30,7 +41,8 @@ public class BinarizeCommand {
         String outputPath = args[1];
         
         // Parse configuration from command line arguments
-        BinarizeConfig config = parseConfig(args);
+        List<String> rest = new ArrayList<>();
+        BinarizeConfig config = parseConfig(args, 2, rest);
         
         try {
             System.out.println("Binarizing image...");
@@ -38,6 +50,20 @@ public class BinarizeCommand {
             System.out.println("  Output: " + outputPath);
             System.out.println("  Algorithm: " + config.getAlgorithm());
             
+            if (rest.contains("--stream")) {
+                // Band by band from file to file; the image is never decoded as a whole
+                StreamingBinarizer streaming = new StreamingBinarizer(config);
+                int index = rest.indexOf("--band-height");
+                if (index >= 0 && index + 1 < rest.size()) {
+                    streaming.setBandHeight(Integer.parseInt(rest.get(index + 1)));
+                }
+                long startTime = System.currentTimeMillis();
+                streaming.binarize(new File(inputPath), new File(outputPath));
+                System.out.println("  Processing time: " + (System.currentTimeMillis() - startTime) + "ms");
+                System.out.println("Done!");
+                return;
+            }
+            
             // Create binarizer
             Binarizer binarizer = BinarizerFactory.createBinarizer(config);
             
@@ -52,6 +78,11 @@ public class BinarizeCommand {
                 System.out.println("  Calculated Otsu threshold: " + threshold);
             }
             
+            // Show the tuned configuration if using auto mode
+            if (binarizer instanceof AutoBinarizer) {
+                System.out.println("  Auto-tuned: " + ((AutoBinarizer) binarizer).tune(input, config));
+            }
+            
             // Binarize
             long startTime = System.currentTimeMillis();
             BufferedImage output = binarizer.binarize(input, config);
@@ -71,10 +102,66 @@ public class BinarizeCommand {
         }
     }
     
-    private static BinarizeConfig parseConfig(String[] args) {
+    /**
+     * Batch mode: {@code --batch <output-dir> <input>... [options]}
+     */
+    private static void runBatch(String[] args) {
+        if (args.length < 3) {
+            printUsage();
+            System.exit(1);
+        }
+        File outputDir = new File(args[1]);
+        List<String> rest = new ArrayList<>();
+        BinarizeConfig config = parseConfig(args, 2, rest);
+        
+        try {
+            BinarizeBatch batch = new BinarizeBatch(config);
+            List<String> inputs = new ArrayList<>();
+            for (int i = 0; i < rest.size(); i++) {
+                String arg = rest.get(i);
+                if (arg.equals("--workers") && i + 1 < rest.size()) {
+                    batch.setWorkers(Integer.parseInt(rest.get(++i)));
+                } else if (arg.equals("--max-in-flight") && i + 1 < rest.size()) {
+                    batch.setMaxInFlight(Integer.parseInt(rest.get(++i)));
+                } else if (arg.equals("--format") && i + 1 < rest.size()) {
+                    batch.setFormat(rest.get(++i));
+                } else if (arg.equals("--list") && i + 1 < rest.size()) {
+                    inputs.add("@" + rest.get(++i));
+                } else if (arg.equals("--force")) {
+                    batch.setForce(true);
+                } else if (arg.startsWith("--")) {
+                    System.err.println("Ignoring unknown option: " + arg);
+                } else {
+                    inputs.add(arg);
+                }
+            }
+            
+            List<BinarizeBatch.Job> jobs = batch.plan(inputs, outputDir);
+            System.out.println("Binarizing " + jobs.size() + " images...");
+            System.out.println("  Output directory: " + outputDir);
+            System.out.println("  Algorithm: " + config.getAlgorithm());
+            System.out.println("  Workers: " + batch.getWorkers() + " (at most " + batch.getMaxInFlight() + " images in flight)");
+            
+            BinarizeBatch.Stats stats = batch.run(jobs);
+            stats.print(System.out);
+            if (stats.getFailed() > 0) {
+                System.exit(2);
+            }
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Parse binarization options from {@code args[from..]}; anything else is added to
+     * {@code unparsed} in order.
+     */
+    private static BinarizeConfig parseConfig(String[] args, int from, List<String> unparsed) {
         BinarizeConfig config = new BinarizeConfig();
         
-        for (int i = 2; i < args.length; i++) {
+        for (int i = from; i < args.length; i++) {
             String arg = args[i];
             
             if (arg.equals("--algorithm") && i + 1 < args.length) {
@@ -85,6 +172,8 @@ public class BinarizeCommand {
                 config.setBlockSize(Integer.parseInt(args[++i]));
             } else if (arg.equals("--c") && i + 1 < args.length) {
                 config.setC(Double.parseDouble(args[++i]));
+            } else if (arg.equals("--k") && i + 1 < args.length) {
+                config.setK(Double.parseDouble(args[++i]));
             } else if (arg.equals("--blur") && i + 1 < args.length) {
                 config.setBlurKernelSize(Integer.parseInt(args[++i]));
             } else if (arg.equals("--median-blur")) {
@@ -100,6 +189,8 @@ public class BinarizeCommand {
             } else if (arg.equals("--help")) {
                 printUsage();
                 System.exit(0);
+            } else {
+                unparsed.add(arg);
             }
         }
         
@@ -110,25 +201,42 @@ public class BinarizeCommand {
         System.out.println("Image Binarization CLI");
         System.out.println();
         System.out.println("Usage: java com.workassistant.cli.BinarizeCommand <input> <output> [options]");
+        System.out.println("       java com.workassistant.cli.BinarizeCommand --batch <output-dir> <input>... [options]");
         System.out.println();
         System.out.println("Arguments:");
-        System.out.println("  <input>              Path to input image file");
+        System.out.println("  <input>              Path to input image file; in batch mode also a directory");
+        System.out.println("                       (searched recursively) or a glob such as \"scans/**.jpg\"");
         System.out.println("  <output>             Path to output image file");
+        System.out.println("  <output-dir>         Batch output directory; input subdirectories are kept");
         System.out.println();
         System.out.println("Options:");
         System.out.println("  --algorithm ALGO     Binarization algorithm:");
-        System.out.println("                       GLOBAL, OTSU (default), ADAPTIVE_MEAN, ADAPTIVE_GAUSSIAN");
+        System.out.println("                       GLOBAL, OTSU (default), ADAPTIVE_MEAN, ADAPTIVE_GAUSSIAN,");
+        System.out.println("                       SAUVOLA, NIBLACK, AUTO (chosen per image; --blur and");
+        System.out.println("                       morphology options still apply)");
         System.out.println("  --threshold N        Threshold value for GLOBAL algorithm (0-255, default: 128)");
         System.out.println("  --block-size N       Window size for adaptive methods (odd number, default: 11)");
         System.out.println("  --c VALUE            Constant subtracted from mean (default: 2.0)");
+        System.out.println("  --k VALUE            Standard deviation weight for SAUVOLA/NIBLACK");
+        System.out.println("                       (default: 0.34 for SAUVOLA, -0.2 for NIBLACK)");
         System.out.println("  --blur N             Apply blur with kernel size N (odd number, 0 = no blur)");
         System.out.println("  --median-blur        Use median blur instead of Gaussian");
         System.out.println("  --morph-open         Apply morphological opening (remove noise)");
         System.out.println("  --morph-close        Apply morphological closing (fill holes)");
         System.out.println("  --morph-kernel N     Kernel size for morphological operations (default: 3)");
-        System.out.println("  --opencv             Use OpenCV implementation (requires OpenCV dependency)");
+        System.out.println("  --opencv             Use OpenCV where it is faster (requires a build with -Popencv)");
+        System.out.println("  --stream             Read, binarize and write in bands, for images too large to decode");
+        System.out.println("                       at once (single image only; output format from its extension)");
+        System.out.println("  --band-height N      Rows per band with --stream (default: about 4 Mpx per band)");
         System.out.println("  --help               Show this help message");
         System.out.println();
+        System.out.println("Batch options:");
+        System.out.println("  --list FILE          Read inputs (files, directories or globs) from FILE, one per line");
+        System.out.println("  --workers N          Worker threads (default: number of CPUs)");
+        System.out.println("  --max-in-flight N    Most images read but not yet written (default: 2 per worker)");
+        System.out.println("  --format FMT         Output format and extension (default: png)");
+        System.out.println("  --force              Rewrite outputs that are newer than their input");
+        System.out.println();
         System.out.println("Examples:");
         System.out.println("  # Use Otsu's method with light blur (recommended for OCR)");
         System.out.println("  java com.workassistant.cli.BinarizeCommand input.jpg output.png --blur 3");
@@ -136,7 +244,16 @@ public class BinarizeCommand {
         System.out.println("  # Use adaptive thresholding for uneven lighting");
         System.out.println("  java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm ADAPTIVE_MEAN --block-size 11 --c 2");
         System.out.println();
+        System.out.println("  # Use Sauvola for faint text on uneven backgrounds");
+        System.out.println("  java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm SAUVOLA --block-size 25 --k 0.34");
+        System.out.println();
+        System.out.println("  # Let the image statistics choose the algorithm and block size");
+        System.out.println("  java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm AUTO --blur 3");
+        System.out.println();
         System.out.println("  # Use global thresholding with fixed threshold");
         System.out.println("  java com.workassistant.cli.BinarizeCommand input.jpg output.png --algorithm GLOBAL --threshold 128");
+        System.out.println();
+        System.out.println("  # Binarize a whole directory on 4 workers, skipping outputs already up to date");
+        System.out.println("  java com.workassistant.cli.BinarizeCommand --batch out/ work/images --workers 4 --blur 3");
     }
 }
@@ -119,4 +119,114 @@ public class AppConfig {
     public int getElasticsearchRetryDelayMs() {
         return getIntProperty("elasticsearch.retry.delayMs", 2000);
     }
+
+    // Elasticsearch index lifecycle
+    public int getElasticsearchRetentionMonths() {
+        return getIntProperty("elasticsearch.retention.months", 0);
+    }
+
+    public boolean isElasticsearchForcemergeEnabled() {
+        return Boolean.parseBoolean(getProperty("elasticsearch.forcemerge.enabled", "false"));
+    }
+
+    public int getElasticsearchLifecycleCheckIntervalMinutes() {
+        return getIntProperty("elasticsearch.lifecycle.checkIntervalMinutes", 60);
+    }
+
+    // OCR configuration
+    public int getOcrPoolSize() {
+        return getIntProperty("ocr.pool.size", Runtime.getRuntime().availableProcessors());
+    }
+
+    public String getOcrCacheDir() {
+        return getProperty("ocr.cache.dir", "work/ocr-cache");
+    }
+
+    public int getOcrCacheMaxEntries() {
+        return getIntProperty("ocr.cache.maxEntries", 1000);
+    }
+
+    public int getOcrCacheMaxDiskEntries() {
+        return getIntProperty("ocr.cache.maxDiskEntries", 20000);
+    }
+
+    public int getOcrCacheMaxAgeDays() {
+        return getIntProperty("ocr.cache.maxAgeDays", 90);
+    }
+
+    public boolean isOcrPreprocessEnabled() {
+        return Boolean.parseBoolean(getProperty("ocr.preprocess.enabled", "true"));
+    }
+
+    public int getOcrPreprocessTargetDpi() {
+        return getIntProperty("ocr.preprocess.targetDpi", 300);
+    }
+
+    public boolean isOcrPreprocessDeskew() {
+        return Boolean.parseBoolean(getProperty("ocr.preprocess.deskew", "true"));
+    }
+
+    public String getIngestDir() {
+        return getProperty("ingest.dir", "work/ingest");
+    }
+
+    public int getIngestMaxAttempts() {
+        return getIntProperty("ingest.maxAttempts", 3);
+    }
+
+    public int getIngestRetryDelaySeconds() {
+        return getIntProperty("ingest.retryDelaySeconds", 5);
+    }
+
+    /**
+     * Number of jobs allowed in an ingestion stage at once (`ingest.concurrency.<stage>`)
+     */
+    public int getIngestConcurrency(String stage, int defaultValue) {
+        return getIntProperty("ingest.concurrency." + stage.toLowerCase(), defaultValue);
+    }
+
+    public int getOcrPreprocessTargetTextHeight() {
+        return getIntProperty("ocr.preprocess.targetTextHeight", 40);
+    }
+
+    public boolean isOcrRoiEnabled() {
+        return Boolean.parseBoolean(getProperty("ocr.roi.enabled", "true"));
+    }
+
+    public int getOcrRoiMaxRegions() {
+        return getIntProperty("ocr.roi.maxRegions", 6);
+    }
+
+    public double getOcrRoiMaxCoverage() {
+        try {
+            return Double.parseDouble(getProperty("ocr.roi.maxCoverage", "0.6"));
+        } catch (NumberFormatException e) {
+            return 0.6;
+        }
+    }
+
+    public boolean isOcrPrecheckEnabled() {
+        return Boolean.parseBoolean(getProperty("ocr.precheck.enabled", "true"));
+    }
+
+    public double getOcrPrecheckMinLikelihood() {
+        try {
+            return Double.parseDouble(getProperty("ocr.precheck.minLikelihood", "0.2"));
+        } catch (NumberFormatException e) {
+            return 0.2;
+        }
+    }
+
+    public int getOcrTileMaxHeight() {
+        return getIntProperty("ocr.tile.maxHeight", 2400);
+    }
+
+    public String getOcrPreprocessAlgorithm() {
+        return getProperty("ocr.preprocess.algorithm", "OTSU");
+    }
+
+    // Search prompt configuration
+    public int getSearchPromptMaxTokens() {
+        return getIntProperty("search.prompt.maxTokens", 1500);
+    }
 }
@@ -1,14 +1,17 @@
 package com.workassistant.controller;
 
+import com.workassistant.config.AppConfig;
 import com.workassistant.model.ApiResponse;
 import com.workassistant.model.Channel;
 import com.workassistant.model.Message;
 import com.workassistant.model.User;
 import com.workassistant.model.JobType;
 import com.workassistant.model.SummaryDocument;
+import com.workassistant.model.KBSearchResult;
 import com.workassistant.model.OllamaResponse;
 import com.workassistant.model.ClipboardData;
 import com.workassistant.model.ClipboardContentDocument;
+import com.workassistant.model.IngestJob;
 import com.workassistant.service.ChatService;
 import com.workassistant.service.OllamaService;
 import com.workassistant.service.ElasticsearchService;
@@ -16,6 +19,8 @@ import com.workassistant.service.ZentaoFunctionProvider;
 import com.workassistant.service.KBFunctionProvider;
 import com.workassistant.service.ZentaoService;
 import com.workassistant.service.OCRService;
+import com.workassistant.service.OCRResultCache;
+import com.workassistant.service.IngestionQueue;
 import com.workassistant.util.TextUtils;
 import io.javalin.http.Context;
 import io.javalin.websocket.WsCloseContext;
@@ -46,7 +51,16 @@ public class ChatController {
     private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
     private static final int MIN_KEYWORD_LENGTH = 3;
     private static final int MAX_KB_QUERY_RESULTS = 20;
+    // Keywords listed per document in search prompts
+    private static final int MAX_SEARCH_HEADER_KEYWORDS = 8;
+    // Cost of the passages label and blank line after each document header
+    private static final int SEARCH_PASSAGES_LINE_TOKENS = TextUtils.estimateTokens("Passages: [No matching passages]\n\n");
     private static final String WORK_IMAGES_DIR = "work/images";
+    // Working stages of a clipboard ingestion job (OCR, keywords, title, index)
+    private static final int INGEST_STAGE_COUNT = 4;
+    // Queries mentioning screenshots/images also search OCR keywords of clipboard images
+    private static final Pattern IMAGE_QUERY_PATTERN = Pattern.compile(
+        "截图|截屏|图片|屏幕|screenshot|screen shot|image|picture|photo", Pattern.CASE_INSENSITIVE);
     
     private final ChatService chatService;
     private final OllamaService ollamaService;
@@ -59,6 +73,7 @@ public class ChatController {
     // Support multiple websocket sessions per user (e.g., multiple tabs)
     private final Map<String, java.util.Set<io.javalin.websocket.WsConnectContext>> userSessions;
     private final ObjectMapper objectMapper;
+    private final IngestionQueue ingestionQueue;
 
     public ChatController(ChatService chatService, OllamaService ollamaService) {
         this.chatService = chatService;
@@ -78,6 +93,8 @@ public class ChatController {
         
         // Create work images directory
         createWorkImagesDirectory();
+        
+        this.ingestionQueue = createIngestionQueue();
     }
 
     public void login(Context ctx) {
@@ -412,20 +429,6 @@ public class ChatController {
     
     private void handleSearchRequest(String channelId, String prompt, Message userMessage) {
         try {
-            // Get original user message content
-            String originalUserMessage = userMessage.getContent();
-            
-            // Check if Elasticsearch is available
-            if (!elasticsearchService.isAvailable()) {
-                Message aiMessage = chatService.sendAIMessage(channelId, 
-                    "⚠️ Sorry, the search service is not available. Elasticsearch is not connected.");
-                if (aiMessage != null) {
-                    broadcastMessage(aiMessage);
-                }
-                logger.warn("Search request received but Elasticsearch is not available");
-                return;
-            }
-            
             // Extract search keywords from the prompt
             String searchQuery = extractSearchKeywords(prompt);
             
@@ -438,9 +441,27 @@ public class ChatController {
                 return;
             }
             
-            // Search Elasticsearch for matching summaries
-            List<SummaryDocument> results = elasticsearchService.searchSummaries(searchQuery, 5);
-            
+            // Search Elasticsearch for the best-matching passages of each document.
+            // The query runs on the async client (no separate availability ping); the answer
+            // is built on the AI pool once results arrive, so no pool thread waits on ES.
+            elasticsearchService.searchSnippetsAsync(searchQuery, 5, isImageQuery(prompt))
+                .whenCompleteAsync((results, error) -> {
+                    if (error != null) {
+                        handleSearchFailure(channelId, error);
+                    } else {
+                        respondWithSearchResults(channelId, searchQuery, results);
+                    }
+                }, aiExecutor);
+        } catch (Exception e) {
+            handleSearchFailure(channelId, e);
+        }
+    }
+    
+    /**
+     * Answer a search request from its KB results, through the AI when possible
+     */
+    private void respondWithSearchResults(String channelId, String searchQuery, List<KBSearchResult> results) {
+        try {
             if (results.isEmpty()) {
                 // If no results from ES, try to get AI to help
                 String aiResponse = ollamaService.generateSimple(
@@ -460,9 +481,9 @@ public class ChatController {
                         "Here are the search results from the knowledge base:\n\n" + rawResults + "\n\n" +
                         "Please provide a helpful, natural language response that summarizes these results and answers the user's query. " +
                         "Include relevant details and format the response in a clear, readable way.";
-                    
+                
                     String aiProcessedResponse = ollamaService.generateSimple(aiPrompt);
-                    
+                
                     // Fallback to formatted results if AI fails
                     if (aiProcessedResponse == null || aiProcessedResponse.trim().isEmpty()) {
                         logger.warn("AI processing returned empty response, falling back to formatted results");
@@ -498,6 +519,57 @@ public class ChatController {
         }
     }
     
+    /**
+     * Report a failed KB search to the channel
+     */
+    private void handleSearchFailure(String channelId, Throwable error) {
+        Throwable cause = unwrapCompletion(error);
+        if (isSearchUnavailable(cause)) {
+            logger.warn("Search request received but Elasticsearch is not available: {}", cause.getMessage());
+        } else {
+            logger.error("Error handling search request", cause);
+        }
+        Message aiMessage = chatService.sendAIMessage(channelId, searchFailureReply(error));
+        if (aiMessage != null) {
+            broadcastMessage(aiMessage);
+        }
+    }
+    
+    /**
+     * User-facing reply for a failed KB search; a missing client or refused connection
+     * means Elasticsearch is not available rather than that the search went wrong
+     */
+    static String searchFailureReply(Throwable error) {
+        Throwable cause = unwrapCompletion(error);
+        if (cause instanceof ElasticsearchService.NotConfiguredException) {
+            return "⚠️ Sorry, the search service is not available. Elasticsearch is not configured.";
+        }
+        if (isSearchUnavailable(cause)) {
+            return "⚠️ Sorry, the search service is not available. Elasticsearch is not connected.";
+        }
+        return "Sorry, I encountered an error while searching. Please try again later.";
+    }
+    
+    private static boolean isSearchUnavailable(Throwable cause) {
+        return cause instanceof ElasticsearchService.NotConfiguredException || cause instanceof java.net.ConnectException;
+    }
+    
+    private static Throwable unwrapCompletion(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof java.util.concurrent.CompletionException
+                || cause instanceof java.util.concurrent.ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+    
+    /**
+     * Check whether a search is about screenshots/images, so OCR keywords are searched too
+     */
+    private boolean isImageQuery(String text) {
+        return text != null && IMAGE_QUERY_PATTERN.matcher(text).find();
+    }
+    
     /**
      * Extract search keywords from the prompt
      * Removes common search words like "search", "find", "look for"
@@ -513,7 +585,7 @@ public class ChatController {
     /**
      * Format search results in markdown
      */
-    private String formatSearchResults(String query, List<SummaryDocument> results) {
+    private String formatSearchResults(String query, List<KBSearchResult> results) {
         StringBuilder sb = new StringBuilder();
         sb.append("🔍 **Search Results for: ").append(query).append("**\n\n");
         sb.append("Found ").append(results.size()).append(" matching ");
@@ -521,30 +593,26 @@ public class ChatController {
         sb.append("---\n\n");
         
         int count = 1;
-        for (SummaryDocument doc : results) {
+        for (KBSearchResult result : results) {
             // Add title with null check
-            String title = doc.getTitle();
+            String title = result.getTitle();
             sb.append("### ").append(count).append(". ").append(title != null ? title : "Untitled").append("\n\n");
             
-            // Add a snippet of the content (first 300 characters) with null check
-            String content = doc.getContent();
-            if (content != null) {
-                if (content.length() > 300) {
-                    content = content.substring(0, 300) + "...";
-                }
-                sb.append(content).append("\n\n");
+            // Add the best-matching passage as the snippet
+            if (result.getHighlights() != null && !result.getHighlights().isEmpty()) {
+                sb.append(result.getHighlights().get(0)).append("...\n\n");
             } else {
                 sb.append("[No content]\n\n");
             }
             
             // Add keywords if available
-            if (doc.getKeywords() != null && !doc.getKeywords().isEmpty()) {
-                sb.append("**Keywords:** ").append(String.join(", ", doc.getKeywords())).append("\n\n");
+            if (result.getKeywords() != null && !result.getKeywords().isEmpty()) {
+                sb.append("**Keywords:** ").append(String.join(", ", result.getKeywords())).append("\n\n");
             }
             
             // Add metadata with null check
-            if (doc.getTimestamp() != null) {
-                sb.append("*Created: ").append(doc.getTimestamp()).append("*\n\n");
+            if (result.getTimestamp() != null) {
+                sb.append("*Created: ").append(result.getTimestamp()).append("*\n\n");
             }
             
             if (count < results.size()) {
@@ -557,51 +625,112 @@ public class ChatController {
     }
     
     /**
-     * Format search results for AI processing (more structured format)
+     * Format search results for AI processing (more structured format).
      */
-    private String formatSearchResultsForAI(String query, List<SummaryDocument> results) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Found ").append(results.size()).append(" matching ");
-        sb.append(results.size() == 1 ? "document" : "documents").append(":\n\n");
-        
-        // Limit content length to prevent exceeding AI model limits (max 5000 chars per document)
-        final int MAX_CONTENT_LENGTH = 5000;
+    private String formatSearchResultsForAI(String query, List<KBSearchResult> results) {
+        return formatSearchResultsForAI(results, AppConfig.getInstance().getSearchPromptMaxTokens());
+    }
+    
+    /**
+     * Assemble search results within a token budget. Documents get their header in rank
+     * order while headers fit (falling back to the title alone), then passages are added
+     * round-robin by rank so lower-ranked documents still get their best passage; a passage
+     * that does not fit is skipped and smaller ones after it are still tried. Every line is
+     * counted, so the result stays within {@code maxTokens}.
+     */
+    static String formatSearchResultsForAI(List<KBSearchResult> results, int maxTokens) {
+        String intro = "Found " + results.size() + " matching "
+            + (results.size() == 1 ? "document" : "documents") + ":\n\n";
+        int budget = maxTokens - TextUtils.estimateTokens(intro);
         
-        int count = 1;
-        for (SummaryDocument doc : results) {
-            sb.append("Document ").append(count).append(":\n");
-            
-            // Add title with null check
-            String title = doc.getTitle();
-            sb.append("Title: ").append(title != null ? title : "Untitled").append("\n");
-            
-            // Truncate content if too long, with null check
-            String content = doc.getContent();
-            if (content != null) {
-                if (content.length() > MAX_CONTENT_LENGTH) {
-                    content = content.substring(0, MAX_CONTENT_LENGTH) + "... [content truncated]";
+        // Headers in rank order until one no longer fits
+        List<String> headers = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            String header = formatSearchHeader(results.get(i), i + 1, true);
+            int cost = TextUtils.estimateTokens(header) + SEARCH_PASSAGES_LINE_TOKENS;
+            if (cost > budget) {
+                header = formatSearchHeader(results.get(i), i + 1, false);
+                cost = TextUtils.estimateTokens(header) + SEARCH_PASSAGES_LINE_TOKENS;
+                if (cost > budget) {
+                    break;
                 }
-                sb.append("Content: ").append(content).append("\n");
+            }
+            headers.add(header);
+            budget -= cost;
+        }
+        String omitted = null;
+        if (headers.size() < results.size()) {
+            omitted = "(" + (results.size() - headers.size()) + " more omitted to fit the prompt)\n";
+            int cost = TextUtils.estimateTokens(omitted);
+            if (cost > budget) {
+                omitted = null;
             } else {
-                sb.append("Content: [No content]\n");
+                budget -= cost;
             }
-            
-            // Add keywords if available
-            if (doc.getKeywords() != null && !doc.getKeywords().isEmpty()) {
-                sb.append("Keywords: ").append(String.join(", ", doc.getKeywords())).append("\n");
+        }
+        
+        List<List<String>> selected = new ArrayList<>();
+        int maxPassages = 0;
+        for (int i = 0; i < headers.size(); i++) {
+            selected.add(new ArrayList<>());
+            List<String> highlights = results.get(i).getHighlights();
+            if (highlights != null) {
+                maxPassages = Math.max(maxPassages, highlights.size());
             }
-            
-            // Add timestamp with null check
-            if (doc.getTimestamp() != null) {
-                sb.append("Created: ").append(doc.getTimestamp()).append("\n");
+        }
+        for (int rank = 0; rank < maxPassages; rank++) {
+            for (int i = 0; i < headers.size(); i++) {
+                List<String> passages = results.get(i).getHighlights();
+                if (passages == null || rank >= passages.size()) {
+                    continue;
+                }
+                String line = "- " + passages.get(rank).replaceAll("\\s+", " ").trim() + "\n";
+                int cost = TextUtils.estimateTokens(line);
+                if (cost > budget) {
+                    continue;
+                }
+                selected.get(i).add(line);
+                budget -= cost;
+            }
+        }
+        
+        StringBuilder sb = new StringBuilder(intro);
+        for (int i = 0; i < headers.size(); i++) {
+            sb.append(headers.get(i));
+            if (selected.get(i).isEmpty()) {
+                sb.append("Passages: [No matching passages]\n");
+            } else {
+                sb.append("Passages:\n");
+                for (String line : selected.get(i)) {
+                    sb.append(line);
+                }
             }
             sb.append("\n");
-            count++;
+        }
+        if (omitted != null) {
+            sb.append(omitted);
         }
         
         return sb.toString();
     }
     
+    private static String formatSearchHeader(KBSearchResult result, int number, boolean full) {
+        StringBuilder header = new StringBuilder();
+        header.append("Document ").append(number).append(":\n");
+        String title = result.getTitle();
+        header.append("Title: ").append(title != null ? title : "Untitled").append("\n");
+        if (full && result.getKeywords() != null && !result.getKeywords().isEmpty()) {
+            List<String> keywords = result.getKeywords();
+            header.append("Keywords: ")
+                .append(String.join(", ", keywords.subList(0, Math.min(keywords.size(), MAX_SEARCH_HEADER_KEYWORDS))))
+                .append("\n");
+        }
+        if (full && result.getTimestamp() != null) {
+            header.append("Created: ").append(result.getTimestamp()).append("\n");
+        }
+        return header.toString();
+    }
+    
     /**
      * Handle function calls from the AI model
      */
@@ -718,8 +847,8 @@ public class ChatController {
             
             logger.info("Executing KB query: {} (maxResults: {})", query, maxResults);
             
-            // Search the KB index
-            List<SummaryDocument> results = elasticsearchService.searchSummaries(query, maxResults);
+            // Search the KB index; only the best-matching passages are returned to the model
+            List<KBSearchResult> results = elasticsearchService.searchSnippets(query, maxResults, isImageQuery(query));
             
             // Format results as JSON
             Map<String, Object> response = new HashMap<>();
@@ -728,13 +857,14 @@ public class ChatController {
             response.put("maxResults", maxResults);
             
             List<Map<String, Object>> formattedResults = new ArrayList<>();
-            for (SummaryDocument doc : results) {
+            for (KBSearchResult result : results) {
                 Map<String, Object> item = new HashMap<>();
-                item.put("id", doc.getId());
-                item.put("title", doc.getTitle());
-                item.put("content", doc.getContent());
-                item.put("keywords", doc.getKeywords());
-                item.put("timestamp", doc.getTimestamp().toString());
+                item.put("id", result.getId());
+                item.put("type", result.getDocType());
+                item.put("title", result.getTitle());
+                item.put("passages", result.getHighlights());
+                item.put("keywords", result.getKeywords());
+                item.put("timestamp", result.getTimestamp() != null ? result.getTimestamp().toString() : null);
                 formattedResults.add(item);
             }
             response.put("results", formattedResults);
@@ -1426,128 +1556,228 @@ public class ChatController {
         }
     }
     
+    /**
+     * Create the durable ingestion queue for clipboard content and resume jobs left over from
+     * a previous run
+     */
+    private IngestionQueue createIngestionQueue() {
+        AppConfig config = AppConfig.getInstance();
+        IngestionQueue queue = new IngestionQueue(
+            java.nio.file.Paths.get(config.getIngestDir()),
+            config.getIngestMaxAttempts(),
+            TimeUnit.SECONDS.toMillis(config.getIngestRetryDelaySeconds()));
+        queue.registerStage(IngestJob.Stage.OCR, config.getIngestConcurrency("ocr", 2), this::runOcrStage)
+            .registerStage(IngestJob.Stage.KEYWORDS, config.getIngestConcurrency("keywords", 2), this::runKeywordStage)
+            .registerStage(IngestJob.Stage.TITLE, config.getIngestConcurrency("title", 1), this::runTitleStage)
+            .registerStage(IngestJob.Stage.INDEX, config.getIngestConcurrency("index", 2), this::runIndexStage);
+        queue.addListener(this::onIngestProgress);
+        try {
+            queue.start();
+        } catch (java.io.IOException e) {
+            logger.error("Failed to open the ingestion journal in {}; clipboard jobs will not survive a restart",
+                config.getIngestDir(), e);
+            queue.startWithoutJournal();
+        }
+        return queue;
+    }
+    
     /**
      * Process clipboard content asynchronously
      * - Perform OCR on images to extract keywords
      * - Generate AI title
      * - Store in Elasticsearch
+     * The job is journaled, so it survives restarts; progress is pushed as ingest_progress events.
      */
     private void processClipboardContent(String channelId, String userId, String messageId, ClipboardData clipboardData) {
-        aiExecutor.submit(() -> {
-            try {
-                logger.info("Processing clipboard content for message: {}", messageId);
-                
-                // Extract OCR keywords from images
-                List<ClipboardContentDocument.ImageMetadata> imageMetadataList = new ArrayList<>();
-                List<String> allKeywords = new ArrayList<>();
-                
-                if (clipboardData.getImages() != null) {
-                    logger.info("Processing {} images for OCR", clipboardData.getImages().size());
-                    for (ClipboardData.ClipboardImage img : clipboardData.getImages()) {
-                        if (ocrService.isAvailable()) {
-                            String imagePath = WORK_IMAGES_DIR + "/" + img.getPath();
-                            java.io.File imageFile = new java.io.File(imagePath);
-                            
-                            if (imageFile.exists()) {
-                                List<String> keywords = ocrService.extractKeywords(imageFile);
-                                img.setKeywords(keywords);
-                                allKeywords.addAll(keywords);
-                                
-                                ClipboardContentDocument.ImageMetadata metadata = 
-                                    new ClipboardContentDocument.ImageMetadata(img.getPath(), keywords);
-                                imageMetadataList.add(metadata);
-                                
-                                logger.info("Extracted {} keywords from image {}: {}", keywords.size(), img.getPath(), keywords);
-                            } else {
-                                logger.warn("Image file not found: {}", imagePath);
-                            }
-                        } else {
-                            logger.warn("OCR service not available for image: {}", img.getPath());
-                        }
-                    }
-                    logger.info("Created {} image metadata entries for Elasticsearch", imageMetadataList.size());
-                }
-                
-                // Extract keywords from text if available
-                if (clipboardData.getText() != null && !clipboardData.getText().isEmpty()) {
-                    // Split by punctuation and whitespace while preserving Unicode characters (including Chinese)
-                    String[] words = clipboardData.getText()
-                        .replaceAll(TextUtils.PUNCTUATION_PATTERN, " ")
-                        .trim()
-                        .split("\\s+");
+        logger.info("Queueing clipboard content for message: {}", messageId);
+        ingestionQueue.submit(new IngestJob(UUID.randomUUID().toString(), channelId, userId, messageId, clipboardData));
+    }
+    
+    /**
+     * OCR stage: extract keywords from every pasted image
+     * A failed image fails the stage, so the ingestion queue retries it.
+     */
+    private void runOcrStage(IngestJob job) throws Exception {
+        ClipboardData clipboardData = job.getClipboardData();
+        List<ClipboardContentDocument.ImageMetadata> imageMetadataList = new ArrayList<>();
+        
+        if (clipboardData.getImages() != null && !clipboardData.getImages().isEmpty()) {
+            logger.info("Processing {} images for OCR", clipboardData.getImages().size());
+            
+            // Start OCR for all images at once; the OCR pool bounds the parallelism
+            List<ClipboardData.ClipboardImage> ocrImages = new ArrayList<>();
+            List<java.io.File> ocrFiles = new ArrayList<>();
+            for (ClipboardData.ClipboardImage img : clipboardData.getImages()) {
+                if (ocrService.isAvailable()) {
+                    String imagePath = WORK_IMAGES_DIR + "/" + img.getPath();
+                    java.io.File imageFile = new java.io.File(imagePath);
                     
-                    for (String word : words) {
-                        if (word.isEmpty()) continue;
-                        
-                        // For Chinese/CJK characters: keep words with at least 2 characters
-                        // For English/Latin: keep words longer than MIN_KEYWORD_LENGTH
-                        boolean hasCJK = TextUtils.containsCJKCharacters(word);
-                        
-                        if (hasCJK && word.length() >= 2) {
-                            allKeywords.add(word);
-                        } else if (!hasCJK && word.length() > MIN_KEYWORD_LENGTH) {
-                            allKeywords.add(word.toLowerCase());
-                        }
+                    if (imageFile.exists()) {
+                        ocrImages.add(img);
+                        ocrFiles.add(imageFile);
+                    } else {
+                        logger.warn("Image file not found: {}", imagePath);
                     }
+                } else {
+                    logger.warn("OCR service not available for image: {}", img.getPath());
                 }
+            }
+            
+            // Results come back in paste order so keywords and metadata stay stable
+            List<OCRResultCache.Entry> results = ocrService.recognizeAll(ocrFiles);
+            for (int i = 0; i < ocrImages.size(); i++) {
+                ClipboardData.ClipboardImage img = ocrImages.get(i);
+                OCRResultCache.Entry result = results.get(i);
+                List<String> keywords = new ArrayList<>(result.getKeywords());
+                img.setKeywords(keywords);
                 
-                // Generate AI title
-                String title = generateClipboardTitle(clipboardData, allKeywords);
+                ClipboardContentDocument.ImageMetadata metadata = new ClipboardContentDocument.ImageMetadata(img.getPath(), keywords);
+                metadata.setOcrSkipped(result.isOcrSkipped());
+                metadata.setTextLikelihood(result.getTextLikelihood());
+                imageMetadataList.add(metadata);
+                if (result.isOcrSkipped()) {
+                    logger.info("Skipped OCR for image {}, no text detected", img.getPath());
+                } else {
+                    logger.info("Extracted {} keywords from image {}: {}", keywords.size(), img.getPath(), keywords);
+                }
+            }
+            logger.info("Created {} image metadata entries for Elasticsearch", imageMetadataList.size());
+        }
+        job.setImageMetadata(imageMetadataList);
+    }
+    
+    /**
+     * Keyword stage: combine OCR keywords with keywords from the pasted text
+     */
+    private void runKeywordStage(IngestJob job) {
+        List<String> allKeywords = new ArrayList<>();
+        for (ClipboardContentDocument.ImageMetadata metadata : job.getImageMetadata()) {
+            allKeywords.addAll(metadata.getKeywords());
+        }
+        
+        String text = job.getClipboardData().getText();
+        if (text != null && !text.isEmpty()) {
+            // Split by punctuation and whitespace while preserving Unicode characters (including Chinese)
+            String[] words = text
+                .replaceAll(TextUtils.PUNCTUATION_PATTERN, " ")
+                .trim()
+                .split("\\s+");
+            
+            for (String word : words) {
+                if (word.isEmpty()) continue;
                 
-                // Create document for Elasticsearch
-                ClipboardContentDocument document = new ClipboardContentDocument(
-                    UUID.randomUUID().toString(),
-                    title,
-                    clipboardData.getText(),
-                    imageMetadataList,
-                    allKeywords,
-                    channelId,
-                    userId
-                );
+                // For Chinese/CJK characters: keep words with at least 2 characters
+                // For English/Latin: keep words longer than MIN_KEYWORD_LENGTH
+                boolean hasCJK = TextUtils.containsCJKCharacters(word);
                 
-                // Store in Elasticsearch if available
-                if (elasticsearchService.isAvailable()) {
-                    try {
-                        elasticsearchService.indexClipboardContent(document);
-                        
-                        // Send confirmation message
-                        String confirmMsg = "✅ Clipboard content processed and stored!\n\n" +
-                            "**Title:** " + title + "\n" +
-                            "**Text:** " + (clipboardData.getText() != null && !clipboardData.getText().isEmpty() ? "Yes" : "No") + "\n" +
-                            "**Images:** " + (clipboardData.getImages() != null ? clipboardData.getImages().size() : 0) + "\n" +
-                            "**Keywords:** " + allKeywords.size();
-                        
-                        Message aiMessage = chatService.sendAIMessage(channelId, confirmMsg);
-                        if (aiMessage != null) {
-                            broadcastMessage(aiMessage);
-                        }
-                        
-                        logger.info("Clipboard content indexed: {}", document.getId());
-                    } catch (Exception e) {
-                        logger.error("Failed to index clipboard content", e);
-                        Message errorMsg = chatService.sendAIMessage(channelId, 
-                            "⚠️ Clipboard content processed but failed to store in Elasticsearch.");
-                        if (errorMsg != null) {
-                            broadcastMessage(errorMsg);
-                        }
-                    }
-                } else {
-                    logger.warn("Elasticsearch not available for clipboard content");
-                    Message warningMsg = chatService.sendAIMessage(channelId, 
-                        "⚠️ Clipboard content processed but Elasticsearch is not available for storage.");
-                    if (warningMsg != null) {
-                        broadcastMessage(warningMsg);
-                    }
+                if (hasCJK && word.length() >= 2) {
+                    allKeywords.add(word);
+                } else if (!hasCJK && word.length() > MIN_KEYWORD_LENGTH) {
+                    allKeywords.add(word.toLowerCase());
                 }
-            } catch (Exception e) {
-                logger.error("Error processing clipboard content", e);
-                Message errorMsg = chatService.sendAIMessage(channelId, 
-                    "❌ Error processing clipboard content: " + e.getMessage());
-                if (errorMsg != null) {
-                    broadcastMessage(errorMsg);
+            }
+        }
+        job.setKeywords(allKeywords);
+    }
+    
+    /**
+     * Title stage: generate an AI title (falls back to a default title on error)
+     */
+    private void runTitleStage(IngestJob job) {
+        job.setTitle(generateClipboardTitle(job.getClipboardData(), job.getKeywords()));
+    }
+    
+    /**
+     * Index stage: store the document in Elasticsearch
+     * The job id doubles as the document id, so a retried or resumed job overwrites instead of duplicating.
+     */
+    private void runIndexStage(IngestJob job) throws Exception {
+        if (!elasticsearchService.isAvailable()) {
+            throw new IllegalStateException("Elasticsearch is not available");
+        }
+        ClipboardContentDocument document = new ClipboardContentDocument(
+            job.getId(),
+            job.getTitle(),
+            job.getClipboardData().getText(),
+            job.getImageMetadata(),
+            job.getKeywords(),
+            job.getChannelId(),
+            job.getUserId()
+        );
+        elasticsearchService.indexClipboardContent(document);
+        logger.info("Clipboard content indexed: {}", document.getId());
+    }
+    
+    /**
+     * Push ingestion progress to clients and post the final result to the channel
+     */
+    private void onIngestProgress(IngestJob job) {
+        broadcastIngestProgress(job);
+        
+        if (job.getStage() == IngestJob.Stage.DONE) {
+            ClipboardData clipboardData = job.getClipboardData();
+            String confirmMsg = "✅ Clipboard content processed and stored!\n\n" +
+                "**Title:** " + job.getTitle() + "\n" +
+                "**Text:** " + (clipboardData.getText() != null && !clipboardData.getText().isEmpty() ? "Yes" : "No") + "\n" +
+                "**Images:** " + (clipboardData.getImages() != null ? clipboardData.getImages().size() : 0) + "\n" +
+                "**Keywords:** " + job.getKeywords().size();
+            Message aiMessage = chatService.sendAIMessage(job.getChannelId(), confirmMsg);
+            if (aiMessage != null) {
+                broadcastMessage(aiMessage);
+            }
+        } else if (job.getStage() == IngestJob.Stage.FAILED) {
+            String errorText = job.getFailedStage() == IngestJob.Stage.INDEX
+                ? "⚠️ Clipboard content processed but failed to store in Elasticsearch: " + job.getLastError()
+                : "❌ Error processing clipboard content: " + job.getLastError();
+            Message errorMsg = chatService.sendAIMessage(job.getChannelId(), errorText);
+            if (errorMsg != null) {
+                broadcastMessage(errorMsg);
+            }
+        }
+    }
+    
+    /**
+     * Broadcast an ingest_progress event for a clipboard ingestion job
+     */
+    private void broadcastIngestProgress(IngestJob job) {
+        try {
+            Map<String, Object> progress = new HashMap<>();
+            progress.put("jobId", job.getId());
+            progress.put("messageId", job.getMessageId());
+            progress.put("channelId", job.getChannelId());
+            progress.put("stage", job.getStage().name());
+            progress.put("stageIndex", job.getStage().isTerminal() ? INGEST_STAGE_COUNT : job.getStage().ordinal());
+            progress.put("stageCount", INGEST_STAGE_COUNT);
+            progress.put("attempts", job.getAttempts());
+            progress.put("error", job.getLastError());
+            
+            Map<String, Object> wsMessage = new HashMap<>();
+            wsMessage.put("type", "ingest_progress");
+            wsMessage.put("job", progress);
+            String jsonMessage = objectMapper.writeValueAsString(wsMessage);
+            
+            for (java.util.Set<WsConnectContext> sessions : userSessions.values()) {
+                for (WsConnectContext session : sessions) {
+                    aiExecutor.submit(() -> {
+                        try {
+                            session.send(jsonMessage);
+                        } catch (Exception e) {
+                            logger.info("Failed to send ingest progress, removing session: {}", e.getMessage());
+                            try { sessions.remove(session); } catch (Exception ignore) {}
+                        }
+                    });
                 }
             }
-        });
+        } catch (Exception e) {
+            logger.error("Error broadcasting ingest progress", e);
+        }
+    }
+    
+    /**
+     * Get ingestion queue statistics
+     */
+    public void getIngestStatus(Context ctx) {
+        ctx.json(ApiResponse.success(ingestionQueue.getStatus()));
     }
     
     /**
@@ -6,6 +6,7 @@ import io.javalin.http.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -13,6 +14,8 @@ import java.util.Map;
  */
 public class ElasticsearchController {
     private static final Logger logger = LoggerFactory.getLogger(ElasticsearchController.class);
+    private static final int DEFAULT_SUGGEST_SIZE = 5;
+    private static final int MAX_SUGGEST_SIZE = 20;
     private final ElasticsearchService elasticsearchService;
 
     public ElasticsearchController(ElasticsearchService elasticsearchService) {
@@ -32,4 +35,28 @@ public class ElasticsearchController {
             ctx.json(ApiResponse.error("Failed to get Elasticsearch status: " + e.getMessage()));
         }
     }
+
+    /**
+     * GET /api/kb/suggest?prefix=...&size=...
+     * Suggest KB titles and keywords starting with the typed prefix
+     */
+    public void suggest(Context ctx) {
+        try {
+            String prefix = ctx.queryParam("prefix");
+            int size = DEFAULT_SUGGEST_SIZE;
+            String sizeStr = ctx.queryParam("size");
+            if (sizeStr != null) {
+                try {
+                    size = Math.max(1, Math.min(MAX_SUGGEST_SIZE, Integer.parseInt(sizeStr)));
+                } catch (NumberFormatException e) {
+                    // keep default size
+                }
+            }
+            List<Map<String, Object>> suggestions = elasticsearchService.suggest(prefix, size);
+            ctx.json(ApiResponse.success(suggestions));
+        } catch (Exception e) {
+            logger.error("Error getting KB suggestions", e);
+            ctx.json(ApiResponse.error("Failed to get KB suggestions: " + e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,329 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.OtsuBinarizer;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Chooses the binarization algorithm and window size for an image, so callers do not have
+ * to pick between the presets by hand. Used by {@link BinarizeConfig.Algorithm#AUTO}.
+ *
+ * Works on a few hundred evenly spaced rows of the image, kept at full width so stroke
+ * widths are not blurred away, and computes three cheap statistics:
+ * <ul>
+ *   <li>bimodality: Otsu's between-class variance as a fraction of the total variance;
+ *       near 1 for text on a flat background, low for noise and faint text</li>
+ *   <li>illumination: spread of the background level across a grid of cells, relative to
+ *       the ink contrast; a percentile rather than the cell mean, so dense text does not
+ *       read as shadow</li>
+ *   <li>stroke width: the most common length of ink runs along the rows</li>
+ * </ul>
+ * Then the cheapest algorithm that is good enough wins: OTSU for evenly lit bimodal images
+ * (most screenshots), ADAPTIVE_MEAN for uneven lighting with clear contrast, and SAUVOLA
+ * only for low contrast or noisy images. Local windows are sized from the stroke width,
+ * and adaptive mean's C from the contrast.
+ */
+public class BinarizationTuner {
+
+    // Rows sampled from the image
+    private static final int SAMPLE_ROWS = 256;
+    // Grid cells along the longer side for the illumination statistic
+    private static final int GRID_CELLS = 8;
+    // Percentile of a cell's gray levels taken as its background (from the paper side)
+    private static final double BACKGROUND_PERCENTILE = 0.9;
+    // Runs longer than this are not strokes (rules, filled boxes, blobs)
+    private static final int MAX_STROKE = 64;
+    // Local window in stroke widths: about two character heights
+    private static final int STROKES_PER_BLOCK = 10;
+    private static final int MIN_BLOCK_SIZE = 11;
+    private static final int MAX_BLOCK_SIZE = 101;
+    // Adaptive mean's C as a fraction of the contrast
+    private static final double ADAPTIVE_C_FRACTION = 0.25;
+
+    private double minBimodality = 0.75;
+    private double maxIllumination = 0.12;
+    private int minContrast = 60;
+
+    /**
+     * Statistics and chosen configuration for one image
+     */
+    public static class Result {
+        private final BinarizeConfig config;
+        private final double bimodality;
+        private final double illumination;
+        private final int contrast;
+        private final int strokeWidth;
+
+        Result(BinarizeConfig config, double bimodality, double illumination, int contrast, int strokeWidth) {
+            this.config = config;
+            this.bimodality = bimodality;
+            this.illumination = illumination;
+            this.contrast = contrast;
+            this.strokeWidth = strokeWidth;
+        }
+
+        /** The configuration to binarize with; never AUTO */
+        public BinarizeConfig getConfig() {
+            return config;
+        }
+
+        /** Otsu's between-class variance over the total variance, between 0 and 1 */
+        public double getBimodality() {
+            return bimodality;
+        }
+
+        /** Standard deviation of the cell background levels over the ink contrast */
+        public double getIllumination() {
+            return illumination;
+        }
+
+        /** Difference of the two Otsu class means (gray levels) */
+        public int getContrast() {
+            return contrast;
+        }
+
+        /** Most common ink run length in pixels, 0 if no ink was found */
+        public int getStrokeWidth() {
+            return strokeWidth;
+        }
+
+        @Override
+        public String toString() {
+            String choice = config.getAlgorithm().toString();
+            if (isLocal(config.getAlgorithm())) {
+                choice += " block " + config.getBlockSize();
+            }
+            return String.format("%s (bimodality=%.2f, illumination=%.2f, contrast=%d, strokeWidth=%d)",
+                choice, bimodality, illumination, contrast, strokeWidth);
+        }
+    }
+
+    public double getMinBimodality() {
+        return minBimodality;
+    }
+
+    /**
+     * Bimodality below which a global threshold is considered unreliable.
+     */
+    public BinarizationTuner setMinBimodality(double minBimodality) {
+        this.minBimodality = minBimodality;
+        return this;
+    }
+
+    public double getMaxIllumination() {
+        return maxIllumination;
+    }
+
+    /**
+     * Background spread (relative to the contrast) above which lighting counts as uneven.
+     */
+    public BinarizationTuner setMaxIllumination(double maxIllumination) {
+        this.maxIllumination = maxIllumination;
+        return this;
+    }
+
+    public int getMinContrast() {
+        return minContrast;
+    }
+
+    /**
+     * Contrast (gray levels) below which unevenly lit images get Sauvola rather than adaptive mean.
+     */
+    public BinarizationTuner setMinContrast(int minContrast) {
+        this.minContrast = minContrast;
+        return this;
+    }
+
+    /**
+     * Choose a configuration for an image.
+     *
+     * @param image the input image
+     * @param base blur, morphology, k and OpenCV settings to keep; its algorithm and block
+     *        size are replaced, and its C raised for adaptive mean
+     * @return statistics and the tuned configuration
+     */
+    public Result tune(BufferedImage image, BinarizeConfig base) {
+        return tuneSample(sampleRows(image, SAMPLE_ROWS), image.getHeight(), base);
+    }
+
+    /**
+     * Tune from the rows {@link #sampleRows} takes from an image {@code height} rows tall.
+     *
+     * @param sample grayscale rows at the image's full width
+     */
+    Result tuneSample(BufferedImage sample, int height, BinarizeConfig base) {
+        int width = sample.getWidth();
+        int rows = sample.getHeight();
+        byte[] pixels = ImageUtils.getPixels(sample);
+
+        int[] histogram = new int[256];
+        PixelKernels.get().histogram(pixels, histogram);
+        int threshold = OtsuBinarizer.calculateOtsuThreshold(histogram, pixels.length);
+
+        // Class sizes and means either side of Otsu's level (it is the top of the dark class)
+        long dark = 0;
+        double darkSum = 0;
+        double total = 0;
+        double squares = 0;
+        for (int level = 0; level < 256; level++) {
+            if (level <= threshold) {
+                dark += histogram[level];
+                darkSum += (double) level * histogram[level];
+            }
+            total += (double) level * histogram[level];
+            squares += (double) level * level * histogram[level];
+        }
+        long light = pixels.length - dark;
+        double mean = total / pixels.length;
+        double variance = squares / pixels.length - mean * mean;
+        double darkMean = dark == 0 ? 0 : darkSum / dark;
+        double lightMean = light == 0 ? 255 : (total - darkSum) / light;
+        double between = (double) dark * light / ((double) pixels.length * pixels.length)
+            * (lightMean - darkMean) * (lightMean - darkMean);
+        double bimodality = variance > 0 ? between / variance : 0;
+        int contrast = (int) Math.round(lightMean - darkMean);
+
+        // Ink is the minority class
+        boolean inkIsDark = dark <= light;
+        double illumination = contrast > 0 ? backgroundSpread(pixels, width, rows, height, inkIsDark) / contrast : 0;
+        int strokeWidth = strokeWidth(pixels, width, rows, threshold, inkIsDark);
+
+        BinarizeConfig.Algorithm algorithm;
+        if (illumination <= maxIllumination && bimodality >= minBimodality) {
+            algorithm = BinarizeConfig.Algorithm.OTSU;
+        } else if (contrast >= minContrast && bimodality >= minBimodality / 2) {
+            algorithm = BinarizeConfig.Algorithm.ADAPTIVE_MEAN;
+        } else {
+            algorithm = BinarizeConfig.Algorithm.SAUVOLA;
+        }
+
+        BinarizeConfig config = base.copy().setAlgorithm(algorithm);
+        if (isLocal(algorithm) && strokeWidth > 0) {
+            config.setBlockSize(blockSize(strokeWidth));
+        }
+        if (algorithm == BinarizeConfig.Algorithm.ADAPTIVE_MEAN) {
+            // A small C marks paper grain and sensor noise as ink wherever the window is flat
+            config.setC(Math.max(base.getC(), contrast * ADAPTIVE_C_FRACTION));
+        }
+        return new Result(config, bimodality, illumination, contrast, strokeWidth);
+    }
+
+    /**
+     * Gray copy of every {@link #samplePeriod}-th row at full width, starting with the first.
+     */
+    static BufferedImage sampleRows(BufferedImage image, int count) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int period = samplePeriod(height, count);
+        if (period == 1) {
+            return ImageUtils.toGrayscale(image);
+        }
+        int rows = (height + period - 1) / period;
+        GrayImage sample = new GrayImage(width, rows);
+        GrayImage row = new GrayImage(width, 1);
+        for (int i = 0; i < rows; i++) {
+            row.copyFrom(image.getSubimage(0, i * period, width, 1));
+            System.arraycopy(row.getPixels(), 0, sample.getPixels(), i * width, width);
+        }
+        return sample.toBufferedImage();
+    }
+
+    /**
+     * Row period that samples at most {@code count} rows of an image {@code height} rows tall;
+     * callers reading the rows themselves (with ImageIO subsampling) use it with the default count.
+     */
+    static int samplePeriod(int height, int count) {
+        return Math.max(1, (height + count - 1) / count);
+    }
+
+    static int samplePeriod(int height) {
+        return samplePeriod(height, SAMPLE_ROWS);
+    }
+
+    /**
+     * Window size for local thresholding: about two character heights, odd.
+     */
+    static int blockSize(int strokeWidth) {
+        int size = Math.max(MIN_BLOCK_SIZE, Math.min(MAX_BLOCK_SIZE, strokeWidth * STROKES_PER_BLOCK));
+        return size | 1;
+    }
+
+    static boolean isLocal(BinarizeConfig.Algorithm algorithm) {
+        return algorithm == BinarizeConfig.Algorithm.ADAPTIVE_MEAN || algorithm == BinarizeConfig.Algorithm.ADAPTIVE_GAUSSIAN
+            || algorithm == BinarizeConfig.Algorithm.SAUVOLA || algorithm == BinarizeConfig.Algorithm.NIBLACK;
+    }
+
+    /**
+     * Standard deviation of the background level over a grid of roughly square cells.
+     */
+    private static double backgroundSpread(byte[] pixels, int width, int rows, int height, boolean inkIsDark) {
+        int cellSize = Math.max(1, (Math.max(width, height) + GRID_CELLS - 1) / GRID_CELLS);
+        int columns = (width + cellSize - 1) / cellSize;
+        int cellRows = (height + cellSize - 1) / cellSize;
+        int[][] histograms = new int[columns * cellRows][256];
+
+        for (int i = 0; i < rows; i++) {
+            // Original row of this sample row
+            int cellRow = (int) ((long) i * height / rows) / cellSize;
+            int row = i * width;
+            for (int x = 0; x < width; x++) {
+                histograms[cellRow * columns + x / cellSize][pixels[row + x] & 0xFF]++;
+            }
+        }
+
+        double sum = 0;
+        double squares = 0;
+        int cells = 0;
+        for (int[] histogram : histograms) {
+            int count = 0;
+            for (int value : histogram) {
+                count += value;
+            }
+            if (count == 0) {
+                continue;
+            }
+            // The paper side: bright end for dark ink, dark end for light ink
+            int rank = (int) (count * (inkIsDark ? BACKGROUND_PERCENTILE : 1 - BACKGROUND_PERCENTILE));
+            int level = 0;
+            int seen = histogram[0];
+            while (seen <= rank && level < 255) {
+                level++;
+                seen += histogram[level];
+            }
+            sum += level;
+            squares += (double) level * level;
+            cells++;
+        }
+        double mean = sum / cells;
+        return Math.sqrt(Math.max(0, squares / cells - mean * mean));
+    }
+
+    /**
+     * Most common length of ink runs along the rows, ignoring runs longer than a stroke.
+     */
+    private static int strokeWidth(byte[] pixels, int width, int rows, int threshold, boolean inkIsDark) {
+        int[] runs = new int[MAX_STROKE + 1];
+        for (int y = 0; y < rows; y++) {
+            int row = y * width;
+            int run = 0;
+            for (int x = 0; x <= width; x++) {
+                boolean ink = x < width && (((pixels[row + x] & 0xFF) <= threshold) == inkIsDark);
+                if (ink) {
+                    run++;
+                } else if (run > 0) {
+                    if (run <= MAX_STROKE) {
+                        runs[run]++;
+                    }
+                    run = 0;
+                }
+            }
+        }
+        int mode = 0;
+        for (int length = 1; length <= MAX_STROKE; length++) {
+            if (runs[length] > runs[mode]) {
+                mode = length;
+            }
+        }
+        return mode;
+    }
+}
@@ -18,14 +18,21 @@ public class BinarizeConfig {
         ADAPTIVE_MEAN,
         /** Adaptive Gaussian thresholding */
         ADAPTIVE_GAUSSIAN,
+        /** Sauvola local thresholding from window mean and standard deviation */
+        SAUVOLA,
+        /** Niblack local thresholding from window mean and standard deviation */
+        NIBLACK,
         /** OpenCV-backed implementation (requires OpenCV dependency) */
-        OPENCV
+        OPENCV,
+        /** Chosen per image from cheap image statistics (see {@link BinarizationTuner}) */
+        AUTO
     }
     
     private Algorithm algorithm = Algorithm.OTSU;
     private int threshold = 128; // For GLOBAL algorithm
     private int blockSize = 11; // Window size for adaptive methods (must be odd)
-    private double C = 2.0; // Constant subtracted from mean/weighted mean
+    private double C = 2.0; // Constant subtracted from mean/weighted mean (also used by NIBLACK)
+    private Double k = null; // Standard deviation weight for SAUVOLA/NIBLACK; null uses the algorithm default
     private int blurKernelSize = 0; // 0 means no blur, else must be odd
     private boolean useMedianBlur = false; // If true, use median blur; else Gaussian
     private boolean useMorphologicalOpening = false;
@@ -75,6 +82,22 @@ public class BinarizeConfig {
         return this;
     }
     
+    /**
+     * Weight of the local standard deviation for SAUVOLA and NIBLACK.
+     * Defaults to 0.34 for Sauvola and -0.2 for Niblack unless set explicitly.
+     */
+    public double getK() {
+        if (k != null) {
+            return k;
+        }
+        return algorithm == Algorithm.NIBLACK ? -0.2 : 0.34;
+    }
+    
+    public BinarizeConfig setK(double k) {
+        this.k = k;
+        return this;
+    }
+    
     public int getBlurKernelSize() {
         return blurKernelSize;
     }
@@ -138,6 +161,25 @@ public class BinarizeConfig {
         return this;
     }
     
+    /**
+     * A copy of this configuration, which can be changed without affecting this one.
+     */
+    public BinarizeConfig copy() {
+        BinarizeConfig copy = new BinarizeConfig();
+        copy.algorithm = algorithm;
+        copy.threshold = threshold;
+        copy.blockSize = blockSize;
+        copy.C = C;
+        copy.k = k;
+        copy.blurKernelSize = blurKernelSize;
+        copy.useMedianBlur = useMedianBlur;
+        copy.useMorphologicalOpening = useMorphologicalOpening;
+        copy.useMorphologicalClosing = useMorphologicalClosing;
+        copy.morphKernelSize = morphKernelSize;
+        copy.useOpenCV = useOpenCV;
+        return copy;
+    }
+    
     /**
      * Create a default configuration for OCR preprocessing.
      * Uses Otsu's method with light Gaussian blur.
@@ -160,4 +202,12 @@ public class BinarizeConfig {
                 .setC(2.0)
                 .setBlurKernelSize(3);
     }
+    
+    /**
+     * Create a configuration that chooses the algorithm and window size per image.
+     * Keeps the light Gaussian blur of {@link #forOCR()}.
+     */
+    public static BinarizeConfig forAuto() {
+        return forOCR().setAlgorithm(Algorithm.AUTO);
+    }
 }
@@ -0,0 +1,42 @@
+package com.workassistant.image;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The optional steps shared by every binarizer: blur before thresholding and
+ * morphology after it, both as configured in {@link BinarizeConfig}. The rows of
+ * context they need in banded processing are given by {@link TileExecutor#blurHalo}
+ * and {@link TileExecutor#morphologyHalo}.
+ */
+public final class BinarizeSteps {
+
+    private BinarizeSteps() {
+    }
+
+    /**
+     * Start a pipeline on the image with the configured blur, if any.
+     */
+    public static GrayPipeline blur(BufferedImage gray, BinarizeConfig config) {
+        GrayPipeline pipeline = new GrayPipeline(gray);
+        if (config.getBlurKernelSize() > 0) {
+            if (config.isUseMedianBlur()) {
+                return pipeline.medianBlur(config.getBlurKernelSize());
+            }
+            return pipeline.gaussianBlur(config.getBlurKernelSize());
+        }
+        return pipeline;
+    }
+
+    /**
+     * Apply the configured morphological operations, if any.
+     */
+    public static BufferedImage morphology(BufferedImage binary, BinarizeConfig config) {
+        if (config.isUseMorphologicalOpening()) {
+            binary = ImageUtils.open(binary, config.getMorphKernelSize());
+        }
+        if (config.isUseMorphologicalClosing()) {
+            binary = ImageUtils.close(binary, config.getMorphKernelSize());
+        }
+        return binary;
+    }
+}
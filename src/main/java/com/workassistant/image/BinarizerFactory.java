@@ -1,34 +1,62 @@
 package com.workassistant.image;
 
 import com.workassistant.image.impl.AdaptiveMeanBinarizer;
+import com.workassistant.image.impl.AutoBinarizer;
 import com.workassistant.image.impl.GlobalBinarizer;
+import com.workassistant.image.impl.NiblackBinarizer;
 import com.workassistant.image.impl.OtsuBinarizer;
+import com.workassistant.image.impl.SauvolaBinarizer;
 
 /**
  * Factory for creating binarizer instances based on configuration.
  */
 public class BinarizerFactory {
     
+    private static final String OPENCV_BINARIZER = "com.workassistant.image.impl.OpenCVBinarizer";
+    private static final String OPENCV_UNAVAILABLE = "OpenCV binarizer requested but not available. " +
+        "Build with the opencv Maven profile (mvn -Popencv) to include it.";
+    
+    // null until the first check; OpenCV availability does not change at runtime
+    private static volatile Boolean openCVAvailable;
+    
     /**
      * Create a binarizer based on the configuration algorithm.
+     * With {@code useOpenCV} this is the OpenCV binarizer, which itself hands small images
+     * and algorithms it does not implement to the Java binarizers. AUTO is resolved per image
+     * first, and the binarizer it picks honours {@code useOpenCV}.
      * 
      * @param config the binarization configuration
      * @return appropriate binarizer instance
-     * @throws IllegalArgumentException if algorithm is not supported
+     * @throws IllegalArgumentException if algorithm is not supported, or OpenCV was
+     *         requested but is not available
      */
     public static Binarizer createBinarizer(BinarizeConfig config) {
+        if (config.getAlgorithm() == BinarizeConfig.Algorithm.AUTO) {
+            // Fail here like the other algorithms, not on the first image
+            if (config.isUseOpenCV() && !isOpenCVAvailable()) {
+                throw new IllegalArgumentException(OPENCV_UNAVAILABLE);
+            }
+            return new AutoBinarizer();
+        }
         if (config.isUseOpenCV()) {
             try {
                 // Try to load OpenCV binarizer if requested
-                Class<?> clazz = Class.forName("com.workassistant.image.impl.OpenCVBinarizer");
+                Class<?> clazz = Class.forName(OPENCV_BINARIZER);
                 return (Binarizer) clazz.getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                throw new IllegalArgumentException(
-                    "OpenCV binarizer requested but not available. " +
-                    "Please add OpenCV dependency to your project.", e);
+            } catch (Exception | LinkageError e) {
+                throw new IllegalArgumentException(OPENCV_UNAVAILABLE, e);
             }
         }
         
+        return createJavaBinarizer(config);
+    }
+    
+    /**
+     * Create the pure Java binarizer for the configured algorithm, ignoring {@code useOpenCV}.
+     * 
+     * @throws IllegalArgumentException if algorithm is not supported
+     */
+    public static Binarizer createJavaBinarizer(BinarizeConfig config) {
         switch (config.getAlgorithm()) {
             case GLOBAL:
                 return new GlobalBinarizer();
@@ -38,6 +66,12 @@ public class BinarizerFactory {
             case ADAPTIVE_GAUSSIAN:
                 // Use adaptive mean for both (Gaussian would require different kernel)
                 return new AdaptiveMeanBinarizer();
+            case SAUVOLA:
+                return new SauvolaBinarizer();
+            case NIBLACK:
+                return new NiblackBinarizer();
+            case AUTO:
+                return new AutoBinarizer();
             case OPENCV:
                 throw new IllegalArgumentException(
                     "OpenCV algorithm selected but useOpenCV flag is false. " +
@@ -47,6 +81,24 @@ public class BinarizerFactory {
         }
     }
     
+    /**
+     * Whether {@code useOpenCV} can be honoured: the OpenCV binarizer is on the classpath
+     * and its native libraries load on this platform.
+     */
+    public static boolean isOpenCVAvailable() {
+        Boolean available = openCVAvailable;
+        if (available == null) {
+            try {
+                createBinarizer(new BinarizeConfig().setUseOpenCV(true));
+                available = true;
+            } catch (IllegalArgumentException e) {
+                available = false;
+            }
+            openCVAvailable = available;
+        }
+        return available;
+    }
+    
     /**
      * Create a binarizer with default configuration.
      */
@@ -0,0 +1,141 @@
+package com.workassistant.image;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * An 8-bit grayscale image as a plain row-major {@code byte[]}, one byte per pixel.
+ *
+ * Filters read and write the array directly, so a buffer can be reused from stage to
+ * stage (see {@link GrayPipeline}) instead of allocating a new {@link BufferedImage}
+ * each time. {@link #toBufferedImage()} is a view over the same array.
+ */
+public final class GrayImage {
+
+    private final int width;
+    private final int height;
+    private final byte[] pixels;
+
+    public GrayImage(int width, int height) {
+        this(width, height, new byte[width * height]);
+    }
+
+    /**
+     * Wrap existing pixels; the array is used as is, not copied.
+     */
+    public GrayImage(int width, int height, byte[] pixels) {
+        if (pixels.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " pixels, got " + pixels.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    /**
+     * Convert any image to a new gray buffer.
+     */
+    public static GrayImage of(BufferedImage image) {
+        return new GrayImage(image.getWidth(), image.getHeight()).copyFrom(image);
+    }
+
+    /**
+     * Share the pixels of a TYPE_BYTE_GRAY image that owns its whole buffer; any other
+     * image is converted into a new buffer.
+     */
+    public static GrayImage wrap(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY && ImageUtils.isUnshared(image)) {
+            byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            if (data.length == image.getWidth() * image.getHeight()) {
+                return new GrayImage(image.getWidth(), image.getHeight(), data);
+            }
+        }
+        return of(image);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * The backing array; writes show through in every view of this image.
+     */
+    public byte[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Overwrite this buffer with the gray levels of an image of the same size.
+     *
+     * TYPE_INT_RGB, TYPE_3BYTE_BGR and opaque TYPE_INT_ARGB / TYPE_4BYTE_ABGR data
+     * buffers are converted directly by {@link PixelKernels}, bit-identical to Java2D;
+     * other images (translucent, indexed, sub-image views) are drawn through Java2D.
+     *
+     * @return this buffer
+     */
+    public GrayImage copyFrom(BufferedImage image) {
+        if (image.getWidth() != width || image.getHeight() != height) {
+            throw new IllegalArgumentException("Image is " + image.getWidth() + "x" + image.getHeight()
+                + ", buffer is " + width + "x" + height);
+        }
+        int count = width * height;
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            image.getRaster().getDataElements(0, 0, width, height, pixels);
+            return this;
+        }
+        if (ImageUtils.isUnshared(image)) {
+            DataBuffer buffer = image.getRaster().getDataBuffer();
+            if (buffer instanceof DataBufferInt) {
+                int[] data = ((DataBufferInt) buffer).getData();
+                if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+                    PixelKernels.get().grayFromRgb(data, pixels, count);
+                    return this;
+                }
+                if (image.getType() == BufferedImage.TYPE_INT_ARGB && PixelKernels.get().grayFromArgb(data, pixels, count)) {
+                    return this;
+                }
+            } else if (buffer instanceof DataBufferByte) {
+                byte[] data = ((DataBufferByte) buffer).getData();
+                if (image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+                    PixelKernels.get().grayFromBgr(data, pixels, count);
+                    return this;
+                }
+                if (image.getType() == BufferedImage.TYPE_4BYTE_ABGR && PixelKernels.get().grayFromAbgr(data, pixels, count)) {
+                    return this;
+                }
+            }
+        }
+
+        // Java2D composites translucent pixels over the (black) destination, so they (and
+        // layouts without a kernel) are drawn; a kernel's partial output is overwritten
+        Arrays.fill(pixels, (byte) 0);
+        Graphics2D g = toBufferedImage().createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return this;
+    }
+
+    /**
+     * A TYPE_BYTE_GRAY image backed by this buffer's array (no copy).
+     */
+    public BufferedImage toBufferedImage() {
+        ComponentColorModel colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+            new int[]{8}, false, true, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+        WritableRaster raster = Raster.createInterleavedRaster(new DataBufferByte(pixels, pixels.length),
+            width, height, width, 1, new int[]{0}, null);
+        return new BufferedImage(colorModel, raster, false, null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.workassistant.image;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Chains gray-to-gray filters over two buffers used alternately: each stage reads the
+ * current buffer and writes the other, so any number of stages allocates at most two
+ * images. The input image is only read, never written.
+ *
+ * Not thread-safe; use one pipeline per image (or per band).
+ */
+public final class GrayPipeline {
+
+    /**
+     * A filter from one gray buffer into another of the same size. The two buffers are
+     * always distinct.
+     */
+    @FunctionalInterface
+    public interface Stage {
+        void apply(GrayImage source, GrayImage target);
+    }
+
+    private GrayImage current;
+    private GrayImage spare;
+    // current still belongs to the caller and must not become a target
+    private boolean borrowed = true;
+
+    public GrayPipeline(BufferedImage input) {
+        this(GrayImage.wrap(input));
+    }
+
+    public GrayPipeline(GrayImage input) {
+        this.current = input;
+    }
+
+    /**
+     * Run a stage, writing into the spare buffer, which then becomes current.
+     */
+    public GrayPipeline apply(Stage stage) {
+        if (spare == null) {
+            spare = new GrayImage(current.getWidth(), current.getHeight());
+        }
+        stage.apply(current, spare);
+        GrayImage previous = current;
+        current = spare;
+        spare = borrowed ? null : previous;
+        borrowed = false;
+        return this;
+    }
+
+    public GrayPipeline gaussianBlur(int kernelSize) {
+        return kernelSize > 1 ? apply((source, target) -> ImageUtils.applyGaussianBlur(source, target, kernelSize)) : this;
+    }
+
+    public GrayPipeline medianBlur(int kernelSize) {
+        return kernelSize > 1 ? apply((source, target) -> ImageUtils.applyMedianBlur(source, target, kernelSize)) : this;
+    }
+
+    /**
+     * The buffer holding the latest stage's output. Running another stage may overwrite it.
+     */
+    public GrayImage getResult() {
+        return current;
+    }
+
+    /**
+     * View of the latest output as a TYPE_BYTE_GRAY image (no copy).
+     */
+    public BufferedImage toBufferedImage() {
+        return current.toBufferedImage();
+    }
+
+    /**
+     * Threshold the latest output into a TYPE_BYTE_BINARY image.
+     */
+    public BufferedImage threshold(int threshold) {
+        return ImageUtils.threshold(current, threshold);
+    }
+}
@@ -1,22 +1,38 @@
 package com.workassistant.image;
 
+import org.w3c.dom.NodeList;
+
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataFormatImpl;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Iterator;
 
 /**
  * Utility methods for image processing operations.
  */
 public class ImageUtils {
     
+    // Fraction bits of the fixed-point Gaussian weights; two passes must fit 255 << 2 * bits in an int
+    private static final int GAUSSIAN_FRACTION_BITS = 11;
+    // Largest median kernel for Huang's algorithm; Perreault–Hébert is faster above it
+    private static final int HUANG_MAX_KERNEL = 11;
+    
     /**
      * Convert an image to grayscale.
-     * Uses optimized raster access for TYPE_BYTE_GRAY images.
+     * Common RGB layouts are converted straight from their data buffers (see {@link GrayImage#copyFrom}).
      * 
      * @param input the input image
      * @return grayscale image of TYPE_BYTE_GRAY
@@ -25,18 +41,7 @@ public class ImageUtils {
         if (input.getType() == BufferedImage.TYPE_BYTE_GRAY) {
             return input;
         }
-        
-        BufferedImage gray = new BufferedImage(
-            input.getWidth(), 
-            input.getHeight(), 
-            BufferedImage.TYPE_BYTE_GRAY
-        );
-        
-        Graphics2D g = gray.createGraphics();
-        g.drawImage(input, 0, 0, null);
-        g.dispose();
-        
-        return gray;
+        return GrayImage.of(input).toBufferedImage();
     }
     
     /**
@@ -44,154 +49,322 @@ public class ImageUtils {
      * 
      * @param input the input image
      * @param kernelSize the size of the blur kernel (must be odd)
-     * @return blurred image
+     * @return blurred grayscale image
      */
     public static BufferedImage applyGaussianBlur(BufferedImage input, int kernelSize) {
         if (kernelSize <= 1) {
             return input;
         }
         
+        GrayImage output = new GrayImage(input.getWidth(), input.getHeight());
+        applyGaussianBlur(GrayImage.wrap(input), output, kernelSize);
+        return output.toBufferedImage();
+    }
+    
+    /**
+     * Apply Gaussian blur from one gray buffer into another of the same size.
+     * The kernel is separable, so it runs as a vertical then a horizontal 1D pass with
+     * fixed-point integer weights: O(kernelSize) work per pixel instead of O(kernelSize²).
+     * Both passes work one row at a time, so the only scratch memory is one padded row.
+     * Edges are extended by replicating the border pixels.
+     * 
+     * @param input the input pixels
+     * @param output receives the blurred pixels; must not be the input buffer
+     * @param kernelSize the size of the blur kernel (must be odd)
+     */
+    public static void applyGaussianBlur(GrayImage input, GrayImage output, int kernelSize) {
         int width = input.getWidth();
         int height = input.getHeight();
-        BufferedImage output = new BufferedImage(width, height, input.getType());
-        
-        // Generate Gaussian kernel
-        double[][] kernel = generateGaussianKernel(kernelSize);
+        byte[] inputPixels = input.getPixels();
+        byte[] outputPixels = checkTarget(input, output);
+        if (kernelSize <= 1) {
+            System.arraycopy(inputPixels, 0, outputPixels, 0, inputPixels.length);
+            return;
+        }
         
-        // Apply convolution
+        int[] kernel = generateGaussianKernel1D(kernelSize);
         int radius = kernelSize / 2;
-        byte[] inputPixels = getPixels(input);
-        byte[] outputPixels = new byte[width * height];
         
+        // Vertical pass of one row into fixed point, inside a row padded for the horizontal pass;
+        // border rows are replicated by clamping row offsets
+        int[] padded = new int[width + 2 * radius];
         for (int y = 0; y < height; y++) {
+            Arrays.fill(padded, radius, radius + width, 0);
+            for (int k = 0; k < kernelSize; k++) {
+                int source = clamp(y + k - radius, 0, height - 1) * width;
+                int weight = kernel[k];
+                for (int x = 0; x < width; x++) {
+                    padded[radius + x] += weight * (inputPixels[source + x] & 0xFF);
+                }
+            }
+            Arrays.fill(padded, 0, radius, padded[radius]);
+            Arrays.fill(padded, radius + width, padded.length, padded[radius + width - 1]);
+            
+            // Horizontal pass; the weights multiply out to 2 * GAUSSIAN_FRACTION_BITS
+            int row = y * width;
             for (int x = 0; x < width; x++) {
-                double sum = 0;
-                
-                for (int ky = -radius; ky <= radius; ky++) {
-                    for (int kx = -radius; kx <= radius; kx++) {
-                        int px = clamp(x + kx, 0, width - 1);
-                        int py = clamp(y + ky, 0, height - 1);
-                        int pixel = inputPixels[py * width + px] & 0xFF;
-                        sum += pixel * kernel[ky + radius][kx + radius];
-                    }
+                int sum = 0;
+                for (int k = 0; k < kernelSize; k++) {
+                    sum += kernel[k] * padded[x + k];
                 }
-                
-                outputPixels[y * width + x] = (byte) clamp((int) sum, 0, 255);
+                outputPixels[row + x] = (byte) Math.min(255, sum >> (2 * GAUSSIAN_FRACTION_BITS));
             }
         }
-        
-        setPixels(output, outputPixels);
-        return output;
     }
     
     /**
      * Apply median blur to an image.
+     * Uses a sliding histogram instead of sorting every window. Small kernels use Huang's
+     * algorithm (O(kernelSize) per pixel with a very small constant); larger ones use
+     * Perreault–Hébert, whose cost per pixel does not depend on the kernel size.
+     * Edges are extended by replicating the border pixels.
      * 
      * @param input the input image
      * @param kernelSize the size of the blur kernel (must be odd)
-     * @return blurred image
+     * @return blurred grayscale image
      */
     public static BufferedImage applyMedianBlur(BufferedImage input, int kernelSize) {
         if (kernelSize <= 1) {
             return input;
         }
         
-        int width = input.getWidth();
-        int height = input.getHeight();
-        BufferedImage output = new BufferedImage(width, height, input.getType());
-        
+        GrayImage output = new GrayImage(input.getWidth(), input.getHeight());
+        applyMedianBlur(GrayImage.wrap(input), output, kernelSize);
+        return output.toBufferedImage();
+    }
+    
+    /**
+     * Apply median blur from one gray buffer into another of the same size.
+     * 
+     * @param input the input pixels
+     * @param output receives the blurred pixels; must not be the input buffer
+     * @param kernelSize the size of the blur kernel (must be odd)
+     */
+    public static void applyMedianBlur(GrayImage input, GrayImage output, int kernelSize) {
+        byte[] outputPixels = checkTarget(input, output);
+        if (kernelSize <= 1) {
+            System.arraycopy(input.getPixels(), 0, outputPixels, 0, outputPixels.length);
+        } else if (kernelSize <= HUANG_MAX_KERNEL) {
+            medianHuang(input.getPixels(), outputPixels, input.getWidth(), input.getHeight(), kernelSize);
+        } else {
+            medianPerreaultHebert(input.getPixels(), outputPixels, input.getWidth(), input.getHeight(), kernelSize);
+        }
+    }
+    
+    /**
+     * Huang's median: one window histogram per row, updated by the column that enters and
+     * the one that leaves, with the median tracked incrementally from the previous pixel.
+     */
+    private static void medianHuang(byte[] inputPixels, byte[] outputPixels, int width, int height, int kernelSize) {
         int radius = kernelSize / 2;
-        byte[] inputPixels = getPixels(input);
-        byte[] outputPixels = new byte[width * height];
-        int[] window = new int[kernelSize * kernelSize];
+        int rank = kernelSize * kernelSize / 2;
+        int[] histogram = new int[256];
+        int[] rows = new int[kernelSize];
         
         for (int y = 0; y < height; y++) {
+            Arrays.fill(histogram, 0);
+            for (int k = 0; k < kernelSize; k++) {
+                rows[k] = clamp(y + k - radius, 0, height - 1) * width;
+                for (int j = -radius; j <= radius; j++) {
+                    histogram[inputPixels[rows[k] + clamp(j, 0, width - 1)] & 0xFF]++;
+                }
+            }
+            
+            // median is the value at `rank` in sorted order; below counts pixels under it
+            int median = 0;
+            int below = 0;
+            int row = y * width;
             for (int x = 0; x < width; x++) {
-                int idx = 0;
-                
-                for (int ky = -radius; ky <= radius; ky++) {
-                    for (int kx = -radius; kx <= radius; kx++) {
-                        int px = clamp(x + kx, 0, width - 1);
-                        int py = clamp(y + ky, 0, height - 1);
-                        window[idx++] = inputPixels[py * width + px] & 0xFF;
+                int in = clamp(x + radius, 0, width - 1);
+                int out = clamp(x - radius - 1, 0, width - 1);
+                if (x > 0 && in != out) {
+                    for (int k = 0; k < kernelSize; k++) {
+                        int added = inputPixels[rows[k] + in] & 0xFF;
+                        int removed = inputPixels[rows[k] + out] & 0xFF;
+                        histogram[added]++;
+                        histogram[removed]--;
+                        if (added < median) {
+                            below++;
+                        }
+                        if (removed < median) {
+                            below--;
+                        }
                     }
                 }
-                
-                Arrays.sort(window, 0, idx);
-                outputPixels[y * width + x] = (byte) window[idx / 2];
+                while (below > rank) {
+                    median--;
+                    below -= histogram[median];
+                }
+                while (below + histogram[median] <= rank) {
+                    below += histogram[median];
+                    median++;
+                }
+                outputPixels[row + x] = (byte) median;
             }
         }
-        
-        setPixels(output, outputPixels);
-        return output;
     }
     
     /**
-     * Apply morphological erosion (shrinks white regions).
+     * Perreault–Hébert median: each column keeps a histogram of its {@code kernelSize} rows,
+     * and the window histogram is updated by adding the column that enters and removing the
+     * one that leaves. Histograms have a coarse (16 buckets) and a fine (256 levels) level,
+     * so finding the median and keeping the fine level current are bounded by 16 steps.
      */
-    public static BufferedImage erode(BufferedImage input, int kernelSize) {
-        int width = input.getWidth();
-        int height = input.getHeight();
-        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
-        
+    private static void medianPerreaultHebert(byte[] inputPixels, byte[] outputPixels, int width, int height, int kernelSize) {
         int radius = kernelSize / 2;
-        byte[] inputPixels = getPixels(input);
-        byte[] outputPixels = new byte[width * height];
+        
+        // Per-column histograms over the current rows, fine (256 per column) and coarse (16 per column)
+        int[] columnFine = new int[width * 256];
+        int[] columnCoarse = new int[width * 16];
+        // Window histograms; fine segment b reflects the window at column fineColumn[b]
+        int[] fine = new int[256];
+        int[] coarse = new int[16];
+        int[] fineColumn = new int[16];
+        int rank = kernelSize * kernelSize / 2;
+        
+        for (int ky = -radius; ky <= radius; ky++) {
+            int row = clamp(ky, 0, height - 1) * width;
+            for (int x = 0; x < width; x++) {
+                int value = inputPixels[row + x] & 0xFF;
+                columnFine[x * 256 + value]++;
+                columnCoarse[x * 16 + (value >> 4)]++;
+            }
+        }
         
         for (int y = 0; y < height; y++) {
+            if (y > 0) {
+                int removed = clamp(y - radius - 1, 0, height - 1) * width;
+                int added = clamp(y + radius, 0, height - 1) * width;
+                for (int x = 0; x < width; x++) {
+                    int out = inputPixels[removed + x] & 0xFF;
+                    int in = inputPixels[added + x] & 0xFF;
+                    columnFine[x * 256 + out]--;
+                    columnCoarse[x * 16 + (out >> 4)]--;
+                    columnFine[x * 256 + in]++;
+                    columnCoarse[x * 16 + (in >> 4)]++;
+                }
+            }
+            
+            Arrays.fill(coarse, 0);
+            for (int j = -radius; j <= radius; j++) {
+                int column = clamp(j, 0, width - 1) * 16;
+                for (int b = 0; b < 16; b++) {
+                    coarse[b] += columnCoarse[column + b];
+                }
+            }
+            // Every fine segment is stale at the start of a row
+            Arrays.fill(fineColumn, -kernelSize);
+            
+            int row = y * width;
+            // Neighbouring medians are usually in the same bucket, so the search starts there
+            int bucket = 0;
             for (int x = 0; x < width; x++) {
-                boolean allWhite = true;
-                
-                for (int ky = -radius; ky <= radius && allWhite; ky++) {
-                    for (int kx = -radius; kx <= radius && allWhite; kx++) {
-                        int px = clamp(x + kx, 0, width - 1);
-                        int py = clamp(y + ky, 0, height - 1);
-                        if ((inputPixels[py * width + px] & 0xFF) < 128) {
-                            allWhite = false;
-                        }
+                int in = clamp(x + radius, 0, width - 1) * 16;
+                int out = clamp(x - radius - 1, 0, width - 1) * 16;
+                int below = 0;
+                if (x > 0 && in != out) {
+                    for (int b = 0; b < bucket; b++) {
+                        coarse[b] += columnCoarse[in + b] - columnCoarse[out + b];
+                        below += coarse[b];
+                    }
+                    for (int b = bucket; b < 16; b++) {
+                        coarse[b] += columnCoarse[in + b] - columnCoarse[out + b];
+                    }
+                } else {
+                    for (int b = 0; b < bucket; b++) {
+                        below += coarse[b];
                     }
                 }
+                while (below > rank) {
+                    bucket--;
+                    below -= coarse[bucket];
+                }
+                while (below + coarse[bucket] <= rank) {
+                    below += coarse[bucket];
+                    bucket++;
+                }
                 
-                outputPixels[y * width + x] = allWhite ? (byte) 255 : 0;
+                syncFineSegment(fine, fineColumn, columnFine, bucket, x, radius, width);
+                // Walk the 16 levels of the bucket from the nearer end
+                int target = rank - below;
+                int value;
+                if (target < coarse[bucket] / 2) {
+                    value = bucket << 4;
+                    while (fine[value] <= target) {
+                        target -= fine[value];
+                        value++;
+                    }
+                } else {
+                    value = (bucket << 4) + 15;
+                    int upTo = coarse[bucket];
+                    while (upTo - fine[value] > target) {
+                        upTo -= fine[value];
+                        value--;
+                    }
+                }
+                outputPixels[row + x] = (byte) value;
             }
         }
-        
-        setPixels(output, outputPixels);
-        return output;
     }
     
     /**
-     * Apply morphological dilation (expands white regions).
+     * Bring fine segment {@code bucket} of the window histogram to the window centred on column x,
+     * incrementally when it was last used nearby and from scratch otherwise.
      */
-    public static BufferedImage dilate(BufferedImage input, int kernelSize) {
-        int width = input.getWidth();
-        int height = input.getHeight();
-        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
-        
-        int radius = kernelSize / 2;
-        byte[] inputPixels = getPixels(input);
-        byte[] outputPixels = new byte[width * height];
-        
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                boolean anyWhite = false;
-                
-                for (int ky = -radius; ky <= radius && !anyWhite; ky++) {
-                    for (int kx = -radius; kx <= radius && !anyWhite; kx++) {
-                        int px = clamp(x + kx, 0, width - 1);
-                        int py = clamp(y + ky, 0, height - 1);
-                        if ((inputPixels[py * width + px] & 0xFF) >= 128) {
-                            anyWhite = true;
-                        }
-                    }
+    private static void syncFineSegment(int[] fine, int[] fineColumn, int[] columnFine,
+                                        int bucket, int x, int radius, int width) {
+        int last = fineColumn[bucket];
+        if (last == x) {
+            return;
+        }
+        int base = bucket << 4;
+        if (x - last > 2 * radius) {
+            Arrays.fill(fine, base, base + 16, 0);
+            for (int j = x - radius; j <= x + radius; j++) {
+                int column = clamp(j, 0, width - 1) * 256 + base;
+                for (int v = 0; v < 16; v++) {
+                    fine[base + v] += columnFine[column + v];
+                }
+            }
+        } else {
+            for (int p = last + 1; p <= x; p++) {
+                int in = clamp(p + radius, 0, width - 1) * 256 + base;
+                int out = clamp(p - radius - 1, 0, width - 1) * 256 + base;
+                for (int v = 0; v < 16; v++) {
+                    fine[base + v] += columnFine[in + v] - columnFine[out + v];
                 }
-                
-                outputPixels[y * width + x] = anyWhite ? (byte) 255 : 0;
             }
         }
-        
-        setPixels(output, outputPixels);
-        return output;
+        fineColumn[bucket] = x;
+    }
+    
+    /**
+     * Apply morphological erosion (shrinks white regions).
+     * Pixels of at least 128 count as white; runs word-parallel on a {@link PackedBinaryImage}.
+     */
+    public static BufferedImage erode(BufferedImage input, int kernelSize) {
+        return erode(input, kernelSize, kernelSize);
+    }
+    
+    /**
+     * Apply morphological erosion with a rectangular kernel.
+     */
+    public static BufferedImage erode(BufferedImage input, int kernelWidth, int kernelHeight) {
+        return PackedBinaryImage.fromImage(input).erode(kernelWidth, kernelHeight).toImage();
+    }
+    
+    /**
+     * Apply morphological dilation (expands white regions).
+     */
+    public static BufferedImage dilate(BufferedImage input, int kernelSize) {
+        return dilate(input, kernelSize, kernelSize);
+    }
+    
+    /**
+     * Apply morphological dilation with a rectangular kernel.
+     */
+    public static BufferedImage dilate(BufferedImage input, int kernelWidth, int kernelHeight) {
+        return PackedBinaryImage.fromImage(input).dilate(kernelWidth, kernelHeight).toImage();
     }
     
     /**
@@ -199,7 +372,7 @@ public class ImageUtils {
      * Removes small white regions (noise).
      */
     public static BufferedImage open(BufferedImage input, int kernelSize) {
-        return dilate(erode(input, kernelSize), kernelSize);
+        return PackedBinaryImage.fromImage(input).open(kernelSize, kernelSize).toImage();
     }
     
     /**
@@ -207,7 +380,7 @@ public class ImageUtils {
      * Fills small black regions (holes).
      */
     public static BufferedImage close(BufferedImage input, int kernelSize) {
-        return erode(dilate(input, kernelSize), kernelSize);
+        return PackedBinaryImage.fromImage(input).close(kernelSize, kernelSize).toImage();
     }
     
     /**
@@ -229,6 +402,116 @@ public class ImageUtils {
         return binary;
     }
     
+    /**
+     * Threshold a grayscale image into a binary image.
+     * Pixels at or above the threshold become white.
+     * 
+     * @param gray the grayscale image
+     * @param threshold gray level from which pixels are white
+     * @return binary image of TYPE_BYTE_BINARY
+     */
+    public static BufferedImage threshold(BufferedImage gray, int threshold) {
+        return threshold(GrayImage.wrap(gray), threshold);
+    }
+    
+    /**
+     * Threshold a gray buffer into a binary image.
+     * Pixels at or above the threshold become white.
+     */
+    public static BufferedImage threshold(GrayImage gray, int threshold) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        int stride = ((MultiPixelPackedSampleModel) binary.getSampleModel()).getScanlineStride();
+        byte[] packed = ((DataBufferByte) binary.getRaster().getDataBuffer()).getData();
+        PixelKernels.get().threshold(gray.getPixels(), width, height, threshold, packed, stride);
+        return binary;
+    }
+    
+    /**
+     * Whether the image owns its whole data buffer with rows stored back to back
+     * (not a sub-image view of a larger raster).
+     */
+    static boolean isUnshared(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        return raster.getParent() == null
+            && raster.getSampleModelTranslateX() == 0
+            && raster.getSampleModelTranslateY() == 0
+            && raster.getDataBuffer().getNumBanks() == 1
+            && raster.getDataBuffer().getOffset() == 0;
+    }
+    
+    /**
+     * Resize a grayscale image with bilinear interpolation.
+     * Large reductions are done in halving steps so thin strokes are averaged rather than dropped.
+     * 
+     * @param input the input image
+     * @param width target width
+     * @param height target height
+     * @return resized image of TYPE_BYTE_GRAY
+     */
+    public static BufferedImage resize(BufferedImage input, int width, int height) {
+        BufferedImage current = toGrayscale(input);
+        if (current.getWidth() == width && current.getHeight() == height) {
+            return current;
+        }
+        
+        int w = current.getWidth();
+        int h = current.getHeight();
+        do {
+            // Halve while the remaining reduction is more than 2x, then finish in one step
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        } while (w != width || h != height);
+        
+        return current;
+    }
+    
+    /**
+     * Read the resolution stored in an image file's metadata.
+     * 
+     * @param file the image file
+     * @return horizontal resolution in DPI, or 0 if the file does not record one
+     */
+    public static int readDpi(File file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (in == null) {
+                return 0;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return 0;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, false);
+                IIOMetadata metadata = reader.getImageMetadata(0);
+                if (metadata == null || !metadata.isStandardMetadataFormatSupported()) {
+                    return 0;
+                }
+                IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(IIOMetadataFormatImpl.standardMetadataFormatName);
+                NodeList sizes = root.getElementsByTagName("HorizontalPixelSize");
+                if (sizes.getLength() == 0) {
+                    return 0;
+                }
+                // Standard metadata stores millimetres per pixel
+                float mmPerPixel = Float.parseFloat(((IIOMetadataNode) sizes.item(0)).getAttribute("value"));
+                return mmPerPixel > 0 ? Math.round(25.4f / mmPerPixel) : 0;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+    
     /**
      * Load an image from a file.
      */
@@ -254,25 +537,11 @@ public class ImageUtils {
     
     /**
      * Get pixel data from an image as a byte array.
+     * For a TYPE_BYTE_GRAY image that owns its buffer this is the buffer itself;
+     * anything else (other types, sub-image views) is converted into a new array.
      */
     public static byte[] getPixels(BufferedImage image) {
-        BufferedImage gray = toGrayscale(image);
-        DataBuffer buffer = gray.getRaster().getDataBuffer();
-        if (buffer instanceof DataBufferByte) {
-            return ((DataBufferByte) buffer).getData();
-        }
-        
-        // Fallback for other buffer types
-        int width = image.getWidth();
-        int height = image.getHeight();
-        byte[] pixels = new byte[width * height];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb = gray.getRGB(x, y);
-                pixels[y * width + x] = (byte) (rgb & 0xFF);
-            }
-        }
-        return pixels;
+        return GrayImage.wrap(image).getPixels();
     }
     
     /**
@@ -283,45 +552,77 @@ public class ImageUtils {
         if (buffer instanceof DataBufferByte) {
             byte[] data = ((DataBufferByte) buffer).getData();
             System.arraycopy(pixels, 0, data, 0, Math.min(pixels.length, data.length));
-        } else {
-            // Fallback for other buffer types
-            int width = image.getWidth();
-            int height = image.getHeight();
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    int idx = y * width + x;
-                    if (idx < pixels.length) {
-                        int gray = pixels[idx] & 0xFF;
-                        int rgb = (gray << 16) | (gray << 8) | gray;
-                        image.setRGB(x, y, rgb);
-                    }
-                }
+            return;
+        }
+        
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int count = Math.min(pixels.length, width * height);
+        boolean packedRgb = image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_INT_ARGB;
+        if (packedRgb && buffer instanceof DataBufferInt && isUnshared(image)) {
+            int[] data = ((DataBufferInt) buffer).getData();
+            for (int i = 0; i < count; i++) {
+                data[i] = gray2rgb(pixels[i]);
+            }
+            return;
+        }
+        
+        // Fallback for other buffer types, a row at a time
+        int[] row = new int[width];
+        for (int y = 0; y < height && y * width < count; y++) {
+            int columns = Math.min(width, count - y * width);
+            for (int x = 0; x < columns; x++) {
+                row[x] = gray2rgb(pixels[y * width + x]);
             }
+            image.setRGB(0, y, columns, 1, row, 0, width);
+        }
+    }
+    
+    /**
+     * Throw unless the target is a distinct buffer of the same size as the source.
+     * 
+     * @return the target's pixels
+     */
+    private static byte[] checkTarget(GrayImage source, GrayImage target) {
+        if (source.getWidth() != target.getWidth() || source.getHeight() != target.getHeight()) {
+            throw new IllegalArgumentException("Target is " + target.getWidth() + "x" + target.getHeight()
+                + ", source is " + source.getWidth() + "x" + source.getHeight());
         }
+        if (source.getPixels() == target.getPixels()) {
+            throw new IllegalArgumentException("Source and target must be different buffers");
+        }
+        return target.getPixels();
+    }
+    
+    private static int gray2rgb(byte pixel) {
+        int gray = pixel & 0xFF;
+        return 0xFF000000 | (gray << 16) | (gray << 8) | gray;
     }
     
-    private static double[][] generateGaussianKernel(int size) {
-        double[][] kernel = new double[size][size];
+    /**
+     * 1D Gaussian weights in fixed point, summing to exactly {@code 1 << GAUSSIAN_FRACTION_BITS}.
+     * The outer product of this kernel with itself is the 2D Gaussian with sigma = size / 6.
+     */
+    private static int[] generateGaussianKernel1D(int size) {
         double sigma = size / 6.0;
-        double sum = 0;
         int center = size / 2;
-        
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
-                int dx = x - center;
-                int dy = y - center;
-                kernel[y][x] = Math.exp(-(dx * dx + dy * dy) / (2 * sigma * sigma));
-                sum += kernel[y][x];
-            }
+        double[] weights = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            int d = i - center;
+            weights[i] = Math.exp(-(d * d) / (2 * sigma * sigma));
+            sum += weights[i];
         }
         
-        // Normalize
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
-                kernel[y][x] /= sum;
-            }
+        int one = 1 << GAUSSIAN_FRACTION_BITS;
+        int[] kernel = new int[size];
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            kernel[i] = (int) Math.round(weights[i] / sum * one);
+            total += kernel[i];
         }
-        
+        // Put the rounding error on the center tap so a flat image stays flat
+        kernel[center] += one - total;
         return kernel;
     }
     
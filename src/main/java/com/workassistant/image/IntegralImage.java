@@ -0,0 +1,88 @@
+package com.workassistant.image;
+
+/**
+ * Summed-area tables of a grayscale image, giving the sum (and optionally the sum of
+ * squares) of any rectangle in O(1).
+ *
+ * Both tables are flat row-major arrays with one extra leading row and column of zeros.
+ * Sums are kept in an {@code int[]} and allowed to wrap: a rectangle's sum is the
+ * difference of four entries, which is exact in two's complement as long as the
+ * rectangle itself sums to less than 2^31 (any window up to about 2900x2900 pixels).
+ * Squares can reach 65025 per pixel and use a {@code long[]}, built only on request.
+ */
+public final class IntegralImage {
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final int[] sums;
+    private final long[] squares;  // null unless requested
+
+    private IntegralImage(int width, int height, int[] sums, long[] squares) {
+        this.width = width;
+        this.height = height;
+        this.stride = width + 1;
+        this.sums = sums;
+        this.squares = squares;
+    }
+
+    /**
+     * Build the tables for row-major gray pixels.
+     *
+     * @param withSquares Also build the sum-of-squares table needed for {@link #sumOfSquares}
+     */
+    public static IntegralImage of(byte[] pixels, int width, int height, boolean withSquares) {
+        int stride = width + 1;
+        int[] sums = new int[stride * (height + 1)];
+        long[] squares = withSquares ? new long[sums.length] : null;
+
+        for (int y = 0; y < height; y++) {
+            int in = y * width;
+            int above = y * stride + 1;
+            int out = above + stride;
+            int rowSum = 0;
+            long rowSquares = 0;
+            for (int x = 0; x < width; x++) {
+                int pixel = pixels[in + x] & 0xFF;
+                rowSum += pixel;
+                sums[out + x] = sums[above + x] + rowSum;
+                if (squares != null) {
+                    rowSquares += pixel * pixel;
+                    squares[out + x] = squares[above + x] + rowSquares;
+                }
+            }
+        }
+        return new IntegralImage(width, height, sums, squares);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Sum of the pixels in the rectangle from (x1, y1) to (x2, y2) inclusive.
+     */
+    public int sum(int x1, int y1, int x2, int y2) {
+        int top = y1 * stride;
+        int bottom = (y2 + 1) * stride;
+        return sums[bottom + x2 + 1] - sums[top + x2 + 1] - sums[bottom + x1] + sums[top + x1];
+    }
+
+    /**
+     * Sum of the squared pixels in the rectangle from (x1, y1) to (x2, y2) inclusive.
+     *
+     * @throws IllegalStateException if the table was built without squares
+     */
+    public long sumOfSquares(int x1, int y1, int x2, int y2) {
+        if (squares == null) {
+            throw new IllegalStateException("Integral image was built without squares");
+        }
+        int top = y1 * stride;
+        int bottom = (y2 + 1) * stride;
+        return squares[bottom + x2 + 1] - squares[top + x2 + 1] - squares[bottom + x1] + squares[top + x1];
+    }
+}
@@ -0,0 +1,264 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.OtsuBinarizer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Preprocessing pipeline that prepares images for Tesseract.
+ * Runs grayscale conversion, downscaling to a target DPI and text height, deskew and binarization
+ * entirely in memory, so the result can be passed straight to {@code doOCR(BufferedImage)}
+ * and Tesseract can skip its own thresholding of full-color input.
+ */
+public class OCRPreprocessor {
+
+    /** Resolution assumed when the image does not record one (typical screenshot) */
+    public static final int DEFAULT_SOURCE_DPI = 96;
+
+    // Width the skew search works on; larger images are subsampled
+    private static final int SKEW_ANALYSIS_WIDTH = 800;
+    // Skew below this is left alone (degrees)
+    private static final double MIN_DESKEW_ANGLE = 0.2;
+    // Text-height scaling never shrinks an image below this factor
+    private static final double MIN_TEXT_SCALE = 0.25;
+
+    private int targetDpi = 300;
+    private boolean deskew = true;
+    private double maxSkewAngle = 5.0;
+    private double skewAngleStep = 0.25;
+    private int targetTextHeight = 40;
+    private BinarizeConfig binarizeConfig = BinarizeConfig.forOCR();
+
+    public OCRPreprocessor() {
+    }
+
+    public int getTargetDpi() {
+        return targetDpi;
+    }
+
+    public OCRPreprocessor setTargetDpi(int targetDpi) {
+        if (targetDpi <= 0) {
+            throw new IllegalArgumentException("Target DPI must be positive");
+        }
+        this.targetDpi = targetDpi;
+        return this;
+    }
+
+    public boolean isDeskew() {
+        return deskew;
+    }
+
+    public OCRPreprocessor setDeskew(boolean deskew) {
+        this.deskew = deskew;
+        return this;
+    }
+
+    public double getMaxSkewAngle() {
+        return maxSkewAngle;
+    }
+
+    public OCRPreprocessor setMaxSkewAngle(double maxSkewAngle) {
+        this.maxSkewAngle = maxSkewAngle;
+        return this;
+    }
+
+    public int getTargetTextHeight() {
+        return targetTextHeight;
+    }
+
+    /**
+     * Set the text line height (in pixels) images are scaled towards; 0 disables text-height scaling.
+     */
+    public OCRPreprocessor setTargetTextHeight(int targetTextHeight) {
+        this.targetTextHeight = Math.max(0, targetTextHeight);
+        return this;
+    }
+
+    public BinarizeConfig getBinarizeConfig() {
+        return binarizeConfig;
+    }
+
+    /**
+     * Set the binarization step; null skips binarization and leaves a grayscale image.
+     */
+    public OCRPreprocessor setBinarizeConfig(BinarizeConfig binarizeConfig) {
+        this.binarizeConfig = binarizeConfig;
+        return this;
+    }
+
+    /**
+     * Run the full pipeline.
+     *
+     * @param input the input image
+     * @param sourceDpi resolution recorded in the source file, or 0 if unknown
+     * @return preprocessed image ready for OCR
+     */
+    public BufferedImage process(BufferedImage input, int sourceDpi) {
+        BufferedImage image = ImageUtils.toGrayscale(input);
+        image = downscaleToDpi(image, sourceDpi > 0 ? sourceDpi : DEFAULT_SOURCE_DPI);
+        image = downscaleToTextHeight(image);
+
+        if (deskew) {
+            double angle = estimateSkewAngle(image, maxSkewAngle, skewAngleStep);
+            if (Math.abs(angle) >= MIN_DESKEW_ANGLE) {
+                image = rotate(image, -angle);
+            }
+        }
+
+        if (binarizeConfig != null) {
+            image = BinarizerFactory.createBinarizer(binarizeConfig).binarize(image, binarizeConfig);
+        }
+        return image;
+    }
+
+    /**
+     * Resolution of an image produced by {@link #process(BufferedImage, int)}
+     *
+     * @param sourceDpi resolution recorded in the source file, or 0 if unknown
+     * @param input the image passed to {@code process}
+     * @param output the image it returned
+     */
+    public static int outputDpi(int sourceDpi, BufferedImage input, BufferedImage output) {
+        int dpi = sourceDpi > 0 ? sourceDpi : DEFAULT_SOURCE_DPI;
+        return Math.max(1, (int) Math.round((double) dpi * output.getWidth() / input.getWidth()));
+    }
+
+    /**
+     * Scale an image down so its resolution does not exceed the target DPI.
+     * Images at or below the target are returned unchanged; upscaling is left to Tesseract.
+     */
+    public BufferedImage downscaleToDpi(BufferedImage gray, int sourceDpi) {
+        if (sourceDpi <= targetDpi) {
+            return gray;
+        }
+        double scale = (double) targetDpi / sourceDpi;
+        int width = Math.max(1, (int) Math.round(gray.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(gray.getHeight() * scale));
+        return ImageUtils.resize(gray, width, height);
+    }
+
+    /**
+     * Scale an image down when its text is much larger than the target text height.
+     * Tesseract is most accurate with lines a few dozen pixels high; larger text only costs time.
+     * Images whose text is already near or below the target are returned unchanged.
+     */
+    public BufferedImage downscaleToTextHeight(BufferedImage gray) {
+        if (targetTextHeight <= 0) {
+            return gray;
+        }
+        int lineHeight = TextLayout.analyze(gray).getLineHeight();
+        if (lineHeight <= targetTextHeight * 3 / 2) {
+            return gray;
+        }
+        double scale = Math.max(MIN_TEXT_SCALE, (double) targetTextHeight / lineHeight);
+        int width = Math.max(1, (int) Math.round(gray.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(gray.getHeight() * scale));
+        return ImageUtils.resize(gray, width, height);
+    }
+
+    /**
+     * Estimate the skew of text lines using projection profiles.
+     * Ink pixels are projected onto the vertical axis for each candidate angle; the angle
+     * whose profile has the sharpest peaks (highest sum of squared bin counts) is the one
+     * where text lines are horizontal.
+     *
+     * @param gray grayscale image
+     * @param maxAngle largest skew considered, in degrees (both directions)
+     * @param step angle resolution in degrees
+     * @return skew angle in degrees; positive when lines descend to the right
+     */
+    public static double estimateSkewAngle(BufferedImage gray, double maxAngle, double step) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int sample = Math.max(1, width / SKEW_ANALYSIS_WIDTH);
+
+        byte[] pixels = ImageUtils.getPixels(gray);
+        // Otsu returns the top gray level of the darker class
+        int threshold = new OtsuBinarizer().getThreshold(gray);
+
+        // Count ink on the sampled grid; treat the minority side as ink (handles dark themes)
+        int dark = 0;
+        int total = 0;
+        for (int y = 0; y < height; y += sample) {
+            for (int x = 0; x < width; x += sample) {
+                if ((pixels[y * width + x] & 0xFF) <= threshold) {
+                    dark++;
+                }
+                total++;
+            }
+        }
+        boolean inkIsDark = dark <= total / 2;
+        int inkCount = inkIsDark ? dark : total - dark;
+        if (inkCount == 0) {
+            return 0.0;
+        }
+
+        int[] xs = new int[inkCount];
+        int[] ys = new int[inkCount];
+        int n = 0;
+        for (int y = 0; y < height; y += sample) {
+            for (int x = 0; x < width; x += sample) {
+                boolean isDark = (pixels[y * width + x] & 0xFF) <= threshold;
+                if (isDark == inkIsDark) {
+                    xs[n] = x / sample;
+                    ys[n] = y / sample;
+                    n++;
+                }
+            }
+        }
+
+        int sampledWidth = (width + sample - 1) / sample;
+        int sampledHeight = (height + sample - 1) / sample;
+        int offset = sampledWidth;  // |x * sin| never exceeds the width
+        int[] bins = new int[sampledHeight + 2 * offset + 1];
+
+        double bestAngle = 0.0;
+        long bestScore = -1;
+        for (double angle = -maxAngle; angle <= maxAngle + 1e-9; angle += step) {
+            double rad = Math.toRadians(angle);
+            double sin = Math.sin(rad);
+            double cos = Math.cos(rad);
+            Arrays.fill(bins, 0);
+            for (int i = 0; i < n; i++) {
+                int bin = (int) Math.round(ys[i] * cos - xs[i] * sin) + offset;
+                bins[bin]++;
+            }
+            long score = 0;
+            for (int count : bins) {
+                score += (long) count * count;
+            }
+            // Prefer the smaller correction on ties
+            if (score > bestScore || (score == bestScore && Math.abs(angle) < Math.abs(bestAngle))) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return bestAngle;
+    }
+
+    /**
+     * Rotate a grayscale image around its center, filling uncovered corners with the
+     * background (white).
+     *
+     * @param gray grayscale image
+     * @param degrees rotation angle; positive rotates clockwise on screen
+     * @return rotated image of the same size
+     */
+    public static BufferedImage rotate(BufferedImage gray, double degrees) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        BufferedImage rotated = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+
+        Graphics2D g = rotated.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.rotate(Math.toRadians(degrees), width / 2.0, height / 2.0);
+        g.drawImage(gray, 0, 0, null);
+        g.dispose();
+
+        return rotated;
+    }
+}
@@ -0,0 +1,350 @@
+package com.workassistant.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.util.Arrays;
+
+/**
+ * Binary image packed 64 pixels per {@code long}, for word-parallel morphology.
+ *
+ * Pixel x of a row is bit {@code x & 63} of word {@code x >> 6}; a set bit is white.
+ * Bits past the image width are kept clear. Morphology uses rectangular windows and is
+ * separable: the horizontal pass ORs whole rows shifted by doubling distances (log k
+ * word operations per 64 pixels) and the vertical pass is a van Herk/Gil-Werman running
+ * maximum over rows of words (three operations per 64 pixels for any kernel height).
+ * Pixels outside the image never change the result, which is the same as extending the
+ * image by replicating its border.
+ */
+public class PackedBinaryImage {
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    public PackedBinaryImage(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean get(int x, int y) {
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    public void set(int x, int y, boolean white) {
+        int index = y * wordsPerRow + (x >>> 6);
+        if (white) {
+            words[index] |= 1L << x;
+        } else {
+            words[index] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * Pack an image: TYPE_BYTE_BINARY rasters are copied bit for bit, anything else is
+     * converted to grayscale and pixels of at least 128 become white.
+     */
+    public static PackedBinaryImage fromImage(BufferedImage image) {
+        PackedBinaryImage packed = new PackedBinaryImage(image.getWidth(), image.getHeight());
+        if (isBlackAndWhiteRaster(image)) {
+            packed.readBinaryRaster(image);
+        } else {
+            packed.readGray(ImageUtils.getPixels(image));
+        }
+        return packed;
+    }
+
+    /**
+     * Unpack into a TYPE_BYTE_BINARY image.
+     */
+    public BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        int stride = ((MultiPixelPackedSampleModel) image.getSampleModel()).getScanlineStride();
+        byte[] raster = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < height; y++) {
+            int row = y * wordsPerRow;
+            int out = y * stride;
+            for (int b = 0; b < stride; b++) {
+                int bits = (int) (words[row + (b >>> 3)] >>> ((b & 7) * 8)) & 0xFF;
+                // The raster stores the leftmost pixel in the highest bit
+                raster[out + b] = (byte) (Integer.reverse(bits) >>> 24);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Dilate (grow white) with a rectangular window of the given size.
+     * Even sizes behave like the next odd size, matching {@link ImageUtils#dilate}.
+     */
+    public PackedBinaryImage dilate(int kernelWidth, int kernelHeight) {
+        PackedBinaryImage result = copy();
+        result.maxRows(kernelWidth / 2);
+        return result.maxColumns(kernelHeight / 2);
+    }
+
+    /**
+     * Erode (shrink white) with a rectangular window of the given size.
+     */
+    public PackedBinaryImage erode(int kernelWidth, int kernelHeight) {
+        // Erosion is dilation of the complement; outside pixels stay neutral in both
+        PackedBinaryImage complement = complement();
+        complement.maxRows(kernelWidth / 2);
+        return complement.maxColumns(kernelHeight / 2).complement();
+    }
+
+    /**
+     * Opening: erosion then dilation; removes white specks smaller than the window.
+     */
+    public PackedBinaryImage open(int kernelWidth, int kernelHeight) {
+        return erode(kernelWidth, kernelHeight).dilate(kernelWidth, kernelHeight);
+    }
+
+    /**
+     * Closing: dilation then erosion; fills black holes smaller than the window.
+     */
+    public PackedBinaryImage close(int kernelWidth, int kernelHeight) {
+        return dilate(kernelWidth, kernelHeight).erode(kernelWidth, kernelHeight);
+    }
+
+    private PackedBinaryImage copy() {
+        PackedBinaryImage copy = new PackedBinaryImage(width, height);
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    private PackedBinaryImage complement() {
+        PackedBinaryImage complement = new PackedBinaryImage(width, height);
+        for (int i = 0; i < words.length; i++) {
+            complement.words[i] = ~words[i];
+        }
+        complement.clearPadding();
+        return complement;
+    }
+
+    /**
+     * In place, set each pixel to the OR of its row within {@code radius} pixels either side.
+     */
+    private void maxRows(int radius) {
+        if (radius <= 0 || width == 0) {
+            return;
+        }
+        long[] row = new long[wordsPerRow];
+        long[] ahead = new long[wordsPerRow];
+        long[] behind = new long[wordsPerRow];
+        long[] span = new long[wordsPerRow];
+        long[] shifted = new long[wordsPerRow];
+        for (int y = 0; y < height; y++) {
+            int start = y * wordsPerRow;
+            System.arraycopy(words, start, row, 0, wordsPerRow);
+            // [x - radius, x + radius] is the union of [x, x + radius] and [x - radius, x];
+            // both halves are clipped at the image edge by the zeros shifted in
+            orSpan(row, radius + 1, true, ahead, span, shifted);
+            orSpan(row, radius + 1, false, behind, span, shifted);
+            for (int c = 0; c < wordsPerRow; c++) {
+                words[start + c] = ahead[c] | behind[c];
+            }
+        }
+        clearPadding();
+    }
+
+    /**
+     * result(x) = OR of row[x .. x + length - 1] (forward) or row[x - length + 1 .. x],
+     * built by doubling: log2(length) shifted ORs of the whole row.
+     */
+    private static void orSpan(long[] row, int length, boolean forward,
+                               long[] result, long[] span, long[] shifted) {
+        System.arraycopy(row, 0, span, 0, row.length);
+        int spanLength = 1;
+        int covered = 0;
+        for (int remaining = length; ; ) {
+            if ((remaining & 1) != 0) {
+                if (covered == 0) {
+                    System.arraycopy(span, 0, result, 0, row.length);
+                } else {
+                    shift(span, covered, forward, shifted);
+                    or(result, shifted);
+                }
+                covered += spanLength;
+            }
+            remaining >>>= 1;
+            if (remaining == 0) {
+                return;
+            }
+            shift(span, spanLength, forward, shifted);
+            or(span, shifted);
+            spanLength *= 2;
+        }
+    }
+
+    private static void shift(long[] row, int distance, boolean forward, long[] output) {
+        if (forward) {
+            shiftDown(row, distance, output);
+        } else {
+            shiftUp(row, distance, output);
+        }
+    }
+
+    /**
+     * Set each pixel to the OR of its column within {@code radius} rows either side,
+     * using van Herk/Gil-Werman block prefix and suffix maxima.
+     */
+    private PackedBinaryImage maxColumns(int radius) {
+        if (radius <= 0 || height == 0) {
+            return this;
+        }
+        int length = 2 * radius + 1;
+        // Rows padded with `radius` empty rows on both sides so every window is whole
+        int padded = height + 2 * radius;
+        long[] prefix = new long[padded * wordsPerRow];
+        long[] suffix = new long[padded * wordsPerRow];
+
+        for (int p = 0; p < padded; p++) {
+            int y = p - radius;
+            int at = p * wordsPerRow;
+            boolean blockStart = p % length == 0;
+            for (int c = 0; c < wordsPerRow; c++) {
+                long value = y >= 0 && y < height ? words[y * wordsPerRow + c] : 0L;
+                prefix[at + c] = blockStart ? value : prefix[at - wordsPerRow + c] | value;
+            }
+        }
+        for (int p = padded - 1; p >= 0; p--) {
+            int y = p - radius;
+            int at = p * wordsPerRow;
+            boolean blockEnd = p % length == length - 1 || p == padded - 1;
+            for (int c = 0; c < wordsPerRow; c++) {
+                long value = y >= 0 && y < height ? words[y * wordsPerRow + c] : 0L;
+                suffix[at + c] = blockEnd ? value : suffix[at + wordsPerRow + c] | value;
+            }
+        }
+
+        // The window of row y is padded rows y .. y + 2 * radius, spanning at most two blocks
+        PackedBinaryImage result = new PackedBinaryImage(width, height);
+        for (int y = 0; y < height; y++) {
+            int first = y * wordsPerRow;
+            int last = (y + 2 * radius) * wordsPerRow;
+            int out = y * wordsPerRow;
+            for (int c = 0; c < wordsPerRow; c++) {
+                result.words[out + c] = suffix[first + c] | prefix[last + c];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * output(x) = row(x + distance); bits shifted in from past the end are clear.
+     */
+    private static void shiftDown(long[] row, int distance, long[] output) {
+        int wordShift = distance >>> 6;
+        int bitShift = distance & 63;
+        int n = row.length;
+        for (int i = 0; i < n; i++) {
+            int source = i + wordShift;
+            long low = source < n ? row[source] : 0L;
+            long high = source + 1 < n ? row[source + 1] : 0L;
+            output[i] = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+        }
+    }
+
+    /**
+     * output(x) = row(x - distance); bits shifted in from before the start are clear.
+     */
+    private static void shiftUp(long[] row, int distance, long[] output) {
+        int wordShift = distance >>> 6;
+        int bitShift = distance & 63;
+        for (int i = 0; i < row.length; i++) {
+            int source = i - wordShift;
+            long high = source >= 0 ? row[source] : 0L;
+            long low = source - 1 >= 0 ? row[source - 1] : 0L;
+            output[i] = bitShift == 0 ? high : (high << bitShift) | (low >>> (64 - bitShift));
+        }
+    }
+
+    private static void or(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= other[i];
+        }
+    }
+
+    private void clearPadding() {
+        int used = width & 63;
+        if (used == 0) {
+            return;
+        }
+        long mask = (1L << used) - 1;
+        for (int y = 0; y < height; y++) {
+            words[y * wordsPerRow + wordsPerRow - 1] &= mask;
+        }
+    }
+
+    private void readGray(byte[] pixels) {
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int out = y * wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                if ((pixels[row + x] & 0xFF) >= 128) {
+                    words[out + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+    }
+
+    private void readBinaryRaster(BufferedImage image) {
+        int stride = ((MultiPixelPackedSampleModel) image.getSampleModel()).getScanlineStride();
+        byte[] raster = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < height; y++) {
+            int row = y * stride;
+            int out = y * wordsPerRow;
+            for (int b = 0; b < stride; b++) {
+                long bits = Integer.reverse(raster[row + b] & 0xFF) >>> 24;
+                words[out + (b >>> 3)] |= bits << ((b & 7) * 8);
+            }
+        }
+        clearPadding();
+    }
+
+    /**
+     * Whether the image is a whole (not sub-image) TYPE_BYTE_BINARY raster with index 1 white
+     */
+    private static boolean isBlackAndWhiteRaster(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_BYTE_BINARY
+            || !(image.getColorModel() instanceof IndexColorModel)
+            || !(image.getSampleModel() instanceof MultiPixelPackedSampleModel)
+            || image.getRaster().getParent() != null
+            || image.getRaster().getSampleModelTranslateX() != 0
+            || image.getRaster().getSampleModelTranslateY() != 0
+            || ((MultiPixelPackedSampleModel) image.getSampleModel()).getPixelBitStride() != 1) {
+            return false;
+        }
+        IndexColorModel colors = (IndexColorModel) image.getColorModel();
+        return colors.getMapSize() == 2
+            && (colors.getRGB(0) & 0xFFFFFF) == 0
+            && (colors.getRGB(1) & 0xFFFFFF) == 0xFFFFFF;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PackedBinaryImage)) {
+            return false;
+        }
+        PackedBinaryImage that = (PackedBinaryImage) other;
+        return width == that.width && height == that.height && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + Arrays.hashCode(words);
+    }
+}
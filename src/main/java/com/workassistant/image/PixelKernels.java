@@ -0,0 +1,104 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.ScalarPixelKernels;
+
+/**
+ * Hot per-pixel loops shared by the binarizers and {@link ImageUtils}.
+ *
+ * Two implementations exist: a plain Java one, and one using the incubating Vector API
+ * ({@code jdk.incubator.vector}) that processes a full SIMD register of pixels per step.
+ * Both produce bit-identical output. The vector implementation is used when the JVM was
+ * started with {@code --add-modules jdk.incubator.vector}; set the system property
+ * {@code workassistant.image.vector=false} to force the scalar one.
+ */
+public interface PixelKernels {
+
+    /**
+     * Convert packed 0xRRGGBB pixels (TYPE_INT_RGB) to gray with the same weights and
+     * rounding as Java2D: {@code (77 * r + 150 * g + 29 * b + 128) >> 8}.
+     *
+     * @param rgb packed pixels
+     * @param gray output, one byte per pixel
+     * @param count number of pixels
+     */
+    void grayFromRgb(int[] rgb, byte[] gray, int count);
+
+    /**
+     * Convert interleaved B, G, R bytes (TYPE_3BYTE_BGR) to gray, as {@link #grayFromRgb}.
+     */
+    void grayFromBgr(byte[] bgr, byte[] gray, int count);
+
+    /**
+     * Convert packed 0xAARRGGBB pixels (TYPE_INT_ARGB) to gray, ignoring alpha, as
+     * {@link #grayFromRgb}. Java2D blends translucent pixels, so the output only matches
+     * it when every pixel is opaque.
+     *
+     * @return whether every pixel was opaque
+     */
+    boolean grayFromArgb(int[] argb, byte[] gray, int count);
+
+    /**
+     * Convert interleaved A, B, G, R bytes (TYPE_4BYTE_ABGR) to gray, as {@link #grayFromArgb}.
+     *
+     * @return whether every pixel was opaque
+     */
+    boolean grayFromAbgr(byte[] abgr, byte[] gray, int count);
+
+    /**
+     * Count gray levels.
+     *
+     * @param pixels one byte per pixel
+     * @param histogram 256 counters, added to
+     */
+    void histogram(byte[] pixels, int[] histogram);
+
+    /**
+     * Threshold gray pixels straight into a 1-bit packed raster (TYPE_BYTE_BINARY layout:
+     * most significant bit first, each row padded to a whole byte). A bit is set (white)
+     * where the gray level is at least the threshold.
+     *
+     * @param gray one byte per pixel, rows of {@code width} pixels
+     * @param width image width
+     * @param height image height
+     * @param threshold gray level from which pixels are white
+     * @param packed output raster, fully overwritten
+     * @param stride bytes per packed row
+     */
+    void threshold(byte[] gray, int width, int height, int threshold, byte[] packed, int stride);
+
+    /**
+     * Short name of the implementation, for logs and benchmarks
+     */
+    String getName();
+
+    /**
+     * Get the fastest implementation available in this JVM.
+     */
+    static PixelKernels get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Lazily selects the implementation once per JVM
+     */
+    final class Holder {
+        static final PixelKernels INSTANCE = select();
+
+        private Holder() {
+        }
+
+        private static PixelKernels select() {
+            if (!"false".equalsIgnoreCase(System.getProperty("workassistant.image.vector"))) {
+                try {
+                    // Fails unless the incubator module was added to the boot layer
+                    Class.forName("jdk.incubator.vector.IntVector");
+                    Class<?> clazz = Class.forName("com.workassistant.image.impl.VectorPixelKernels");
+                    return (PixelKernels) clazz.getDeclaredConstructor().newInstance();
+                } catch (Exception | LinkageError e) {
+                    // Fall through to the scalar kernels
+                }
+            }
+            return new ScalarPixelKernels();
+        }
+    }
+}
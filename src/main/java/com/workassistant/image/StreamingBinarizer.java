@@ -0,0 +1,393 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.OtsuBinarizer;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Vector;
+
+/**
+ * Binarizes an image file into another without decoding either as a whole.
+ *
+ * The input is read in horizontal bands with {@link ImageReadParam#setSourceRegion}, each
+ * with a halo of the rows its blur, window and morphology reach (as in {@link TileExecutor}),
+ * and binarized on its own; the output is a {@link RenderedImage} whose rows are computed
+ * when the {@link ImageWriter} asks for them. Only the current band is held, so peak
+ * memory follows the band height, not the image height. OTSU needs the histogram of the
+ * whole blurred image, so it reads the file twice: once for the threshold, then as GLOBAL
+ * at that threshold. AUTO is tuned once, on the same sampled rows as in memory, read with
+ * ImageIO subsampling. The result matches binarizing the fully decoded image.
+ *
+ * Readers decode from the start of the stream for every region, so each band costs a
+ * partial decode; bands are sized by pixel count to keep their number low. The PNG and
+ * TIFF writers pull rows as they encode them; writers that ask for the whole image at
+ * once still work but hold the whole binary output (one bit per pixel).
+ */
+public class StreamingBinarizer {
+
+    // Band size when no height is set: 4 Mpx, about 16 MB decoded as 32-bit RGB
+    private static final int DEFAULT_BAND_PIXELS = 4 << 20;
+    private static final int MIN_BAND_HEIGHT = 16;
+
+    private final BinarizeConfig config;
+    private int bandHeight = 0;  // 0 means from DEFAULT_BAND_PIXELS and the image width
+
+    public StreamingBinarizer(BinarizeConfig config) {
+        this.config = config;
+    }
+
+    public int getBandHeight() {
+        return bandHeight;
+    }
+
+    /**
+     * Rows binarized per band, not counting the halo; 0 picks a height from the image width.
+     */
+    public StreamingBinarizer setBandHeight(int bandHeight) {
+        if (bandHeight < 0) {
+            throw new IllegalArgumentException("Band height must not be negative");
+        }
+        this.bandHeight = bandHeight;
+        return this;
+    }
+
+    /**
+     * Binarize a file, choosing the output format from the output file's extension.
+     */
+    public void binarize(File input, File output) throws IOException {
+        String name = output.getName();
+        int dot = name.lastIndexOf('.');
+        binarize(input, output, dot > 0 ? name.substring(dot + 1).toLowerCase() : "png");
+    }
+
+    /**
+     * Binarize a file into an image of the given ImageIO format.
+     */
+    public void binarize(File input, File output, String format) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            if (stream == null) {
+                throw new IOException("Cannot open image: " + input);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + input);
+            }
+            ImageReader reader = readers.next();
+            try {
+                // Seekable, so every band can go back to the start of the stream
+                reader.setInput(stream, false, true);
+                write(bands(reader), output, format);
+            } catch (UncheckedIOException e) {
+                // A band failed to decode while the writer was pulling rows
+                throw e.getCause();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Lazily binarized output of the reader's first image
+     */
+    private BandedImage bands(ImageReader reader) throws IOException {
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+
+        BinarizeConfig bandConfig = config;
+        if (config.getAlgorithm() == BinarizeConfig.Algorithm.AUTO) {
+            // Bands must all use one configuration, so tune once on rows of the whole image
+            bandConfig = new BinarizationTuner().tuneSample(sampleRows(reader, height), height, config).getConfig();
+        }
+        if (bandConfig.getAlgorithm() == BinarizeConfig.Algorithm.OTSU || bandConfig.getAlgorithm() == BinarizeConfig.Algorithm.OPENCV) {
+            bandConfig = atThreshold(bandConfig, otsuThreshold(reader, width, height));
+        }
+        BinarizeConfig finalConfig = bandConfig;
+        Binarizer binarizer = BinarizerFactory.createBinarizer(finalConfig);
+        int halo = halo(finalConfig);
+        int rows = bandRows(width, halo);
+
+        return new BandedImage(width, height, rows, (top, count) -> {
+            int from = Math.max(0, top - halo);
+            int to = Math.min(height, top + count + halo);
+            BufferedImage binary = binarizer.binarize(readRows(reader, width, from, to - from), finalConfig);
+            return binary.getRaster().createChild(0, top - from, width, count, 0, top, null);
+        });
+    }
+
+    /**
+     * Otsu's threshold of the blurred image, from one pass over the bands.
+     */
+    private int otsuThreshold(ImageReader reader, int width, int height) throws IOException {
+        int halo = TileExecutor.blurHalo(config);
+        int rows = bandRows(width, halo);
+        int[] histogram = new int[256];
+        for (int top = 0; top < height; top += rows) {
+            int count = Math.min(rows, height - top);
+            int from = Math.max(0, top - halo);
+            int to = Math.min(height, top + count + halo);
+            GrayPipeline pipeline = BinarizeSteps.blur(ImageUtils.toGrayscale(readRows(reader, width, from, to - from)), config);
+            int start = (top - from) * width;
+            PixelKernels.get().histogram(Arrays.copyOfRange(pipeline.getResult().getPixels(), start, start + count * width), histogram);
+        }
+        return OtsuBinarizer.calculateOtsuThreshold(histogram, width * height);
+    }
+
+    private int bandRows(int width, int halo) {
+        int rows = bandHeight > 0 ? bandHeight : Math.max(MIN_BAND_HEIGHT, DEFAULT_BAND_PIXELS / width);
+        // Keep the halo from dominating the rows read per band
+        return bandHeight > 0 ? rows : Math.max(rows, 4 * halo);
+    }
+
+    /**
+     * Rows of context a band of the configured binarizer needs on each side
+     */
+    static int halo(BinarizeConfig config) {
+        int halo = TileExecutor.blurHalo(config) + TileExecutor.morphologyHalo(config);
+        switch (config.getAlgorithm()) {
+            case ADAPTIVE_MEAN:
+            case ADAPTIVE_GAUSSIAN:
+            case SAUVOLA:
+            case NIBLACK:
+                halo += config.getBlockSize() / 2;
+                break;
+            default:
+                break;
+        }
+        return halo;
+    }
+
+    /**
+     * The configuration as GLOBAL at a fixed threshold, keeping blur and morphology
+     */
+    private static BinarizeConfig atThreshold(BinarizeConfig config, int threshold) {
+        return new BinarizeConfig()
+            .setAlgorithm(BinarizeConfig.Algorithm.GLOBAL)
+            .setThreshold(threshold)
+            .setBlurKernelSize(config.getBlurKernelSize())
+            .setUseMedianBlur(config.isUseMedianBlur())
+            .setUseMorphologicalOpening(config.isUseMorphologicalOpening())
+            .setUseMorphologicalClosing(config.isUseMorphologicalClosing())
+            .setMorphKernelSize(config.getMorphKernelSize())
+            .setUseOpenCV(config.isUseOpenCV());
+    }
+
+    /**
+     * The gray rows {@link BinarizationTuner} samples, decoded without the rows in between
+     */
+    private static BufferedImage sampleRows(ImageReader reader, int height) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(1, BinarizationTuner.samplePeriod(height), 0, 0);
+        return ImageUtils.toGrayscale(reader.read(0, param));
+    }
+
+    private static BufferedImage readRows(ImageReader reader, int width, int top, int rows) {
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle(0, top, width, rows));
+        try {
+            return reader.read(0, param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(RenderedImage image, File output, String format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No writer for format: " + format);
+        }
+        ImageWriter writer = writers.next();
+        // The stream would otherwise overwrite in place and keep a longer old file's tail
+        Files.deleteIfExists(output.toPath());
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            writer.write(image);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Computes the binary rows {@code [top, top + count)} of the output
+     */
+    interface BandSource {
+        Raster read(int top, int count);
+    }
+
+    /**
+     * A TYPE_BYTE_BINARY image tiled in full-width bands, computed on demand. The last band
+     * computed is kept, so a writer going down (or up) the rows computes each band once.
+     */
+    static class BandedImage implements RenderedImage {
+        private final int width;
+        private final int height;
+        private final int bandHeight;
+        private final BandSource source;
+        private final ColorModel colorModel;
+        private final SampleModel sampleModel;
+        private int cachedBand = -1;
+        private Raster cached;
+
+        BandedImage(int width, int height, int bandHeight, BandSource source) {
+            this.width = width;
+            this.height = height;
+            this.bandHeight = bandHeight;
+            this.source = source;
+            BufferedImage prototype = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_BINARY);
+            this.colorModel = prototype.getColorModel();
+            this.sampleModel = prototype.getSampleModel().createCompatibleSampleModel(width, bandHeight);
+        }
+
+        private synchronized Raster band(int band) {
+            if (band != cachedBand) {
+                int top = band * bandHeight;
+                cached = null;  // let the previous band go before computing the next
+                cached = source.read(top, Math.min(bandHeight, height - top));
+                cachedBand = band;
+            }
+            return cached;
+        }
+
+        @Override
+        public Raster getData(Rectangle rect) {
+            int firstBand = rect.y / bandHeight;
+            int lastBand = (rect.y + rect.height - 1) / bandHeight;
+            if (firstBand == lastBand) {
+                Raster band = band(firstBand);
+                return band.createChild(rect.x, rect.y, rect.width, rect.height, rect.x, rect.y, null);
+            }
+            WritableRaster raster = Raster.createWritableRaster(
+                sampleModel.createCompatibleSampleModel(rect.width, rect.height), new Point(rect.x, rect.y));
+            for (int b = firstBand; b <= lastBand; b++) {
+                Raster band = band(b);
+                int from = Math.max(rect.y, band.getMinY());
+                int to = Math.min(rect.y + rect.height, band.getMinY() + band.getHeight());
+                raster.setRect(band.createChild(rect.x, from, rect.width, to - from, rect.x, from, null));
+            }
+            return raster;
+        }
+
+        @Override
+        public Raster getData() {
+            return getData(new Rectangle(0, 0, width, height));
+        }
+
+        @Override
+        public WritableRaster copyData(WritableRaster raster) {
+            if (raster == null) {
+                raster = Raster.createWritableRaster(sampleModel.createCompatibleSampleModel(width, height), null);
+            }
+            raster.setRect(getData(raster.getBounds().intersection(new Rectangle(0, 0, width, height))));
+            return raster;
+        }
+
+        @Override
+        public Raster getTile(int tileX, int tileY) {
+            int top = tileY * bandHeight;
+            return getData(new Rectangle(0, top, width, Math.min(bandHeight, height - top)));
+        }
+
+        @Override
+        public Vector<RenderedImage> getSources() {
+            return null;
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            return Image.UndefinedProperty;
+        }
+
+        @Override
+        public String[] getPropertyNames() {
+            return null;
+        }
+
+        @Override
+        public ColorModel getColorModel() {
+            return colorModel;
+        }
+
+        @Override
+        public SampleModel getSampleModel() {
+            return sampleModel;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int getMinX() {
+            return 0;
+        }
+
+        @Override
+        public int getMinY() {
+            return 0;
+        }
+
+        @Override
+        public int getNumXTiles() {
+            return 1;
+        }
+
+        @Override
+        public int getNumYTiles() {
+            return (height + bandHeight - 1) / bandHeight;
+        }
+
+        @Override
+        public int getMinTileX() {
+            return 0;
+        }
+
+        @Override
+        public int getMinTileY() {
+            return 0;
+        }
+
+        @Override
+        public int getTileWidth() {
+            return width;
+        }
+
+        @Override
+        public int getTileHeight() {
+            return bandHeight;
+        }
+
+        @Override
+        public int getTileGridXOffset() {
+            return 0;
+        }
+
+        @Override
+        public int getTileGridYOffset() {
+            return 0;
+        }
+    }
+}
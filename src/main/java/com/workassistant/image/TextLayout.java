@@ -0,0 +1,171 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.OtsuBinarizer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Row-level layout of the text in an image.
+ * Counts ink pixels per row (the minority side of an Otsu threshold, so dark themes work too),
+ * estimates the typical text line height from runs of inked rows and picks tile boundaries
+ * that fall between text lines.
+ */
+public class TextLayout {
+
+    // A row is part of a text line when at least this fraction of its pixels is ink
+    private static final double INK_ROW_FRACTION = 0.002;
+    // Runs shorter than this are rules, borders or noise rather than text
+    private static final int MIN_LINE_HEIGHT = 4;
+
+    private final int[] rowInk;
+    private final int rowThreshold;
+    private final int lineHeight;
+
+    TextLayout(int[] rowInk, int width) {
+        this.rowInk = rowInk;
+        this.rowThreshold = Math.max(1, (int) Math.ceil(width * INK_ROW_FRACTION));
+        this.lineHeight = medianLineHeight();
+    }
+
+    /**
+     * Analyze the rows of an image
+     *
+     * @param image the image (converted to grayscale if needed)
+     */
+    public static TextLayout analyze(BufferedImage image) {
+        BufferedImage gray = ImageUtils.toGrayscale(image);
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        byte[] pixels = ImageUtils.getPixels(gray);
+        // Otsu returns the top gray level of the darker class
+        int threshold = new OtsuBinarizer().getThreshold(gray);
+
+        int[] darkPerRow = new int[height];
+        long dark = 0;
+        for (int y = 0; y < height; y++) {
+            int count = 0;
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                if ((pixels[offset + x] & 0xFF) <= threshold) {
+                    count++;
+                }
+            }
+            darkPerRow[y] = count;
+            dark += count;
+        }
+
+        boolean inkIsDark = dark <= (long) width * height / 2;
+        if (!inkIsDark) {
+            for (int y = 0; y < height; y++) {
+                darkPerRow[y] = width - darkPerRow[y];
+            }
+        }
+        return new TextLayout(darkPerRow, width);
+    }
+
+    /**
+     * Median height in pixels of the text lines, or 0 if no text lines were found
+     */
+    public int getLineHeight() {
+        return lineHeight;
+    }
+
+    public int getHeight() {
+        return rowInk.length;
+    }
+
+    public boolean isBlankRow(int y) {
+        return rowInk[y] < rowThreshold;
+    }
+
+    private int medianLineHeight() {
+        List<Integer> heights = new ArrayList<>();
+        int start = -1;
+        for (int y = 0; y <= rowInk.length; y++) {
+            boolean inked = y < rowInk.length && !isBlankRow(y);
+            if (inked && start < 0) {
+                start = y;
+            } else if (!inked && start >= 0) {
+                if (y - start >= MIN_LINE_HEIGHT) {
+                    heights.add(y - start);
+                }
+                start = -1;
+            }
+        }
+        if (heights.isEmpty()) {
+            return 0;
+        }
+        int[] sorted = heights.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Split the image into horizontal bands of at most {@code maxHeight} rows that overlap by
+     * about {@code overlap} rows. Cuts are moved to the nearest blank row so text lines are not
+     * sliced in half; lines inside the overlap then appear complete in both neighbouring tiles.
+     *
+     * @return list of {@code [startY, endY)} pairs covering the whole image
+     */
+    public List<int[]> computeTileBounds(int maxHeight, int overlap) {
+        int height = rowInk.length;
+        List<int[]> tiles = new ArrayList<>();
+        if (height <= maxHeight) {
+            tiles.add(new int[]{0, height});
+            return tiles;
+        }
+        overlap = Math.max(0, Math.min(overlap, maxHeight / 2));
+        int search = Math.max(1, maxHeight / 10);
+
+        int start = 0;
+        while (true) {
+            if (height - start <= maxHeight) {
+                tiles.add(new int[]{start, height});
+                return tiles;
+            }
+            // End on a blank row at or below the nominal end, searching upwards
+            int end = findBlankRow(start + maxHeight, start + maxHeight - search, -1);
+            if (end < 0) {
+                end = start + maxHeight;
+            }
+            tiles.add(new int[]{start, end});
+
+            // Start the next tile on a blank row inside the overlap, searching upwards from its nominal start
+            int nextStart = findBlankRow(end - overlap, end - overlap - search, -1);
+            if (nextStart <= start) {
+                nextStart = Math.max(start + 1, end - overlap);
+            }
+            start = nextStart;
+        }
+    }
+
+    private int findBlankRow(int from, int to, int direction) {
+        from = Math.min(from, rowInk.length - 1);
+        for (int y = from; direction < 0 ? y >= Math.max(0, to) : y <= to; y += direction) {
+            if (isBlankRow(y)) {
+                return y;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copy rows {@code [startY, endY)} into a new image of the same type.
+     * The copy does not share the source raster, so it is safe to hand to another thread or
+     * to {@link ImageUtils#getPixels(BufferedImage)}.
+     */
+    public static BufferedImage cropRows(BufferedImage image, int startY, int endY) {
+        int width = image.getWidth();
+        int height = endY - startY;
+        int type = image.getType() == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_BYTE_GRAY : image.getType();
+        BufferedImage tile = new BufferedImage(width, height, type);
+        Graphics2D g = tile.createGraphics();
+        g.drawImage(image, 0, 0, width, height, 0, startY, width, endY, null);
+        g.dispose();
+        return tile;
+    }
+}
@@ -0,0 +1,177 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.OtsuBinarizer;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Cheap check whether an image is likely to contain text, used to skip OCR on photos,
+ * diagrams and blank images.
+ *
+ * Works on a small grayscale copy of the image and combines two signals:
+ * <ul>
+ *   <li>edge density: text produces many sharp edges, but not the wall-to-wall edges of
+ *       noisy textures, and a blank or smooth image produces almost none</li>
+ *   <li>stroke width: along each row, ink (the minority side of an Otsu threshold) in text
+ *       comes in short runs of roughly the stroke width, while photos binarize into large
+ *       blobs with long runs</li>
+ * </ul>
+ * The check is deliberately conservative: only images with clearly no text score low.
+ */
+public class TextPresenceDetector {
+
+    // Width of the copy the features are computed on
+    private static final int ANALYSIS_WIDTH = 400;
+    // Wider images are shrunk at most this much, so strokes of small text stay a pixel wide
+    private static final int MAX_DOWNSCALE = 2;
+    // Gray-level difference counted as an edge
+    private static final int EDGE_THRESHOLD = 40;
+    // Fewer edge pixels than this cannot form a readable word
+    private static final int MIN_EDGE_PIXELS = 40;
+    // Edge densities between these bounds are typical of text
+    private static final double TEXT_EDGE_DENSITY_LOW = 0.002;
+    private static final double TEXT_EDGE_DENSITY_HIGH = 0.30;
+
+    private double minLikelihood = 0.2;
+
+    /**
+     * Features and decision for one image
+     */
+    public static class Result {
+        private final double likelihood;
+        private final double edgeDensity;
+        private final double strokeRatio;
+        private final boolean likelyText;
+
+        Result(double likelihood, double edgeDensity, double strokeRatio, boolean likelyText) {
+            this.likelihood = likelihood;
+            this.edgeDensity = edgeDensity;
+            this.strokeRatio = strokeRatio;
+            this.likelyText = likelyText;
+        }
+
+        /** Text likelihood between 0 and 1 */
+        public double getLikelihood() {
+            return likelihood;
+        }
+
+        /** Fraction of pixels on a sharp edge */
+        public double getEdgeDensity() {
+            return edgeDensity;
+        }
+
+        /** Fraction of ink pixels lying in stroke-width runs */
+        public double getStrokeRatio() {
+            return strokeRatio;
+        }
+
+        public boolean isLikelyText() {
+            return likelyText;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("likelihood=%.2f, edgeDensity=%.4f, strokeRatio=%.2f", likelihood, edgeDensity, strokeRatio);
+        }
+    }
+
+    public double getMinLikelihood() {
+        return minLikelihood;
+    }
+
+    /**
+     * Likelihood below which an image is considered to contain no text.
+     */
+    public TextPresenceDetector setMinLikelihood(double minLikelihood) {
+        this.minLikelihood = minLikelihood;
+        return this;
+    }
+
+    /**
+     * Compute the text likelihood of an image.
+     *
+     * @param image the input image
+     * @return features and decision
+     */
+    public Result assess(BufferedImage image) {
+        BufferedImage gray = ImageUtils.toGrayscale(image);
+        int analysisWidth = Math.max(ANALYSIS_WIDTH, gray.getWidth() / MAX_DOWNSCALE);
+        if (gray.getWidth() > analysisWidth) {
+            int height = Math.max(1, (int) Math.round((double) gray.getHeight() * analysisWidth / gray.getWidth()));
+            gray = ImageUtils.resize(gray, analysisWidth, height);
+        }
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        long total = (long) width * height;
+
+        int edgePixels = countWhite(TextRegionDetector.edgeMask(gray, EDGE_THRESHOLD));
+        double edgeDensity = (double) edgePixels / total;
+        if (edgePixels < MIN_EDGE_PIXELS) {
+            return new Result(0.0, edgeDensity, 0.0, false);
+        }
+
+        double strokeRatio = strokeRatio(gray, Math.max(6, width / 50));
+
+        double edgeScore;
+        if (edgeDensity < TEXT_EDGE_DENSITY_LOW) {
+            edgeScore = edgeDensity / TEXT_EDGE_DENSITY_LOW;
+        } else if (edgeDensity > TEXT_EDGE_DENSITY_HIGH) {
+            // Falls to 0 at twice the upper bound
+            edgeScore = Math.max(0.0, 2.0 - edgeDensity / TEXT_EDGE_DENSITY_HIGH);
+        } else {
+            edgeScore = 1.0;
+        }
+
+        double likelihood = edgeScore * strokeRatio;
+        return new Result(likelihood, edgeDensity, strokeRatio, likelihood >= minLikelihood);
+    }
+
+    /**
+     * Fraction of ink pixels lying in horizontal runs no longer than the stroke width.
+     */
+    static double strokeRatio(BufferedImage gray, int maxStroke) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        byte[] pixels = ImageUtils.getPixels(gray);
+        // Otsu returns the top gray level of the darker class
+        int threshold = new OtsuBinarizer().getThreshold(gray);
+
+        long dark = 0;
+        for (byte pixel : pixels) {
+            if ((pixel & 0xFF) <= threshold) {
+                dark++;
+            }
+        }
+        boolean inkIsDark = dark <= (long) width * height / 2;
+
+        long inkPixels = 0;
+        long strokePixels = 0;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int run = 0;
+            for (int x = 0; x <= width; x++) {
+                boolean ink = x < width && (((pixels[row + x] & 0xFF) <= threshold) == inkIsDark);
+                if (ink) {
+                    run++;
+                } else if (run > 0) {
+                    inkPixels += run;
+                    if (run <= maxStroke) {
+                        strokePixels += run;
+                    }
+                    run = 0;
+                }
+            }
+        }
+        return inkPixels == 0 ? 0.0 : (double) strokePixels / inkPixels;
+    }
+
+    private static int countWhite(BufferedImage mask) {
+        int count = 0;
+        for (byte pixel : ImageUtils.getPixels(mask)) {
+            if ((pixel & 0xFF) >= 128) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,379 @@
+package com.workassistant.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fast detector of text blocks, so OCR can skip UI chrome, photos and empty space.
+ *
+ * The image is reduced to a fixed analysis width and turned into a mask of high-contrast
+ * edges (text strokes have sharp edges on both sides). Morphological closing joins the
+ * characters of a word and dilation joins words and neighbouring lines into blocks;
+ * connected components of the mask are the candidate regions. Components that are too
+ * small, too thin, or hollow (frames and borders) are dropped, and the rest are mapped
+ * back to source coordinates, padded and merged.
+ */
+public class TextRegionDetector {
+
+    private int analysisWidth = 1000;
+    private int edgeThreshold = 40;
+    private int closeKernelSize = 5;
+    private int dilateKernelSize = 3;
+    private int minRegionHeight = 5;
+    private int minRegionWidth = 8;
+    private double minFillRatio = 0.35;
+    private int padding = 6;
+    private int maxRegions = 6;
+
+    public TextRegionDetector() {
+    }
+
+    public int getAnalysisWidth() {
+        return analysisWidth;
+    }
+
+    /**
+     * Width the image is reduced to before detection; smaller is faster but misses tiny text.
+     */
+    public TextRegionDetector setAnalysisWidth(int analysisWidth) {
+        this.analysisWidth = Math.max(64, analysisWidth);
+        return this;
+    }
+
+    public int getEdgeThreshold() {
+        return edgeThreshold;
+    }
+
+    /**
+     * Minimum gray-level difference between neighbouring pixels counted as an edge.
+     */
+    public TextRegionDetector setEdgeThreshold(int edgeThreshold) {
+        this.edgeThreshold = edgeThreshold;
+        return this;
+    }
+
+    public int getMaxRegions() {
+        return maxRegions;
+    }
+
+    /**
+     * Upper bound on returned regions; the closest regions are merged until it is met.
+     * Every region costs one OCR call, which has a fixed setup cost in Tesseract.
+     */
+    public TextRegionDetector setMaxRegions(int maxRegions) {
+        this.maxRegions = Math.max(1, maxRegions);
+        return this;
+    }
+
+    public int getPadding() {
+        return padding;
+    }
+
+    /**
+     * Margin in source pixels added around each region so strokes at the border are kept.
+     */
+    public TextRegionDetector setPadding(int padding) {
+        this.padding = Math.max(0, padding);
+        return this;
+    }
+
+    /**
+     * Detect text regions.
+     *
+     * @param image the input image
+     * @return regions in source coordinates, in reading order (top to bottom, then left to right)
+     */
+    public List<Rectangle> detect(BufferedImage image) {
+        int sourceWidth = image.getWidth();
+        int sourceHeight = image.getHeight();
+
+        BufferedImage gray = ImageUtils.toGrayscale(image);
+        double scale = 1.0;
+        if (sourceWidth > analysisWidth) {
+            scale = (double) analysisWidth / sourceWidth;
+            gray = ImageUtils.resize(gray, analysisWidth, Math.max(1, (int) Math.round(sourceHeight * scale)));
+        }
+
+        BufferedImage edges = edgeMask(gray, edgeThreshold);
+        BufferedImage blocks = ImageUtils.dilate(ImageUtils.close(edges, closeKernelSize), dilateKernelSize);
+
+        List<Rectangle> regions = new ArrayList<>();
+        for (Component component : labelComponents(blocks)) {
+            Rectangle box = component.bounds;
+            if (box.height < minRegionHeight || box.width < minRegionWidth) {
+                continue;
+            }
+            // Window frames, separators and table borders form hollow components
+            if ((double) component.pixels / ((long) box.width * box.height) < minFillRatio) {
+                continue;
+            }
+            regions.add(toSource(box, scale, sourceWidth, sourceHeight));
+        }
+
+        regions = mergeOverlapping(regions);
+        while (regions.size() > maxRegions) {
+            mergeClosestPair(regions);
+        }
+        regions.sort(Comparator.comparingInt((Rectangle r) -> r.y).thenComparingInt(r -> r.x));
+        return regions;
+    }
+
+    /**
+     * Fraction of the image covered by the regions (0 to 1; overlaps are counted once per region).
+     */
+    public static double coverage(List<Rectangle> regions, int width, int height) {
+        long area = 0;
+        for (Rectangle region : regions) {
+            area += (long) region.width * region.height;
+        }
+        return Math.min(1.0, (double) area / ((long) width * height));
+    }
+
+    /**
+     * Copy a rectangle of an image into a new image of the same type.
+     */
+    public static BufferedImage crop(BufferedImage image, Rectangle region) {
+        int type = image.getType() == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_BYTE_GRAY : image.getType();
+        BufferedImage crop = new BufferedImage(region.width, region.height, type);
+        Graphics2D g = crop.createGraphics();
+        g.drawImage(image, 0, 0, region.width, region.height,
+            region.x, region.y, region.x + region.width, region.y + region.height, null);
+        g.dispose();
+        return crop;
+    }
+
+    /**
+     * White where a pixel differs from its right or lower neighbour by at least the threshold.
+     */
+    static BufferedImage edgeMask(BufferedImage gray, int threshold) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        byte[] pixels = ImageUtils.getPixels(gray);
+        byte[] mask = new byte[width * height];
+
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int value = pixels[row + x] & 0xFF;
+                boolean edge = false;
+                if (x + 1 < width && Math.abs(value - (pixels[row + x + 1] & 0xFF)) >= threshold) {
+                    edge = true;
+                } else if (y + 1 < height && Math.abs(value - (pixels[row + width + x] & 0xFF)) >= threshold) {
+                    edge = true;
+                }
+                if (edge) {
+                    mask[row + x] = (byte) 255;
+                }
+            }
+        }
+
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        ImageUtils.setPixels(output, mask);
+        return output;
+    }
+
+    /**
+     * Bounding box and size of one connected component of white pixels
+     */
+    static class Component {
+        final Rectangle bounds;
+        final int pixels;
+
+        Component(Rectangle bounds, int pixels) {
+            this.bounds = bounds;
+            this.pixels = pixels;
+        }
+    }
+
+    /**
+     * Label 8-connected white components using runs, so memory grows with the number of runs
+     * rather than the number of pixels (tall scrolling captures stay cheap).
+     */
+    static List<Component> labelComponents(BufferedImage mask) {
+        int width = mask.getWidth();
+        int height = mask.getHeight();
+        byte[] pixels = ImageUtils.getPixels(mask);
+
+        // Runs as parallel arrays: row, start x, end x (inclusive)
+        IntList runRow = new IntList();
+        IntList runStart = new IntList();
+        IntList runEnd = new IntList();
+        IntList parent = new IntList();
+
+        int previousRowFirst = 0;
+        int previousRowEnd = 0;
+        for (int y = 0; y < height; y++) {
+            int rowFirst = runRow.size();
+            int row = y * width;
+            int x = 0;
+            while (x < width) {
+                if ((pixels[row + x] & 0xFF) < 128) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && (pixels[row + x] & 0xFF) >= 128) {
+                    x++;
+                }
+                int run = runRow.size();
+                runRow.add(y);
+                runStart.add(start);
+                runEnd.add(x - 1);
+                parent.add(run);
+
+                // Join with runs of the previous row that touch this one, diagonals included
+                for (int p = previousRowFirst; p < previousRowEnd; p++) {
+                    if (runEnd.get(p) >= start - 1 && runStart.get(p) <= x) {
+                        union(parent, run, p);
+                    }
+                }
+            }
+            previousRowFirst = rowFirst;
+            previousRowEnd = runRow.size();
+        }
+
+        int runs = runRow.size();
+        int[] minX = new int[runs];
+        int[] minY = new int[runs];
+        int[] maxX = new int[runs];
+        int[] maxY = new int[runs];
+        int[] count = new int[runs];
+        boolean[] seen = new boolean[runs];
+        List<Integer> roots = new ArrayList<>();
+        for (int r = 0; r < runs; r++) {
+            int root = find(parent, r);
+            if (!seen[root]) {
+                seen[root] = true;
+                roots.add(root);
+                minX[root] = Integer.MAX_VALUE;
+                minY[root] = Integer.MAX_VALUE;
+                maxX[root] = -1;
+                maxY[root] = -1;
+            }
+            minX[root] = Math.min(minX[root], runStart.get(r));
+            maxX[root] = Math.max(maxX[root], runEnd.get(r));
+            minY[root] = Math.min(minY[root], runRow.get(r));
+            maxY[root] = Math.max(maxY[root], runRow.get(r));
+            count[root] += runEnd.get(r) - runStart.get(r) + 1;
+        }
+
+        List<Component> components = new ArrayList<>(roots.size());
+        for (int root : roots) {
+            Rectangle bounds = new Rectangle(minX[root], minY[root],
+                maxX[root] - minX[root] + 1, maxY[root] - minY[root] + 1);
+            components.add(new Component(bounds, count[root]));
+        }
+        return components;
+    }
+
+    private static int find(IntList parent, int i) {
+        while (parent.get(i) != i) {
+            int grandparent = parent.get(parent.get(i));
+            parent.set(i, grandparent);
+            i = grandparent;
+        }
+        return i;
+    }
+
+    private static void union(IntList parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent.set(Math.max(rootA, rootB), Math.min(rootA, rootB));
+        }
+    }
+
+    private Rectangle toSource(Rectangle box, double scale, int sourceWidth, int sourceHeight) {
+        int x0 = (int) Math.floor(box.x / scale) - padding;
+        int y0 = (int) Math.floor(box.y / scale) - padding;
+        int x1 = (int) Math.ceil((box.x + box.width) / scale) + padding;
+        int y1 = (int) Math.ceil((box.y + box.height) / scale) + padding;
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(sourceWidth, x1);
+        y1 = Math.min(sourceHeight, y1);
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    /**
+     * Merge regions whose (padded) boxes intersect until none do.
+     */
+    static List<Rectangle> mergeOverlapping(List<Rectangle> regions) {
+        List<Rectangle> merged = new ArrayList<>(regions);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            outer:
+            for (int i = 0; i < merged.size(); i++) {
+                for (int j = i + 1; j < merged.size(); j++) {
+                    if (merged.get(i).intersects(merged.get(j))) {
+                        merged.set(i, merged.get(i).union(merged.get(j)));
+                        merged.remove(j);
+                        changed = true;
+                        break outer;
+                    }
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Merge the pair whose union adds the least area beyond the two boxes.
+     */
+    private static void mergeClosestPair(List<Rectangle> regions) {
+        int bestI = 0;
+        int bestJ = 1;
+        long bestCost = Long.MAX_VALUE;
+        for (int i = 0; i < regions.size(); i++) {
+            for (int j = i + 1; j < regions.size(); j++) {
+                Rectangle a = regions.get(i);
+                Rectangle b = regions.get(j);
+                Rectangle union = a.union(b);
+                long cost = (long) union.width * union.height
+                    - (long) a.width * a.height - (long) b.width * b.height;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestI = i;
+                    bestJ = j;
+                }
+            }
+        }
+        regions.set(bestI, regions.get(bestI).union(regions.get(bestJ)));
+        regions.remove(bestJ);
+        // The grown box may now overlap others
+        List<Rectangle> merged = mergeOverlapping(regions);
+        regions.clear();
+        regions.addAll(merged);
+    }
+
+    /**
+     * Minimal growable int array for run bookkeeping
+     */
+    private static class IntList {
+        private int[] values = new int[256];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = java.util.Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
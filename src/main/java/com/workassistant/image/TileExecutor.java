@@ -0,0 +1,173 @@
+package com.workassistant.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.SampleModel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs local image operations on horizontal bands in parallel.
+ *
+ * Each band is cut with a halo of extra rows above and below, sized to how far the
+ * operation looks (the sum of the kernel radii of the chained steps), so the rows a band
+ * owns see exactly the neighbourhood they would see in the full image. The owned rows of
+ * every result are then copied into one output, which is identical to running the
+ * operation on the whole image.
+ */
+public class TileExecutor {
+
+    private static final int DEFAULT_MIN_BAND_HEIGHT = 64;
+    // Bands per worker, so uneven bands (text vs. blank) still balance
+    private static final int BANDS_PER_THREAD = 4;
+
+    private static TileExecutor instance;
+
+    private final int parallelism;
+    private final int minBandHeight;
+    private final ForkJoinPool pool;  // null when running sequentially
+
+    /**
+     * @param parallelism Number of worker threads; 1 runs everything on the calling thread
+     * @param minBandHeight Smallest band worth a task of its own, in rows
+     */
+    public TileExecutor(int parallelism, int minBandHeight) {
+        this.parallelism = Math.max(1, parallelism);
+        this.minBandHeight = Math.max(1, minBandHeight);
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+    }
+
+    /**
+     * Shared executor sized by the {@code workassistant.image.threads} system property,
+     * defaulting to the number of cores.
+     */
+    public static synchronized TileExecutor getInstance() {
+        if (instance == null) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            int threads = Integer.getInteger("workassistant.image.threads", cores);
+            instance = new TileExecutor(threads > 0 ? threads : cores, DEFAULT_MIN_BAND_HEIGHT);
+        }
+        return instance;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Rows of context needed by the blur configured in {@code config}
+     */
+    public static int blurHalo(BinarizeConfig config) {
+        return config.getBlurKernelSize() > 0 ? config.getBlurKernelSize() / 2 : 0;
+    }
+
+    /**
+     * Rows of context needed by the opening and closing configured in {@code config};
+     * each is two passes of the kernel radius.
+     */
+    public static int morphologyHalo(BinarizeConfig config) {
+        int radius = config.getMorphKernelSize() / 2;
+        int halo = 0;
+        if (config.isUseMorphologicalOpening()) {
+            halo += 2 * radius;
+        }
+        if (config.isUseMorphologicalClosing()) {
+            halo += 2 * radius;
+        }
+        return halo;
+    }
+
+    /**
+     * Apply a local operation band by band.
+     *
+     * @param gray TYPE_BYTE_GRAY input
+     * @param halo rows above and below an output row the operation reads
+     * @param operation maps an image to one of the same size, TYPE_BYTE_GRAY or TYPE_BYTE_BINARY;
+     *                  must not depend on anything farther than {@code halo} rows away
+     * @return the operation's result for the whole image
+     */
+    public BufferedImage map(BufferedImage gray, int halo, UnaryOperator<BufferedImage> operation) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int bands = Math.min(parallelism * BANDS_PER_THREAD, height / Math.max(minBandHeight, halo));
+        if (pool == null || bands <= 1) {
+            return operation.apply(gray);
+        }
+
+        int[] starts = new int[bands + 1];
+        for (int i = 0; i <= bands; i++) {
+            starts[i] = (int) ((long) i * height / bands);
+        }
+        BufferedImage[] results = new BufferedImage[bands];
+        int[] offsets = new int[bands];
+        pool.invoke(new BandTask(0, bands, band -> {
+            int top = Math.max(0, starts[band] - halo);
+            int bottom = Math.min(height, starts[band + 1] + halo);
+            offsets[band] = starts[band] - top;
+            results[band] = operation.apply(cropRows(gray, top, bottom - top));
+        }));
+
+        BufferedImage output = new BufferedImage(width, height, results[0].getType());
+        byte[] target = ((DataBufferByte) output.getRaster().getDataBuffer()).getData();
+        int stride = scanlineStride(output.getSampleModel());
+        for (int band = 0; band < bands; band++) {
+            byte[] source = ((DataBufferByte) results[band].getRaster().getDataBuffer()).getData();
+            int rows = starts[band + 1] - starts[band];
+            System.arraycopy(source, offsets[band] * stride, target, starts[band] * stride, rows * stride);
+        }
+        return output;
+    }
+
+    /**
+     * Copy rows of a gray image into a new image (works on sub-image views too).
+     */
+    private static BufferedImage cropRows(BufferedImage gray, int top, int rows) {
+        int width = gray.getWidth();
+        BufferedImage band = new BufferedImage(width, rows, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] data = ((DataBufferByte) band.getRaster().getDataBuffer()).getData();
+        gray.getRaster().getDataElements(0, top, width, rows, data);
+        return band;
+    }
+
+    private static int scanlineStride(SampleModel model) {
+        if (model instanceof MultiPixelPackedSampleModel) {
+            return ((MultiPixelPackedSampleModel) model).getScanlineStride();
+        }
+        return ((ComponentSampleModel) model).getScanlineStride();
+    }
+
+    /**
+     * Work on one band
+     */
+    private interface BandWork {
+        void run(int band);
+    }
+
+    /**
+     * Splits a range of bands in halves until single bands remain
+     */
+    private static class BandTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final BandWork work;
+
+        BandTask(int from, int to, BandWork work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                work.run(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BandTask(from, middle, work), new BandTask(middle, to, work));
+        }
+    }
+}
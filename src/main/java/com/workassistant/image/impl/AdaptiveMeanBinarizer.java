@@ -1,8 +1,12 @@
 package com.workassistant.image.impl;
 
 import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.BinarizeSteps;
 import com.workassistant.image.Binarizer;
+import com.workassistant.image.GrayImage;
 import com.workassistant.image.ImageUtils;
+import com.workassistant.image.IntegralImage;
+import com.workassistant.image.TileExecutor;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -13,32 +17,30 @@ import java.io.IOException;
  */
 public class AdaptiveMeanBinarizer implements Binarizer {
     
+    private final TileExecutor executor;
+    
+    public AdaptiveMeanBinarizer() {
+        this(TileExecutor.getInstance());
+    }
+    
+    /**
+     * @param executor Runs the local steps (blur, thresholding, morphology) band by band
+     */
+    public AdaptiveMeanBinarizer(TileExecutor executor) {
+        this.executor = executor;
+    }
+    
     @Override
     public BufferedImage binarize(BufferedImage input, BinarizeConfig config) {
         // Convert to grayscale
         BufferedImage gray = ImageUtils.toGrayscale(input);
         
-        // Apply blur if configured
-        if (config.getBlurKernelSize() > 0) {
-            if (config.isUseMedianBlur()) {
-                gray = ImageUtils.applyMedianBlur(gray, config.getBlurKernelSize());
-            } else {
-                gray = ImageUtils.applyGaussianBlur(gray, config.getBlurKernelSize());
-            }
-        }
-        
-        // Apply adaptive mean thresholding
-        BufferedImage binary = applyAdaptiveThreshold(gray, config.getBlockSize(), config.getC());
-        
-        // Apply morphological operations if configured
-        if (config.isUseMorphologicalOpening()) {
-            binary = ImageUtils.open(binary, config.getMorphKernelSize());
-        }
-        if (config.isUseMorphologicalClosing()) {
-            binary = ImageUtils.close(binary, config.getMorphKernelSize());
-        }
-        
-        return binary;
+        // Blur, threshold and clean up each band. The mean window is clipped to the image,
+        // so a band with blockSize / 2 extra rows gives its own rows the same window.
+        int halo = TileExecutor.blurHalo(config) + config.getBlockSize() / 2 + TileExecutor.morphologyHalo(config);
+        return executor.map(gray, halo, band -> BinarizeSteps.morphology(BinarizeSteps.blur(band, config)
+            .apply((source, target) -> applyAdaptiveThreshold(source, target, config.getBlockSize(), config.getC()))
+            .threshold(128), config));
     }
     
     @Override
@@ -58,22 +60,22 @@ public class AdaptiveMeanBinarizer implements Binarizer {
         return "AdaptiveMean";
     }
     
+    
     /**
      * Apply adaptive mean thresholding using integral image for efficiency.
-     * Each pixel is compared to the mean of its neighborhood.
+     * Each pixel is compared to the mean of its neighborhood; the target gets 255 or 0.
      */
-    private BufferedImage applyAdaptiveThreshold(BufferedImage gray, int blockSize, double C) {
+    private void applyAdaptiveThreshold(GrayImage gray, GrayImage target, int blockSize, double C) {
         int width = gray.getWidth();
         int height = gray.getHeight();
         
-        byte[] pixels = ImageUtils.getPixels(gray);
+        byte[] pixels = gray.getPixels();
         
         // Build integral image for fast mean calculation
-        long[][] integral = buildIntegralImage(pixels, width, height);
+        IntegralImage integral = IntegralImage.of(pixels, width, height, false);
         
         // Apply adaptive threshold
-        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
-        byte[] outputPixels = new byte[width * height];
+        byte[] outputPixels = target.getPixels();
         
         int radius = blockSize / 2;
         
@@ -87,7 +89,7 @@ public class AdaptiveMeanBinarizer implements Binarizer {
                 
                 // Calculate mean using integral image
                 int count = (x2 - x1 + 1) * (y2 - y1 + 1);
-                long sum = getIntegralSum(integral, x1, y1, x2, y2);
+                long sum = integral.sum(x1, y1, x2, y2);
                 double mean = (double) sum / count;
                 
                 // Apply threshold
@@ -95,41 +97,5 @@ public class AdaptiveMeanBinarizer implements Binarizer {
                 outputPixels[y * width + x] = (byte) (pixel >= (mean - C) ? 255 : 0);
             }
         }
-        
-        ImageUtils.setPixels(binary, outputPixels);
-        return ImageUtils.toBinaryImage(binary);
-    }
-    
-    /**
-     * Build an integral image (summed area table) for fast region sum calculation.
-     * integral[y][x] = sum of all pixels from (0,0) to (x,y) inclusive.
-     */
-    private long[][] buildIntegralImage(byte[] pixels, int width, int height) {
-        long[][] integral = new long[height + 1][width + 1];
-        
-        for (int y = 1; y <= height; y++) {
-            long rowSum = 0;
-            for (int x = 1; x <= width; x++) {
-                int pixel = pixels[(y - 1) * width + (x - 1)] & 0xFF;
-                rowSum += pixel;
-                integral[y][x] = integral[y - 1][x] + rowSum;
-            }
-        }
-        
-        return integral;
-    }
-    
-    /**
-     * Calculate sum of pixels in a rectangle using the integral image.
-     * This operation is O(1) regardless of rectangle size.
-     */
-    private long getIntegralSum(long[][] integral, int x1, int y1, int x2, int y2) {
-        // Convert to 1-based indices for integral image
-        x1++; y1++; x2++; y2++;
-        
-        return integral[y2][x2] 
-             - integral[y1 - 1][x2]
-             - integral[y2][x1 - 1]
-             + integral[y1 - 1][x1 - 1];
     }
 }
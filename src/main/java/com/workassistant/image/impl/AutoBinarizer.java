@@ -0,0 +1,62 @@
+package com.workassistant.image.impl;
+
+import com.workassistant.image.BinarizationTuner;
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.Binarizer;
+import com.workassistant.image.BinarizerFactory;
+import com.workassistant.image.ImageUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Binarizer for {@link BinarizeConfig.Algorithm#AUTO}: tunes the configuration for each
+ * image with {@link BinarizationTuner} and runs the binarizer it chose.
+ * The tuned configuration keeps {@code useOpenCV}, so the chosen algorithm can still run natively.
+ */
+public class AutoBinarizer implements Binarizer {
+    
+    private final BinarizationTuner tuner;
+    
+    public AutoBinarizer() {
+        this(new BinarizationTuner());
+    }
+    
+    /**
+     * @param tuner Chooses the algorithm and window size per image
+     */
+    public AutoBinarizer(BinarizationTuner tuner) {
+        this.tuner = tuner;
+    }
+    
+    @Override
+    public BufferedImage binarize(BufferedImage input, BinarizeConfig config) {
+        BinarizeConfig tuned = tuner.tune(input, config).getConfig();
+        return BinarizerFactory.createBinarizer(tuned).binarize(input, tuned);
+    }
+    
+    @Override
+    public BufferedImage binarize(String inputPath, BinarizeConfig config) throws IOException {
+        BufferedImage input = ImageUtils.loadImage(inputPath);
+        return binarize(input, config);
+    }
+    
+    @Override
+    public void binarize(String inputPath, String outputPath, BinarizeConfig config) throws IOException {
+        BufferedImage result = binarize(inputPath, config);
+        ImageUtils.saveImage(result, outputPath);
+    }
+    
+    @Override
+    public String getName() {
+        return "Auto";
+    }
+    
+    /**
+     * Get the statistics and configuration that would be used for the given image.
+     * Useful for debugging and CLI output.
+     */
+    public BinarizationTuner.Result tune(BufferedImage image, BinarizeConfig config) {
+        return tuner.tune(image, config);
+    }
+}
@@ -1,8 +1,10 @@
 package com.workassistant.image.impl;
 
 import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.BinarizeSteps;
 import com.workassistant.image.Binarizer;
 import com.workassistant.image.ImageUtils;
+import com.workassistant.image.TileExecutor;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -13,32 +15,28 @@ import java.io.IOException;
  */
 public class GlobalBinarizer implements Binarizer {
     
+    private final TileExecutor executor;
+    
+    public GlobalBinarizer() {
+        this(TileExecutor.getInstance());
+    }
+    
+    /**
+     * @param executor Runs the local steps (blur, thresholding, morphology) band by band
+     */
+    public GlobalBinarizer(TileExecutor executor) {
+        this.executor = executor;
+    }
+    
     @Override
     public BufferedImage binarize(BufferedImage input, BinarizeConfig config) {
         // Convert to grayscale
         BufferedImage gray = ImageUtils.toGrayscale(input);
         
-        // Apply blur if configured
-        if (config.getBlurKernelSize() > 0) {
-            if (config.isUseMedianBlur()) {
-                gray = ImageUtils.applyMedianBlur(gray, config.getBlurKernelSize());
-            } else {
-                gray = ImageUtils.applyGaussianBlur(gray, config.getBlurKernelSize());
-            }
-        }
-        
-        // Apply global threshold
-        BufferedImage binary = applyThreshold(gray, config.getThreshold());
-        
-        // Apply morphological operations if configured
-        if (config.isUseMorphologicalOpening()) {
-            binary = ImageUtils.open(binary, config.getMorphKernelSize());
-        }
-        if (config.isUseMorphologicalClosing()) {
-            binary = ImageUtils.close(binary, config.getMorphKernelSize());
-        }
-        
-        return binary;
+        // Blur, threshold and clean up each band; the halo covers every step's reach
+        int halo = TileExecutor.blurHalo(config) + TileExecutor.morphologyHalo(config);
+        return executor.map(gray, halo, band ->
+            BinarizeSteps.morphology(BinarizeSteps.blur(band, config).threshold(config.getThreshold()), config));
     }
     
     @Override
@@ -57,24 +55,4 @@ public class GlobalBinarizer implements Binarizer {
     public String getName() {
         return "Global";
     }
-    
-    /**
-     * Apply a fixed threshold to create a binary image.
-     */
-    private BufferedImage applyThreshold(BufferedImage gray, int threshold) {
-        int width = gray.getWidth();
-        int height = gray.getHeight();
-        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
-        
-        byte[] inputPixels = ImageUtils.getPixels(gray);
-        byte[] outputPixels = new byte[width * height];
-        
-        for (int i = 0; i < inputPixels.length; i++) {
-            int pixel = inputPixels[i] & 0xFF;
-            outputPixels[i] = (byte) (pixel >= threshold ? 255 : 0);
-        }
-        
-        ImageUtils.setPixels(binary, outputPixels);
-        return ImageUtils.toBinaryImage(binary);
-    }
 }
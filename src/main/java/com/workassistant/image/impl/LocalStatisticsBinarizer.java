@@ -0,0 +1,91 @@
+package com.workassistant.image.impl;
+
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.BinarizeSteps;
+import com.workassistant.image.Binarizer;
+import com.workassistant.image.GrayImage;
+import com.workassistant.image.ImageUtils;
+import com.workassistant.image.IntegralImage;
+import com.workassistant.image.TileExecutor;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Base class for local thresholding from the mean and standard deviation of a
+ * blockSize x blockSize window, both read in O(1) from sum and sum-of-squares integral
+ * images. Subclasses only supply the threshold formula; a pixel is white when it is
+ * above its threshold.
+ */
+public abstract class LocalStatisticsBinarizer implements Binarizer {
+    
+    private final TileExecutor executor;
+    
+    protected LocalStatisticsBinarizer(TileExecutor executor) {
+        this.executor = executor;
+    }
+    
+    @Override
+    public BufferedImage binarize(BufferedImage input, BinarizeConfig config) {
+        // Convert to grayscale
+        BufferedImage gray = ImageUtils.toGrayscale(input);
+        
+        // Blur, threshold and clean up each band. The window is clipped to the image,
+        // so a band with blockSize / 2 extra rows gives its own rows the same statistics.
+        int halo = TileExecutor.blurHalo(config) + config.getBlockSize() / 2 + TileExecutor.morphologyHalo(config);
+        return executor.map(gray, halo, band -> BinarizeSteps.morphology(BinarizeSteps.blur(band, config)
+            .apply((source, target) -> applyLocalThreshold(source, target, config))
+            .threshold(128), config));
+    }
+    
+    @Override
+    public BufferedImage binarize(String inputPath, BinarizeConfig config) throws IOException {
+        BufferedImage input = ImageUtils.loadImage(inputPath);
+        return binarize(input, config);
+    }
+    
+    @Override
+    public void binarize(String inputPath, String outputPath, BinarizeConfig config) throws IOException {
+        BufferedImage result = binarize(inputPath, config);
+        ImageUtils.saveImage(result, outputPath);
+    }
+    
+    /**
+     * Threshold for a pixel whose window has the given mean and standard deviation.
+     */
+    protected abstract double threshold(double mean, double stdDev, BinarizeConfig config);
+    
+    
+    /**
+     * Compare each pixel with the threshold computed from its window statistics;
+     * the target gets 255 or 0.
+     */
+    private void applyLocalThreshold(GrayImage gray, GrayImage target, BinarizeConfig config) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        
+        byte[] pixels = gray.getPixels();
+        IntegralImage integral = IntegralImage.of(pixels, width, height, true);
+        
+        byte[] outputPixels = target.getPixels();
+        
+        int radius = config.getBlockSize() / 2;
+        
+        for (int y = 0; y < height; y++) {
+            int y1 = Math.max(0, y - radius);
+            int y2 = Math.min(height - 1, y + radius);
+            for (int x = 0; x < width; x++) {
+                int x1 = Math.max(0, x - radius);
+                int x2 = Math.min(width - 1, x + radius);
+                
+                int count = (x2 - x1 + 1) * (y2 - y1 + 1);
+                double mean = (double) integral.sum(x1, y1, x2, y2) / count;
+                double variance = (double) integral.sumOfSquares(x1, y1, x2, y2) / count - mean * mean;
+                double stdDev = variance > 0 ? Math.sqrt(variance) : 0;
+                
+                int pixel = pixels[y * width + x] & 0xFF;
+                outputPixels[y * width + x] = (byte) (pixel > threshold(mean, stdDev, config) ? 255 : 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.workassistant.image.impl;
+
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.TileExecutor;
+
+/**
+ * Pure Java implementation of Niblack's local thresholding.
+ * The threshold is mean + k * stdDev - C; the constant C keeps perfectly flat
+ * regions, where the standard deviation is zero, white.
+ */
+public class NiblackBinarizer extends LocalStatisticsBinarizer {
+    
+    public NiblackBinarizer() {
+        this(TileExecutor.getInstance());
+    }
+    
+    /**
+     * @param executor Runs the local steps (blur, thresholding, morphology) band by band
+     */
+    public NiblackBinarizer(TileExecutor executor) {
+        super(executor);
+    }
+    
+    @Override
+    public String getName() {
+        return "Niblack";
+    }
+    
+    @Override
+    protected double threshold(double mean, double stdDev, BinarizeConfig config) {
+        return mean + config.getK() * stdDev - config.getC();
+    }
+}
@@ -1,74 +0,0 @@
-package com.workassistant.image.impl;
-
-import com.workassistant.image.BinarizeConfig;
-import com.workassistant.image.Binarizer;
-import com.workassistant.image.ImageUtils;
-
-import java.awt.image.BufferedImage;
-import java.io.IOException;
-
-/**
- * OpenCV-backed binarization implementation.
- * 
- * This class is only available when the OpenCV dependency is added to the project.
- * To use this implementation:
- * 
- * 1. Add OpenCV dependency to pom.xml:
- * <dependency>
- *     <groupId>org.bytedeco</groupId>
- *     <artifactId>opencv-platform</artifactId>
- *     <version>4.8.1-1.5.10</version>
- * </dependency>
- * 
- * 2. Set useOpenCV flag in configuration:
- * BinarizeConfig config = new BinarizeConfig().setUseOpenCV(true);
- * 
- * Note: This class is provided as a template. The actual OpenCV implementation
- * would use org.bytedeco.opencv classes for native performance on large images.
- * 
- * For most use cases, the pure Java implementations (OtsuBinarizer, AdaptiveMeanBinarizer)
- * provide sufficient performance without requiring native dependencies.
- */
-public class OpenCVBinarizer implements Binarizer {
-    
-    public OpenCVBinarizer() {
-        // Verify OpenCV is available
-        try {
-            Class.forName("org.bytedeco.opencv.opencv_core.Mat");
-        } catch (ClassNotFoundException e) {
-            throw new IllegalStateException(
-                "OpenCV classes not found. Please add opencv-platform dependency to pom.xml", e);
-        }
-    }
-    
-    @Override
-    public BufferedImage binarize(BufferedImage input, BinarizeConfig config) {
-        // TODO: Implement OpenCV-backed binarization
-        // This would use:
-        // - org.bytedeco.opencv.opencv_imgproc.Imgproc.threshold(..., THRESH_OTSU)
-        // - org.bytedeco.opencv.opencv_imgproc.Imgproc.adaptiveThreshold(...)
-        // - org.bytedeco.opencv.opencv_imgproc.Imgproc.GaussianBlur(...)
-        // - org.bytedeco.opencv.opencv_imgproc.Imgproc.morphologyEx(...)
-        
-        throw new UnsupportedOperationException(
-            "OpenCV binarizer is not yet fully implemented. " +
-            "Use pure Java implementations (OtsuBinarizer, AdaptiveMeanBinarizer) instead.");
-    }
-    
-    @Override
-    public BufferedImage binarize(String inputPath, BinarizeConfig config) throws IOException {
-        BufferedImage input = ImageUtils.loadImage(inputPath);
-        return binarize(input, config);
-    }
-    
-    @Override
-    public void binarize(String inputPath, String outputPath, BinarizeConfig config) throws IOException {
-        BufferedImage result = binarize(inputPath, config);
-        ImageUtils.saveImage(result, outputPath);
-    }
-    
-    @Override
-    public String getName() {
-        return "OpenCV";
-    }
-}
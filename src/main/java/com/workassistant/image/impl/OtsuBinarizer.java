@@ -1,8 +1,11 @@
 package com.workassistant.image.impl;
 
 import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.BinarizeSteps;
 import com.workassistant.image.Binarizer;
 import com.workassistant.image.ImageUtils;
+import com.workassistant.image.PixelKernels;
+import com.workassistant.image.TileExecutor;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -13,35 +16,33 @@ import java.io.IOException;
  */
 public class OtsuBinarizer implements Binarizer {
     
+    private final TileExecutor executor;
+    
+    public OtsuBinarizer() {
+        this(TileExecutor.getInstance());
+    }
+    
+    /**
+     * @param executor Runs the local steps (blur, thresholding, morphology) band by band
+     */
+    public OtsuBinarizer(TileExecutor executor) {
+        this.executor = executor;
+    }
+    
     @Override
     public BufferedImage binarize(BufferedImage input, BinarizeConfig config) {
         // Convert to grayscale
         BufferedImage gray = ImageUtils.toGrayscale(input);
         
-        // Apply blur if configured
-        if (config.getBlurKernelSize() > 0) {
-            if (config.isUseMedianBlur()) {
-                gray = ImageUtils.applyMedianBlur(gray, config.getBlurKernelSize());
-            } else {
-                gray = ImageUtils.applyGaussianBlur(gray, config.getBlurKernelSize());
-            }
-        }
+        // Blur band by band; the threshold needs the histogram of the whole blurred image
+        BufferedImage blurred = executor.map(gray, TileExecutor.blurHalo(config), band -> BinarizeSteps.blur(band, config).toBufferedImage());
         
         // Calculate optimal threshold using Otsu's method
-        int threshold = calculateOtsuThreshold(gray);
-        
-        // Apply threshold
-        BufferedImage binary = applyThreshold(gray, threshold);
-        
-        // Apply morphological operations if configured
-        if (config.isUseMorphologicalOpening()) {
-            binary = ImageUtils.open(binary, config.getMorphKernelSize());
-        }
-        if (config.isUseMorphologicalClosing()) {
-            binary = ImageUtils.close(binary, config.getMorphKernelSize());
-        }
+        int threshold = calculateOtsuThreshold(blurred);
         
-        return binary;
+        // Apply threshold and clean up band by band
+        return executor.map(blurred, TileExecutor.morphologyHalo(config), band ->
+            BinarizeSteps.morphology(applyThreshold(band, threshold), config));
     }
     
     @Override
@@ -61,6 +62,7 @@ public class OtsuBinarizer implements Binarizer {
         return "Otsu";
     }
     
+    
     /**
      * Calculate the optimal threshold using Otsu's method.
      * This method finds the threshold that minimizes the weighted within-class variance.
@@ -69,13 +71,15 @@ public class OtsuBinarizer implements Binarizer {
         // Calculate histogram
         int[] histogram = new int[256];
         byte[] pixels = ImageUtils.getPixels(image);
-        
-        for (byte pixel : pixels) {
-            histogram[pixel & 0xFF]++;
-        }
-        
-        int total = pixels.length;
-        
+        PixelKernels.get().histogram(pixels, histogram);
+        return calculateOtsuThreshold(histogram, pixels.length);
+    }
+    
+    /**
+     * Otsu's threshold of a 256-bin histogram of {@code total} pixels.
+     * Shared with the OpenCV and streaming binarizers so all choose the same level.
+     */
+    public static int calculateOtsuThreshold(int[] histogram, int total) {
         // Calculate sum of all intensities
         double sum = 0;
         for (int i = 0; i < 256; i++) {
@@ -102,7 +106,8 @@ public class OtsuBinarizer implements Binarizer {
             double mF = (sum - sumB) / wF; // Mean foreground
             
             // Calculate between-class variance
-            double variance = wB * wF * (mB - mF) * (mB - mF);
+            // In double: the pixel counts multiply past the int range from about 92k pixels
+            double variance = (double) wB * wF * (mB - mF) * (mB - mF);
             
             if (variance > maxVariance) {
                 maxVariance = variance;
@@ -117,20 +122,7 @@ public class OtsuBinarizer implements Binarizer {
      * Apply a threshold to create a binary image.
      */
     private BufferedImage applyThreshold(BufferedImage gray, int threshold) {
-        int width = gray.getWidth();
-        int height = gray.getHeight();
-        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
-        
-        byte[] inputPixels = ImageUtils.getPixels(gray);
-        byte[] outputPixels = new byte[width * height];
-        
-        for (int i = 0; i < inputPixels.length; i++) {
-            int pixel = inputPixels[i] & 0xFF;
-            outputPixels[i] = (byte) (pixel >= threshold ? 255 : 0);
-        }
-        
-        ImageUtils.setPixels(binary, outputPixels);
-        return ImageUtils.toBinaryImage(binary);
+        return ImageUtils.threshold(gray, threshold);
     }
     
     /**
@@ -0,0 +1,37 @@
+package com.workassistant.image.impl;
+
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.TileExecutor;
+
+/**
+ * Pure Java implementation of Sauvola's local thresholding.
+ * The threshold mean * (1 + k * (stdDev / R - 1)) drops well below the mean only where
+ * the window has contrast, so faint text survives and flat or dimly lit background
+ * stays white.
+ */
+public class SauvolaBinarizer extends LocalStatisticsBinarizer {
+    
+    /** Dynamic range of the standard deviation for 8-bit images */
+    private static final double DYNAMIC_RANGE = 128.0;
+    
+    public SauvolaBinarizer() {
+        this(TileExecutor.getInstance());
+    }
+    
+    /**
+     * @param executor Runs the local steps (blur, thresholding, morphology) band by band
+     */
+    public SauvolaBinarizer(TileExecutor executor) {
+        super(executor);
+    }
+    
+    @Override
+    public String getName() {
+        return "Sauvola";
+    }
+    
+    @Override
+    protected double threshold(double mean, double stdDev, BinarizeConfig config) {
+        return mean * (1 + config.getK() * (stdDev / DYNAMIC_RANGE - 1));
+    }
+}
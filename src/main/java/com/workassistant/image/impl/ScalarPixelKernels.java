@@ -0,0 +1,107 @@
+package com.workassistant.image.impl;
+
+import com.workassistant.image.PixelKernels;
+
+/**
+ * Plain Java pixel kernels, used when the Vector API is not available and as the
+ * reference the vector kernels are tested against.
+ */
+public class ScalarPixelKernels implements PixelKernels {
+
+    @Override
+    public void grayFromRgb(int[] rgb, byte[] gray, int count) {
+        for (int i = 0; i < count; i++) {
+            int pixel = rgb[i];
+            gray[i] = luma((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+        }
+    }
+
+    @Override
+    public void grayFromBgr(byte[] bgr, byte[] gray, int count) {
+        for (int i = 0, j = 0; i < count; i++, j += 3) {
+            gray[i] = luma(bgr[j + 2] & 0xFF, bgr[j + 1] & 0xFF, bgr[j] & 0xFF);
+        }
+    }
+
+    @Override
+    public boolean grayFromArgb(int[] argb, byte[] gray, int count) {
+        int alpha = 0xFF000000;
+        for (int i = 0; i < count; i++) {
+            int pixel = argb[i];
+            alpha &= pixel;
+            gray[i] = luma((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+        }
+        return alpha == 0xFF000000;
+    }
+
+    @Override
+    public boolean grayFromAbgr(byte[] abgr, byte[] gray, int count) {
+        int alpha = 0xFF;
+        for (int i = 0, j = 0; i < count; i++, j += 4) {
+            alpha &= abgr[j];
+            gray[i] = luma(abgr[j + 3] & 0xFF, abgr[j + 2] & 0xFF, abgr[j + 1] & 0xFF);
+        }
+        return (alpha & 0xFF) == 0xFF;
+    }
+
+    /**
+     * Counts into four interleaved tables and sums them at the end. Screenshots have long
+     * runs of one gray level, and a single table would make every increment wait for the
+     * previous store to the same counter.
+     */
+    @Override
+    public void histogram(byte[] pixels, int[] histogram) {
+        int[] h0 = new int[256];
+        int[] h1 = new int[256];
+        int[] h2 = new int[256];
+        int[] h3 = new int[256];
+        int i = 0;
+        int limit = pixels.length - 3;
+        for (; i < limit; i += 4) {
+            h0[pixels[i] & 0xFF]++;
+            h1[pixels[i + 1] & 0xFF]++;
+            h2[pixels[i + 2] & 0xFF]++;
+            h3[pixels[i + 3] & 0xFF]++;
+        }
+        for (; i < pixels.length; i++) {
+            h0[pixels[i] & 0xFF]++;
+        }
+        for (int v = 0; v < 256; v++) {
+            histogram[v] += h0[v] + h1[v] + h2[v] + h3[v];
+        }
+    }
+
+    @Override
+    public void threshold(byte[] gray, int width, int height, int threshold, byte[] packed, int stride) {
+        for (int y = 0; y < height; y++) {
+            thresholdRow(gray, y * width, width, threshold, packed, y * stride, 0);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    /**
+     * Threshold the pixels of one row from column {@code fromX} (a multiple of 8) to the end.
+     */
+    protected static void thresholdRow(byte[] gray, int rowStart, int width, int threshold,
+                                       byte[] packed, int packedRowStart, int fromX) {
+        int out = packedRowStart + fromX / 8;
+        for (int x = fromX; x < width; x += 8) {
+            int bits = 0;
+            int end = Math.min(8, width - x);
+            for (int b = 0; b < end; b++) {
+                if ((gray[rowStart + x + b] & 0xFF) >= threshold) {
+                    bits |= 0x80 >>> b;
+                }
+            }
+            packed[out++] = (byte) bits;
+        }
+    }
+
+    protected static byte luma(int r, int g, int b) {
+        return (byte) ((77 * r + 150 * g + 29 * b + 128) >> 8);
+    }
+}
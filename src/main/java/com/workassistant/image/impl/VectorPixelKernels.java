@@ -0,0 +1,98 @@
+package com.workassistant.image.impl;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Pixel kernels on the Vector API, using the widest SIMD registers of the CPU.
+ *
+ * Only loaded when {@code jdk.incubator.vector} is in the module graph (see
+ * {@link com.workassistant.image.PixelKernels#get()}). Loops that do not map onto SIMD
+ * lanes (the histogram, which would need conflict-free scatter) and the tails of rows
+ * shorter than a register use the scalar code.
+ */
+public class VectorPixelKernels extends ScalarPixelKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    // Int vectors narrowed into one byte vector
+    private static final int INTS_PER_BYTES = BYTES.length() / INTS.length();
+
+    @Override
+    public void grayFromRgb(int[] rgb, byte[] gray, int count) {
+        convertPacked(rgb, gray, count);
+    }
+
+    @Override
+    public boolean grayFromArgb(int[] argb, byte[] gray, int count) {
+        return (convertPacked(argb, gray, count) >>> 24) == 0xFF;
+    }
+
+    /**
+     * Convert packed RGB pixels, ignoring the top byte.
+     *
+     * @return the AND of all pixels, so callers can tell whether every alpha was 0xFF
+     *         without a second pass over the array
+     */
+    private static int convertPacked(int[] rgb, byte[] gray, int count) {
+        int step = BYTES.length();
+        IntVector all = IntVector.broadcast(INTS, -1);
+        int i = 0;
+        for (; i <= count - step; i += step) {
+            ByteVector packed = ByteVector.zero(BYTES);
+            for (int part = 0; part < INTS_PER_BYTES; part++) {
+                IntVector pixel = IntVector.fromArray(INTS, rgb, i + part * INTS.length());
+                all = all.and(pixel);
+                IntVector r = pixel.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+                IntVector g = pixel.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+                IntVector b = pixel.and(0xFF);
+                IntVector luma = r.mul(77).add(g.mul(150)).add(b.mul(29)).add(128)
+                    .lanewise(VectorOperators.LSHR, 8);
+                // Negative part numbers place the narrowed lanes in block `part` of the output
+                packed = packed.or((ByteVector) luma.convertShape(VectorOperators.I2B, BYTES, -part));
+            }
+            packed.intoArray(gray, i);
+        }
+        int and = all.reduceLanes(VectorOperators.AND);
+        for (; i < count; i++) {
+            int pixel = rgb[i];
+            and &= pixel;
+            gray[i] = luma((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+        }
+        return and;
+    }
+
+    @Override
+    public void threshold(byte[] gray, int width, int height, int threshold, byte[] packed, int stride) {
+        if (threshold <= 0 || threshold > 255) {
+            // Constant output; not representable as an unsigned byte comparison
+            super.threshold(gray, width, height, threshold, packed, stride);
+            return;
+        }
+        int step = BYTES.length();
+        byte level = (byte) threshold;
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * width;
+            int out = y * stride;
+            int x = 0;
+            for (; x <= width - step; x += step) {
+                VectorMask<Byte> white = ByteVector.fromArray(BYTES, gray, rowStart + x)
+                    .compare(VectorOperators.UNSIGNED_GE, level);
+                // Lane 0 is the lowest mask bit; the raster wants the leftmost pixel in the highest bit
+                long bits = Long.reverseBytes(Long.reverse(white.toLong()));
+                for (int b = 0; b < step; b += 8) {
+                    packed[out++] = (byte) (bits >>> b);
+                }
+            }
+            thresholdRow(gray, rowStart, width, threshold, packed, y * stride, x);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + BYTES.vectorBitSize();
+    }
+}
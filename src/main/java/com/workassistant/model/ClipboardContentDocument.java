@@ -1,5 +1,7 @@
 package com.workassistant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -7,7 +9,11 @@ import java.util.List;
 /**
  * Document model for clipboard content stored in Elasticsearch
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ClipboardContentDocument {
+    /** Value of the `docType` discriminator stored with clipboard documents */
+    public static final String DOC_TYPE = "clipboard";
+
     private String id;
     private String title;               // AI-generated title
     private String text;                // Text content from clipboard
@@ -75,6 +81,14 @@ public class ClipboardContentDocument {
         this.keywords = keywords;
     }
 
+    /**
+     * Document type discriminator written to the shared KB index
+     */
+    @JsonProperty(value = "docType", access = JsonProperty.Access.READ_ONLY)
+    public String getDocType() {
+        return DOC_TYPE;
+    }
+
     public String getChannelId() {
         return channelId;
     }
@@ -102,9 +116,12 @@ public class ClipboardContentDocument {
     /**
      * Image metadata with OCR keywords
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ImageMetadata {
         private String path;
         private List<String> keywords;
+        private boolean ocrSkipped;
+        private Double textLikelihood;
 
         public ImageMetadata() {
             this.keywords = new ArrayList<>();
@@ -130,5 +147,27 @@ public class ClipboardContentDocument {
         public void setKeywords(List<String> keywords) {
             this.keywords = keywords;
         }
+
+        /**
+         * Whether OCR was skipped because the image showed no text
+         */
+        public boolean isOcrSkipped() {
+            return ocrSkipped;
+        }
+
+        public void setOcrSkipped(boolean ocrSkipped) {
+            this.ocrSkipped = ocrSkipped;
+        }
+
+        /**
+         * Text likelihood from the OCR pre-check, or null when the check did not run
+         */
+        public Double getTextLikelihood() {
+            return textLikelihood;
+        }
+
+        public void setTextLikelihood(Double textLikelihood) {
+            this.textLikelihood = textLikelihood;
+        }
     }
 }
@@ -0,0 +1,186 @@
+package com.workassistant.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clipboard ingestion job tracked by the ingestion queue
+ * Holds the pasted content, the current stage and the intermediate results of finished stages,
+ * so a job journaled before a restart can resume where it stopped.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class IngestJob {
+
+    /**
+     * Processing stages, in order
+     */
+    public enum Stage {
+        OCR,        // Extract keywords from images
+        KEYWORDS,   // Extract keywords from text
+        TITLE,      // Generate AI title
+        INDEX,      // Store in Elasticsearch
+        DONE,
+        FAILED;
+
+        public boolean isTerminal() {
+            return this == DONE || this == FAILED;
+        }
+
+        public Stage next() {
+            switch (this) {
+                case OCR: return KEYWORDS;
+                case KEYWORDS: return TITLE;
+                case TITLE: return INDEX;
+                default: return DONE;
+            }
+        }
+    }
+
+    private String id;
+    private String channelId;
+    private String userId;
+    private String messageId;
+    private ClipboardData clipboardData;
+    private Stage stage;
+    private int attempts;           // Failed attempts of the current stage
+    private String lastError;
+    private Stage failedStage;      // Stage that exhausted its retries, set once the job is FAILED
+    private long createdAt;
+    private long updatedAt;
+
+    // Stage results
+    private List<ClipboardContentDocument.ImageMetadata> imageMetadata;
+    private List<String> keywords;
+    private String title;
+
+    public IngestJob() {
+        this.imageMetadata = new ArrayList<>();
+        this.keywords = new ArrayList<>();
+    }
+
+    public IngestJob(String id, String channelId, String userId, String messageId, ClipboardData clipboardData) {
+        this();
+        this.id = id;
+        this.channelId = channelId;
+        this.userId = userId;
+        this.messageId = messageId;
+        this.clipboardData = clipboardData;
+        this.stage = Stage.OCR;
+        this.createdAt = System.currentTimeMillis();
+        this.updatedAt = this.createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+
+    public void setChannelId(String channelId) {
+        this.channelId = channelId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    public ClipboardData getClipboardData() {
+        return clipboardData;
+    }
+
+    public void setClipboardData(ClipboardData clipboardData) {
+        this.clipboardData = clipboardData;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public void setStage(Stage stage) {
+        this.stage = stage;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Stage getFailedStage() {
+        return failedStage;
+    }
+
+    public void setFailedStage(Stage failedStage) {
+        this.failedStage = failedStage;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public List<ClipboardContentDocument.ImageMetadata> getImageMetadata() {
+        return imageMetadata;
+    }
+
+    public void setImageMetadata(List<ClipboardContentDocument.ImageMetadata> imageMetadata) {
+        this.imageMetadata = imageMetadata;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(List<String> keywords) {
+        this.keywords = keywords;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
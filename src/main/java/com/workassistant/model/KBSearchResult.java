@@ -0,0 +1,91 @@
+package com.workassistant.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight knowledge base search hit.
+ * Carries only the fields needed to present a result plus the best-matching
+ * passages returned by Elasticsearch highlighting, instead of the full document body.
+ */
+public class KBSearchResult {
+    private String id;
+    private String docType;           // "summary" or "clipboard"
+    private String title;
+    private List<String> keywords;
+    private LocalDateTime timestamp;
+    private Double score;
+    private List<String> highlights;  // Best-matching passages, in relevance order
+
+    public KBSearchResult() {
+        this.keywords = new ArrayList<>();
+        this.highlights = new ArrayList<>();
+    }
+
+    public KBSearchResult(String id, String title, List<String> keywords, LocalDateTime timestamp,
+                          Double score, List<String> highlights) {
+        this.id = id;
+        this.title = title;
+        this.keywords = keywords != null ? keywords : new ArrayList<>();
+        this.timestamp = timestamp;
+        this.score = score;
+        this.highlights = highlights != null ? highlights : new ArrayList<>();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDocType() {
+        return docType;
+    }
+
+    public void setDocType(String docType) {
+        this.docType = docType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(List<String> keywords) {
+        this.keywords = keywords;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public List<String> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(List<String> highlights) {
+        this.highlights = highlights;
+    }
+}
@@ -1,6 +1,8 @@
 package com.workassistant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -10,6 +12,9 @@ import java.util.List;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SummaryDocument {
+    /** Value of the `docType` discriminator stored with summary documents */
+    public static final String DOC_TYPE = "summary";
+
     private String id;
     private String title;
     private String content;  // Markdown format
@@ -57,7 +62,9 @@ public class SummaryDocument {
 
     /**
      * Backwards-compatibility accessor for sources that use `text` instead of `content`.
+     * Not serialized, so summaries are only indexed under `content`.
      */
+    @JsonIgnore
     public String getText() {
         return this.content;
     }
@@ -65,6 +72,7 @@ public class SummaryDocument {
     /**
      * Backwards-compatibility mutator for sources that use `text` instead of `content`.
      */
+    @JsonProperty("text")
     public void setText(String text) {
         this.content = text;
     }
@@ -85,6 +93,14 @@ public class SummaryDocument {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Document type discriminator written to the shared KB index
+     */
+    @JsonProperty(value = "docType", access = JsonProperty.Access.READ_ONLY)
+    public String getDocType() {
+        return DOC_TYPE;
+    }
+
     public String getChannelId() {
         return channelId;
     }
@@ -1,5 +1,6 @@
 package com.workassistant.service;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.mapping.*;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
@@ -7,12 +8,21 @@ import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
+import co.elastic.clients.elasticsearch.core.search.HighlighterOrder;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
 import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
 import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.AliasDefinition;
+import co.elastic.clients.elasticsearch.indices.RolloverResponse;
+import co.elastic.clients.elasticsearch.indices.get_alias.IndexAliases;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.workassistant.config.AppConfig;
+import com.workassistant.model.KBSearchResult;
 import com.workassistant.model.SummaryDocument;
 import com.workassistant.model.ClipboardContentDocument;
 import org.apache.http.HttpHost;
@@ -21,10 +31,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for Elasticsearch operations
@@ -33,9 +55,39 @@ import java.util.Map;
 public class ElasticsearchService {
     private static final Logger logger = LoggerFactory.getLogger(ElasticsearchService.class);
     private static ElasticsearchService instance;
-    
+
+    // Highlighting limits for snippet search (characters per fragment, fragments per field)
+    private static final int SNIPPET_FRAGMENT_SIZE = 160;
+    private static final int SNIPPET_MAX_FRAGMENTS = 3;
+    // Fields returned by snippet search; bodies are served through highlights instead
+    private static final List<String> SNIPPET_SOURCE_FIELDS =
+        List.of("docType", "title", "keywords", "timestamp", "channelId", "userId");
+    // Fields searched per document type; clipboard images are only searched on request
+    private static final List<String> SUMMARY_SEARCH_FIELDS = List.of("title^3", "content", "keywords^2");
+    private static final List<String> CLIPBOARD_SEARCH_FIELDS = List.of("title^3", "text", "keywords^2");
+    // Completion suggester settings
+    private static final String SUGGEST_FIELD = "suggest";
+    private static final int SUGGEST_MAX_INPUT_LENGTH = 50;
+    // Suffix of the monthly backing indices, e.g. work_assistant_summaries-2024.05
+    private static final DateTimeFormatter INDEX_MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy.MM");
+
+    /**
+     * Thrown (through failed futures) when the client could not be created at startup
+     */
+    public static class NotConfiguredException extends IllegalStateException {
+        public NotConfiguredException() {
+            super("Elasticsearch not configured");
+        }
+    }
+
     private ElasticsearchClient client;
-    private final String indexName;
+    private ElasticsearchAsyncClient asyncClient;  // Shares the transport with the blocking client
+    private com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final String indexName;   // Base name: template/alias prefix and legacy index name
+    private final String writeAlias;  // Points at the current monthly index
+    private final String readAlias;   // Spans all monthly indices plus the legacy index
+    private final String templateName;
+    private ScheduledExecutorService lifecycleScheduler;
     private final String host;
     private final int port;
 
@@ -44,10 +96,14 @@ public class ElasticsearchService {
         this.host = config.getProperty("elasticsearch.host", "localhost");
         this.port = config.getIntProperty("elasticsearch.port", 9200);
         this.indexName = config.getProperty("elasticsearch.index", "work_assistant_summaries");
+        this.writeAlias = writeAliasName(indexName);
+        this.readAlias = readAliasName(indexName);
+        this.templateName = templateName(indexName);
         
         try {
             initializeClient();
             createIndexWithTemplate();
+            startLifecycleScheduler();
         } catch (Exception e) {
             logger.error("Failed to initialize Elasticsearch client", e);
         }
@@ -115,7 +171,7 @@ public class ElasticsearchService {
         RestClient restClient = builder.build();
         
         // Configure Jackson ObjectMapper to handle Java 8 date/time types
-        com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
+        this.objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
         // Register the Java Time module for LocalDateTime, Instant, etc.
         objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
         // Ensure dates are serialized in ISO format rather than timestamps when needed
@@ -126,13 +182,19 @@ public class ElasticsearchService {
         );
         
         this.client = new ElasticsearchClient(transport);
+        this.asyncClient = new ElasticsearchAsyncClient(transport);
         logger.info("Elasticsearch client initialized: {}:{}", host, port);
     }
 
     /**
-     * Create index with IK analyzer template if it doesn't exist
+     * Set up the time-based index layout if it doesn't exist yet.
      * Unified schema for both summary and clipboard content documents
-     * 
+     *
+     * Documents are written through the write alias into monthly backing indices
+     * ({@code <index>-yyyy.MM}) and searched through the read alias, which spans all
+     * backing indices plus any legacy single index named {@code <index>}. Mappings live
+     * in a composable index template so every rolled-over index picks them up.
+     *
      * Schema field usage by document type:
      * - Both types: title, keywords, timestamp, channelId, userId
      * - Summary documents: content (markdown format)
@@ -147,69 +209,9 @@ public class ElasticsearchService {
         while (true) {
             attempt++;
             try {
-                boolean exists = client.indices().exists(ExistsRequest.of(e -> e.index(indexName))).value();
-                if (!exists) {
-                    // Create unified index with IK analyzer mappings for both summary and clipboard documents
-                    Map<String, Property> properties = new HashMap<>();
-
-                    // Common fields for both document types
-                    properties.put("title", Property.of(p -> p
-                        .text(TextProperty.of(t -> t
-                            .analyzer("ik_max_word")
-                            .searchAnalyzer("ik_smart")
-                        ))
-                    ));
-
-                    properties.put("content", Property.of(p -> p
-                        .text(TextProperty.of(t -> t
-                            .analyzer("ik_max_word")
-                            .searchAnalyzer("ik_smart")
-                        ))
-                    ));
-
-                    properties.put("keywords", Property.of(p -> p
-                        .text(TextProperty.of(t -> t
-                            .analyzer("ik_max_word")
-                            .searchAnalyzer("ik_smart")
-                        ))
-                    ));
-
-                    properties.put("timestamp", Property.of(p -> p
-                        .date(DateProperty.of(d -> d.format("strict_date_optional_time||epoch_millis")))
-                    ));
-
-                    properties.put("channelId", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))));
-                    properties.put("userId", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))));
-
-                    // Additional fields for clipboard content documents
-                    properties.put("text", Property.of(p -> p
-                        .text(TextProperty.of(t -> t
-                            .analyzer("ik_max_word")
-                            .searchAnalyzer("ik_smart")
-                        ))
-                    ));
-
-                    properties.put("images", Property.of(p -> p
-                        .nested(n -> n
-                            .properties("path", Property.of(pp -> pp.keyword(k -> k)))
-                            .properties("keywords", Property.of(pp -> pp
-                                .text(t -> t
-                                    .analyzer("ik_max_word")
-                                    .searchAnalyzer("ik_smart")
-                                )
-                            ))
-                        )
-                    ));
-
-                    client.indices().create(CreateIndexRequest.of(c -> c
-                        .index(indexName)
-                        .mappings(TypeMapping.of(m -> m.properties(properties)))
-                    ));
-
-                    logger.info("Created unified Elasticsearch index: {} with IK analyzer mappings", indexName);
-                } else {
-                    logger.info("Elasticsearch index already exists: {}", indexName);
-                }
+                putIndexTemplate(true);
+                bootstrapIndices();
+                logger.info("Elasticsearch index template {} ready with IK analyzer mappings", templateName);
                 // success -> break
                 break;
             } catch (Exception e) {
@@ -232,46 +234,295 @@ public class ElasticsearchService {
     }
 
     /**
-     * Fallback: Create index with standard analyzer if IK is not available
+     * Fallback: Create index template with standard analyzer if IK is not available
      * Unified schema for both summary and clipboard content documents
      */
     private void createIndexWithStandardAnalyzer() throws IOException {
         try {
-            boolean exists = client.indices().exists(
-                ExistsRequest.of(e -> e.index(indexName))
-            ).value();
-            
-            if (!exists) {
-                Map<String, Property> properties = new HashMap<>();
-                
-                // Common fields for both document types
-                properties.put("title", Property.of(p -> p.text(TextProperty.of(t -> t))));
-                properties.put("content", Property.of(p -> p.text(TextProperty.of(t -> t))));
-                properties.put("keywords", Property.of(p -> p.text(TextProperty.of(t -> t))));
-                properties.put("timestamp", Property.of(p -> p
-                    .date(DateProperty.of(d -> d.format("strict_date_optional_time||epoch_millis")))
-                ));
-                properties.put("channelId", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))));
-                properties.put("userId", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))));
-                
-                // Additional fields for clipboard content documents
-                properties.put("text", Property.of(p -> p.text(TextProperty.of(t -> t))));
-                properties.put("images", Property.of(p -> p
-                    .nested(n -> n
-                        .properties("path", Property.of(pp -> pp.keyword(k -> k)))
-                        .properties("keywords", Property.of(pp -> pp.text(t -> t)))
-                    )
-                ));
-                
+            putIndexTemplate(false);
+            bootstrapIndices();
+            logger.info("Elasticsearch index template {} ready with standard analyzer", templateName);
+        } catch (Exception e) {
+            logger.error("Failed to create Elasticsearch index with standard analyzer", e);
+        }
+    }
+
+    /**
+     * Build the unified field mappings
+     * @param useIk Whether to analyze text fields with the IK analyzer
+     */
+    private Map<String, Property> buildProperties(boolean useIk) {
+        Map<String, Property> properties = new HashMap<>();
+        Property textProperty = useIk
+            ? Property.of(p -> p.text(t -> t.analyzer("ik_max_word").searchAnalyzer("ik_smart")))
+            : Property.of(p -> p.text(t -> t));
+
+        // Common fields for both document types
+        properties.put("title", textProperty);
+        properties.put("content", textProperty);
+        properties.put("keywords", textProperty);
+        properties.put("timestamp", Property.of(p -> p
+            .date(DateProperty.of(d -> d.format("strict_date_optional_time||epoch_millis")))
+        ));
+        properties.put("channelId", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))));
+        properties.put("userId", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))));
+        // Discriminator between summary and clipboard documents
+        properties.put("docType", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))));
+        // Prefix completion on titles and keywords, filled in at index time
+        properties.put(SUGGEST_FIELD, suggestProperty());
+
+        // Additional fields for clipboard content documents
+        properties.put("text", textProperty);
+        properties.put("images", Property.of(p -> p
+            .nested(n -> n
+                // Only displayed, never queried
+                .properties("path", Property.of(pp -> pp.keyword(k -> k.index(false))))
+                .properties("keywords", textProperty)
+                .properties("ocrSkipped", Property.of(pp -> pp.boolean_(b -> b)))
+                .properties("textLikelihood", Property.of(pp -> pp.float_(f -> f.index(false))))
+            )
+        ));
+        return properties;
+    }
+
+    private static Property suggestProperty() {
+        return Property.of(p -> p.completion(c -> c.maxInputLength(SUGGEST_MAX_INPUT_LENGTH)));
+    }
+
+    /**
+     * Create or update the composable template applied to every backing index.
+     * New indices matching {@code <index>-*} get the unified mappings and join the read alias.
+     */
+    private void putIndexTemplate(boolean useIk) throws IOException {
+        Map<String, Property> properties = buildProperties(useIk);
+        client.indices().putIndexTemplate(t -> t
+            .name(templateName)
+            .indexPatterns(indexName + "-*")
+            .priority(100)
+            .template(tm -> tm
+                .mappings(TypeMapping.of(m -> m.properties(properties)))
+                .aliases(readAlias, a -> a)
+            )
+        );
+    }
+
+    /**
+     * Make sure a write index exists behind the write alias and that a legacy
+     * single index (created before rollover was introduced) stays searchable.
+     */
+    private void bootstrapIndices() throws IOException {
+        boolean hasWriteAlias = client.indices().existsAlias(e -> e.name(writeAlias)).value();
+        if (!hasWriteAlias) {
+            String firstIndex = monthlyIndexName(indexName, LocalDate.now());
+            boolean indexExists = client.indices().exists(ExistsRequest.of(e -> e.index(firstIndex))).value();
+            if (indexExists) {
+                client.indices().updateAliases(u -> u
+                    .actions(a -> a.add(add -> add.index(firstIndex).alias(writeAlias).isWriteIndex(true)))
+                );
+            } else {
                 client.indices().create(CreateIndexRequest.of(c -> c
-                    .index(indexName)
-                    .mappings(TypeMapping.of(m -> m.properties(properties)))
+                    .index(firstIndex)
+                    .aliases(writeAlias, a -> a.isWriteIndex(true))
                 ));
-                
-                logger.info("Created unified Elasticsearch index: {} with standard analyzer", indexName);
             }
+            logger.info("Created Elasticsearch write index: {} (alias {})", firstIndex, writeAlias);
+        } else {
+            logger.info("Elasticsearch write alias already exists: {}", writeAlias);
+        }
+
+        // Keep documents from the old single-index layout visible to searches
+        boolean legacyExists = client.indices().exists(ExistsRequest.of(e -> e.index(indexName))).value();
+        if (legacyExists) {
+            client.indices().updateAliases(u -> u
+                .actions(a -> a.add(add -> add.index(indexName).alias(readAlias)))
+            );
+            logger.info("Added legacy index {} to read alias {}", indexName, readAlias);
+        }
+
+        // Indices created before the discriminator/suggester existed need those mappings too
+        try {
+            client.indices().putMapping(m -> m
+                .index(readAlias)
+                .properties("docType", Property.of(p -> p.keyword(KeywordProperty.of(k -> k))))
+                .properties(SUGGEST_FIELD, suggestProperty())
+            );
         } catch (Exception e) {
-            logger.error("Failed to create Elasticsearch index with standard analyzer", e);
+            logger.warn("Failed to add docType/suggest mappings to {}: {}", readAlias, e.getMessage());
+        }
+    }
+
+    /**
+     * Start the periodic rollover/retention check on a daemon thread
+     */
+    private void startLifecycleScheduler() {
+        int intervalMinutes = AppConfig.getInstance().getElasticsearchLifecycleCheckIntervalMinutes();
+        if (intervalMinutes <= 0) {
+            logger.info("Periodic Elasticsearch index lifecycle checks disabled; checking once at startup");
+            runLifecycleMaintenance();
+            return;
+        }
+        lifecycleScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "es-index-lifecycle");
+            t.setDaemon(true);
+            return t;
+        });
+        lifecycleScheduler.scheduleWithFixedDelay(this::runLifecycleMaintenance,
+            0, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Roll the write alias over to a new monthly index when the month changes,
+     * then apply optional force-merge and retention to older indices.
+     */
+    public void runLifecycleMaintenance() {
+        try {
+            String oldIndex = rolloverIfNeeded();
+            if (oldIndex != null && AppConfig.getInstance().isElasticsearchForcemergeEnabled()) {
+                client.indices().forcemerge(f -> f.index(oldIndex).maxNumSegments(1L));
+                logger.info("Force-merged rolled-over index: {}", oldIndex);
+            }
+            applyRetention();
+        } catch (Exception e) {
+            logger.warn("Elasticsearch index lifecycle maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Roll over the write alias if its current index belongs to a previous month
+     * @return Name of the index that was rolled over, or null if nothing changed
+     */
+    private String rolloverIfNeeded() throws IOException {
+        String currentWriteIndex = getWriteIndex();
+        String targetIndex = monthlyIndexName(indexName, LocalDate.now());
+        if (!needsRollover(currentWriteIndex, targetIndex)) {
+            return null;
+        }
+
+        RolloverResponse response = client.indices().rollover(r -> r
+            .alias(writeAlias)
+            .newIndex(targetIndex)
+        );
+        if (!response.rolledOver()) {
+            return null;
+        }
+        logger.info("Rolled over {} from {} to {}", writeAlias, response.oldIndex(), targetIndex);
+        return response.oldIndex();
+    }
+
+    /**
+     * Delete monthly indices older than the configured retention (0 keeps everything)
+     */
+    private void applyRetention() throws IOException {
+        int retentionMonths = AppConfig.getInstance().getElasticsearchRetentionMonths();
+        if (retentionMonths <= 0) {
+            return;
+        }
+        List<String> expired = expiredIndices(indexName, getBackingIndices(), getWriteIndex(),
+            YearMonth.now(), retentionMonths);
+        for (String index : expired) {
+            client.indices().delete(d -> d.index(index));
+            logger.info("Deleted index {} (older than {} months)", index, retentionMonths);
+        }
+    }
+
+    /**
+     * Resolve the concrete index currently receiving writes
+     */
+    private String getWriteIndex() throws IOException {
+        Map<String, IndexAliases> aliases = client.indices().getAlias(g -> g.name(writeAlias)).result();
+        String fallback = null;
+        for (Map.Entry<String, IndexAliases> entry : aliases.entrySet()) {
+            AliasDefinition definition = entry.getValue().aliases().get(writeAlias);
+            if (definition != null && Boolean.TRUE.equals(definition.isWriteIndex())) {
+                return entry.getKey();
+            }
+            fallback = entry.getKey();
+        }
+        // A single index behind an alias is implicitly the write index
+        return aliases.size() == 1 ? fallback : null;
+    }
+
+    /**
+     * List the monthly backing indices, oldest first
+     */
+    private List<String> getBackingIndices() throws IOException {
+        List<String> indices = new ArrayList<>();
+        // The wildcard also resolves aliases, so keep only names with a month suffix
+        for (String index : client.indices().get(g -> g.index(indexName + "-*")).result().keySet()) {
+            if (parseIndexMonth(indexName, index) != null) {
+                indices.add(index);
+            }
+        }
+        Collections.sort(indices);
+        return indices;
+    }
+
+    static String writeAliasName(String indexName) {
+        return indexName + "-write";
+    }
+
+    static String readAliasName(String indexName) {
+        return indexName + "-read";
+    }
+
+    static String templateName(String indexName) {
+        return indexName + "-template";
+    }
+
+    /**
+     * Backing index holding the documents written on the given date
+     */
+    static String monthlyIndexName(String indexName, LocalDate date) {
+        return indexName + "-" + date.format(INDEX_MONTH_FORMAT);
+    }
+
+    /**
+     * The write alias moves on once its index is not the one for the current month
+     */
+    static boolean needsRollover(String currentWriteIndex, String targetIndex) {
+        return currentWriteIndex != null && !currentWriteIndex.equals(targetIndex);
+    }
+
+    /**
+     * Earliest month that retention keeps: the current month counts as the first one
+     * @return null when retention is off (0 or less)
+     */
+    static YearMonth oldestKeptMonth(YearMonth currentMonth, int retentionMonths) {
+        return retentionMonths > 0 ? currentMonth.minusMonths(retentionMonths - 1L) : null;
+    }
+
+    /**
+     * Monthly backing indices that retention deletes. Names without a month suffix
+     * (aliases, the legacy index) and the current write index are never returned.
+     */
+    static List<String> expiredIndices(String indexName, List<String> indices, String writeIndex,
+                                       YearMonth currentMonth, int retentionMonths) {
+        YearMonth oldestKept = oldestKeptMonth(currentMonth, retentionMonths);
+        List<String> expired = new ArrayList<>();
+        if (oldestKept == null) {
+            return expired;
+        }
+        for (String index : indices) {
+            YearMonth month = parseIndexMonth(indexName, index);
+            if (month != null && month.isBefore(oldestKept) && !index.equals(writeIndex)) {
+                expired.add(index);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Month of a backing index named {@code <index>-yyyy.MM}, or null for any other name
+     */
+    static YearMonth parseIndexMonth(String indexName, String index) {
+        String prefix = indexName + "-";
+        if (!index.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(index.substring(prefix.length()), INDEX_MONTH_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
         }
     }
 
@@ -280,9 +531,9 @@ public class ElasticsearchService {
      */
     public String indexSummary(SummaryDocument document) throws IOException {
         IndexResponse response = client.index(IndexRequest.of(i -> i
-            .index(indexName)
+            .index(writeAlias)
             .id(document.getId())
-            .document(document)
+            .document(withSuggestInputs(document, document.getTitle(), document.getKeywords()))
         ));
         
         logger.info("Indexed document: {} with result: {}", document.getId(), response.result());
@@ -302,11 +553,11 @@ public class ElasticsearchService {
             }
         }
         
-        // Use the same kb index for clipboard content
+        // Use the same kb write alias for clipboard content
         IndexResponse response = client.index(IndexRequest.of(i -> i
-            .index(indexName)
+            .index(writeAlias)
             .id(document.getId())
-            .document(document)
+            .document(withSuggestInputs(document, document.getTitle(), document.getKeywords()))
         ));
         
         logger.info("Indexed clipboard content: {} with result: {}", document.getId(), response.result());
@@ -326,7 +577,7 @@ public class ElasticsearchService {
     }
 
     /**
-     * Get the index name
+     * Get the base index name (prefix of the monthly indices and their aliases)
      */
     public String getIndexName() {
         return indexName;
@@ -334,7 +585,7 @@ public class ElasticsearchService {
 
     /**
      * Search for summaries by keywords
-     * Searches across title, content, and keywords fields
+     * Searches across title, content, and keywords fields of summary documents only
      * 
      * @param queryText The search query text
      * @param maxResults Maximum number of results to return (default: 10)
@@ -347,17 +598,16 @@ public class ElasticsearchService {
             return results;
         }
         
-        // Create a multi-match query that searches across title, content, and keywords
-        Query multiMatchQuery = Query.of(q -> q
-            .multiMatch(m -> m
-                .query(queryText)
-                .fields("title^3", "content", "keywords^2")  // Boost title and keywords
+        Query summaryQuery = Query.of(q -> q
+            .bool(b -> b
+                .filter(summaryTypeFilter())
+                .must(multiMatch(queryText, SUMMARY_SEARCH_FIELDS))
             )
         );
         
         SearchRequest searchRequest = SearchRequest.of(s -> s
-            .index(indexName)
-            .query(multiMatchQuery)
+            .index(readAlias)
+            .query(summaryQuery)
             .size(maxResults)
         );
         
@@ -373,7 +623,251 @@ public class ElasticsearchService {
         logger.info("Found {} summaries for query: {}", results.size(), queryText);
         return results;
     }
+
+    /**
+     * Search clipboard documents by keywords
+     * Searches title, text and keywords; OCR keywords of attached images are only
+     * searched (through a nested query) when includeImages is set.
+     *
+     * @param queryText The search query text
+     * @param maxResults Maximum number of results to return
+     * @param includeImages Whether to also match OCR keywords of clipboard images
+     * @return List of matching ClipboardContentDocument objects
+     */
+    public List<ClipboardContentDocument> searchClipboardContent(String queryText, int maxResults,
+                                                                 boolean includeImages) throws IOException {
+        List<ClipboardContentDocument> results = new ArrayList<>();
+
+        if (queryText == null || queryText.trim().isEmpty()) {
+            return results;
+        }
+
+        SearchRequest searchRequest = SearchRequest.of(s -> s
+            .index(readAlias)
+            .query(clipboardQuery(queryText, includeImages))
+            .size(maxResults)
+        );
+
+        SearchResponse<ClipboardContentDocument> response =
+            client.search(searchRequest, ClipboardContentDocument.class);
+
+        for (Hit<ClipboardContentDocument> hit : response.hits().hits()) {
+            ClipboardContentDocument doc = hit.source();
+            if (doc != null) {
+                results.add(doc);
+            }
+        }
+
+        logger.info("Found {} clipboard documents for query: {}", results.size(), queryText);
+        return results;
+    }
     
+    /**
+     * Search the knowledge base and return only the best-matching passages of each hit.
+     * Uses server-side highlighting with bounded fragments and `_source` filtering so the
+     * full `content`/`text` bodies never leave Elasticsearch.
+     *
+     * @param queryText The search query text
+     * @param maxResults Maximum number of results to return
+     * @return List of results with title, keywords and highlighted passages, in relevance order
+     */
+    public List<KBSearchResult> searchSnippets(String queryText, int maxResults) throws IOException {
+        return searchSnippets(queryText, maxResults, false);
+    }
+
+    /**
+     * Search summaries and clipboard documents, each through its own field set, and
+     * return only the best-matching passages of each hit.
+     *
+     * @param queryText The search query text
+     * @param maxResults Maximum number of results to return
+     * @param includeImages Whether to also match OCR keywords of clipboard images
+     * @return List of results with title, keywords and highlighted passages, in relevance order
+     */
+    public List<KBSearchResult> searchSnippets(String queryText, int maxResults,
+                                               boolean includeImages) throws IOException {
+        List<KBSearchResult> results = new ArrayList<>();
+
+        if (queryText == null || queryText.trim().isEmpty()) {
+            return results;
+        }
+
+        SearchResponse<ObjectNode> response =
+            client.search(buildSnippetRequest(queryText, maxResults, includeImages), ObjectNode.class);
+        results = toSnippetResults(response);
+
+        logger.info("Found {} snippet results for query: {}", results.size(), queryText);
+        return results;
+    }
+
+    /**
+     * Search snippets without blocking the calling thread
+     * The future fails with {@link NotConfiguredException} if the client could not be created.
+     * @see #searchSnippets(String, int, boolean)
+     */
+    public CompletableFuture<List<KBSearchResult>> searchSnippetsAsync(String queryText, int maxResults,
+                                                                       boolean includeImages) {
+        if (queryText == null || queryText.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        if (asyncClient == null) {
+            return CompletableFuture.failedFuture(new NotConfiguredException());
+        }
+        return asyncClient.search(buildSnippetRequest(queryText, maxResults, includeImages), ObjectNode.class)
+            .thenApply(response -> {
+                try {
+                    List<KBSearchResult> results = toSnippetResults(response);
+                    logger.info("Found {} snippet results for query: {}", results.size(), queryText);
+                    return results;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    /**
+     * Build the type-scoped, highlighted snippet query shared by the blocking and async paths
+     */
+    private SearchRequest buildSnippetRequest(String queryText, int maxResults, boolean includeImages) {
+        Query combinedQuery = Query.of(q -> q
+            .bool(b -> b
+                .should(sq -> sq.bool(sb -> sb
+                    .filter(summaryTypeFilter())
+                    .must(multiMatch(queryText, SUMMARY_SEARCH_FIELDS))
+                ))
+                .should(clipboardQuery(queryText, includeImages))
+                .minimumShouldMatch("1")
+            )
+        );
+
+        return SearchRequest.of(s -> s
+            .index(readAlias)
+            .query(combinedQuery)
+            .size(maxResults)
+            .source(src -> src.filter(f -> f.includes(SNIPPET_SOURCE_FIELDS)))
+            .highlight(h -> h
+                .preTags("**")
+                .postTags("**")
+                .fragmentSize(SNIPPET_FRAGMENT_SIZE)
+                .numberOfFragments(SNIPPET_MAX_FRAGMENTS)
+                .order(HighlighterOrder.Score)
+                // Lead passage for documents that only matched on title/keywords
+                .fields("content", f -> f.noMatchSize(SNIPPET_FRAGMENT_SIZE))
+                .fields("text", f -> f.noMatchSize(SNIPPET_FRAGMENT_SIZE))
+            )
+        );
+    }
+
+    /**
+     * Map snippet hits to results, deserializing each source by its document type
+     */
+    private List<KBSearchResult> toSnippetResults(SearchResponse<ObjectNode> response) throws IOException {
+        List<KBSearchResult> results = new ArrayList<>();
+        for (Hit<ObjectNode> hit : response.hits().hits()) {
+            ObjectNode source = hit.source();
+            if (source == null) {
+                continue;
+            }
+            Map<String, List<String>> highlight = hit.highlight() != null ? hit.highlight() : Map.of();
+            String docType = resolveDocType(source, highlight);
+
+            KBSearchResult result;
+            if (ClipboardContentDocument.DOC_TYPE.equals(docType)) {
+                ClipboardContentDocument doc = objectMapper.treeToValue(source, ClipboardContentDocument.class);
+                result = new KBSearchResult(hit.id(), doc.getTitle(), doc.getKeywords(),
+                    doc.getTimestamp(), hit.score(), highlight.getOrDefault("text", List.of()));
+            } else {
+                SummaryDocument doc = objectMapper.treeToValue(source, SummaryDocument.class);
+                result = new KBSearchResult(hit.id(), doc.getTitle(), doc.getKeywords(),
+                    doc.getTimestamp(), hit.score(), highlight.getOrDefault("content", List.of()));
+            }
+            result.setDocType(docType);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Suggest KB titles/keywords starting with the given prefix
+     * Served by the completion suggester, so no full-text query or LLM call is involved.
+     *
+     * @param prefix Text typed so far
+     * @param size Maximum number of suggestions
+     * @return Suggestions with the matched text, document id, title and docType
+     */
+    public List<Map<String, Object>> suggest(String prefix, int size) throws IOException {
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return suggestions;
+        }
+
+        SearchResponse<ObjectNode> response = client.search(s -> s
+            .index(readAlias)
+            .size(0)
+            .source(src -> src.filter(f -> f.includes("title", "docType")))
+            .suggest(sg -> sg
+                .suggesters("kb-suggest", fs -> fs
+                    .prefix(prefix.trim())
+                    .completion(c -> c.field(SUGGEST_FIELD).size(size).skipDuplicates(true))
+                )
+            ),
+            ObjectNode.class
+        );
+
+        for (Suggestion<ObjectNode> suggestion : response.suggest().getOrDefault("kb-suggest", List.of())) {
+            if (!suggestion.isCompletion()) {
+                continue;
+            }
+            for (CompletionSuggestOption<ObjectNode> option : suggestion.completion().options()) {
+                ObjectNode source = option.source();
+                Map<String, Object> item = new HashMap<>();
+                item.put("text", option.text());
+                item.put("id", option.id());
+                item.put("title", source != null && source.hasNonNull("title") ? source.get("title").asText() : null);
+                item.put("docType", source != null && source.hasNonNull("docType") ? source.get("docType").asText() : null);
+                suggestions.add(item);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Serialize a document and attach completion inputs built from its title and keywords
+     */
+    private ObjectNode withSuggestInputs(Object document, String title, List<String> keywords) {
+        ObjectNode source = objectMapper.valueToTree(document);
+        List<String> inputs = buildSuggestInputs(title, keywords);
+        if (!inputs.isEmpty()) {
+            ArrayNode input = source.putObject(SUGGEST_FIELD).putArray("input");
+            inputs.forEach(input::add);
+        }
+        return source;
+    }
+
+    /**
+     * Collect distinct, non-blank completion inputs (title first, then keywords).
+     * Characters reserved by the completion field are removed.
+     */
+    static List<String> buildSuggestInputs(String title, List<String> keywords) {
+        Set<String> inputs = new LinkedHashSet<>();
+        List<String> candidates = new ArrayList<>();
+        candidates.add(title);
+        if (keywords != null) {
+            candidates.addAll(keywords);
+        }
+        for (String candidate : candidates) {
+            if (candidate == null) {
+                continue;
+            }
+            String cleaned = candidate.replaceAll("[\\u0000\\u001e\\u001f]", "").trim();
+            if (!cleaned.isEmpty()) {
+                inputs.add(cleaned);
+            }
+        }
+        return new ArrayList<>(inputs);
+    }
+
     /**
      * Search for summaries by keywords with default max results (10)
      */
@@ -395,16 +889,19 @@ public class ElasticsearchService {
             return results;
         }
         
-        Query termQuery = Query.of(q -> q
-            .term(t -> t
-                .field("channelId")
-                .value(channelId)
+        Query channelQuery = Query.of(q -> q
+            .bool(b -> b
+                .filter(summaryTypeFilter())
+                .filter(f -> f.term(t -> t
+                    .field("channelId")
+                    .value(channelId)
+                ))
             )
         );
         
         SearchRequest searchRequest = SearchRequest.of(s -> s
-            .index(indexName)
-            .query(termQuery)
+            .index(readAlias)
+            .query(channelQuery)
             .size(maxResults)
             .sort(so -> so
                 .field(f -> f
@@ -426,6 +923,77 @@ public class ElasticsearchService {
         logger.info("Found {} summaries for channel: {}", results.size(), channelId);
         return results;
     }
+
+    private static Query multiMatch(String queryText, List<String> fields) {
+        return Query.of(q -> q.multiMatch(m -> m.query(queryText).fields(fields)));
+    }
+
+    /**
+     * Filter matching summary documents, including ones indexed before the
+     * docType discriminator existed (recognized by their `content` field)
+     */
+    private static Query summaryTypeFilter() {
+        return typeFilter(SummaryDocument.DOC_TYPE, "content");
+    }
+
+    /**
+     * Filter matching clipboard documents, including ones indexed before the
+     * docType discriminator existed (recognized by a `text` field without `content`,
+     * since older summaries were written with both)
+     */
+    private static Query clipboardTypeFilter() {
+        return typeFilter(ClipboardContentDocument.DOC_TYPE, "text", "content");
+    }
+
+    private static Query typeFilter(String docType, String legacyField, String... excludedFields) {
+        return Query.of(q -> q
+            .bool(b -> b
+                .should(s -> s.term(t -> t.field("docType").value(docType)))
+                .should(s -> s.bool(legacy -> {
+                    legacy.mustNot(mn -> mn.exists(e -> e.field("docType")))
+                        .filter(f -> f.exists(e -> e.field(legacyField)));
+                    for (String excluded : excludedFields) {
+                        legacy.mustNot(mn -> mn.exists(e -> e.field(excluded)));
+                    }
+                    return legacy;
+                }))
+                .minimumShouldMatch("1")
+            )
+        );
+    }
+
+    /**
+     * Clipboard-scoped query; the nested image query is only added when requested
+     */
+    private static Query clipboardQuery(String queryText, boolean includeImages) {
+        return Query.of(q -> q
+            .bool(b -> {
+                b.filter(clipboardTypeFilter())
+                    .should(multiMatch(queryText, CLIPBOARD_SEARCH_FIELDS));
+                if (includeImages) {
+                    b.should(s -> s.nested(n -> n
+                        .path("images")
+                        .query(nq -> nq.match(m -> m.field("images.keywords").query(queryText)))
+                    ));
+                }
+                return b.minimumShouldMatch("1");
+            })
+        );
+    }
+
+    /**
+     * Determine the document type of a hit; legacy documents without the discriminator
+     * are recognized by which body field produced a highlight
+     */
+    private static String resolveDocType(ObjectNode source, Map<String, List<String>> highlight) {
+        if (source.hasNonNull("docType")) {
+            return source.get("docType").asText();
+        }
+        if (highlight.containsKey("text") && !highlight.containsKey("content")) {
+            return ClipboardContentDocument.DOC_TYPE;
+        }
+        return SummaryDocument.DOC_TYPE;
+    }
     
     /**
      * Get Elasticsearch index status information
@@ -436,23 +1004,27 @@ public class ElasticsearchService {
         
         try {
             // Check if index exists
-            boolean exists = client.indices().exists(ExistsRequest.of(e -> e.index(indexName))).value();
+            boolean exists = client.indices().exists(ExistsRequest.of(e -> e.index(readAlias))).value();
             status.put("exists", exists);
             status.put("indexName", indexName);
+            status.put("readAlias", readAlias);
+            status.put("writeAlias", writeAlias);
             
             if (exists) {
                 // Get count of documents
                 co.elastic.clients.elasticsearch.core.CountResponse countResponse = 
-                    client.count(c -> c.index(indexName));
+                    client.count(c -> c.index(readAlias));
                 status.put("documentCount", countResponse.count());
                 
                 // Get cluster health for this index
                 co.elastic.clients.elasticsearch.cluster.HealthResponse healthResponse = 
-                    client.cluster().health(h -> h.index(indexName));
+                    client.cluster().health(h -> h.index(readAlias));
                 
                 status.put("status", healthResponse.status().toString());
                 status.put("activeShards", healthResponse.activeShards());
                 status.put("activePrimaryShards", healthResponse.activePrimaryShards());
+                status.put("writeIndex", getWriteIndex());
+                status.put("backingIndices", getBackingIndices());
                 
             } else {
                 status.put("documentCount", 0);
@@ -470,6 +1042,20 @@ public class ElasticsearchService {
         return status;
     }
     
+    /**
+     * Get the alias that spans every searchable index
+     */
+    public String getReadAlias() {
+        return readAlias;
+    }
+
+    /**
+     * Get the alias that new documents are written to
+     */
+    public String getWriteAlias() {
+        return writeAlias;
+    }
+
     /**
      * Get Elasticsearch client for advanced operations
      * @return ElasticsearchClient instance
@@ -0,0 +1,433 @@
+package com.workassistant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workassistant.model.IngestJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable queue for clipboard ingestion jobs
+ *
+ * Each job moves through the stages of {@link IngestJob.Stage}. Every stage runs on its own
+ * fixed-size executor, so the number of jobs in OCR, title generation, etc. is limited
+ * independently. After every state change the full job is appended to a JSON-lines journal;
+ * on startup the journal is replayed and unfinished jobs resume at the stage they were in,
+ * so stage handlers must be safe to run again. Failed stages are retried with exponential
+ * backoff before the job is marked FAILED. Compaction moves FAILED jobs from the journal to a
+ * dead-letter file, {@code failed.jsonl}, so terminal failures stay on disk for inspection.
+ */
+public class IngestionQueue {
+    private static final Logger logger = LoggerFactory.getLogger(IngestionQueue.class);
+
+    private static final String JOURNAL_FILE = "journal.jsonl";
+    private static final String DEAD_LETTER_FILE = "failed.jsonl";
+    // Rewrite the journal with only unfinished jobs once it has grown this many lines
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    /**
+     * Work done for one stage of a job; may store results on the job
+     */
+    @FunctionalInterface
+    public interface StageHandler {
+        void process(IngestJob job) throws Exception;
+    }
+
+    /**
+     * Notified after every stage transition, retry and failure
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(IngestJob job);
+    }
+
+    private final Path journalPath;
+    private final Path deadLetterPath;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<IngestJob.Stage, StageHandler> handlers = new EnumMap<>(IngestJob.Stage.class);
+    private final Map<IngestJob.Stage, ExecutorService> executors = new EnumMap<>(IngestJob.Stage.class);
+    private final Map<String, IngestJob> activeJobs = new ConcurrentHashMap<>();
+    // Last journaled line of every unfinished job; compaction writes these, never the live jobs
+    private final Map<String, String> snapshots = new LinkedHashMap<>();
+    // Lines of FAILED jobs still only in the journal; moved to the dead-letter file on compaction
+    private final List<String> pendingDeadLetters = new ArrayList<>();
+    private final List<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService retryScheduler;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    private BufferedWriter journal;
+    private int journalLines;
+    private volatile boolean started;
+    private volatile boolean journaled;
+
+    /**
+     * @param directory Directory holding the journal
+     * @param maxAttempts Attempts per stage before a job fails
+     * @param retryDelayMillis Delay before the first retry; doubled on each further attempt
+     */
+    public IngestionQueue(Path directory, int maxAttempts, long retryDelayMillis) {
+        this.journalPath = directory.resolve(JOURNAL_FILE);
+        this.deadLetterPath = directory.resolve(DEAD_LETTER_FILE);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = Math.max(0, retryDelayMillis);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ingest-retry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Register the handler of a stage and how many jobs may run it at once
+     * Stages without a handler are skipped. Must be called before {@link #start()}.
+     */
+    public IngestionQueue registerStage(IngestJob.Stage stage, int concurrency, StageHandler handler) {
+        if (stage.isTerminal()) {
+            throw new IllegalArgumentException("Cannot register a handler for terminal stage " + stage);
+        }
+        int threads = Math.max(1, concurrency);
+        String prefix = "ingest-" + stage.name().toLowerCase() + "-";
+        AtomicInteger counter = new AtomicInteger();
+        handlers.put(stage, handler);
+        executors.put(stage, Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }));
+        return this;
+    }
+
+    public void addListener(ProgressListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Replay the journal, compact it and resume unfinished jobs
+     * @return Number of resumed jobs
+     */
+    public synchronized int start() throws IOException {
+        Files.createDirectories(journalPath.getParent());
+
+        Map<String, IngestJob> latest = replay();
+        List<IngestJob> unfinished = new ArrayList<>();
+        for (IngestJob job : latest.values()) {
+            if (!job.getStage().isTerminal()) {
+                unfinished.add(job);
+            } else if (job.getStage() == IngestJob.Stage.FAILED) {
+                pendingDeadLetters.add(objectMapper.writeValueAsString(job));
+            }
+        }
+        unfinished.sort(Comparator.comparingLong(IngestJob::getCreatedAt));
+        for (IngestJob job : unfinished) {
+            activeJobs.put(job.getId(), job);
+            snapshots.put(job.getId(), objectMapper.writeValueAsString(job));
+        }
+        rewriteJournal();
+        journaled = true;
+        started = true;
+
+        if (!unfinished.isEmpty()) {
+            logger.info("Resuming {} unfinished ingestion jobs from {}", unfinished.size(), journalPath);
+        }
+        for (IngestJob job : unfinished) {
+            dispatch(job);
+        }
+        return unfinished.size();
+    }
+
+    /**
+     * Start without a journal, for when {@link #start()} cannot use the journal directory
+     * Jobs are processed as usual but are lost if the process stops before they finish.
+     */
+    public synchronized void startWithoutJournal() {
+        logger.warn("Ingestion queue running without a journal; jobs will not survive a restart");
+        journaled = false;
+        started = true;
+    }
+
+    /**
+     * Journal a new job and queue its first stage
+     */
+    public void submit(IngestJob job) {
+        if (!started) {
+            throw new IllegalStateException("Ingestion queue not started");
+        }
+        activeJobs.put(job.getId(), job);
+        persist(job);
+        notifyListeners(job);
+        dispatch(job);
+    }
+
+    private void dispatch(IngestJob job) {
+        if (!started) {
+            return;
+        }
+        ExecutorService executor = executors.get(job.getStage());
+        if (executor == null) {
+            // No handler for this stage; move straight on
+            advance(job);
+            return;
+        }
+        executor.submit(() -> runStage(job));
+    }
+
+    private void runStage(IngestJob job) {
+        IngestJob.Stage stage = job.getStage();
+        try {
+            handlers.get(stage).process(job);
+        } catch (Exception e) {
+            if (!started) {
+                // Interrupted by shutdown; the journal still has the job at this stage
+                return;
+            }
+            handleFailure(job, stage, e);
+            return;
+        }
+        advance(job);
+    }
+
+    private void advance(IngestJob job) {
+        synchronized (this) {
+            job.setStage(job.getStage().next());
+            job.setAttempts(0);
+            job.setLastError(null);
+            job.setUpdatedAt(System.currentTimeMillis());
+            persist(job);
+        }
+
+        if (job.getStage() == IngestJob.Stage.DONE) {
+            activeJobs.remove(job.getId());
+            completed.incrementAndGet();
+            logger.info("Ingestion job {} completed", job.getId());
+            notifyListeners(job);
+        } else {
+            notifyListeners(job);
+            dispatch(job);
+        }
+    }
+
+    private void handleFailure(IngestJob job, IngestJob.Stage stage, Exception e) {
+        boolean exhausted;
+        synchronized (this) {
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLastError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            job.setUpdatedAt(System.currentTimeMillis());
+            exhausted = job.getAttempts() >= maxAttempts;
+            if (exhausted) {
+                job.setFailedStage(stage);
+                job.setStage(IngestJob.Stage.FAILED);
+            }
+            persist(job);
+        }
+
+        if (exhausted) {
+            logger.error("Ingestion job {} failed at stage {} after {} attempts", job.getId(), stage, job.getAttempts(), e);
+            activeJobs.remove(job.getId());
+            failed.incrementAndGet();
+            notifyListeners(job);
+            return;
+        }
+
+        long delay = retryDelayMillis << Math.min(job.getAttempts() - 1, 10);
+        logger.warn("Ingestion job {} stage {} failed (attempt {}/{}), retrying in {} ms: {}",
+            job.getId(), stage, job.getAttempts(), maxAttempts, delay, e.getMessage());
+        retries.incrementAndGet();
+        notifyListeners(job);
+        retryScheduler.schedule(() -> dispatch(job), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void notifyListeners(IngestJob job) {
+        for (ProgressListener listener : listeners) {
+            try {
+                listener.onProgress(job);
+            } catch (RuntimeException e) {
+                logger.warn("Ingestion progress listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Append a snapshot of the job to the journal
+     * Callers change the job and persist it while holding the queue's lock, so the snapshot
+     * never mixes two states. The writer is flushed after every line, so a JVM crash loses
+     * at most the line being written.
+     */
+    private synchronized void persist(IngestJob job) {
+        if (!started || !journaled) {
+            return;
+        }
+        try {
+            String line = objectMapper.writeValueAsString(job);
+            if (job.getStage() == IngestJob.Stage.FAILED) {
+                // Queued before the write, in case this line is what triggers compaction
+                snapshots.remove(job.getId());
+                pendingDeadLetters.add(line);
+            } else if (job.getStage().isTerminal()) {
+                snapshots.remove(job.getId());
+            } else {
+                snapshots.put(job.getId(), line);
+            }
+            if (journal == null) {
+                journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            journal.write(line);
+            journal.newLine();
+            journal.flush();
+            if (++journalLines > COMPACT_THRESHOLD) {
+                rewriteJournal();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to journal ingestion job {}", job.getId(), e);
+        }
+    }
+
+    /**
+     * Read the journal, keeping the last snapshot of every job
+     */
+    private Map<String, IngestJob> replay() throws IOException {
+        Map<String, IngestJob> latest = new LinkedHashMap<>();
+        if (!Files.isRegularFile(journalPath)) {
+            return latest;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    IngestJob job = objectMapper.readValue(line, IngestJob.class);
+                    if (job.getId() != null && job.getStage() != null) {
+                        latest.put(job.getId(), job);
+                    }
+                } catch (IOException e) {
+                    // Typically a line cut short by a crash
+                    logger.warn("Skipping unreadable ingestion journal line {}: {}", lineNumber, e.getMessage());
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Replace the journal with the last snapshot of every unfinished job
+     * FAILED jobs are appended to the dead-letter file first, so a crash in between leaves
+     * them in both files rather than in neither.
+     */
+    private synchronized void rewriteJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        if (!pendingDeadLetters.isEmpty()) {
+            try (BufferedWriter writer = Files.newBufferedWriter(deadLetterPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String line : pendingDeadLetters) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            pendingDeadLetters.clear();
+        }
+        Path tmp = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+        // Journaled lines rather than the live jobs, which stage workers may be changing
+        List<String> lines = new ArrayList<>(snapshots.values());
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        journalLines = lines.size();
+    }
+
+    /**
+     * Stop accepting work; unfinished jobs stay in the journal and resume on the next start
+     */
+    public synchronized void shutdown() {
+        started = false;
+        retryScheduler.shutdownNow();
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdownNow();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close ingestion journal: {}", e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    public IngestJob getJob(String id) {
+        return activeJobs.get(id);
+    }
+
+    public int getActiveCount() {
+        return activeJobs.size();
+    }
+
+    /**
+     * Get queue statistics
+     * @return Map with active jobs per stage and completed/failed/retry counters
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (IngestJob.Stage stage : IngestJob.Stage.values()) {
+            if (!stage.isTerminal()) {
+                stages.put(stage.name(), 0L);
+            }
+        }
+        for (IngestJob job : activeJobs.values()) {
+            stages.merge(job.getStage().name(), 1L, (a, b) -> (Long) a + (Long) b);
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("active", activeJobs.size());
+        status.put("stages", stages);
+        status.put("completed", completed.get());
+        status.put("failed", failed.get());
+        status.put("retries", retries.get());
+        status.put("journal", journaled ? journalPath.toString() : null);
+        status.put("deadLetter", deadLetterPath.toString());
+        return status;
+    }
+}
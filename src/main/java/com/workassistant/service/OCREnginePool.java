@@ -0,0 +1,164 @@
+package com.workassistant.service;
+
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size pool of Tesseract engines
+ *
+ * Tess4J engines hold native state and are not thread-safe, so each OCR call borrows an
+ * engine for exclusive use and returns it afterwards. Engines are created lazily by the
+ * factory (which applies datapath and languages) the first time the pool runs short, up
+ * to the configured size; after that callers wait for an engine to be returned.
+ */
+public class OCREnginePool {
+    private static final Logger logger = LoggerFactory.getLogger(OCREnginePool.class);
+
+    /**
+     * OCR work performed with a borrowed engine
+     */
+    @FunctionalInterface
+    public interface EngineTask<T> {
+        T apply(ITesseract engine) throws TesseractException;
+    }
+
+    private final Supplier<ITesseract> factory;
+    private final int maxSize;
+    private final LinkedBlockingQueue<ITesseract> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    // Queue-wait metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public OCREnginePool(Supplier<ITesseract> factory, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("OCR engine pool size must be at least 1: " + maxSize);
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Borrow an engine, creating one if the pool is not full yet, otherwise waiting for a return.
+     * Every borrowed engine must be given back with {@link #release(ITesseract)}.
+     */
+    public ITesseract borrow() throws InterruptedException {
+        borrowCount.incrementAndGet();
+
+        ITesseract engine = idle.poll();
+        if (engine == null) {
+            engine = tryCreate();
+        }
+        if (engine == null) {
+            long start = System.nanoTime();
+            waiting.incrementAndGet();
+            try {
+                engine = idle.take();
+            } finally {
+                waiting.decrementAndGet();
+            }
+            recordWait(System.nanoTime() - start);
+        }
+
+        inUse.incrementAndGet();
+        return engine;
+    }
+
+    /**
+     * Return a borrowed engine to the pool
+     */
+    public void release(ITesseract engine) {
+        if (engine == null) {
+            return;
+        }
+        inUse.decrementAndGet();
+        idle.offer(engine);
+    }
+
+    /**
+     * Run a task with a borrowed engine and always return the engine afterwards
+     */
+    public <T> T execute(EngineTask<T> task) throws TesseractException, InterruptedException {
+        ITesseract engine = borrow();
+        try {
+            return task.apply(engine);
+        } finally {
+            release(engine);
+        }
+    }
+
+    private ITesseract tryCreate() {
+        while (true) {
+            int current = created.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (created.compareAndSet(current, current + 1)) {
+                try {
+                    ITesseract engine = factory.get();
+                    logger.info("Created OCR engine {}/{}", current + 1, maxSize);
+                    return engine;
+                } catch (RuntimeException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    public int getInUseCount() {
+        return inUse.get();
+    }
+
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Get pool size and queue-wait statistics
+     * @return Map with pool sizes, borrow/wait counts and wait times in milliseconds
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long waits = waitCount.get();
+        stats.put("maxSize", maxSize);
+        stats.put("created", created.get());
+        stats.put("inUse", inUse.get());
+        stats.put("idle", idle.size());
+        stats.put("waiting", waiting.get());
+        stats.put("borrowCount", borrowCount.get());
+        stats.put("waitCount", waits);
+        stats.put("avgWaitMs", waits > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / waits) : 0);
+        stats.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        return stats;
+    }
+}
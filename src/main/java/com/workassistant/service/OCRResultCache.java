@@ -0,0 +1,374 @@
+package com.workassistant.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache of OCR results keyed by the SHA-256 of the image file bytes
+ *
+ * Recently used results are kept in an in-memory LRU map; every result is also written
+ * as a small JSON file under the cache directory
+ * ({@code <dir>/<namespace>/<first 2 hex>/<hash>.json}) so repeat pastes of the same
+ * screenshot skip Tesseract even after a restart. The namespace is derived from the OCR
+ * pipeline settings, so results computed under other settings are not served. The disk
+ * tier is bounded by {@link #prune}: entries unused for longer than the maximum age go
+ * first, then the least recently used ones above the entry limit, whatever their namespace.
+ * Pruning walks the whole tree, so automatic prunes run on a background thread, never on
+ * the thread storing a result.
+ * Skipped-OCR entries are kept in memory only: they are a guess of the text pre-check,
+ * and a persisted wrong guess would keep the image from ever being OCR'd.
+ */
+public class OCRResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(OCRResultCache.class);
+
+    /**
+     * Cached OCR output for one image
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Entry {
+        private String text;
+        private List<String> keywords;
+        private boolean ocrSkipped;
+        private Double textLikelihood;
+
+        public Entry() {
+            this.keywords = new ArrayList<>();
+        }
+
+        public Entry(String text, List<String> keywords) {
+            this.text = text;
+            this.keywords = keywords != null ? new ArrayList<>(keywords) : new ArrayList<>();
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+
+        public List<String> getKeywords() {
+            return keywords;
+        }
+
+        public void setKeywords(List<String> keywords) {
+            this.keywords = keywords;
+        }
+
+        /**
+         * Whether OCR was skipped because the image showed no text
+         */
+        public boolean isOcrSkipped() {
+            return ocrSkipped;
+        }
+
+        public void setOcrSkipped(boolean ocrSkipped) {
+            this.ocrSkipped = ocrSkipped;
+        }
+
+        /**
+         * Text likelihood from the pre-check, or null when the check did not run
+         */
+        public Double getTextLikelihood() {
+            return textLikelihood;
+        }
+
+        public void setTextLikelihood(Double textLikelihood) {
+            this.textLikelihood = textLikelihood;
+        }
+    }
+
+    // Writes between two automatic prunes of the disk tier
+    private static final int PRUNE_INTERVAL = 500;
+    // Runs background prunes of all caches, one at a time
+    private static final ExecutorService PRUNER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ocr-cache-prune");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Path directory;
+    private final Path namespaceDirectory;
+    private final Map<String, Entry> memory;
+    private int maxDiskEntries = 0;  // 0 means unbounded
+    private Duration maxAge = null;  // null means entries never expire
+    private final AtomicLong writesSincePrune = new AtomicLong();
+    // Separate from the monitor prune() holds, so scheduling never waits for a running prune
+    private final Object pruneLock = new Object();
+    private CompletableFuture<Integer> pendingPrune;  // guarded by pruneLock
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param directory Directory for the persistent tier, or null for memory only
+     * @param maxMemoryEntries Number of results kept in memory
+     */
+    public OCRResultCache(Path directory, int maxMemoryEntries) {
+        this(directory, maxMemoryEntries, null);
+    }
+
+    /**
+     * @param directory Directory for the persistent tier, or null for memory only
+     * @param maxMemoryEntries Number of results kept in memory
+     * @param fingerprint Description of the settings the results depend on, or null;
+     *                    entries are stored under a namespace derived from it
+     */
+    public OCRResultCache(Path directory, int maxMemoryEntries, String fingerprint) {
+        this.directory = directory;
+        this.namespaceDirectory = directory == null || fingerprint == null ? directory : directory.resolve(namespace(fingerprint));
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Bound the disk tier; takes effect at the next {@link #prune}.
+     * @param maxDiskEntries Most entries kept on disk, 0 for no limit
+     * @param maxAge Entries not used for longer are removed, null to keep them
+     */
+    public OCRResultCache setDiskLimits(int maxDiskEntries, Duration maxAge) {
+        this.maxDiskEntries = Math.max(0, maxDiskEntries);
+        this.maxAge = maxAge;
+        return this;
+    }
+
+    /**
+     * Directory name for the results of one pipeline configuration
+     * @return First 12 hex digits of the SHA-256 of the fingerprint
+     */
+    static String namespace(String fingerprint) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Compute the cache key for an image file
+     * @return Lowercase hex SHA-256 of the file bytes
+     */
+    public static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Look up a result, checking memory first and then disk
+     * @return Cached entry, or null on a miss
+     */
+    public Entry get(String hash) {
+        synchronized (memory) {
+            Entry entry = memory.get(hash);
+            if (entry != null) {
+                memoryHits.incrementAndGet();
+                return entry;
+            }
+        }
+
+        Path file = entryPath(hash);
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                Entry entry = objectMapper.readValue(file.toFile(), Entry.class);
+                if (entry.isOcrSkipped()) {
+                    // Written before skips stopped being persisted; OCR the image again
+                    misses.incrementAndGet();
+                    return null;
+                }
+                synchronized (memory) {
+                    memory.put(hash, entry);
+                }
+                touch(file);
+                diskHits.incrementAndGet();
+                return entry;
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable OCR cache file {}: {}", file, e.getMessage());
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store a result in memory and, unless OCR was skipped, on disk
+     */
+    public void put(String hash, Entry entry) {
+        synchronized (memory) {
+            memory.put(hash, entry);
+        }
+
+        Path file = entryPath(hash);
+        if (file == null || entry.isOcrSkipped()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            // Write to a temp file first so readers never see a partial entry
+            Path tmp = Files.createTempFile(file.getParent(), hash, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), entry);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to persist OCR cache entry {}: {}", hash, e.getMessage());
+        }
+        if (writesSincePrune.incrementAndGet() >= PRUNE_INTERVAL) {
+            schedulePrune();
+        }
+    }
+
+    /**
+     * Run {@link #prune} on the background pruning thread
+     * @return Future with the number of entries removed; while a prune is queued or
+     *         running, that prune's future
+     */
+    public CompletableFuture<Integer> schedulePrune() {
+        synchronized (pruneLock) {
+            if (pendingPrune != null && !pendingPrune.isDone()) {
+                return pendingPrune;
+            }
+            writesSincePrune.set(0);
+            pendingPrune = CompletableFuture.supplyAsync(this::prune, PRUNER);
+            return pendingPrune;
+        }
+    }
+
+    /**
+     * Remove disk entries older than the maximum age, then the least recently used ones
+     * above the entry limit, in every namespace under the cache directory
+     * @return Number of entries removed
+     */
+    public synchronized int prune() {
+        writesSincePrune.set(0);
+        if (directory == null || !Files.isDirectory(directory) || (maxDiskEntries == 0 && maxAge == null)) {
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(path -> path.toString().endsWith(".json")).collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warn("Failed to list OCR cache directory {}: {}", directory, e.getMessage());
+            return 0;
+        }
+
+        Map<Path, Long> lastUsed = new LinkedHashMap<>();
+        for (Path file : files) {
+            try {
+                lastUsed.put(file, Files.getLastModifiedTime(file).toMillis());
+            } catch (IOException e) {
+                // Removed concurrently
+            }
+        }
+        List<Path> oldestFirst = new ArrayList<>(lastUsed.keySet());
+        oldestFirst.sort(Comparator.comparingLong(lastUsed::get));
+
+        long cutoff = maxAge != null ? System.currentTimeMillis() - maxAge.toMillis() : Long.MIN_VALUE;
+        int excess = maxDiskEntries > 0 ? Math.max(0, oldestFirst.size() - maxDiskEntries) : 0;
+        int removed = 0;
+        for (Path file : oldestFirst) {
+            if (removed >= excess && lastUsed.get(file) >= cutoff) {
+                break;
+            }
+            try {
+                if (Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to remove OCR cache file {}: {}", file, e.getMessage());
+            }
+        }
+        if (removed > 0) {
+            logger.info("Pruned {} OCR cache entries from {}", removed, directory);
+        }
+        return removed;
+    }
+
+    /**
+     * Mark a disk entry as used, so pruning keeps it longer
+     */
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects pruning order
+        }
+    }
+
+    private Path entryPath(String hash) {
+        if (namespaceDirectory == null || hash == null || hash.length() < 2) {
+            return null;
+        }
+        return namespaceDirectory.resolve(hash.substring(0, 2)).resolve(hash + ".json");
+    }
+
+    public int getMemorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /**
+     * Get hit/miss counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memoryEntries", getMemorySize());
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        if (namespaceDirectory != null) {
+            stats.put("directory", namespaceDirectory.toString());
+        }
+        return stats;
+    }
+}
@@ -1,6 +1,14 @@
 package com.workassistant.service;
 
+import com.workassistant.config.AppConfig;
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.ImageUtils;
+import com.workassistant.image.OCRPreprocessor;
+import com.workassistant.image.TextLayout;
+import com.workassistant.image.TextPresenceDetector;
+import com.workassistant.image.TextRegionDetector;
 import com.workassistant.util.TextUtils;
+import net.sourceforge.tess4j.ITesseract;
 import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
 import org.slf4j.Logger;
@@ -10,11 +18,22 @@ import javax.imageio.ImageIO;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -22,13 +41,98 @@ import java.util.stream.Collectors;
  */
 public class OCRService {
     private static final Logger logger = LoggerFactory.getLogger(OCRService.class);
+    // Simplified Chinese by default, also accepting English and Traditional Chinese
+    private static final String OCR_LANGUAGES = "chi_sim+eng+chi_tra";
+    private static final AtomicInteger OCR_THREAD_COUNTER = new AtomicInteger();
+    private static final AtomicInteger TILE_THREAD_COUNTER = new AtomicInteger();
+    // Lines compared when stripping the overlap between consecutive tiles
+    private static final int MAX_OVERLAP_LINES = 12;
+    // user_defined_dpi for images passed as they are: 0 lets Tesseract use the image's own resolution
+    private static final int NO_DPI_HINT = 0;
+    // Bump when recognition changes in a way the settings in cacheFingerprint() do not show
+    private static final int PIPELINE_VERSION = 1;
     private static OCRService instance;
-    private final Tesseract tesseract;
+    private final OCREnginePool enginePool;
+    private final OCRResultCache resultCache;
+    private final OCRPreprocessor preprocessor;  // null when preprocessing is disabled
+    // Runs async OCR calls; sized like the engine pool so workers never queue on engines
+    private final ExecutorService ocrExecutor;
+    // Runs the tiles of one tall image; separate from ocrExecutor so a worker waiting on its tiles cannot starve them
+    private final ExecutorService tileExecutor;
+    private final int tileMaxHeight;
+    private final TextRegionDetector regionDetector;  // null when region detection is disabled
+    private final double roiMaxCoverage;
+    private final TextPresenceDetector presenceDetector;  // null when the text pre-check is disabled
+    private String datapath;
     private boolean available;
 
+    /**
+     * Recognizes one image file; replaceable in tests to simulate engine failures
+     */
+    @FunctionalInterface
+    interface FileRecognizer {
+        OCRResultCache.Entry recognize(File imageFile) throws TesseractException;
+    }
+
+    private volatile FileRecognizer recognizer = this::recognizeFile;
+
     private OCRService() {
-        this.tesseract = new Tesseract();
         this.available = initializeTesseract();
+        this.enginePool = new OCREnginePool(this::createEngine, resolvePoolSize());
+        this.ocrExecutor = Executors.newFixedThreadPool(enginePool.getMaxSize(), r -> {
+            Thread t = new Thread(r, "ocr-worker-" + OCR_THREAD_COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.tileExecutor = Executors.newFixedThreadPool(enginePool.getMaxSize(), r -> {
+            Thread t = new Thread(r, "ocr-tile-" + TILE_THREAD_COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.tileMaxHeight = Math.max(200, config(AppConfig::getOcrTileMaxHeight, 2400));
+        this.regionDetector = config(AppConfig::isOcrRoiEnabled, true)
+            ? new TextRegionDetector().setMaxRegions(config(AppConfig::getOcrRoiMaxRegions, 6))
+            : null;
+        this.roiMaxCoverage = config(AppConfig::getOcrRoiMaxCoverage, 0.6);
+        this.presenceDetector = config(AppConfig::isOcrPrecheckEnabled, true)
+            ? new TextPresenceDetector().setMinLikelihood(config(AppConfig::getOcrPrecheckMinLikelihood, 0.2))
+            : null;
+        logger.info("OCR engine pool size: {}", enginePool.getMaxSize());
+        this.preprocessor = createPreprocessor();
+        String cacheDir = config(AppConfig::getOcrCacheDir, "work/ocr-cache");
+        int maxAgeDays = config(AppConfig::getOcrCacheMaxAgeDays, 90);
+        this.resultCache = new OCRResultCache(
+            cacheDir.isEmpty() ? null : Paths.get(cacheDir),
+            config(AppConfig::getOcrCacheMaxEntries, 1000),
+            cacheFingerprint())
+            .setDiskLimits(config(AppConfig::getOcrCacheMaxDiskEntries, 20000),
+                maxAgeDays > 0 ? Duration.ofDays(maxAgeDays) : null);
+        // Results of earlier configurations age out like any other entry
+        resultCache.schedulePrune();
+    }
+
+    /**
+     * Settings the OCR text depends on; cached results are kept apart per fingerprint
+     */
+    private String cacheFingerprint() {
+        StringBuilder fingerprint = new StringBuilder("v").append(PIPELINE_VERSION)
+            .append("|languages=").append(OCR_LANGUAGES)
+            .append("|tessdata=").append(datapath)
+            .append("|tileMaxHeight=").append(tileMaxHeight);
+        if (preprocessor != null) {
+            BinarizeConfig binarize = preprocessor.getBinarizeConfig();
+            fingerprint.append("|preprocess=").append(preprocessor.getTargetDpi())
+                .append(',').append(preprocessor.isDeskew())
+                .append(',').append(preprocessor.getTargetTextHeight())
+                .append(',').append(binarize != null ? binarize.getAlgorithm() : "none");
+        }
+        if (regionDetector != null) {
+            fingerprint.append("|roi=").append(regionDetector.getMaxRegions()).append(',').append(roiMaxCoverage);
+        }
+        if (presenceDetector != null) {
+            fingerprint.append("|precheck=").append(presenceDetector.getMinLikelihood());
+        }
+        return fingerprint.toString();
     }
 
     public static synchronized OCRService getInstance() {
@@ -52,14 +156,12 @@ public class OCRService {
 
             for (String path : possiblePaths) {
                 if (path != null && new File(path).exists()) {
-                    tesseract.setDatapath(path);
+                    this.datapath = path;
                     logger.info("Tesseract data path set to: {}", path);
                     break;
                 }
             }
 
-            // Set language to Simplified Chinese by default, and also accept English and Traditional Chinese
-            tesseract.setLanguage("chi_sim+eng+chi_tra");
             logger.info("OCR service initialized successfully");
             return true;
         } catch (Exception e) {
@@ -68,6 +170,94 @@ public class OCRService {
         }
     }
 
+    /**
+     * Create a configured Tesseract engine; called lazily by the pool
+     */
+    private ITesseract createEngine() {
+        Tesseract engine = new Tesseract();
+        if (datapath != null) {
+            engine.setDatapath(datapath);
+        }
+        engine.setLanguage(OCR_LANGUAGES);
+        return engine;
+    }
+
+    /**
+     * Pool size from `ocr.pool.size`, defaulting to the number of cores
+     */
+    private static int resolvePoolSize() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int configured = config(AppConfig::getOcrPoolSize, cores);
+        return configured > 0 ? configured : cores;
+    }
+
+    /**
+     * Build the preprocessing pipeline from `ocr.preprocess.*` settings
+     * @return Configured preprocessor, or null when preprocessing is disabled
+     */
+    private static OCRPreprocessor createPreprocessor() {
+        if (!config(AppConfig::isOcrPreprocessEnabled, true)) {
+            logger.info("OCR preprocessing disabled");
+            return null;
+        }
+        try {
+            BinarizeConfig binarizeConfig = BinarizeConfig.forOCR()
+                .setAlgorithm(BinarizeConfig.Algorithm.valueOf(config(AppConfig::getOcrPreprocessAlgorithm, "OTSU")));
+            OCRPreprocessor preprocessor = new OCRPreprocessor()
+                .setTargetDpi(config(AppConfig::getOcrPreprocessTargetDpi, 300))
+                .setDeskew(config(AppConfig::isOcrPreprocessDeskew, true))
+                .setTargetTextHeight(config(AppConfig::getOcrPreprocessTargetTextHeight, 40))
+                .setBinarizeConfig(binarizeConfig);
+            logger.info("OCR preprocessing enabled: targetDpi={}, deskew={}, algorithm={}",
+                preprocessor.getTargetDpi(), preprocessor.isDeskew(), binarizeConfig.getAlgorithm());
+            return preprocessor;
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid OCR preprocessing configuration, preprocessing disabled: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read an OCR setting, falling back when no configuration is available
+     * (e.g. tools running without application.properties)
+     */
+    private static <T> T config(Function<AppConfig, T> getter, T fallback) {
+        try {
+            return getter.apply(AppConfig.getInstance());
+        } catch (RuntimeException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Run OCR with an engine borrowed from the pool
+     * @param dpi Resolution hint set on the engine for this call (engines are shared, so
+     *            every call sets it), or NO_DPI_HINT
+     */
+    private String runOCR(int dpi, OCREnginePool.EngineTask<String> task) throws TesseractException {
+        String dpiHint = String.valueOf(dpi);
+        try {
+            return enginePool.execute(engine -> {
+                engine.setVariable("user_defined_dpi", dpiHint);
+                return task.apply(engine);
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TesseractException("Interrupted while waiting for an OCR engine", e);
+        }
+    }
+
+    /**
+     * Get OCR availability and engine pool statistics
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = enginePool.getStats();
+        status.put("cache", resultCache.getStats());
+        status.put("available", available);
+        status.put("languages", OCR_LANGUAGES);
+        return status;
+    }
+
     public boolean isAvailable() {
         return available;
     }
@@ -76,20 +266,260 @@ public class OCRService {
      * Extract text from an image file
      */
     public String extractText(File imageFile) {
+        return ocrFile(imageFile).getText();
+    }
+
+    /**
+     * OCR an image file, returning an empty result when Tesseract fails
+     * For callers that only want whatever text there is; ingestion uses {@link #recognizeAll}.
+     */
+    private OCRResultCache.Entry ocrFile(File imageFile) {
+        try {
+            return ocrFileOrFail(imageFile);
+        } catch (TesseractException e) {
+            logger.error("Failed to extract text from image: {}", imageFile.getName(), e);
+            return new OCRResultCache.Entry("", null);
+        }
+    }
+
+    /**
+     * OCR an image file, reusing the cached result when the same file contents were seen before
+     * @throws TesseractException if the image could not be recognized, even after the fallbacks
+     */
+    private OCRResultCache.Entry ocrFileOrFail(File imageFile) throws TesseractException {
+        String hash = null;
+        if (available && imageFile.isFile()) {
+            try {
+                hash = OCRResultCache.hash(imageFile);
+                OCRResultCache.Entry cached = resultCache.get(hash);
+                if (cached != null) {
+                    logger.info("OCR cache hit for {}", imageFile.getName());
+                    return cached;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to hash image {} for OCR cache: {}", imageFile.getName(), e.getMessage());
+            }
+        }
+
+        OCRResultCache.Entry entry = recognizer.recognize(imageFile);
+        // Empty text may be a failed OCR run, so only real results and skips are cached (skips in memory only)
+        if (hash != null && (!entry.getText().isEmpty() || entry.isOcrSkipped())) {
+            resultCache.put(hash, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Run Tesseract on an image file, unless the text pre-check finds the image has no text
+     */
+    private OCRResultCache.Entry recognizeFile(File imageFile) throws TesseractException {
+        BufferedImage image = null;
+        if (available && !isVectorImage(imageFile) && (preprocessor != null || presenceDetector != null)) {
+            image = decode(imageFile);
+        }
+
+        Double textLikelihood = null;
+        if (image != null && presenceDetector != null) {
+            TextPresenceDetector.Result presence = presenceDetector.assess(image);
+            textLikelihood = presence.getLikelihood();
+            if (!presence.isLikelyText()) {
+                logger.info("Skipping OCR for {}, no text detected: {}", imageFile.getName(), presence);
+                OCRResultCache.Entry skipped = new OCRResultCache.Entry("", null);
+                skipped.setOcrSkipped(true);
+                skipped.setTextLikelihood(textLikelihood);
+                return skipped;
+            }
+        }
+
+        String text = null;
+        if (image != null && preprocessor != null) {
+            text = recognizePreprocessed(imageFile, image);
+        }
+        if (text == null) {
+            text = recognizeRawFile(imageFile);
+        }
+        OCRResultCache.Entry entry = new OCRResultCache.Entry(text, extractKeywordsFromText(text));
+        entry.setTextLikelihood(textLikelihood);
+        return entry;
+    }
+
+    private static boolean isVectorImage(File imageFile) {
+        String name = imageFile.getName().toLowerCase();
+        return name.endsWith(".svg") || name.endsWith(".svg+xml") || name.endsWith(".svgz");
+    }
+
+    /**
+     * Decode an image file for in-memory processing
+     * @return Decoded image, or null if the format is not supported or the file is unreadable
+     */
+    private static BufferedImage decode(File imageFile) {
+        try {
+            return ImageIO.read(imageFile);
+        } catch (IOException e) {
+            logger.warn("Failed to decode {} for preprocessing: {}", imageFile.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Run the preprocessing pipeline in memory on a decoded image and OCR the result
+     * @return Recognized text, or null if OCR failed
+     */
+    private String recognizePreprocessed(File imageFile, BufferedImage image) {
+        try {
+            int sourceDpi = ImageUtils.readDpi(imageFile);
+            BufferedImage prepared = preprocessor.process(image, sourceDpi);
+            String text = recognizeRegions(prepared, OCRPreprocessor.outputDpi(sourceDpi, image, prepared));
+            return text != null ? text.trim() : "";
+        } catch (TesseractException | RuntimeException e) {
+            logger.warn("Preprocessed OCR failed for {}, retrying on the original file: {}", imageFile.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * OCR a preprocessed image, splitting very tall images (e.g. scrolling captures) into
+     * overlapping tiles that are recognized in parallel and merged back in order
+     */
+    private String recognizeImage(BufferedImage image, int dpi) throws TesseractException {
+        if (image.getHeight() <= tileMaxHeight) {
+            return runOCR(dpi, engine -> engine.doOCR(image));
+        }
+
+        TextLayout layout = TextLayout.analyze(image);
+        // Overlap a few text lines so every line is complete in at least one tile
+        int overlap = Math.max(64, layout.getLineHeight() * 3);
+        List<int[]> bounds = layout.computeTileBounds(tileMaxHeight, overlap);
+        logger.info("OCR of {}x{} image split into {} tiles", image.getWidth(), image.getHeight(), bounds.size());
+
+        List<Supplier<BufferedImage>> tiles = new ArrayList<>();
+        for (int[] bound : bounds) {
+            tiles.add(() -> TextLayout.cropRows(image, bound[0], bound[1]));
+        }
+        List<String> texts = recognizeParts(tiles, dpi);
+        return mergeTileTexts(texts);
+    }
+
+    /**
+     * OCR only the text blocks found by the region detector
+     * Falls back to the whole image when no blocks are found, when they cover most of the
+     * image anyway, or when a block is too tall for a single OCR call.
+     */
+    private String recognizeRegions(BufferedImage image, int dpi) throws TesseractException {
+        if (regionDetector == null) {
+            return recognizeImage(image, dpi);
+        }
+
+        List<Rectangle> regions = regionDetector.detect(image);
+        double coverage = TextRegionDetector.coverage(regions, image.getWidth(), image.getHeight());
+        boolean tooTall = regions.stream().anyMatch(r -> r.height > tileMaxHeight);
+        if (regions.isEmpty() || coverage > roiMaxCoverage || tooTall) {
+            return recognizeImage(image, dpi);
+        }
+        logger.info("OCR limited to {} text regions covering {}% of {}x{} image",
+            regions.size(), Math.round(coverage * 100), image.getWidth(), image.getHeight());
+
+        List<Supplier<BufferedImage>> parts = new ArrayList<>();
+        for (Rectangle region : regions) {
+            parts.add(() -> TextRegionDetector.crop(image, region));
+        }
+        return recognizeParts(parts, dpi).stream()
+            .map(String::trim)
+            .filter(text -> !text.isEmpty())
+            .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * OCR several parts of an image in parallel on the tile executor
+     * @param parts Suppliers cropping each part, run on the worker so crops are made in parallel too
+     * @return Text of every part, in the order given
+     */
+    private List<String> recognizeParts(List<Supplier<BufferedImage>> parts, int dpi) throws TesseractException {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (Supplier<BufferedImage> part : parts) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                BufferedImage crop = part.get();
+                try {
+                    String text = runOCR(dpi, engine -> engine.doOCR(crop));
+                    return text != null ? text : "";
+                } catch (TesseractException e) {
+                    throw new CompletionException(e);
+                }
+            }, tileExecutor));
+        }
+
+        List<String> texts = new ArrayList<>();
+        try {
+            for (CompletableFuture<String> future : futures) {
+                texts.add(future.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new TesseractException("Partial OCR failed: " + cause.getMessage(), cause);
+        }
+        return texts;
+    }
+
+    /**
+     * Join the text of consecutive tiles, dropping the lines repeated in each overlap
+     * Lines are compared with whitespace removed, since Tesseract may space the same line differently.
+     */
+    static String mergeTileTexts(List<String> tileTexts) {
+        List<String> merged = new ArrayList<>();
+        for (String text : tileTexts) {
+            List<String> lines = new ArrayList<>();
+            if (text != null) {
+                for (String line : text.split("\\R")) {
+                    if (!line.isBlank()) {
+                        lines.add(line.strip());
+                    }
+                }
+            }
+
+            int skip = 0;
+            int limit = Math.min(MAX_OVERLAP_LINES, Math.min(merged.size(), lines.size()));
+            for (int k = limit; k > 0; k--) {
+                if (linesMatch(merged.subList(merged.size() - k, merged.size()), lines.subList(0, k))) {
+                    skip = k;
+                    break;
+                }
+            }
+            merged.addAll(lines.subList(skip, lines.size()));
+        }
+        return String.join("\n", merged);
+    }
+
+    private static boolean linesMatch(List<String> tail, List<String> head) {
+        for (int i = 0; i < tail.size(); i++) {
+            if (!normalizeLine(tail.get(i)).equals(normalizeLine(head.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalizeLine(String line) {
+        return line.replaceAll("\\s+", "");
+    }
+
+    /**
+     * Run Tesseract directly on the image file
+     * @throws TesseractException if OCR failed, also after re-encoding a broken JPEG
+     */
+    private String recognizeRawFile(File imageFile) throws TesseractException {
         if (!available) {
             logger.warn("OCR service is not available");
             return "";
         }
 
         // Skip OCR for vector formats like SVG
-        String name = imageFile.getName().toLowerCase();
-        if (name.endsWith(".svg") || name.endsWith(".svg+xml") || name.endsWith(".svgz")) {
+        if (isVectorImage(imageFile)) {
             logger.info("Skipping OCR for SVG/vector image: {}", imageFile.getName());
             return "";
         }
 
         try {
-            String text = tesseract.doOCR(imageFile);
+            String text = runOCR(NO_DPI_HINT, engine -> engine.doOCR(imageFile));
             return text != null ? text.trim() : "";
         } catch (TesseractException e) {
             // Handle known ImageIO/JPEG parsing issue: attempt to sanitize and retry
@@ -136,7 +566,8 @@ public class OCRService {
                         try {
                             tmp = File.createTempFile("ocr-sanitized-", ".png");
                             ImageIO.write(img, "png", tmp);
-                            String text2 = tesseract.doOCR(tmp);
+                            final File sanitized = tmp;
+                            String text2 = runOCR(NO_DPI_HINT, engine -> engine.doOCR(sanitized));
                             return text2 != null ? text2.trim() : "";
                         } catch (Exception t2) {
                             logger.error("Retry OCR failed for sanitized image {}", imageFile.getName(), t2);
@@ -153,9 +584,7 @@ public class OCRService {
                 }
             }
 
-            // Final fallback: log and return empty string
-            logger.error("Failed to extract text from image: {}", imageFile.getName(), e);
-            return "";
+            throw e;
         }
     }
 
@@ -192,8 +621,19 @@ public class OCRService {
             return "";
         }
 
+        if (presenceDetector != null && !presenceDetector.assess(image).isLikelyText()) {
+            logger.info("Skipping OCR, no text detected in image");
+            return "";
+        }
+
         try {
-            String text = tesseract.doOCR(image);
+            String text;
+            if (preprocessor != null) {
+                BufferedImage prepared = preprocessor.process(image, 0);
+                text = recognizeRegions(prepared, OCRPreprocessor.outputDpi(0, image, prepared));
+            } else {
+                text = runOCR(NO_DPI_HINT, engine -> engine.doOCR(image));
+            }
             return text != null ? text.trim() : "";
         } catch (TesseractException e) {
             logger.error("Failed to extract text from BufferedImage", e);
@@ -206,8 +646,74 @@ public class OCRService {
      * Returns a list of significant words (longer than 3 characters)
      */
     public List<String> extractKeywords(File imageFile) {
-        String text = extractText(imageFile);
-        return extractKeywordsFromText(text);
+        return new ArrayList<>(ocrFile(imageFile).getKeywords());
+    }
+
+    /**
+     * Extract keywords from an image file on the OCR worker pool
+     * Lets callers OCR several images in parallel, bounded by the number of engines.
+     */
+    public CompletableFuture<List<String>> extractKeywordsAsync(File imageFile) {
+        return CompletableFuture.supplyAsync(() -> extractKeywords(imageFile), ocrExecutor);
+    }
+
+    /**
+     * OCR an image file on the OCR worker pool
+     * Unlike extractKeywordsAsync, the result also tells whether OCR was skipped by the text pre-check.
+     */
+    public CompletableFuture<OCRResultCache.Entry> recognizeAsync(File imageFile) {
+        return CompletableFuture.supplyAsync(() -> ocrFile(imageFile), ocrExecutor);
+    }
+
+    /**
+     * OCR several image files at once on the OCR worker pool
+     * Results are in the order of the files, whatever order they finish in; the future fails
+     * with the {@link TesseractException} of the first image that could not be recognized.
+     */
+    public CompletableFuture<List<OCRResultCache.Entry>> recognizeAllAsync(List<File> imageFiles) {
+        return mapInOrder(imageFiles, imageFile -> {
+            try {
+                return ocrFileOrFail(imageFile);
+            } catch (TesseractException e) {
+                throw new CompletionException(e);
+            }
+        }, ocrExecutor);
+    }
+
+    /**
+     * OCR several image files in parallel and wait for all of them
+     * @throws TesseractException if any image could not be recognized
+     * @see #recognizeAllAsync(List)
+     */
+    public List<OCRResultCache.Entry> recognizeAll(List<File> imageFiles) throws TesseractException {
+        try {
+            return recognizeAllAsync(imageFiles).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TesseractException) {
+                throw (TesseractException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Replace how files are recognized, or restore the default with null
+     */
+    void setRecognizer(FileRecognizer recognizer) {
+        this.recognizer = recognizer != null ? recognizer : this::recognizeFile;
+    }
+
+    /**
+     * Apply work to every item on the executor, collecting the results in item order
+     */
+    static <T, R> CompletableFuture<List<R>> mapInOrder(List<T> items, Function<? super T, ? extends R> work,
+                                                        java.util.concurrent.Executor executor) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> work.apply(item), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
     }
 
     /**
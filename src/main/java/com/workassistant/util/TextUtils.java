@@ -43,4 +43,31 @@ public class TextUtils {
         }
         return text.chars().anyMatch(TextUtils::isCJKCharacter);
     }
+
+    /**
+     * Roughly estimate how many LLM tokens a text will consume.
+     * CJK characters are counted as one token each; other characters are counted
+     * at about four characters per token, which matches common BPE tokenizers closely
+     * enough for prompt budgeting.
+     *
+     * @param text The text to estimate
+     * @return Estimated token count (0 for null or empty text)
+     */
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int cjk = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            if (isCJKCharacter(cp)) {
+                cjk++;
+            } else {
+                other++;
+            }
+            i += Character.charCount(cp);
+        }
+        return cjk + (other + 3) / 4;
+    }
 }
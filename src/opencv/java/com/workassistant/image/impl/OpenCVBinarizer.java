@@ -0,0 +1,252 @@
+package com.workassistant.image.impl;
+
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.Binarizer;
+import com.workassistant.image.BinarizerFactory;
+import com.workassistant.image.GrayImage;
+import com.workassistant.image.ImageUtils;
+import com.workassistant.image.PixelKernels;
+import org.bytedeco.javacpp.Loader;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * OpenCV-backed binarization implementation.
+ *
+ * Only compiled with the {@code opencv} Maven profile, which adds the bytedeco
+ * {@code opencv-platform} dependency:
+ *
+ *   mvn -Popencv package
+ *
+ * and selected with {@code BinarizeConfig.setUseOpenCV(true)}. GLOBAL, OTSU,
+ * ADAPTIVE_MEAN and ADAPTIVE_GAUSSIAN, both blurs and the morphology run natively.
+ *
+ * Which path runs follows BinarizerBenchmark (java against opencv, 64x64 to 1240x1754):
+ * with a blur, adaptive thresholding or morphology OpenCV was 2-4x faster at every size,
+ * while a bare GLOBAL or OTSU threshold was no faster and lost to the two copies on large
+ * images. So bare thresholds, SAUVOLA and NIBLACK, and images below
+ * {@link #DEFAULT_MIN_PIXELS} go to the pure Java binarizers.
+ *
+ * Each thread keeps its native {@link Mat}s and gray buffers and reuses them while the
+ * image size stays the same, so a call allocates nothing natively. A Mat cannot point
+ * into a Java heap array, so the gray pixels are copied in and out once per call with a
+ * bulk copy; a TYPE_BYTE_GRAY input is copied straight from its data buffer.
+ *
+ * GLOBAL and OTSU match the Java binarizers pixel for pixel. Blurs round differently and
+ * adaptive thresholding replicates the border instead of clipping the window, so those
+ * differ from the Java output in a small fraction of pixels.
+ */
+public class OpenCVBinarizer implements Binarizer {
+
+    /**
+     * Images with fewer pixels are binarized in Java. The smallest benchmarked size; below
+     * it the time is too short for the choice to matter.
+     */
+    public static final long DEFAULT_MIN_PIXELS = 64 * 64;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final long minPixels;
+
+    /**
+     * Crossover from {@code -Dworkassistant.image.opencv.minPixels}, or {@link #DEFAULT_MIN_PIXELS}.
+     */
+    public OpenCVBinarizer() {
+        this(Long.getLong("workassistant.image.opencv.minPixels", DEFAULT_MIN_PIXELS));
+    }
+
+    /**
+     * @param minPixels Images with fewer pixels are binarized in Java
+     */
+    public OpenCVBinarizer(long minPixels) {
+        // Extracts and links the native libraries for this platform, or fails here rather than mid-binarization
+        try {
+            Loader.load(opencv_imgproc.class);
+        } catch (UnsatisfiedLinkError e) {
+            throw new IllegalStateException("OpenCV native libraries could not be loaded for "
+                + Loader.getPlatform(), e);
+        }
+        this.minPixels = minPixels;
+    }
+
+    @Override
+    public BufferedImage binarize(BufferedImage input, BinarizeConfig config) {
+        if ((long) input.getWidth() * input.getHeight() < minPixels || !isFasterNatively(config)) {
+            return BinarizerFactory.createJavaBinarizer(config).binarize(input, config);
+        }
+
+        Scratch scratch = SCRATCH.get();
+        int width = input.getWidth();
+        int height = input.getHeight();
+
+        // Gray pixels into the reused source Mat
+        GrayImage gray = scratch.gray(input);
+        Mat current = scratch.source;
+        current.create(height, width, opencv_core.CV_8UC1);
+        current.data().put(gray.getPixels(), 0, width * height);
+
+        // Optional blur
+        int blur = config.getBlurKernelSize();
+        if (blur > 1) {
+            Mat blurred = scratch.other(current);
+            if (config.isUseMedianBlur()) {
+                opencv_imgproc.medianBlur(current, blurred, blur);
+            } else {
+                // Same sigma as ImageUtils.generateGaussianKernel1D
+                opencv_imgproc.GaussianBlur(current, blurred, new Size(blur, blur), blur / 6.0);
+            }
+            current = blurred;
+        }
+
+        Mat binary = scratch.other(current);
+        switch (config.getAlgorithm()) {
+            case GLOBAL:
+                threshold(current, binary, config.getThreshold());
+                break;
+            case ADAPTIVE_MEAN:
+            case ADAPTIVE_GAUSSIAN:
+                int method = config.getAlgorithm() == BinarizeConfig.Algorithm.ADAPTIVE_MEAN
+                    ? opencv_imgproc.ADAPTIVE_THRESH_MEAN_C : opencv_imgproc.ADAPTIVE_THRESH_GAUSSIAN_C;
+                opencv_imgproc.adaptiveThreshold(current, binary, 255, method, opencv_imgproc.THRESH_BINARY,
+                    config.getBlockSize(), config.getC());
+                break;
+            default:
+                threshold(current, binary, otsuThreshold(current, gray, scratch));
+                break;
+        }
+        current = binary;
+
+        // Optional morphology, on 0/255 like the packed Java implementation
+        if (config.isUseMorphologicalOpening()) {
+            Mat opened = scratch.other(current);
+            opencv_imgproc.morphologyEx(current, opened, opencv_imgproc.MORPH_OPEN, scratch.kernel(config.getMorphKernelSize()));
+            current = opened;
+        }
+        if (config.isUseMorphologicalClosing()) {
+            Mat closed = scratch.other(current);
+            opencv_imgproc.morphologyEx(current, closed, opencv_imgproc.MORPH_CLOSE, scratch.kernel(config.getMorphKernelSize()));
+            current = closed;
+        }
+
+        GrayImage result = scratch.result(width, height);
+        current.data().get(result.getPixels(), 0, width * height);
+        return ImageUtils.threshold(result, 128);
+    }
+
+    @Override
+    public BufferedImage binarize(String inputPath, BinarizeConfig config) throws IOException {
+        BufferedImage input = ImageUtils.loadImage(inputPath);
+        return binarize(input, config);
+    }
+
+    @Override
+    public void binarize(String inputPath, String outputPath, BinarizeConfig config) throws IOException {
+        BufferedImage result = binarize(inputPath, config);
+        ImageUtils.saveImage(result, outputPath);
+    }
+
+    @Override
+    public String getName() {
+        return "OpenCV";
+    }
+
+    /**
+     * Whether OpenCV implements the configuration and gains on it
+     */
+    private static boolean isFasterNatively(BinarizeConfig config) {
+        switch (config.getAlgorithm()) {
+            case GLOBAL:
+            case OTSU:
+            case OPENCV:
+                // A bare threshold is memory-bound and as fast in Java, which saves the copies
+                return config.getBlurKernelSize() > 1
+                    || config.isUseMorphologicalOpening() || config.isUseMorphologicalClosing();
+            case ADAPTIVE_MEAN:
+            case ADAPTIVE_GAUSSIAN:
+                return config.getBlockSize() > 1;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Threshold into 0/255. The Java binarizers keep a pixel when it is >= the threshold and
+     * OpenCV when it is >, hence the - 1.
+     */
+    private static void threshold(Mat gray, Mat binary, int threshold) {
+        opencv_imgproc.threshold(gray, binary, threshold - 1, 255, opencv_imgproc.THRESH_BINARY);
+    }
+
+    /**
+     * Otsu's level of the (blurred) gray Mat, computed by {@link OtsuBinarizer} rather than
+     * THRESH_OTSU, whose floating-point ties can pick a different level on flat stretches of
+     * the histogram. Only blurred pixels are copied back for the histogram.
+     */
+    private static int otsuThreshold(Mat current, GrayImage gray, Scratch scratch) {
+        byte[] pixels = gray.getPixels();
+        if (current != scratch.source) {
+            pixels = scratch.result(gray.getWidth(), gray.getHeight()).getPixels();
+            current.data().get(pixels, 0, pixels.length);
+        }
+        int[] histogram = new int[256];
+        PixelKernels.get().histogram(pixels, histogram);
+        return OtsuBinarizer.calculateOtsuThreshold(histogram, pixels.length);
+    }
+
+    /**
+     * Per-thread buffers, resized only when the image size changes
+     */
+    private static final class Scratch {
+        private final Mat source = new Mat();
+        private final Mat first = new Mat();
+        private final Mat second = new Mat();
+        private Mat kernel;
+        private int kernelSize;
+        private GrayImage input;
+        private GrayImage output;
+
+        /**
+         * Gray pixels of an image: shared for an unshared TYPE_BYTE_GRAY image, otherwise
+         * converted into this thread's input buffer.
+         */
+        GrayImage gray(BufferedImage image) {
+            if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                return GrayImage.wrap(image);
+            }
+            input = sized(input, image.getWidth(), image.getHeight());
+            return input.copyFrom(image);
+        }
+
+        /**
+         * One of the two working Mats, never the given one; the source is only read
+         */
+        Mat other(Mat current) {
+            return current == first ? second : first;
+        }
+
+        GrayImage result(int width, int height) {
+            output = sized(output, width, height);
+            return output;
+        }
+
+        Mat kernel(int size) {
+            if (kernel == null || kernelSize != size) {
+                kernel = opencv_imgproc.getStructuringElement(opencv_imgproc.MORPH_RECT, new Size(size, size));
+                kernelSize = size;
+            }
+            return kernel;
+        }
+
+        private static GrayImage sized(GrayImage image, int width, int height) {
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                return new GrayImage(width, height);
+            }
+            return image;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.workassistant.cli;
+
+import com.workassistant.image.BinarizeConfig;
+import com.workassistant.image.BinarizerFactory;
+import com.workassistant.image.ImageUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for batch binarization.
+ */
+class BinarizeBatchTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void testPlan_DirectoriesGlobsAndLists() throws Exception {
+        Path in = temp.resolve("in");
+        File out = temp.resolve("out").toFile();
+        writeImage(in.resolve("a.png"), 1);
+        writeImage(in.resolve("sub/b.jpg"), 2);
+        Files.writeString(in.resolve("notes.txt"), "not an image");
+        Files.writeString(temp.resolve("list.txt"), "# inputs\n\n" + in.resolve("a.png") + "\n");
+
+        BinarizeBatch batch = new BinarizeBatch(new BinarizeConfig());
+
+        assertEquals(Arrays.asList(out.toPath().resolve("a.png"), out.toPath().resolve("sub/b.png")),
+            outputs(batch.plan(Collections.singletonList(in.toString()), out)));
+        assertEquals(Collections.singletonList(out.toPath().resolve("sub/b.png")),
+            outputs(batch.plan(Collections.singletonList(in + "/**.jpg"), out)));
+        assertEquals(Collections.singletonList(out.toPath().resolve("a.png")),
+            outputs(batch.plan(Collections.singletonList("@" + temp.resolve("list.txt")), out)));
+    }
+
+    @Test
+    void testPlan_RejectsInputsWithTheSameOutput() throws Exception {
+        Path in = temp.resolve("in");
+        Path other = temp.resolve("other");
+        File out = temp.resolve("out").toFile();
+        writeImage(in.resolve("x.png"), 1);
+        writeImage(in.resolve("x.jpg"), 2);
+        writeImage(other.resolve("y.png"), 3);
+        writeImage(temp.resolve("more/y.png"), 4);
+        BinarizeBatch batch = new BinarizeBatch(new BinarizeConfig());
+
+        IOException sameStem = assertThrows(IOException.class,
+            () -> batch.plan(Collections.singletonList(in.toString()), out));
+        assertTrue(sameStem.getMessage().contains("x.jpg"));
+        assertThrows(IOException.class,
+            () -> batch.plan(Arrays.asList(other.toString(), temp.resolve("more").toString()), out));
+
+        // The same file named twice is not a collision
+        assertEquals(Collections.singletonList(out.toPath().resolve("y.png")),
+            outputs(batch.plan(Arrays.asList(other.toString(), other + "/*.png", other.resolve("y.png").toString()), out)));
+    }
+
+    @Test
+    void testPlan_SkipsOutputDirectoryInsideInput() throws Exception {
+        Path in = temp.resolve("in");
+        File out = in.resolve("out").toFile();
+        writeImage(in.resolve("a.png"), 1);
+        writeImage(in.resolve("out/a.png"), 2);
+        BinarizeBatch batch = new BinarizeBatch(new BinarizeConfig());
+
+        List<BinarizeBatch.Job> jobs = batch.plan(Collections.singletonList(in.toString()), out);
+
+        assertEquals(1, jobs.size());
+        assertEquals(in.resolve("a.png"), jobs.get(0).getInput().toPath());
+        assertEquals(out.toPath().resolve("a.png"), jobs.get(0).getOutput().toPath());
+    }
+
+    @Test
+    void testRun_WritesBinarizedOutputsAndSkipsUpToDate() throws Exception {
+        Path in = temp.resolve("in");
+        File out = temp.resolve("out").toFile();
+        for (int i = 0; i < 6; i++) {
+            writeImage(in.resolve("page" + i + ".png"), i);
+        }
+        Files.writeString(in.resolve("broken.png"), "not an image");
+        BinarizeConfig config = BinarizeConfig.forOCR();
+        BinarizeBatch batch = new BinarizeBatch(config).setWorkers(2).setMaxInFlight(2);
+        List<BinarizeBatch.Job> jobs = batch.plan(Collections.singletonList(in.toString()), out);
+
+        BinarizeBatch.Stats first = batch.run(jobs);
+
+        assertEquals(6, first.getProcessed());
+        assertEquals(1, first.getFailed());
+        assertTrue(first.getBusyNanos(BinarizeBatch.Stage.BINARIZE) > 0);
+        BufferedImage expected = BinarizerFactory.createBinarizer(config)
+            .binarize(ImageIO.read(in.resolve("page3.png").toFile()), config);
+        BufferedImage actual = ImageIO.read(new File(out, "page3.png"));
+        assertArrayEquals(ImageUtils.getPixels(expected), ImageUtils.getPixels(actual));
+
+        BinarizeBatch.Stats second = batch.run(jobs);
+        assertEquals(0, second.getProcessed());
+        assertEquals(6, second.getSkipped());
+
+        assertEquals(6, batch.setForce(true).run(jobs).getProcessed());
+    }
+
+    private static List<Path> outputs(List<BinarizeBatch.Job> jobs) {
+        return jobs.stream().map(job -> job.getOutput().toPath()).collect(Collectors.toList());
+    }
+
+    private static void writeImage(Path path, int seed) throws Exception {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int level = (x / 8 + y / 8) % 2 == 0 ? 40 + random.nextInt(30) : 190 + random.nextInt(30);
+                image.setRGB(x, y, level * 0x010101);
+            }
+        }
+        Files.createDirectories(path.getParent());
+        String name = path.getFileName().toString();
+        ImageIO.write(image, name.substring(name.lastIndexOf('.') + 1), path.toFile());
+    }
+}
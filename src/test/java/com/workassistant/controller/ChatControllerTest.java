@@ -1,15 +1,25 @@
 package com.workassistant.controller;
 
+import com.workassistant.model.KBSearchResult;
 import com.workassistant.model.Message;
 import com.workassistant.model.User;
 import com.workassistant.service.ChatService;
+import com.workassistant.service.ElasticsearchService;
+import com.workassistant.util.TextUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Unit tests for ChatController - focusing on username inclusion in AI requests
+ * Unit tests for ChatController - focusing on username inclusion in AI requests, the
+ * search results prompt and search failure replies
  */
 class ChatControllerTest {
     private ChatService chatService;
@@ -50,4 +60,63 @@ class ChatControllerTest {
         assertEquals("Alice456", msg1.getUsername());
         assertEquals("Bob789", msg2.getUsername());
     }
+
+    @Test
+    void testSearchPrompt_SkipsPassageThatDoesNotFitAndKeepsGoing() {
+        String longPassage = String.join(" ", Collections.nCopies(200, "lengthy"));
+        List<KBSearchResult> results = Arrays.asList(
+            new KBSearchResult("1", "First", null, null, 2.0, Arrays.asList("alpha short", longPassage)),
+            new KBSearchResult("2", "Second", null, null, 1.0, Arrays.asList("beta short", "gamma short")));
+
+        String prompt = ChatController.formatSearchResultsForAI(results, 60);
+
+        assertTrue(TextUtils.estimateTokens(prompt) <= 60, prompt);
+        assertTrue(prompt.contains("alpha short"));
+        assertTrue(prompt.contains("beta short"));
+        assertFalse(prompt.contains("lengthy"));
+        // Assembly went on past the passage that did not fit
+        assertTrue(prompt.contains("gamma short"));
+    }
+
+    @Test
+    void testSearchPrompt_HeadersStayWithinBudget() {
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            keywords.add("keyword" + i);
+        }
+        List<KBSearchResult> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(new KBSearchResult(String.valueOf(i), "Title " + i, keywords, null, 1.0,
+                Collections.singletonList("passage " + i)));
+        }
+
+        for (int budget : new int[] {20, 100, 400}) {
+            String prompt = ChatController.formatSearchResultsForAI(results, budget);
+            assertTrue(TextUtils.estimateTokens(prompt) <= budget, budget + ": " + prompt);
+        }
+        String prompt = ChatController.formatSearchResultsForAI(results, 400);
+        assertTrue(prompt.contains("Document 1:\nTitle: Title 0\n"));
+        assertFalse(prompt.contains("keyword8"), "keyword lists are capped");
+        assertTrue(prompt.contains("more omitted to fit the prompt"));
+        assertFalse(prompt.contains("Document 50:"));
+    }
+
+    @Test
+    void testSearchFailureReply_MapsFailedFutures() {
+        assertEquals("⚠️ Sorry, the search service is not available. Elasticsearch is not configured.",
+            failedSearchReply(new ElasticsearchService.NotConfiguredException()));
+        assertEquals("⚠️ Sorry, the search service is not available. Elasticsearch is not connected.",
+            failedSearchReply(new java.net.ConnectException("Connection refused")));
+        assertEquals("Sorry, I encountered an error while searching. Please try again later.",
+            failedSearchReply(new IllegalArgumentException("bad query")));
+    }
+
+    /**
+     * Fail a search future the way the async client does and return the reply users see
+     */
+    private static String failedSearchReply(Throwable error) {
+        CompletableFuture<List<KBSearchResult>> search = CompletableFuture.<List<KBSearchResult>>failedFuture(error)
+            .thenApply(results -> results);
+        return search.handle((results, failure) -> ChatController.searchFailureReply(failure)).join();
+    }
 }
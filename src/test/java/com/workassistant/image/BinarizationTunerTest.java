@@ -0,0 +1,134 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.AutoBinarizer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for choosing the binarization configuration per image.
+ */
+class BinarizationTunerTest {
+
+    private final BinarizationTuner tuner = new BinarizationTuner();
+
+    @Test
+    void testTune_CleanScreenshotUsesOtsu() {
+        BufferedImage screenshot = page(1200, 800, Color.WHITE, Color.WHITE, Color.BLACK, 18, 0);
+
+        BinarizationTuner.Result result = tuner.tune(screenshot, BinarizeConfig.forOCR());
+
+        assertEquals(BinarizeConfig.Algorithm.OTSU, result.getConfig().getAlgorithm(), result.toString());
+        assertTrue(result.getBimodality() > 0.9, result.toString());
+        assertTrue(result.getStrokeWidth() >= 1 && result.getStrokeWidth() <= 3, result.toString());
+    }
+
+    @Test
+    void testTune_ShadowUsesAdaptiveMeanAndBeatsOtsu() {
+        BufferedImage shadowed = page(1000, 1400, new Color(240, 240, 240), new Color(70, 70, 70), new Color(30, 30, 30), 24, 4);
+        byte[] truth = ImageUtils.getPixels(ImageUtils.threshold(
+            ImageUtils.toGrayscale(page(1000, 1400, Color.WHITE, Color.WHITE, Color.BLACK, 24, 0)), 128));
+
+        BinarizationTuner.Result result = tuner.tune(shadowed, BinarizeConfig.forOCR());
+        BinarizeConfig tuned = result.getConfig();
+
+        assertEquals(BinarizeConfig.Algorithm.ADAPTIVE_MEAN, tuned.getAlgorithm(), result.toString());
+        assertEquals(1, tuned.getBlockSize() % 2);
+        assertTrue(tuned.getC() > 2.0, result.toString());
+        BufferedImage auto = new AutoBinarizer().binarize(shadowed, BinarizeConfig.forAuto());
+        BufferedImage otsu = BinarizerFactory.createBinarizer(BinarizeConfig.forOCR()).binarize(shadowed, BinarizeConfig.forOCR());
+        assertTrue(errors(auto, truth) * 10 < errors(otsu, truth));
+    }
+
+    @Test
+    void testTune_FaintNoisyTextUsesSauvola() {
+        BufferedImage faint = page(1000, 1400, new Color(220, 220, 220), new Color(110, 110, 110), new Color(90, 90, 90), 24, 12);
+
+        BinarizationTuner.Result result = tuner.tune(faint, BinarizeConfig.forOCR());
+
+        assertEquals(BinarizeConfig.Algorithm.SAUVOLA, result.getConfig().getAlgorithm(), result.toString());
+        assertTrue(result.getContrast() < tuner.getMinContrast(), result.toString());
+    }
+
+    @Test
+    void testTune_BlockSizeFollowsStrokeWidth() {
+        BinarizeConfig small = tuner.tune(page(1000, 1400, new Color(240, 240, 240), new Color(70, 70, 70),
+            new Color(30, 30, 30), 16, 0), BinarizeConfig.forOCR()).getConfig();
+        BinarizeConfig large = tuner.tune(page(2000, 2800, new Color(240, 240, 240), new Color(70, 70, 70),
+            new Color(30, 30, 30), 64, 0), BinarizeConfig.forOCR()).getConfig();
+
+        assertTrue(large.getBlockSize() > small.getBlockSize(), small.getBlockSize() + " vs " + large.getBlockSize());
+        assertEquals(11, BinarizationTuner.blockSize(1));
+        assertEquals(101, BinarizationTuner.blockSize(40));
+    }
+
+    @Test
+    void testTune_KeepsBaseSettings() {
+        BinarizeConfig base = new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.AUTO)
+            .setBlurKernelSize(5).setUseMedianBlur(true).setUseMorphologicalClosing(true).setMorphKernelSize(5).setK(0.2);
+        BufferedImage screenshot = page(600, 400, Color.WHITE, Color.WHITE, Color.BLACK, 16, 0);
+
+        BinarizeConfig tuned = tuner.tune(screenshot, base).getConfig();
+
+        assertEquals(5, tuned.getBlurKernelSize());
+        assertTrue(tuned.isUseMedianBlur());
+        assertTrue(tuned.isUseMorphologicalClosing());
+        assertEquals(5, tuned.getMorphKernelSize());
+        assertEquals(0.2, tuned.getK());
+        assertEquals(BinarizeConfig.Algorithm.AUTO, base.getAlgorithm());
+    }
+
+    @Test
+    void testSampleRows_KeepsFullWidth() {
+        BufferedImage image = page(300, 2000, Color.WHITE, Color.WHITE, Color.BLACK, 16, 0);
+
+        BufferedImage sample = BinarizationTuner.sampleRows(image, 100);
+
+        assertEquals(300, sample.getWidth());
+        assertEquals(100, sample.getHeight());
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, sample.getType());
+        assertEquals(image.getRGB(17, 40) & 0xFF, sample.getRaster().getSample(17, 2, 0));
+    }
+
+    /**
+     * Lines of text under a diagonal light gradient, with Gaussian noise of the given sigma
+     */
+    private static BufferedImage page(int width, int height, Color lit, Color dim, Color ink, int fontSize, int noise) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, lit, width, height, dim));
+        g.fillRect(0, 0, width, height);
+        g.setColor(ink);
+        g.setFont(new Font(Font.SERIF, Font.PLAIN, fontSize));
+        for (int y = fontSize * 2; y < height; y += fontSize * 3 / 2) {
+            g.drawString("The quick brown fox jumps over the lazy dog " + y, 20, y);
+        }
+        g.dispose();
+        if (noise > 0) {
+            Random random = new Random(1);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int value = (image.getRGB(x, y) & 0xFF) + (int) Math.round(random.nextGaussian() * noise);
+                    value = Math.max(0, Math.min(255, value));
+                    image.setRGB(x, y, (value << 16) | (value << 8) | value);
+                }
+            }
+        }
+        return image;
+    }
+
+    private static int errors(BufferedImage binary, byte[] truth) {
+        byte[] pixels = ImageUtils.getPixels(binary);
+        int errors = 0;
+        for (int i = 0; i < pixels.length; i++) {
+            if ((pixels[i] == 0) != (truth[i] == 0)) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+}
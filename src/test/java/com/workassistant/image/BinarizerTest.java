@@ -1,16 +1,29 @@
 package com.workassistant.image;
 
 import com.workassistant.image.impl.AdaptiveMeanBinarizer;
+import com.workassistant.image.impl.AutoBinarizer;
 import com.workassistant.image.impl.GlobalBinarizer;
+import com.workassistant.image.impl.NiblackBinarizer;
 import com.workassistant.image.impl.OtsuBinarizer;
+import com.workassistant.image.impl.SauvolaBinarizer;
+import com.workassistant.image.impl.ScalarPixelKernels;
+import com.workassistant.image.impl.VectorPixelKernels;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.MultiPixelPackedSampleModel;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 /**
  * Unit tests for image binarization implementations.
@@ -52,6 +65,21 @@ class BinarizerTest {
         assertTrue(threshold >= 0 && threshold <= 255);
     }
     
+    @Test
+    void testOtsuBinarizer_LargeImageThresholdBetweenModes() {
+        // 120k pixels: the class weights multiply past Integer.MAX_VALUE
+        BufferedImage input = new BufferedImage(400, 300, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) input.getRaster().getDataBuffer()).getData();
+        Random random = new Random(5);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (byte) (random.nextBoolean() ? 60 + random.nextInt(40) : 170 + random.nextInt(50));
+        }
+        
+        int threshold = new OtsuBinarizer().getThreshold(input);
+        
+        assertTrue(threshold >= 99 && threshold < 170, "Threshold should fall between the modes: " + threshold);
+    }
+    
     @Test
     void testAdaptiveMeanBinarizer_UnevenLight() throws Exception {
         String imagePath = getTestImagePath("uneven_light.png");
@@ -202,6 +230,73 @@ class BinarizerTest {
         assertTrue(binarizer instanceof GlobalBinarizer);
     }
     
+    @Test
+    void testBinarizerFactory_CreateSauvolaAndNiblack() {
+        Binarizer sauvola = BinarizerFactory.createBinarizer(new BinarizeConfig()
+                .setAlgorithm(BinarizeConfig.Algorithm.SAUVOLA));
+        Binarizer niblack = BinarizerFactory.createBinarizer(new BinarizeConfig()
+                .setAlgorithm(BinarizeConfig.Algorithm.NIBLACK));
+        
+        assertTrue(sauvola instanceof SauvolaBinarizer);
+        assertTrue(niblack instanceof NiblackBinarizer);
+    }
+    
+    @Test
+    void testBinarizerFactory_CreateAuto() {
+        Binarizer binarizer = BinarizerFactory.createBinarizer(BinarizeConfig.forAuto());
+        
+        assertTrue(binarizer instanceof AutoBinarizer);
+        assertTrue(BinarizerFactory.createJavaBinarizer(BinarizeConfig.forAuto()) instanceof AutoBinarizer);
+    }
+    
+    @Test
+    void testBinarizeConfig_CopyIsIndependent() {
+        BinarizeConfig config = BinarizeConfig.forOCR().setAlgorithm(BinarizeConfig.Algorithm.NIBLACK).setK(0.1).setC(7);
+        BinarizeConfig copy = config.copy().setAlgorithm(BinarizeConfig.Algorithm.SAUVOLA).setBlurKernelSize(5);
+        
+        assertEquals(BinarizeConfig.Algorithm.NIBLACK, config.getAlgorithm());
+        assertEquals(3, config.getBlurKernelSize());
+        assertEquals(0.1, copy.getK());
+        assertEquals(7, copy.getC());
+    }
+    
+    @Test
+    void testBinarizeConfig_KDefaultsPerAlgorithm() {
+        assertEquals(0.34, new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.SAUVOLA).getK());
+        assertEquals(-0.2, new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.NIBLACK).getK());
+        assertEquals(0.5, new BinarizeConfig().setK(0.5).setAlgorithm(BinarizeConfig.Algorithm.NIBLACK).getK());
+    }
+    
+    @Test
+    void testLocalStatisticsBinarizers_MatchWindowScan() throws Exception {
+        List<BufferedImage> images = new ArrayList<>();
+        images.add(ImageUtils.toGrayscale(ImageUtils.loadImage(getTestImagePath("uneven_light.png"))));
+        images.add(ImageUtils.toGrayscale(ImageUtils.loadImage(getTestImagePath("noisy.png"))));
+        
+        for (BufferedImage gray : images) {
+            for (int blockSize : new int[]{3, 15, 51}) {
+                BinarizeConfig sauvola = new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.SAUVOLA).setBlockSize(blockSize);
+                BinarizeConfig niblack = new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.NIBLACK).setBlockSize(blockSize);
+                
+                assertArrayEquals(packedData(referenceLocalThreshold(gray, blockSize, true, 0.34, 0)),
+                        packedData(new SauvolaBinarizer().binarize(gray, sauvola)), "Sauvola blockSize=" + blockSize);
+                assertArrayEquals(packedData(referenceLocalThreshold(gray, blockSize, false, -0.2, 2.0)),
+                        packedData(new NiblackBinarizer().binarize(gray, niblack)), "Niblack blockSize=" + blockSize);
+            }
+        }
+    }
+    
+    @Test
+    void testSauvolaBinarizer_KeepsFaintTextOnUnevenLight() throws Exception {
+        BufferedImage input = ImageUtils.loadImage(getTestImagePath("uneven_light.png"));
+        
+        BufferedImage output = new SauvolaBinarizer().binarize(input, BinarizeConfig.forUnevenLighting()
+                .setAlgorithm(BinarizeConfig.Algorithm.SAUVOLA).setBlockSize(25));
+        
+        assertEquals(BufferedImage.TYPE_BYTE_BINARY, output.getType());
+        assertTrue(hasBothBlackAndWhite(output));
+    }
+    
     @Test
     void testBinarizerFactory_Default() {
         Binarizer binarizer = BinarizerFactory.createDefaultBinarizer();
@@ -212,6 +307,8 @@ class BinarizerTest {
     
     @Test
     void testBinarizerFactory_OpenCVNotAvailable() {
+        // Only meaningful without the opencv profile
+        assumeFalse(BinarizerFactory.isOpenCVAvailable());
         BinarizeConfig config = new BinarizeConfig()
                 .setUseOpenCV(true);
         
@@ -318,6 +415,310 @@ class BinarizerTest {
         assertEquals(input.getHeight(), loaded.getHeight());
     }
     
+    @Test
+    void testImageUtils_DilateAndErode() {
+        BufferedImage input = new BufferedImage(20, 20, BufferedImage.TYPE_BYTE_GRAY);
+        input.getRaster().setSample(10, 10, 0, 255);
+        
+        BufferedImage dilated = ImageUtils.dilate(input, 3);
+        assertEquals(BufferedImage.TYPE_BYTE_BINARY, dilated.getType());
+        assertEquals(255, dilated.getRGB(9, 9) & 0xFF);
+        assertEquals(255, dilated.getRGB(11, 11) & 0xFF);
+        assertEquals(0, dilated.getRGB(12, 10) & 0xFF);
+        
+        // Eroding the 3x3 block brings back the single pixel
+        BufferedImage eroded = ImageUtils.erode(dilated, 3);
+        assertEquals(255, eroded.getRGB(10, 10) & 0xFF);
+        assertEquals(0, eroded.getRGB(9, 10) & 0xFF);
+    }
+    
+    @Test
+    void testPixelKernels_ThresholdMatchesReference() {
+        Random random = new Random(42);
+        // Widths around the byte and SIMD register boundaries
+        for (int width : new int[]{1, 7, 8, 9, 31, 64, 65, 130, 1001}) {
+            int height = 5;
+            byte[] gray = new byte[width * height];
+            random.nextBytes(gray);
+            for (int threshold : new int[]{0, 1, 127, 128, 200, 255, 256}) {
+                byte[] expected = packedData(referenceThreshold(gray, width, height, threshold));
+                for (PixelKernels kernels : kernelsUnderTest()) {
+                    BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+                    int stride = ((MultiPixelPackedSampleModel) binary.getSampleModel()).getScanlineStride();
+                    kernels.threshold(gray, width, height, threshold, packedData(binary), stride);
+                    assertArrayEquals(expected, packedData(binary),
+                        kernels.getName() + " width=" + width + " threshold=" + threshold);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testPixelKernels_HistogramMatchesReference() {
+        Random random = new Random(7);
+        for (int length : new int[]{0, 3, 4, 1001, 65536}) {
+            byte[] pixels = new byte[length];
+            random.nextBytes(pixels);
+            // Long runs of one level, as in screenshots
+            Arrays.fill(pixels, length / 2, length, (byte) 0xF0);
+            int[] expected = new int[256];
+            for (byte pixel : pixels) {
+                expected[pixel & 0xFF]++;
+            }
+            for (PixelKernels kernels : kernelsUnderTest()) {
+                int[] histogram = new int[256];
+                kernels.histogram(pixels, histogram);
+                assertArrayEquals(expected, histogram, kernels.getName() + " length=" + length);
+            }
+        }
+    }
+    
+    @Test
+    void testPixelKernels_GrayMatchesJava2D() {
+        Random random = new Random(11);
+        for (int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR}) {
+            BufferedImage color = new BufferedImage(173, 29, type);
+            for (int y = 0; y < color.getHeight(); y++) {
+                for (int x = 0; x < color.getWidth(); x++) {
+                    color.setRGB(x, y, random.nextInt(0x1000000));
+                }
+            }
+            byte[] expected = ImageUtils.getPixels(java2dGray(color));
+            
+            assertArrayEquals(expected, ImageUtils.getPixels(ImageUtils.toGrayscale(color)), "type=" + type);
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                int[] rgb = color.getRGB(0, 0, color.getWidth(), color.getHeight(), null, 0, color.getWidth());
+                for (PixelKernels kernels : kernelsUnderTest()) {
+                    byte[] gray = new byte[rgb.length];
+                    kernels.grayFromRgb(rgb, gray, rgb.length);
+                    assertArrayEquals(expected, gray, kernels.getName());
+                }
+            }
+        }
+        
+        // Alpha layouts: opaque images use the kernels, translucent ones are blended by Java2D
+        for (int type : new int[]{BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_4BYTE_ABGR}) {
+            for (boolean opaque : new boolean[]{true, false}) {
+                BufferedImage color = new BufferedImage(173, 29, type);
+                for (int y = 0; y < color.getHeight(); y++) {
+                    for (int x = 0; x < color.getWidth(); x++) {
+                        int alpha = opaque || random.nextInt(50) != 0 ? 0xFF : random.nextInt(255);
+                        color.setRGB(x, y, alpha << 24 | random.nextInt(0x1000000));
+                    }
+                }
+                String label = "type=" + type + " opaque=" + opaque;
+                
+                assertArrayEquals(ImageUtils.getPixels(java2dGray(color)), ImageUtils.getPixels(ImageUtils.toGrayscale(color)), label);
+                int[] argb = color.getRGB(0, 0, color.getWidth(), color.getHeight(), null, 0, color.getWidth());
+                byte[] abgr = new byte[argb.length * 4];
+                for (int i = 0; i < argb.length; i++) {
+                    abgr[4 * i] = (byte) (argb[i] >>> 24);
+                    abgr[4 * i + 1] = (byte) argb[i];
+                    abgr[4 * i + 2] = (byte) (argb[i] >> 8);
+                    abgr[4 * i + 3] = (byte) (argb[i] >> 16);
+                }
+                byte[] expected = new byte[argb.length];
+                new ScalarPixelKernels().grayFromRgb(argb, expected, argb.length);
+                for (PixelKernels kernels : kernelsUnderTest()) {
+                    byte[] gray = new byte[argb.length];
+                    assertEquals(opaque, kernels.grayFromArgb(argb, gray, argb.length), kernels.getName() + " " + label);
+                    assertArrayEquals(expected, gray, kernels.getName() + " " + label);
+                    assertEquals(opaque, kernels.grayFromAbgr(abgr, gray, argb.length), kernels.getName() + " " + label);
+                    assertArrayEquals(expected, gray, kernels.getName() + " " + label);
+                }
+            }
+        }
+        
+        // Sub-image views share their parent's buffer and take the Java2D path
+        BufferedImage parent = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        parent.setRGB(20, 20, 0xFF8040);
+        BufferedImage view = parent.getSubimage(10, 10, 20, 20);
+        assertArrayEquals(ImageUtils.getPixels(java2dGray(view)), ImageUtils.getPixels(ImageUtils.toGrayscale(view)));
+    }
+    
+    @Test
+    void testOtsuBinarizer_MatchesReferenceThreshold() throws Exception {
+        BufferedImage input = ImageUtils.loadImage(getTestImagePath("uneven_light.png"));
+        BufferedImage gray = ImageUtils.toGrayscale(input);
+        int threshold = new OtsuBinarizer().getThreshold(gray);
+        
+        BufferedImage result = new OtsuBinarizer().binarize(input, new BinarizeConfig());
+        
+        byte[] expected = packedData(referenceThreshold(ImageUtils.getPixels(gray), gray.getWidth(), gray.getHeight(), threshold));
+        assertArrayEquals(expected, packedData(result));
+    }
+    
+    @Test
+    void testImageUtils_GaussianBlurMatchesDirectConvolution() throws Exception {
+        Random random = new Random(3);
+        BufferedImage noise = new BufferedImage(97, 61, BufferedImage.TYPE_BYTE_GRAY);
+        random.nextBytes(ImageUtils.getPixels(noise));
+        BufferedImage photo = ImageUtils.toGrayscale(ImageUtils.loadImage(getTestImagePath("noisy.png")));
+        
+        for (BufferedImage image : List.of(noise, photo)) {
+            for (int kernelSize : new int[]{3, 5, 9, 15}) {
+                byte[] expected = referenceGaussianBlur(image, kernelSize);
+                byte[] actual = ImageUtils.getPixels(ImageUtils.applyGaussianBlur(image, kernelSize));
+                for (int i = 0; i < expected.length; i++) {
+                    int difference = Math.abs((expected[i] & 0xFF) - (actual[i] & 0xFF));
+                    assertTrue(difference <= 1, "kernelSize=" + kernelSize + " pixel " + i + " differs by " + difference);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Gaussian blur as implemented before the separable version: direct 2D convolution in doubles
+     */
+    private static byte[] referenceGaussianBlur(BufferedImage image, int kernelSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int radius = kernelSize / 2;
+        double sigma = kernelSize / 6.0;
+        double[][] kernel = new double[kernelSize][kernelSize];
+        double total = 0;
+        for (int y = 0; y < kernelSize; y++) {
+            for (int x = 0; x < kernelSize; x++) {
+                int dx = x - radius;
+                int dy = y - radius;
+                kernel[y][x] = Math.exp(-(dx * dx + dy * dy) / (2 * sigma * sigma));
+                total += kernel[y][x];
+            }
+        }
+        
+        byte[] pixels = ImageUtils.getPixels(image);
+        byte[] output = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double sum = 0;
+                for (int ky = -radius; ky <= radius; ky++) {
+                    for (int kx = -radius; kx <= radius; kx++) {
+                        int px = Math.max(0, Math.min(width - 1, x + kx));
+                        int py = Math.max(0, Math.min(height - 1, y + ky));
+                        sum += (pixels[py * width + px] & 0xFF) * kernel[ky + radius][kx + radius] / total;
+                    }
+                }
+                output[y * width + x] = (byte) Math.max(0, Math.min(255, (int) sum));
+            }
+        }
+        return output;
+    }
+    
+    @Test
+    void testImageUtils_MedianBlurMatchesSortedWindow() throws Exception {
+        Random random = new Random(5);
+        BufferedImage noise = new BufferedImage(83, 47, BufferedImage.TYPE_BYTE_GRAY);
+        random.nextBytes(ImageUtils.getPixels(noise));
+        // Narrower and shorter than the larger kernels
+        BufferedImage sliver = new BufferedImage(3, 2, BufferedImage.TYPE_BYTE_GRAY);
+        random.nextBytes(ImageUtils.getPixels(sliver));
+        
+        List<BufferedImage> images = new ArrayList<>(List.of(noise, sliver));
+        for (String fixture : new String[]{"noisy.png", "uneven_light.png", "uniform.png"}) {
+            images.add(ImageUtils.toGrayscale(ImageUtils.loadImage(getTestImagePath(fixture))));
+        }
+        
+        for (BufferedImage image : images) {
+            // Both sides of the switch from Huang to Perreault–Hébert
+            for (int kernelSize : new int[]{3, 5, 11, 13, 21}) {
+                assertArrayEquals(referenceMedianBlur(image, kernelSize),
+                    ImageUtils.getPixels(ImageUtils.applyMedianBlur(image, kernelSize)),
+                    "kernelSize=" + kernelSize + " size=" + image.getWidth() + "x" + image.getHeight());
+            }
+        }
+    }
+    
+    /**
+     * Median blur as implemented before the sliding histogram: sort every window
+     */
+    private static byte[] referenceMedianBlur(BufferedImage image, int kernelSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int radius = kernelSize / 2;
+        byte[] pixels = ImageUtils.getPixels(image);
+        byte[] output = new byte[width * height];
+        int[] window = new int[kernelSize * kernelSize];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int idx = 0;
+                for (int ky = -radius; ky <= radius; ky++) {
+                    for (int kx = -radius; kx <= radius; kx++) {
+                        int px = Math.max(0, Math.min(width - 1, x + kx));
+                        int py = Math.max(0, Math.min(height - 1, y + ky));
+                        window[idx++] = pixels[py * width + px] & 0xFF;
+                    }
+                }
+                Arrays.sort(window, 0, idx);
+                output[y * width + x] = (byte) window[idx / 2];
+            }
+        }
+        return output;
+    }
+    
+    /**
+     * Sauvola or Niblack by summing every window directly
+     */
+    private static BufferedImage referenceLocalThreshold(BufferedImage gray, int blockSize, boolean sauvola, double k, double c) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int radius = blockSize / 2;
+        byte[] pixels = ImageUtils.getPixels(gray);
+        byte[] output = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                long sum = 0;
+                long squares = 0;
+                int count = 0;
+                for (int wy = Math.max(0, y - radius); wy <= Math.min(height - 1, y + radius); wy++) {
+                    for (int wx = Math.max(0, x - radius); wx <= Math.min(width - 1, x + radius); wx++) {
+                        int value = pixels[wy * width + wx] & 0xFF;
+                        sum += value;
+                        squares += value * value;
+                        count++;
+                    }
+                }
+                double mean = (double) sum / count;
+                double variance = (double) squares / count - mean * mean;
+                double stdDev = variance > 0 ? Math.sqrt(variance) : 0;
+                double threshold = sauvola ? mean * (1 + k * (stdDev / 128.0 - 1)) : mean + k * stdDev - c;
+                output[y * width + x] = (byte) ((pixels[y * width + x] & 0xFF) > threshold ? 255 : 0);
+            }
+        }
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        ImageUtils.setPixels(result, output);
+        return ImageUtils.toBinaryImage(result);
+    }
+    
+    private static List<PixelKernels> kernelsUnderTest() {
+        // Surefire adds jdk.incubator.vector, so the vector kernels are testable here
+        return List.of(new ScalarPixelKernels(), new VectorPixelKernels());
+    }
+    
+    /**
+     * Thresholding as implemented before the pixel kernels: one byte per pixel, then Java2D packing
+     */
+    private static BufferedImage referenceThreshold(byte[] gray, int width, int height, int threshold) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] output = new byte[width * height];
+        for (int i = 0; i < output.length; i++) {
+            output[i] = (byte) ((gray[i] & 0xFF) >= threshold ? 255 : 0);
+        }
+        ImageUtils.setPixels(image, output);
+        return ImageUtils.toBinaryImage(image);
+    }
+    
+    private static BufferedImage java2dGray(BufferedImage input) {
+        BufferedImage gray = new BufferedImage(input.getWidth(), input.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        g.drawImage(input, 0, 0, null);
+        g.dispose();
+        return gray;
+    }
+    
+    private static byte[] packedData(BufferedImage binary) {
+        return ((DataBufferByte) binary.getRaster().getDataBuffer()).getData();
+    }
+    
     private String getTestImagePath(String filename) {
         // Try to load from test resources
         String resourcePath = "src/test/resources/test-images/" + filename;
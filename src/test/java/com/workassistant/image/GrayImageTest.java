@@ -0,0 +1,94 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for gray buffers and the ping-pong pipeline.
+ */
+class GrayImageTest {
+
+    @Test
+    void testWrap_SharesUnsharedGrayAndCopiesViews() {
+        BufferedImage gray = noise(new Random(1), 40, 30);
+        byte[] data = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+
+        assertSame(data, GrayImage.wrap(gray).getPixels());
+
+        BufferedImage view = gray.getSubimage(5, 7, 20, 10);
+        byte[] copied = GrayImage.wrap(view).getPixels();
+        assertEquals(200, copied.length);
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 20; x++) {
+                assertEquals(view.getRaster().getSample(x, y, 0), copied[y * 20 + x] & 0xFF);
+            }
+        }
+        assertArrayEquals(copied, ImageUtils.getPixels(view));
+    }
+
+    @Test
+    void testToBufferedImage_IsViewOfBuffer() {
+        GrayImage image = new GrayImage(9, 4);
+        BufferedImage view = image.toBufferedImage();
+
+        image.getPixels()[9 + 2] = (byte) 200;
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, view.getType());
+        assertEquals(200, view.getRaster().getSample(2, 1, 0));
+        assertSame(image.getPixels(), GrayImage.wrap(view).getPixels());
+    }
+
+    @Test
+    void testPipeline_MatchesChainedFiltersWithTwoBuffers() {
+        BufferedImage input = noise(new Random(2), 83, 61);
+        byte[] original = ImageUtils.getPixels(input).clone();
+
+        BufferedImage expected = ImageUtils.applyMedianBlur(
+            ImageUtils.applyGaussianBlur(ImageUtils.applyMedianBlur(input, 3), 5), 5);
+
+        GrayPipeline pipeline = new GrayPipeline(input);
+        Set<byte[]> buffers = new HashSet<>();
+        pipeline.medianBlur(3);
+        buffers.add(pipeline.getResult().getPixels());
+        pipeline.gaussianBlur(5);
+        buffers.add(pipeline.getResult().getPixels());
+        pipeline.medianBlur(5);
+        buffers.add(pipeline.getResult().getPixels());
+
+        assertArrayEquals(ImageUtils.getPixels(expected), pipeline.getResult().getPixels());
+        assertEquals(2, buffers.size());
+        assertArrayEquals(original, ImageUtils.getPixels(input), "input must not be written");
+    }
+
+    @Test
+    void testFilters_RejectSameBufferAndSizeMismatch() {
+        GrayImage image = new GrayImage(10, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> ImageUtils.applyGaussianBlur(image, image, 3));
+        assertThrows(IllegalArgumentException.class, () -> ImageUtils.applyMedianBlur(image, new GrayImage(10, 9), 3));
+        assertThrows(IllegalArgumentException.class, () -> new GrayImage(3, 3, new byte[8]));
+    }
+
+    @Test
+    void testSetPixels_IntArgbIsOpaqueGray() {
+        BufferedImage argb = new BufferedImage(3, 2, BufferedImage.TYPE_INT_ARGB);
+
+        ImageUtils.setPixels(argb, new byte[]{0, 10, 20, 30, 40, (byte) 250});
+
+        assertEquals(0xFF0A0A0A, argb.getRGB(1, 0));
+        assertEquals(0xFFFAFAFA, argb.getRGB(2, 1));
+    }
+
+    private static BufferedImage noise(Random random, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        random.nextBytes(((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+        return image;
+    }
+}
@@ -0,0 +1,63 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for flat summed-area tables.
+ */
+class IntegralImageTest {
+
+    @Test
+    void testSums_MatchDirectSummation() {
+        Random random = new Random(7);
+        int width = 37;
+        int height = 23;
+        byte[] pixels = new byte[width * height];
+        random.nextBytes(pixels);
+
+        IntegralImage integral = IntegralImage.of(pixels, width, height, true);
+
+        for (int i = 0; i < 500; i++) {
+            int x1 = random.nextInt(width);
+            int y1 = random.nextInt(height);
+            int x2 = x1 + random.nextInt(width - x1);
+            int y2 = y1 + random.nextInt(height - y1);
+            long sum = 0;
+            long squares = 0;
+            for (int y = y1; y <= y2; y++) {
+                for (int x = x1; x <= x2; x++) {
+                    int value = pixels[y * width + x] & 0xFF;
+                    sum += value;
+                    squares += value * value;
+                }
+            }
+            assertEquals(sum, integral.sum(x1, y1, x2, y2));
+            assertEquals(squares, integral.sumOfSquares(x1, y1, x2, y2));
+        }
+    }
+
+    @Test
+    void testSums_ExactWhenTableWraps() {
+        // 3000 x 3000 white pixels total 2.3e9, past Integer.MAX_VALUE
+        int size = 3000;
+        byte[] pixels = new byte[size * size];
+        Arrays.fill(pixels, (byte) 255);
+
+        IntegralImage integral = IntegralImage.of(pixels, size, size, false);
+
+        assertEquals(255 * 101 * 101, integral.sum(2800, 2800, 2900, 2900));
+        assertEquals(255 * size, integral.sum(0, size - 1, size - 1, size - 1));
+    }
+
+    @Test
+    void testSumOfSquares_RequiresSquares() {
+        IntegralImage integral = IntegralImage.of(new byte[4], 2, 2, false);
+
+        assertThrows(IllegalStateException.class, () -> integral.sumOfSquares(0, 0, 1, 1));
+    }
+}
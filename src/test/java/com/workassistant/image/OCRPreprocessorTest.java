@@ -0,0 +1,118 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OCR preprocessing pipeline.
+ */
+class OCRPreprocessorTest {
+
+    @Test
+    void testEstimateSkewAngle_RecoversRotation() {
+        BufferedImage lines = createTextLines(600, 400);
+
+        assertEquals(0.0, OCRPreprocessor.estimateSkewAngle(lines, 5.0, 0.25), 0.26);
+
+        // Rotating clockwise makes lines descend to the right
+        BufferedImage skewed = OCRPreprocessor.rotate(lines, 3.0);
+        assertEquals(3.0, OCRPreprocessor.estimateSkewAngle(skewed, 5.0, 0.25), 0.5);
+
+        BufferedImage otherWay = OCRPreprocessor.rotate(lines, -2.0);
+        assertEquals(-2.0, OCRPreprocessor.estimateSkewAngle(otherWay, 5.0, 0.25), 0.5);
+    }
+
+    @Test
+    void testEstimateSkewAngle_BlankImage() {
+        BufferedImage blank = new BufferedImage(100, 100, BufferedImage.TYPE_BYTE_GRAY);
+        assertEquals(0.0, OCRPreprocessor.estimateSkewAngle(blank, 5.0, 0.25));
+    }
+
+    @Test
+    void testDownscaleToDpi() {
+        OCRPreprocessor preprocessor = new OCRPreprocessor().setTargetDpi(300);
+        BufferedImage gray = new BufferedImage(1200, 600, BufferedImage.TYPE_BYTE_GRAY);
+
+        BufferedImage scaled = preprocessor.downscaleToDpi(gray, 600);
+        assertEquals(600, scaled.getWidth());
+        assertEquals(300, scaled.getHeight());
+
+        // Images already at or below the target are left alone
+        assertSame(gray, preprocessor.downscaleToDpi(gray, 300));
+        assertSame(gray, preprocessor.downscaleToDpi(gray, 96));
+    }
+
+    @Test
+    void testDownscaleToTextHeight() {
+        OCRPreprocessor preprocessor = new OCRPreprocessor().setTargetTextHeight(40);
+
+        // 80px-high lines are halved towards the target
+        BufferedImage large = new BufferedImage(800, 1000, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = large.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 800, 1000);
+        g.setColor(Color.BLACK);
+        for (int y = 50; y < 900; y += 200) {
+            g.fillRect(40, y, 700, 80);
+        }
+        g.dispose();
+        BufferedImage scaled = preprocessor.downscaleToTextHeight(large);
+        assertEquals(400, scaled.getWidth());
+        assertEquals(500, scaled.getHeight());
+
+        // Text already near the target is left alone
+        BufferedImage normal = createTextLines(600, 400);
+        assertSame(normal, preprocessor.downscaleToTextHeight(normal));
+        assertSame(large, new OCRPreprocessor().setTargetTextHeight(0).downscaleToTextHeight(large));
+    }
+
+    @Test
+    void testProcess_ProducesBinaryImage() {
+        BufferedImage color = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = color.createGraphics();
+        g.setColor(new Color(240, 230, 210));
+        g.fillRect(0, 0, 400, 200);
+        g.setColor(new Color(30, 30, 90));
+        g.fillRect(20, 40, 360, 12);
+        g.fillRect(20, 100, 360, 12);
+        g.dispose();
+
+        BufferedImage output = new OCRPreprocessor().process(color, 0);
+
+        assertEquals(400, output.getWidth());
+        assertEquals(200, output.getHeight());
+        assertEquals(BufferedImage.TYPE_BYTE_BINARY, output.getType());
+    }
+
+    @Test
+    void testProcess_WithoutBinarization() {
+        BufferedImage color = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage output = new OCRPreprocessor()
+            .setDeskew(false)
+            .setBinarizeConfig(null)
+            .process(color, 0);
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, output.getType());
+    }
+
+    /**
+     * White page with evenly spaced dark bars standing in for lines of text
+     */
+    private BufferedImage createTextLines(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.BLACK);
+        for (int y = 60; y < height - 60; y += 30) {
+            g.fillRect(60, y, width - 120, 8);
+        }
+        g.dispose();
+        return image;
+    }
+}
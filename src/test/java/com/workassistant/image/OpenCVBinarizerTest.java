@@ -0,0 +1,125 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the OpenCV binarizer with the Java binarizers. Skipped unless the tests run with
+ * the opencv profile (mvn -Popencv test).
+ */
+class OpenCVBinarizerTest {
+
+    private static BufferedImage document;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(BinarizerFactory.isOpenCVAvailable(), "OpenCV not on the classpath");
+        document = document(new Random(7), 700, 500);
+    }
+
+    @Test
+    void testGlobalAndOtsu_MatchJavaExactly() throws Exception {
+        BinarizeConfig[] configs = {
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.GLOBAL).setThreshold(140).setUseMorphologicalOpening(true),
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.OTSU).setUseMorphologicalClosing(true).setMorphKernelSize(5),
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.OTSU).setBlurKernelSize(5).setUseMedianBlur(true)
+                .setUseMorphologicalOpening(true).setUseMorphologicalClosing(true).setMorphKernelSize(3)
+        };
+        Binarizer openCV = alwaysOpenCV();
+        for (BinarizeConfig config : configs) {
+            BufferedImage expected = BinarizerFactory.createJavaBinarizer(config).binarize(document, config);
+            BufferedImage actual = openCV.binarize(document, config);
+
+            assertEquals(BufferedImage.TYPE_BYTE_BINARY, actual.getType());
+            assertArrayEquals(ImageUtils.getPixels(expected), ImageUtils.getPixels(actual),
+                config.getAlgorithm() + " blur " + config.getBlurKernelSize());
+        }
+    }
+
+    @Test
+    void testAdaptiveAndGaussianBlur_CloseToJava() throws Exception {
+        BinarizeConfig[] configs = {
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.ADAPTIVE_MEAN).setBlockSize(15).setC(5),
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.OTSU).setBlurKernelSize(5)
+        };
+        Binarizer openCV = alwaysOpenCV();
+        for (BinarizeConfig config : configs) {
+            byte[] expected = ImageUtils.getPixels(BinarizerFactory.createJavaBinarizer(config).binarize(document, config));
+            byte[] actual = ImageUtils.getPixels(openCV.binarize(document, config));
+
+            int same = 0;
+            for (int i = 0; i < expected.length; i++) {
+                if (expected[i] == actual[i]) {
+                    same++;
+                }
+            }
+            assertTrue(same > expected.length * 0.99, config.getAlgorithm() + ": " + same + " of " + expected.length);
+        }
+    }
+
+    @Test
+    void testSauvolaAndBareThresholds_UseJava() {
+        BinarizeConfig[] configs = {
+            new BinarizeConfig().setUseOpenCV(true).setAlgorithm(BinarizeConfig.Algorithm.SAUVOLA).setBlurKernelSize(3),
+            new BinarizeConfig().setUseOpenCV(true).setAlgorithm(BinarizeConfig.Algorithm.OTSU)
+        };
+        for (BinarizeConfig config : configs) {
+            Binarizer binarizer = BinarizerFactory.createBinarizer(config);
+
+            assertEquals("OpenCV", binarizer.getName());
+            assertArrayEquals(ImageUtils.getPixels(BinarizerFactory.createJavaBinarizer(config).binarize(document, config)),
+                ImageUtils.getPixels(binarizer.binarize(document, config)));
+        }
+    }
+
+    @Test
+    void testReusedBuffers_AcrossSizesAndTypes() throws Exception {
+        BinarizeConfig config = new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.OTSU).setUseMorphologicalOpening(true);
+        Binarizer openCV = alwaysOpenCV();
+        Binarizer java = BinarizerFactory.createJavaBinarizer(config);
+
+        for (int size : new int[]{300, 120, 300}) {
+            BufferedImage rgb = document(new Random(size), size, size / 2);
+            BufferedImage gray = ImageUtils.toGrayscale(rgb);
+            assertArrayEquals(ImageUtils.getPixels(java.binarize(rgb, config)), ImageUtils.getPixels(openCV.binarize(rgb, config)));
+            assertArrayEquals(ImageUtils.getPixels(java.binarize(gray, config)), ImageUtils.getPixels(openCV.binarize(gray, config)));
+        }
+    }
+
+    /**
+     * The OpenCV binarizer without the size crossover, so small test images go native
+     */
+    private static Binarizer alwaysOpenCV() throws Exception {
+        return (Binarizer) Class.forName("com.workassistant.image.impl.OpenCVBinarizer")
+            .getConstructor(long.class).newInstance(0L);
+    }
+
+    private static BufferedImage document(Random random, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(240, 240, 235), width, height, new Color(150, 150, 145)));
+        g.fillRect(0, 0, width, height);
+        g.setColor(new Color(40, 40, 50));
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 18));
+        for (int y = 30; y < height; y += 28) {
+            g.drawString("Build failed: missing dependency " + random.nextInt(1000), 20, y);
+        }
+        g.dispose();
+        for (int i = 0; i < width * height / 20; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            image.setRGB(x, y, image.getRGB(x, y) ^ 0x0F0F0F);
+        }
+        return image;
+    }
+}
@@ -0,0 +1,107 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for bit-packed morphology.
+ */
+class PackedBinaryImageTest {
+
+    // Widths around word boundaries
+    private static final int[] WIDTHS = {1, 5, 63, 64, 65, 130, 200};
+    private static final int[][] KERNELS = {{3, 3}, {5, 5}, {4, 4}, {15, 15}, {1, 5}, {9, 3}, {71, 1}};
+
+    @Test
+    void testRoundTrip_BinaryAndGrayInputs() {
+        Random random = new Random(1);
+        for (int width : WIDTHS) {
+            BufferedImage gray = randomMask(random, width, 7, 0.5);
+            BufferedImage binary = ImageUtils.toBinaryImage(gray);
+
+            PackedBinaryImage fromGray = PackedBinaryImage.fromImage(gray);
+            PackedBinaryImage fromBinary = PackedBinaryImage.fromImage(binary);
+
+            assertEquals(fromGray, fromBinary, "width=" + width);
+            assertArrayEquals(ImageUtils.getPixels(binary), ImageUtils.getPixels(fromBinary.toImage()));
+            for (int x = 0; x < width; x++) {
+                assertEquals((gray.getRaster().getSample(x, 3, 0) & 0xFF) >= 128, fromGray.get(x, 3));
+            }
+        }
+    }
+
+    @Test
+    void testMorphology_MatchesFullWindowScan() {
+        Random random = new Random(2);
+        for (int width : WIDTHS) {
+            for (double density : new double[]{0.1, 0.5, 0.9}) {
+                BufferedImage mask = randomMask(random, width, 23, density);
+                PackedBinaryImage packed = PackedBinaryImage.fromImage(mask);
+                for (int[] kernel : KERNELS) {
+                    int kw = kernel[0];
+                    int kh = kernel[1];
+                    String label = "width=" + width + " density=" + density + " kernel=" + kw + "x" + kh;
+
+                    PackedBinaryImage eroded = reference(mask, kw, kh, false);
+                    PackedBinaryImage dilated = reference(mask, kw, kh, true);
+                    assertEquals(eroded, packed.erode(kw, kh), "erode " + label);
+                    assertEquals(dilated, packed.dilate(kw, kh), "dilate " + label);
+                    assertEquals(reference(eroded.toImage(), kw, kh, true), packed.open(kw, kh), "open " + label);
+                    assertEquals(reference(dilated.toImage(), kw, kh, false), packed.close(kw, kh), "close " + label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testImageUtils_UsesPackedMorphology() {
+        BufferedImage mask = randomMask(new Random(3), 97, 41, 0.3);
+
+        BufferedImage closed = ImageUtils.close(mask, 5);
+
+        assertEquals(BufferedImage.TYPE_BYTE_BINARY, closed.getType());
+        assertEquals(reference(reference(mask, 5, 5, true).toImage(), 5, 5, false), PackedBinaryImage.fromImage(closed));
+    }
+
+    private static BufferedImage randomMask(Random random, int width, int height, double density) {
+        BufferedImage mask = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                mask.getRaster().setSample(x, y, 0, random.nextDouble() < density ? 200 + random.nextInt(56) : random.nextInt(128));
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Erosion or dilation by scanning the whole window with clamped coordinates, as
+     * ImageUtils did before the packed implementation
+     */
+    private static PackedBinaryImage reference(BufferedImage image, int kernelWidth, int kernelHeight, boolean dilate) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int rx = kernelWidth / 2;
+        int ry = kernelHeight / 2;
+        byte[] pixels = ImageUtils.getPixels(image);
+        PackedBinaryImage result = new PackedBinaryImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean value = !dilate;
+                for (int ky = -ry; ky <= ry; ky++) {
+                    for (int kx = -rx; kx <= rx; kx++) {
+                        int px = Math.max(0, Math.min(width - 1, x + kx));
+                        int py = Math.max(0, Math.min(height - 1, y + ky));
+                        boolean white = (pixels[py * width + px] & 0xFF) >= 128;
+                        value = dilate ? value || white : value && white;
+                    }
+                }
+                result.set(x, y, value);
+            }
+        }
+        return result;
+    }
+}
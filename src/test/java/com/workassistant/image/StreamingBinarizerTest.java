@@ -0,0 +1,104 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for band-wise binarization of image files.
+ */
+class StreamingBinarizerTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void testBinarize_MatchesWholeImage() throws Exception {
+        File input = temp.resolve("tall.png").toFile();
+        ImageIO.write(tallDocument(new Random(3), 180, 1500), "png", input);
+        BufferedImage decoded = ImageIO.read(input);
+
+        BinarizeConfig[] configs = {
+            BinarizeConfig.forOCR(),
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.OTSU).setBlurKernelSize(5).setUseMedianBlur(true)
+                .setUseMorphologicalOpening(true).setUseMorphologicalClosing(true),
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.GLOBAL).setThreshold(120).setUseMorphologicalClosing(true),
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.ADAPTIVE_MEAN).setBlockSize(21).setBlurKernelSize(3),
+            new BinarizeConfig().setAlgorithm(BinarizeConfig.Algorithm.SAUVOLA).setBlockSize(25),
+            BinarizeConfig.forAuto()
+        };
+        for (BinarizeConfig config : configs) {
+            File output = temp.resolve("out.png").toFile();
+            new StreamingBinarizer(config).setBandHeight(97).binarize(input, output);
+
+            BufferedImage expected = BinarizerFactory.createBinarizer(config).binarize(decoded, config);
+            BufferedImage actual = ImageIO.read(output);
+            assertEquals(1500, actual.getHeight());
+            assertArrayEquals(ImageUtils.getPixels(expected), ImageUtils.getPixels(actual),
+                config.getAlgorithm() + " blur " + config.getBlurKernelSize());
+        }
+    }
+
+    @Test
+    void testBandedImage_ComputesEachBandOnceAndSpansBands() {
+        BufferedImage binary = ImageUtils.threshold(tallDocument(new Random(4), 50, 100), 128);
+        List<Integer> computed = new ArrayList<>();
+        StreamingBinarizer.BandedImage image = new StreamingBinarizer.BandedImage(50, 100, 30, (top, count) -> {
+            computed.add(top);
+            return binary.getRaster().createChild(0, top, 50, count, 0, top, null);
+        });
+
+        for (int y = 0; y < 100; y++) {
+            image.getData(new Rectangle(0, y, 50, 1));
+        }
+        assertEquals(List.of(0, 30, 60, 90), computed);
+        assertEquals(4, image.getNumYTiles());
+
+        Raster spanning = image.getData(new Rectangle(5, 25, 40, 40));
+        for (int y = 25; y < 65; y++) {
+            for (int x = 5; x < 45; x++) {
+                assertEquals(binary.getRaster().getSample(x, y, 0), spanning.getSample(x, y, 0));
+            }
+        }
+    }
+
+    @Test
+    void testBinarize_RejectsNonImage() throws Exception {
+        File input = temp.resolve("notes.txt").toFile();
+        Files.writeString(input.toPath(), "not an image");
+
+        assertThrows(IOException.class, () ->
+            new StreamingBinarizer(new BinarizeConfig()).binarize(input, temp.resolve("out.png").toFile()));
+    }
+
+    private static BufferedImage tallDocument(Random random, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(235, 235, 230), width, height, new Color(120, 120, 115)));
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 14));
+        for (int y = 20; y < height; y += 18) {
+            g.drawString("line " + random.nextInt(100000), 5, y);
+        }
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,97 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for text layout analysis and tiling.
+ */
+class TextLayoutTest {
+
+    @Test
+    void testLineHeight() {
+        BufferedImage page = createLines(400, 600, 12, 30);
+        assertEquals(12, TextLayout.analyze(page).getLineHeight());
+
+        BufferedImage blank = createLines(400, 100, 0, 30);
+        assertEquals(0, TextLayout.analyze(blank).getLineHeight());
+    }
+
+    @Test
+    void testLineHeight_DarkTheme() {
+        BufferedImage page = createLines(400, 600, 12, 30);
+        BufferedImage inverted = new BufferedImage(400, 600, BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < 600; y++) {
+            for (int x = 0; x < 400; x++) {
+                inverted.getRaster().setSample(x, y, 0, 255 - page.getRaster().getSample(x, y, 0));
+            }
+        }
+        assertEquals(12, TextLayout.analyze(inverted).getLineHeight());
+    }
+
+    @Test
+    void testComputeTileBounds_CutsBetweenLines() {
+        BufferedImage tall = createLines(300, 5000, 12, 30);
+        TextLayout layout = TextLayout.analyze(tall);
+
+        List<int[]> tiles = layout.computeTileBounds(1000, 100);
+
+        assertTrue(tiles.size() >= 5);
+        assertEquals(0, tiles.get(0)[0]);
+        assertEquals(5000, tiles.get(tiles.size() - 1)[1]);
+        for (int i = 0; i < tiles.size(); i++) {
+            int[] tile = tiles.get(i);
+            assertTrue(tile[1] - tile[0] <= 1000, "Tile exceeds max height");
+            if (i > 0) {
+                int[] previous = tiles.get(i - 1);
+                assertTrue(tile[0] < previous[1] - 60, "Consecutive tiles should overlap");
+                assertTrue(layout.isBlankRow(tile[0]), "Tile should start between text lines");
+            }
+            if (i < tiles.size() - 1) {
+                assertTrue(layout.isBlankRow(tile[1]), "Tile should end between text lines");
+            }
+        }
+    }
+
+    @Test
+    void testComputeTileBounds_SmallImage() {
+        TextLayout layout = TextLayout.analyze(createLines(300, 800, 12, 30));
+        List<int[]> tiles = layout.computeTileBounds(1000, 100);
+        assertEquals(1, tiles.size());
+        assertArrayEquals(new int[]{0, 800}, tiles.get(0));
+    }
+
+    @Test
+    void testCropRows() {
+        BufferedImage page = createLines(300, 200, 12, 30);
+        BufferedImage tile = TextLayout.cropRows(page, 30, 60);
+
+        assertEquals(300, tile.getWidth());
+        assertEquals(30, tile.getHeight());
+        assertEquals(page.getRaster().getSample(50, 30, 0), tile.getRaster().getSample(50, 0, 0));
+        assertEquals(page.getRaster().getSample(50, 50, 0), tile.getRaster().getSample(50, 20, 0));
+    }
+
+    /**
+     * White page with dark bars of the given height every {@code pitch} rows
+     */
+    private BufferedImage createLines(int width, int height, int lineHeight, int pitch) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.BLACK);
+        if (lineHeight > 0) {
+            for (int y = pitch; y + lineHeight < height; y += pitch) {
+                g.fillRect(20, y, width - 40, lineHeight);
+            }
+        }
+        g.dispose();
+        return image;
+    }
+}
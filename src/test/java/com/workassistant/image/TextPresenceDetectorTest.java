@@ -0,0 +1,153 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the text pre-check.
+ */
+class TextPresenceDetectorTest {
+
+    private final TextPresenceDetector detector = new TextPresenceDetector();
+
+    @Test
+    void testAssess_TextScreenshotIsLikelyText() {
+        BufferedImage screenshot = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screenshot.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 1200, 800);
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 18));
+        for (int i = 0; i < 15; i++) {
+            g.drawString("Exception in thread main at line " + i, 60, 60 + i * 28);
+        }
+        g.dispose();
+
+        TextPresenceDetector.Result result = detector.assess(screenshot);
+
+        assertTrue(result.isLikelyText(), result.toString());
+        assertTrue(result.getLikelihood() > 0.6, result.toString());
+    }
+
+    @Test
+    void testAssess_SingleWordIsLikelyText() {
+        BufferedImage image = new BufferedImage(300, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 300, 100);
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 16));
+        g.drawString("OK", 140, 55);
+        g.dispose();
+
+        assertTrue(detector.assess(image).isLikelyText());
+    }
+
+    @Test
+    void testAssess_SmallTextOn4kScreenshotIsLikelyText() {
+        // A few lines of small gray text, which a 400 px wide copy would blur away
+        BufferedImage screenshot = new BufferedImage(3840, 2160, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screenshot.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 3840, 2160);
+        g.setColor(new Color(100, 100, 100));
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+        for (int i = 0; i < 5; i++) {
+            g.drawString("Exception in thread main at line " + i, 60, 60 + i * 28);
+        }
+        g.dispose();
+
+        TextPresenceDetector.Result result = detector.assess(screenshot);
+
+        assertTrue(result.isLikelyText(), result.toString());
+        assertTrue(result.getLikelihood() > 0.4, result.toString());
+    }
+
+    @Test
+    void testAssess_4kPhotoIsSkipped() {
+        BufferedImage photo = new BufferedImage(3840, 2160, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = photo.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(30, 80, 160), 3840, 2160, new Color(220, 200, 120)));
+        g.fillRect(0, 0, 3840, 2160);
+        Random random = new Random(1);
+        for (int i = 0; i < 30; i++) {
+            g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+            g.fillOval(random.nextInt(3840), random.nextInt(2160), 160 + random.nextInt(960), 160 + random.nextInt(960));
+        }
+        g.dispose();
+
+        assertFalse(detector.assess(photo).isLikelyText());
+    }
+
+    @Test
+    void testAssess_PhotoIsSkipped() {
+        // Smooth gradient with large overlapping shapes, binarizing into blobs
+        BufferedImage photo = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = photo.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(30, 80, 160), 1200, 800, new Color(220, 200, 120)));
+        g.fillRect(0, 0, 1200, 800);
+        Random random = new Random(1);
+        for (int i = 0; i < 30; i++) {
+            g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+            g.fillOval(random.nextInt(1200), random.nextInt(800), 50 + random.nextInt(300), 50 + random.nextInt(300));
+        }
+        g.dispose();
+
+        TextPresenceDetector.Result result = detector.assess(photo);
+
+        assertFalse(result.isLikelyText(), result.toString());
+    }
+
+    @Test
+    void testAssess_NoiseIsSkipped() {
+        BufferedImage noise = new BufferedImage(800, 600, BufferedImage.TYPE_BYTE_GRAY);
+        Random random = new Random(2);
+        for (int y = 0; y < 600; y++) {
+            for (int x = 0; x < 800; x++) {
+                noise.getRaster().setSample(x, y, 0, random.nextInt(256));
+            }
+        }
+
+        TextPresenceDetector.Result result = detector.assess(noise);
+
+        assertFalse(result.isLikelyText(), result.toString());
+        assertTrue(result.getEdgeDensity() > 0.3);
+    }
+
+    @Test
+    void testAssess_BlankImageIsSkipped() {
+        BufferedImage blank = new BufferedImage(640, 480, BufferedImage.TYPE_BYTE_GRAY);
+
+        TextPresenceDetector.Result result = detector.assess(blank);
+
+        assertFalse(result.isLikelyText());
+        assertEquals(0.0, result.getLikelihood());
+    }
+
+    @Test
+    void testStrokeRatio_LongRunsAreNotStrokes() {
+        BufferedImage image = new BufferedImage(100, 20, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 100, 20);
+        g.setColor(Color.BLACK);
+        // 3 px vertical strokes on rows 0-9, one 60 px bar on rows 10-19
+        for (int x = 5; x < 95; x += 10) {
+            g.fillRect(x, 0, 3, 10);
+        }
+        g.fillRect(20, 10, 60, 10);
+        g.dispose();
+
+        double ratio = TextPresenceDetector.strokeRatio(image, 6);
+
+        // 270 stroke pixels out of 270 + 600 ink pixels
+        assertEquals(270.0 / 870.0, ratio, 1e-9);
+    }
+}
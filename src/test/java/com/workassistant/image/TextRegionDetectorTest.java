@@ -0,0 +1,103 @@
+package com.workassistant.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for text region detection.
+ */
+class TextRegionDetectorTest {
+
+    @Test
+    void testDetect_FindsTextBlocksAndSkipsChrome() {
+        BufferedImage screenshot = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screenshot.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 1200, 800);
+        // Window frame: a hollow rectangle that should not become a region
+        g.setColor(Color.DARK_GRAY);
+        g.drawRect(10, 10, 1180, 780);
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 20));
+        g.drawString("Build failed: missing dependency", 100, 120);
+        g.drawString("Run mvn install to fix it", 100, 150);
+        g.drawString("Status: 3 errors", 800, 650);
+        g.dispose();
+
+        List<Rectangle> regions = new TextRegionDetector().detect(screenshot);
+
+        assertEquals(2, regions.size(), "Expected one block per text group: " + regions);
+        Rectangle top = regions.get(0);
+        assertTrue(top.contains(110, 110) && top.contains(300, 145), "Top block should cover both lines: " + top);
+        assertTrue(top.width < 600 && top.height < 120, "Top block should be tight: " + top);
+        assertTrue(regions.get(1).contains(850, 645), "Second block should cover the status line: " + regions.get(1));
+        assertTrue(TextRegionDetector.coverage(regions, 1200, 800) < 0.1);
+    }
+
+    @Test
+    void testDetect_BlankImage() {
+        BufferedImage blank = new BufferedImage(640, 480, BufferedImage.TYPE_BYTE_GRAY);
+        assertTrue(new TextRegionDetector().detect(blank).isEmpty());
+    }
+
+    @Test
+    void testDetect_MaxRegionsMergesClosest() {
+        BufferedImage image = new BufferedImage(800, 800, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 800, 800);
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 18));
+        for (int i = 0; i < 4; i++) {
+            g.drawString("block " + i, 50 + (i % 2) * 400, 100 + (i / 2) * 400);
+        }
+        g.dispose();
+
+        assertEquals(4, new TextRegionDetector().detect(image).size());
+        assertEquals(2, new TextRegionDetector().setMaxRegions(2).detect(image).size());
+    }
+
+    @Test
+    void testLabelComponents_EightConnectivity() {
+        BufferedImage mask = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+        // Diagonal chain is one component; the isolated pixel is another
+        mask.getRaster().setSample(1, 1, 0, 255);
+        mask.getRaster().setSample(2, 2, 0, 255);
+        mask.getRaster().setSample(3, 3, 0, 255);
+        mask.getRaster().setSample(8, 1, 0, 255);
+
+        List<TextRegionDetector.Component> components = TextRegionDetector.labelComponents(mask);
+
+        assertEquals(2, components.size());
+        TextRegionDetector.Component chain = components.stream()
+            .filter(c -> c.pixels == 3).findFirst().orElseThrow();
+        assertEquals(new Rectangle(1, 1, 3, 3), chain.bounds);
+    }
+
+    @Test
+    void testMergeOverlapping() {
+        List<Rectangle> merged = TextRegionDetector.mergeOverlapping(Arrays.asList(
+            new Rectangle(0, 0, 10, 10), new Rectangle(5, 5, 10, 10), new Rectangle(50, 50, 5, 5)));
+        assertEquals(2, merged.size());
+        assertTrue(merged.contains(new Rectangle(0, 0, 15, 15)));
+    }
+
+    @Test
+    void testCrop() {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_BYTE_GRAY);
+        image.getRaster().setSample(30, 40, 0, 200);
+
+        BufferedImage crop = TextRegionDetector.crop(image, new Rectangle(20, 30, 40, 20));
+
+        assertEquals(40, crop.getWidth());
+        assertEquals(20, crop.getHeight());
+        assertEquals(200, crop.getRaster().getSample(10, 10, 0));
+    }
+}
@@ -0,0 +1,115 @@
+package com.workassistant.image;
+
+import com.workassistant.image.impl.AdaptiveMeanBinarizer;
+import com.workassistant.image.impl.GlobalBinarizer;
+import com.workassistant.image.impl.NiblackBinarizer;
+import com.workassistant.image.impl.OtsuBinarizer;
+import com.workassistant.image.impl.SauvolaBinarizer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for band-parallel execution.
+ */
+class TileExecutorTest {
+
+    // Small bands so even the test images are cut into many of them
+    private final TileExecutor parallel = new TileExecutor(4, 8);
+    private final TileExecutor sequential = new TileExecutor(1, 8);
+
+    @Test
+    void testBinarizers_MatchSequentialOutput() throws Exception {
+        List<BinarizeConfig> configs = new ArrayList<>();
+        configs.add(BinarizeConfig.forOCR());
+        configs.add(BinarizeConfig.forUnevenLighting());
+        configs.add(new BinarizeConfig().setBlurKernelSize(0).setUseMorphologicalOpening(false));
+        configs.add(new BinarizeConfig().setBlurKernelSize(7).setUseMedianBlur(true)
+            .setUseMorphologicalOpening(true).setUseMorphologicalClosing(true).setMorphKernelSize(5));
+        configs.add(new BinarizeConfig().setBlurKernelSize(15).setBlockSize(31).setC(4)
+            .setUseMorphologicalClosing(true).setMorphKernelSize(3));
+
+        for (BufferedImage image : testImages()) {
+            for (BinarizeConfig config : configs) {
+                String label = image.getWidth() + "x" + image.getHeight() + " " + config;
+                assertArrayEquals(packedData(new GlobalBinarizer(sequential).binarize(image, config)),
+                    packedData(new GlobalBinarizer(parallel).binarize(image, config)), "Global " + label);
+                assertArrayEquals(packedData(new OtsuBinarizer(sequential).binarize(image, config)),
+                    packedData(new OtsuBinarizer(parallel).binarize(image, config)), "Otsu " + label);
+                assertArrayEquals(packedData(new AdaptiveMeanBinarizer(sequential).binarize(image, config)),
+                    packedData(new AdaptiveMeanBinarizer(parallel).binarize(image, config)), "AdaptiveMean " + label);
+                assertArrayEquals(packedData(new SauvolaBinarizer(sequential).binarize(image, config)),
+                    packedData(new SauvolaBinarizer(parallel).binarize(image, config)), "Sauvola " + label);
+                assertArrayEquals(packedData(new NiblackBinarizer(sequential).binarize(image, config)),
+                    packedData(new NiblackBinarizer(parallel).binarize(image, config)), "Niblack " + label);
+            }
+        }
+    }
+
+    @Test
+    void testMap_SubImageAndHalo() {
+        BufferedImage source = noise(new Random(5), 60, 200);
+        BufferedImage view = source.getSubimage(7, 11, 41, 170);
+
+        BufferedImage expected = ImageUtils.applyGaussianBlur(ImageUtils.toGrayscale(copy(view)), 9);
+        BufferedImage actual = parallel.map(view, 4, band -> ImageUtils.applyGaussianBlur(band, 9));
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, actual.getType());
+        assertArrayEquals(packedData(expected), packedData(actual));
+    }
+
+    @Test
+    void testMap_SmallImageRunsInPlace() {
+        BufferedImage image = noise(new Random(6), 30, 12);
+
+        BufferedImage[] seen = new BufferedImage[1];
+        parallel.map(image, 0, band -> seen[0] = band);
+
+        assertSame(image, seen[0]);
+    }
+
+    private List<BufferedImage> testImages() throws Exception {
+        List<BufferedImage> images = new ArrayList<>();
+        for (String fixture : new String[]{"noisy.png", "uneven_light.png", "uniform.png"}) {
+            images.add(ImageUtils.loadImage(new File("src/test/resources/test-images/" + fixture).getAbsolutePath()));
+        }
+        Random random = new Random(4);
+        images.add(noise(random, 150, 217));
+        images.add(noise(random, 37, 90));
+        return images;
+    }
+
+    /**
+     * Gradient with dark strokes and noise, so every algorithm has edges to find
+     */
+    private static BufferedImage noise(Random random, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = 120 + x * 100 / width + random.nextInt(30);
+                if ((y / 6) % 3 == 0 && random.nextInt(4) != 0) {
+                    value -= 100;
+                }
+                image.getRaster().setSample(x, y, 0, value);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        copy.setData(image.getData());
+        return copy;
+    }
+
+    private static byte[] packedData(BufferedImage image) {
+        return ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    }
+}
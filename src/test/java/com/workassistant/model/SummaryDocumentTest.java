@@ -1,5 +1,8 @@
 package com.workassistant.model;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.List;
@@ -69,4 +72,40 @@ class SummaryDocumentTest {
         assertTrue(doc.getContent().contains("# Heading 1"));
         assertTrue(doc.getContent().contains("**Bold text**"));
     }
+
+    @Test
+    void testSerializationWritesDocTypeAndNoTextAlias() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        SummaryDocument doc = new SummaryDocument("id-1", "Title", "Body", Arrays.asList("k"), "ch", "u");
+
+        JsonNode json = mapper.valueToTree(doc);
+
+        assertEquals(SummaryDocument.DOC_TYPE, json.get("docType").asText());
+        assertEquals("Body", json.get("content").asText());
+        assertFalse(json.has("text"), "Content should only be indexed once, under `content`");
+    }
+
+    @Test
+    void testDeserializationAcceptsTextAliasAndDocType() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        SummaryDocument doc = mapper.readValue(
+            "{\"title\":\"T\",\"text\":\"Legacy body\",\"docType\":\"summary\"}", SummaryDocument.class);
+
+        assertEquals("Legacy body", doc.getContent());
+        assertEquals(SummaryDocument.DOC_TYPE, doc.getDocType());
+    }
+
+    @Test
+    void testClipboardDocumentDocType() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ClipboardContentDocument doc = new ClipboardContentDocument("c-1", "Clip", "pasted text",
+            null, Arrays.asList("k"), "ch", "u");
+
+        JsonNode json = mapper.valueToTree(doc);
+        assertEquals(ClipboardContentDocument.DOC_TYPE, json.get("docType").asText());
+
+        ClipboardContentDocument roundTrip = mapper.treeToValue(json, ClipboardContentDocument.class);
+        assertEquals("pasted text", roundTrip.getText());
+    }
 }
@@ -1,9 +1,12 @@
 package com.workassistant.service;
 
+import com.workassistant.model.KBSearchResult;
 import com.workassistant.model.SummaryDocument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 
@@ -134,4 +137,79 @@ class ElasticsearchServiceTest {
             }
         }
     }
+    
+    @Test
+    void testSearchSnippetsAsyncWithEmptyQuery() throws Exception {
+        // Empty queries complete immediately without contacting Elasticsearch
+        List<KBSearchResult> results = service.searchSnippetsAsync("  ", 5, false).get();
+        assertNotNull(results);
+        assertTrue(results.isEmpty(), "Empty query should return empty results");
+    }
+    
+    @Test
+    void testBuildSuggestInputs() {
+        List<String> inputs = ElasticsearchService.buildSuggestInputs(
+            " 项目架构 ", Arrays.asList("架构", "", null, "项目架构", "design\u001fdoc"));
+        // Title first, blanks and duplicates dropped, reserved characters stripped
+        assertEquals(Arrays.asList("项目架构", "架构", "designdoc"), inputs);
+        
+        assertTrue(ElasticsearchService.buildSuggestInputs(null, null).isEmpty());
+    }
+    
+    @Test
+    void testIndexAndAliasNames() {
+        assertEquals("kb-write", ElasticsearchService.writeAliasName("kb"));
+        assertEquals("kb-read", ElasticsearchService.readAliasName("kb"));
+        assertEquals("kb-template", ElasticsearchService.templateName("kb"));
+        assertEquals("kb-2024.05", ElasticsearchService.monthlyIndexName("kb", LocalDate.of(2024, 5, 17)));
+    }
+    
+    @Test
+    void testMonthlyIndexNameAtMonthBoundaries() {
+        assertEquals("kb-2024.12", ElasticsearchService.monthlyIndexName("kb", LocalDate.of(2024, 12, 31)));
+        assertEquals("kb-2025.01", ElasticsearchService.monthlyIndexName("kb", LocalDate.of(2025, 1, 1)));
+        assertEquals("kb-2024.02", ElasticsearchService.monthlyIndexName("kb", LocalDate.of(2024, 2, 29)));
+        assertEquals("kb-2024.03", ElasticsearchService.monthlyIndexName("kb", LocalDate.of(2024, 3, 1)));
+        
+        // Rolls over on the first day of a new month, not before
+        assertFalse(ElasticsearchService.needsRollover("kb-2024.12",
+            ElasticsearchService.monthlyIndexName("kb", LocalDate.of(2024, 12, 31))));
+        assertTrue(ElasticsearchService.needsRollover("kb-2024.12",
+            ElasticsearchService.monthlyIndexName("kb", LocalDate.of(2025, 1, 1))));
+        assertFalse(ElasticsearchService.needsRollover(null, "kb-2025.01"), "no write index, nothing to roll over");
+    }
+    
+    @Test
+    void testParseIndexMonth() {
+        assertEquals(YearMonth.of(2024, 5), ElasticsearchService.parseIndexMonth("kb", "kb-2024.05"));
+        assertNull(ElasticsearchService.parseIndexMonth("kb", "kb"));
+        assertNull(ElasticsearchService.parseIndexMonth("kb", "kb-write"));
+        assertNull(ElasticsearchService.parseIndexMonth("kb", "kb-2024.13"));
+        assertNull(ElasticsearchService.parseIndexMonth("kb", "kb-archive-2024.05"));
+        assertNull(ElasticsearchService.parseIndexMonth("kb", "other-2024.05"));
+    }
+    
+    @Test
+    void testRetentionCutoff() {
+        // The current month is the first of the kept months
+        assertEquals(YearMonth.of(2025, 1), ElasticsearchService.oldestKeptMonth(YearMonth.of(2025, 1), 1));
+        assertEquals(YearMonth.of(2024, 11), ElasticsearchService.oldestKeptMonth(YearMonth.of(2025, 1), 3));
+        assertEquals(YearMonth.of(2024, 3), ElasticsearchService.oldestKeptMonth(YearMonth.of(2025, 2), 12));
+        assertNull(ElasticsearchService.oldestKeptMonth(YearMonth.of(2025, 1), 0));
+        assertNull(ElasticsearchService.oldestKeptMonth(YearMonth.of(2025, 1), -1));
+    }
+    
+    @Test
+    void testExpiredIndices() {
+        List<String> indices = Arrays.asList("kb", "kb-2024.09", "kb-2024.10", "kb-2024.11", "kb-2024.12",
+            "kb-2025.01", "kb-read", "kb-2024.13");
+        
+        assertEquals(Arrays.asList("kb-2024.09", "kb-2024.10"),
+            ElasticsearchService.expiredIndices("kb", indices, "kb-2025.01", YearMonth.of(2025, 1), 3));
+        assertTrue(ElasticsearchService.expiredIndices("kb", indices, "kb-2025.01", YearMonth.of(2025, 1), 0).isEmpty());
+        
+        // A write index that has not rolled over yet is kept even when it is past retention
+        assertEquals(Arrays.asList("kb-2024.09", "kb-2024.11", "kb-2024.12"),
+            ElasticsearchService.expiredIndices("kb", indices, "kb-2024.10", YearMonth.of(2025, 1), 1));
+    }
 }
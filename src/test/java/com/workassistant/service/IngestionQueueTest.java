@@ -0,0 +1,297 @@
+package com.workassistant.service;
+
+import com.workassistant.model.ClipboardData;
+import com.workassistant.model.IngestJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for IngestionQueue
+ */
+public class IngestionQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    private IngestJob newJob(String id) {
+        return new IngestJob(id, "channel", "user", "message-" + id, new ClipboardData("text", null));
+    }
+
+    @Test
+    public void testJobRunsThroughAllStages() throws Exception {
+        List<String> visited = new CopyOnWriteArrayList<>();
+        List<IngestJob.Stage> progress = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        IngestionQueue queue = new IngestionQueue(tempDir, 3, 10);
+        queue.registerStage(IngestJob.Stage.OCR, 1, job -> visited.add("OCR"))
+            .registerStage(IngestJob.Stage.KEYWORDS, 1, job -> visited.add("KEYWORDS"))
+            .registerStage(IngestJob.Stage.TITLE, 1, job -> job.setTitle("title"))
+            .registerStage(IngestJob.Stage.INDEX, 1, job -> visited.add("INDEX"));
+        queue.addListener(job -> {
+            progress.add(job.getStage());
+            if (job.getStage() == IngestJob.Stage.DONE) {
+                done.countDown();
+            }
+        });
+        queue.start();
+
+        queue.submit(newJob("a"));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("OCR", "KEYWORDS", "INDEX"), visited);
+        assertEquals(List.of(IngestJob.Stage.OCR, IngestJob.Stage.KEYWORDS, IngestJob.Stage.TITLE,
+            IngestJob.Stage.INDEX, IngestJob.Stage.DONE), progress);
+        assertEquals(0, queue.getActiveCount());
+        assertEquals(1L, queue.getStatus().get("completed"));
+        queue.shutdown();
+    }
+
+    @Test
+    public void testStageIsRetriedThenFails() throws Exception {
+        AtomicInteger ocrCalls = new AtomicInteger();
+        AtomicInteger indexCalls = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(2);
+        List<IngestJob> terminal = new CopyOnWriteArrayList<>();
+
+        IngestionQueue queue = new IngestionQueue(tempDir, 3, 10);
+        queue.registerStage(IngestJob.Stage.OCR, 1, job -> {
+                // Fails once, then succeeds
+                if (job.getId().equals("flaky") && ocrCalls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("transient");
+                }
+            })
+            .registerStage(IngestJob.Stage.INDEX, 1, job -> {
+                if (job.getId().equals("broken")) {
+                    indexCalls.incrementAndGet();
+                    throw new IllegalStateException("Elasticsearch is not available");
+                }
+            });
+        queue.addListener(job -> {
+            if (job.getStage().isTerminal()) {
+                terminal.add(job);
+                finished.countDown();
+            }
+        });
+        queue.start();
+
+        queue.submit(newJob("flaky"));
+        queue.submit(newJob("broken"));
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        IngestJob flaky = terminal.stream().filter(j -> j.getId().equals("flaky")).findFirst().orElseThrow();
+        IngestJob broken = terminal.stream().filter(j -> j.getId().equals("broken")).findFirst().orElseThrow();
+
+        assertEquals(IngestJob.Stage.DONE, flaky.getStage());
+        assertEquals(2, ocrCalls.get());
+
+        assertEquals(IngestJob.Stage.FAILED, broken.getStage());
+        assertEquals(IngestJob.Stage.INDEX, broken.getFailedStage());
+        assertEquals("Elasticsearch is not available", broken.getLastError());
+        assertEquals(3, indexCalls.get());
+        queue.shutdown();
+    }
+
+    @Test
+    public void testUnfinishedJobResumesAfterRestart() throws Exception {
+        CountDownLatch reachedTitle = new CountDownLatch(1);
+        CountDownLatch neverReleased = new CountDownLatch(1);
+
+        IngestionQueue first = new IngestionQueue(tempDir, 3, 10);
+        first.registerStage(IngestJob.Stage.OCR, 1, job -> job.setKeywords(List.of("ocr-keyword")))
+            .registerStage(IngestJob.Stage.TITLE, 1, job -> {
+                reachedTitle.countDown();
+                neverReleased.await();
+            });
+        first.start();
+        first.submit(newJob("resume"));
+        assertTrue(reachedTitle.await(5, TimeUnit.SECONDS));
+        // Simulate the JVM going away mid-stage
+        first.shutdown();
+
+        List<String> visited = new CopyOnWriteArrayList<>();
+        List<String> keywordsSeen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        IngestionQueue second = new IngestionQueue(tempDir, 3, 10);
+        second.registerStage(IngestJob.Stage.OCR, 1, job -> visited.add("OCR"))
+            .registerStage(IngestJob.Stage.TITLE, 1, job -> {
+                visited.add("TITLE");
+                keywordsSeen.addAll(job.getKeywords());
+            });
+        second.addListener(job -> {
+            if (job.getStage() == IngestJob.Stage.DONE) {
+                done.countDown();
+            }
+        });
+
+        assertEquals(1, second.start());
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("TITLE"), visited, "Finished stages must not run again");
+        assertEquals(List.of("ocr-keyword"), keywordsSeen, "Stage results survive the restart");
+        second.shutdown();
+
+        // Finished jobs are dropped when the journal is compacted
+        IngestionQueue third = new IngestionQueue(tempDir, 3, 10);
+        assertEquals(0, third.start());
+        third.shutdown();
+    }
+
+    @Test
+    public void testTruncatedJournalLineIsSkipped() throws Exception {
+        Files.createDirectories(tempDir);
+        Files.writeString(tempDir.resolve("journal.jsonl"), "{\"id\":\"cut\",\"stage\":\"OC",
+            StandardCharsets.UTF_8, StandardOpenOption.CREATE);
+
+        IngestionQueue queue = new IngestionQueue(tempDir, 3, 10);
+        assertEquals(0, queue.start());
+        queue.shutdown();
+    }
+
+    @Test
+    public void testFailedJobMovesToDeadLetterFileOnCompaction() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        IngestionQueue first = new IngestionQueue(tempDir, 1, 10);
+        first.registerStage(IngestJob.Stage.OCR, 1, job -> {
+            throw new IllegalStateException("OCR engine crashed");
+        });
+        first.addListener(job -> {
+            if (job.getStage() == IngestJob.Stage.FAILED) {
+                failed.countDown();
+            }
+        });
+        first.start();
+        first.submit(newJob("dead"));
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        first.shutdown();
+
+        // The restart compacts the journal
+        IngestionQueue second = new IngestionQueue(tempDir, 1, 10);
+        assertEquals(0, second.start());
+        second.shutdown();
+
+        assertFalse(Files.readString(tempDir.resolve("journal.jsonl")).contains("\"dead\""));
+        List<String> deadLetters = Files.readAllLines(tempDir.resolve("failed.jsonl"));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).contains("\"dead\""));
+        assertTrue(deadLetters.get(0).contains("OCR engine crashed"));
+
+        // Already moved, so a further compaction does not copy it again
+        IngestionQueue third = new IngestionQueue(tempDir, 1, 10);
+        third.start();
+        third.shutdown();
+        assertEquals(1, Files.readAllLines(tempDir.resolve("failed.jsonl")).size());
+    }
+
+    @Test
+    public void testRunsWithoutJournalWhenStartFails() throws Exception {
+        Path blocked = tempDir.resolve("not-a-directory");
+        Files.writeString(blocked, "in the way");
+        CountDownLatch done = new CountDownLatch(1);
+
+        IngestionQueue queue = new IngestionQueue(blocked.resolve("ingest"), 3, 10);
+        queue.registerStage(IngestJob.Stage.OCR, 1, job -> { });
+        queue.addListener(job -> {
+            if (job.getStage() == IngestJob.Stage.DONE) {
+                done.countDown();
+            }
+        });
+        assertThrows(java.io.IOException.class, queue::start);
+        queue.startWithoutJournal();
+
+        queue.submit(newJob("inline"));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNull(queue.getStatus().get("journal"));
+        queue.shutdown();
+    }
+
+    @Test
+    public void testTesseractFailureIsRetriedThenDeadLettered() throws Exception {
+        Path image = tempDir.resolve("paste.png");
+        Files.write(image, new byte[] {1, 2, 3});
+        AtomicInteger ocrRuns = new AtomicInteger();
+        OCRService ocrService = OCRService.getInstance();
+        ocrService.setRecognizer(file -> {
+            ocrRuns.incrementAndGet();
+            throw new net.sourceforge.tess4j.TesseractException("Tesseract crashed");
+        });
+        try {
+            CountDownLatch failed = new CountDownLatch(1);
+            Path ingestDir = tempDir.resolve("ingest");
+            IngestionQueue queue = new IngestionQueue(ingestDir, 2, 10);
+            // What the clipboard OCR stage does with the pasted images
+            queue.registerStage(IngestJob.Stage.OCR, 1, job -> ocrService.recognizeAll(List.of(image.toFile())));
+            queue.addListener(job -> {
+                if (job.getStage() == IngestJob.Stage.FAILED) {
+                    failed.countDown();
+                }
+            });
+            queue.start();
+            queue.submit(newJob("unreadable"));
+            assertTrue(failed.await(5, TimeUnit.SECONDS));
+            queue.shutdown();
+            assertEquals(2, ocrRuns.get(), "the OCR stage is retried");
+
+            IngestionQueue restarted = new IngestionQueue(ingestDir, 2, 10);
+            restarted.start();
+            restarted.shutdown();
+            List<String> deadLetters = Files.readAllLines(ingestDir.resolve("failed.jsonl"));
+            assertEquals(1, deadLetters.size());
+            assertTrue(deadLetters.get(0).contains("Tesseract crashed"));
+            assertTrue(deadLetters.get(0).contains("\"failedStage\":\"OCR\""), deadLetters.get(0));
+        } finally {
+            ocrService.setRecognizer(null);
+        }
+    }
+
+    @Test
+    public void testCompactionWritesJournaledSnapshotsNotLiveJobs() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int others = 300;
+        CountDownLatch othersDone = new CountDownLatch(others);
+
+        IngestionQueue queue = new IngestionQueue(tempDir, 3, 10);
+        queue.registerStage(IngestJob.Stage.OCR, 2, job -> {
+            if (job.getId().equals("slow")) {
+                // Changed by the stage worker but not journaled yet
+                job.setKeywords(List.of("in-flight"));
+                slowStarted.countDown();
+                release.await();
+            }
+        });
+        queue.addListener(job -> {
+            if (job.getStage() == IngestJob.Stage.DONE) {
+                othersDone.countDown();
+            }
+        });
+        queue.start();
+        queue.submit(newJob("slow"));
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        // Enough transitions to compact the journal while "slow" is mid-stage
+        for (int i = 0; i < others; i++) {
+            queue.submit(newJob("other-" + i));
+        }
+        assertTrue(othersDone.await(10, TimeUnit.SECONDS));
+
+        List<String> journal = Files.readAllLines(tempDir.resolve("journal.jsonl"));
+        assertTrue(journal.size() < 5 * others, "journal was compacted");
+        String slow = journal.stream().filter(line -> line.contains("\"slow\"")).findFirst().orElseThrow();
+        assertTrue(slow.contains("\"stage\":\"OCR\""), slow);
+        assertFalse(slow.contains("in-flight"), slow);
+        release.countDown();
+        queue.shutdown();
+    }
+}
@@ -0,0 +1,134 @@
+package com.workassistant.service;
+
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for OCREnginePool
+ */
+public class OCREnginePoolTest {
+
+    @Test
+    public void testEnginesAreCreatedLazily() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        OCREnginePool pool = new OCREnginePool(() -> {
+            created.incrementAndGet();
+            return mock(ITesseract.class);
+        }, 4);
+
+        assertEquals(0, created.get(), "No engine should be created before first use");
+
+        ITesseract engine = pool.borrow();
+        pool.release(engine);
+        ITesseract again = pool.borrow();
+        pool.release(again);
+
+        assertSame(engine, again, "Returned engine should be reused");
+        assertEquals(1, created.get());
+        assertEquals(0, pool.getInUseCount());
+    }
+
+    @Test
+    public void testPoolNeverExceedsMaxSize() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        OCREnginePool pool = new OCREnginePool(() -> {
+            created.incrementAndGet();
+            return mock(ITesseract.class);
+        }, 2);
+
+        ITesseract first = pool.borrow();
+        ITesseract second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(2, pool.getCreatedCount());
+
+        // A third borrower has to wait until an engine is returned
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ITesseract> third = executor.submit(pool::borrow);
+            Thread.sleep(100);
+            assertFalse(third.isDone(), "Borrow should block while all engines are in use");
+            assertEquals(1, pool.getWaitingCount());
+
+            pool.release(first);
+            assertSame(first, third.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, created.get());
+        Map<String, Object> stats = pool.getStats();
+        assertEquals(1L, stats.get("waitCount"));
+        assertEquals(3L, stats.get("borrowCount"));
+    }
+
+    @Test
+    public void testEngineIsNotSharedBetweenConcurrentTasks() throws Exception {
+        OCREnginePool pool = new OCREnginePool(() -> mock(ITesseract.class), 3);
+        Map<ITesseract, AtomicInteger> active = new ConcurrentHashMap<>();
+        AtomicInteger violations = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(12);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            for (int i = 0; i < 12; i++) {
+                executor.submit(() -> {
+                    try {
+                        pool.execute(engine -> {
+                            if (active.computeIfAbsent(engine, e -> new AtomicInteger()).incrementAndGet() > 1) {
+                                violations.incrementAndGet();
+                            }
+                            try {
+                                Thread.sleep(10);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            active.get(engine).decrementAndGet();
+                            return "ok";
+                        });
+                    } catch (Exception e) {
+                        violations.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, violations.get(), "An engine must never be used by two tasks at once");
+        assertTrue(pool.getCreatedCount() <= 3);
+        assertEquals(0, pool.getInUseCount());
+    }
+
+    @Test
+    public void testEngineIsReturnedWhenTaskFails() throws Exception {
+        OCREnginePool pool = new OCREnginePool(() -> mock(ITesseract.class), 1);
+
+        assertThrows(TesseractException.class, () -> pool.execute(engine -> {
+            throw new TesseractException("boom");
+        }));
+
+        assertEquals(0, pool.getInUseCount());
+        assertEquals("ok", pool.execute(engine -> "ok"));
+    }
+
+    @Test
+    public void testInvalidSizeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OCREnginePool(() -> mock(ITesseract.class), 0));
+    }
+}
@@ -0,0 +1,173 @@
+package com.workassistant.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OCRResultCache
+ */
+public class OCRResultCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testHashDependsOnContentOnly() throws Exception {
+        File a = tempDir.resolve("a.png").toFile();
+        File b = tempDir.resolve("b.png").toFile();
+        File c = tempDir.resolve("c.png").toFile();
+        Files.write(a.toPath(), "same bytes".getBytes(StandardCharsets.UTF_8));
+        Files.write(b.toPath(), "same bytes".getBytes(StandardCharsets.UTF_8));
+        Files.write(c.toPath(), "other bytes".getBytes(StandardCharsets.UTF_8));
+
+        String hashA = OCRResultCache.hash(a);
+        assertEquals(64, hashA.length(), "SHA-256 hex digest should have 64 characters");
+        assertEquals(hashA, OCRResultCache.hash(b));
+        assertNotEquals(hashA, OCRResultCache.hash(c));
+    }
+
+    @Test
+    public void testMissThenHit() {
+        OCRResultCache cache = new OCRResultCache(tempDir.resolve("cache"), 10);
+
+        assertNull(cache.get("abcdef"));
+        cache.put("abcdef", new OCRResultCache.Entry("识别文本", Arrays.asList("识别", "文本")));
+
+        OCRResultCache.Entry entry = cache.get("abcdef");
+        assertNotNull(entry);
+        assertEquals("识别文本", entry.getText());
+        assertEquals(Arrays.asList("识别", "文本"), entry.getKeywords());
+        assertEquals(1L, cache.getStats().get("memoryHits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    public void testLruEvictionFallsBackToDisk() {
+        OCRResultCache cache = new OCRResultCache(tempDir.resolve("cache"), 2);
+        cache.put("aa01", new OCRResultCache.Entry("one", null));
+        cache.put("bb02", new OCRResultCache.Entry("two", null));
+        cache.get("aa01");  // aa01 becomes most recently used
+        cache.put("cc03", new OCRResultCache.Entry("three", null));
+
+        assertEquals(2, cache.getMemorySize(), "Memory tier should be bounded");
+
+        // bb02 was evicted from memory but is still on disk
+        OCRResultCache.Entry entry = cache.get("bb02");
+        assertNotNull(entry);
+        assertEquals("two", entry.getText());
+        assertEquals(1L, cache.getStats().get("diskHits"));
+    }
+
+    @Test
+    public void testDiskTierSurvivesNewInstance() {
+        Path dir = tempDir.resolve("cache");
+        new OCRResultCache(dir, 10).put("deadbeef", new OCRResultCache.Entry("persisted", Arrays.asList("persisted")));
+
+        assertTrue(Files.isRegularFile(dir.resolve("de").resolve("deadbeef.json")));
+
+        OCRResultCache reopened = new OCRResultCache(dir, 10);
+        OCRResultCache.Entry entry = reopened.get("deadbeef");
+        assertNotNull(entry);
+        assertEquals("persisted", entry.getText());
+    }
+
+    @Test
+    public void testSkippedEntriesStayInMemory() throws Exception {
+        Path dir = tempDir.resolve("cache");
+        OCRResultCache cache = new OCRResultCache(dir, 10);
+        OCRResultCache.Entry skipped = new OCRResultCache.Entry("", null);
+        skipped.setOcrSkipped(true);
+        cache.put("aa01", skipped);
+
+        assertTrue(cache.get("aa01").isOcrSkipped());
+        assertFalse(Files.exists(dir.resolve("aa").resolve("aa01.json")));
+
+        // A skip persisted by an older version is not served
+        Files.createDirectories(dir.resolve("bb"));
+        Files.writeString(dir.resolve("bb").resolve("bb02.json"), "{\"text\":\"\",\"ocrSkipped\":true}");
+        assertNull(new OCRResultCache(dir, 10).get("bb02"));
+    }
+
+    @Test
+    public void testFingerprintSeparatesResults() {
+        Path dir = tempDir.resolve("cache");
+        new OCRResultCache(dir, 10, "v1|preprocess=300").put("aa01", new OCRResultCache.Entry("old", null));
+
+        assertNull(new OCRResultCache(dir, 10, "v1|preprocess=200").get("aa01"),
+            "Results from other pipeline settings must not be served");
+        assertEquals("old", new OCRResultCache(dir, 10, "v1|preprocess=300").get("aa01").getText());
+        assertNotEquals(OCRResultCache.namespace("a"), OCRResultCache.namespace("b"));
+    }
+
+    @Test
+    public void testPruneRemovesExpiredThenLeastRecentlyUsed() throws Exception {
+        Path dir = tempDir.resolve("cache");
+        OCRResultCache other = new OCRResultCache(dir, 10, "other settings");
+        other.put("ee05", new OCRResultCache.Entry("stale", null));
+        OCRResultCache cache = new OCRResultCache(dir, 10, "current settings")
+            .setDiskLimits(3, Duration.ofDays(30));
+        String[] hashes = {"aa01", "bb02", "cc03", "dd04"};
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < hashes.length; i++) {
+            cache.put(hashes[i], new OCRResultCache.Entry("text " + i, null));
+            setLastUsed(dir, hashes[i], now - (10 - i) * 60_000L);
+        }
+        setLastUsed(dir, "ee05", now - Duration.ofDays(31).toMillis());
+
+        // The expired entry of the other namespace goes first, then the oldest above the limit
+        assertEquals(2, cache.prune());
+        OCRResultCache reopened = new OCRResultCache(dir, 10, "current settings");
+        assertNull(reopened.get("aa01"));
+        assertNotNull(reopened.get("bb02"));
+        assertNotNull(reopened.get("dd04"));
+        assertNull(new OCRResultCache(dir, 10, "other settings").get("ee05"));
+        assertEquals(0, cache.prune());
+    }
+
+    @Test
+    public void testSchedulePruneRunsInBackground() throws Exception {
+        Path dir = tempDir.resolve("cache");
+        OCRResultCache cache = new OCRResultCache(dir, 10, "settings").setDiskLimits(1, null);
+        cache.put("aa01", new OCRResultCache.Entry("first", null));
+        cache.put("bb02", new OCRResultCache.Entry("second", null));
+        setLastUsed(dir, "aa01", System.currentTimeMillis() - 60_000L);
+
+        java.util.concurrent.CompletableFuture<Integer> pruned;
+        // While a prune cannot run, scheduling one still returns at once
+        synchronized (cache) {
+            pruned = cache.schedulePrune();
+            assertFalse(pruned.isDone());
+            assertSame(pruned, cache.schedulePrune(), "a pending prune is not queued twice");
+        }
+        assertEquals(1, pruned.get(10, java.util.concurrent.TimeUnit.SECONDS));
+        assertNull(new OCRResultCache(dir, 10, "settings").get("aa01"));
+    }
+
+    private static void setLastUsed(Path dir, String hash, long millis) throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            Path file = files.filter(path -> path.getFileName().toString().equals(hash + ".json")).findFirst().orElseThrow();
+            Files.setLastModifiedTime(file, FileTime.fromMillis(millis));
+        }
+    }
+
+    @Test
+    public void testMemoryOnlyCache() {
+        OCRResultCache cache = new OCRResultCache(null, 1);
+        cache.put("aa01", new OCRResultCache.Entry("one", null));
+        cache.put("bb02", new OCRResultCache.Entry("two", null));
+
+        assertNull(cache.get("aa01"), "Evicted entry is gone without a disk tier");
+        assertNotNull(cache.get("bb02"));
+    }
+}
@@ -134,4 +134,85 @@ public class OCRServiceTest {
             fail("Failed to test punctuation handling: " + e.getMessage());
         }
     }
+    
+    @Test
+    public void testExtractKeywordsAsync_SkipsSvgWithoutOcr() throws Exception {
+        // SVG images are skipped without touching Tesseract, so this runs without native OCR
+        List<java.util.concurrent.CompletableFuture<List<String>>> futures = new java.util.ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(ocrService.extractKeywordsAsync(new java.io.File("missing-" + i + ".svg")));
+        }
+        
+        for (java.util.concurrent.CompletableFuture<List<String>> future : futures) {
+            List<String> keywords = future.get(10, java.util.concurrent.TimeUnit.SECONDS);
+            assertNotNull(keywords);
+            assertTrue(keywords.isEmpty(), "Skipped images should yield no keywords");
+        }
+    }
+    
+    @Test
+    public void testMapInOrder_ResultsFollowInputOrder() throws Exception {
+        List<Integer> items = java.util.Arrays.asList(0, 1, 2, 3);
+        // The first item waits until all the others have finished
+        java.util.concurrent.CountDownLatch othersDone = new java.util.concurrent.CountDownLatch(items.size() - 1);
+        List<Integer> completed = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(items.size());
+        try {
+            List<String> results = OCRService.mapInOrder(items, item -> {
+                if (item == 0) {
+                    try {
+                        assertTrue(othersDone.await(10, java.util.concurrent.TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                completed.add(item);
+                othersDone.countDown();
+                return "result-" + item;
+            }, executor).get(10, java.util.concurrent.TimeUnit.SECONDS);
+            
+            assertEquals(0, completed.get(completed.size() - 1), "first item should finish last");
+            assertEquals(java.util.Arrays.asList("result-0", "result-1", "result-2", "result-3"), results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testMapInOrder_FailsWhenAnItemFails() {
+        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(2);
+        try {
+            java.util.concurrent.CompletableFuture<List<Integer>> future = OCRService.mapInOrder(
+                java.util.Arrays.asList(1, 2, 3), item -> {
+                    if (item == 2) {
+                        throw new IllegalStateException("broken image");
+                    }
+                    return item;
+                }, executor);
+            
+            java.util.concurrent.ExecutionException e = assertThrows(java.util.concurrent.ExecutionException.class,
+                () -> future.get(10, java.util.concurrent.TimeUnit.SECONDS));
+            assertEquals("broken image", e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testMergeTileTexts_DropsOverlappingLines() {
+        String first = "第一行\n第二行 text\n第三行";
+        String second = "第二行text\n第三行\n第四行";
+        String third = "第五行";
+        
+        String merged = OCRService.mergeTileTexts(java.util.Arrays.asList(first, second, third));
+        
+        assertEquals("第一行\n第二行 text\n第三行\n第四行\n第五行", merged);
+    }
+    
+    @Test
+    public void testMergeTileTexts_KeepsLinesWithoutOverlap() {
+        String merged = OCRService.mergeTileTexts(java.util.Arrays.asList("alpha\n\nbeta", "gamma", ""));
+        
+        assertEquals("alpha\nbeta\ngamma", merged);
+    }
 }
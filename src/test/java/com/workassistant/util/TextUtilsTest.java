@@ -68,4 +68,20 @@ public class TextUtilsTest {
         assertTrue(TextUtils.containsCJKCharacters("中文！测试。"), "Chinese with punctuation should contain CJK characters");
         assertFalse(TextUtils.containsCJKCharacters("English! Test."), "English with punctuation should not contain CJK characters");
     }
+    
+    @Test
+    public void testEstimateTokens_EmptyText() {
+        assertEquals(0, TextUtils.estimateTokens(""), "Empty text should need no tokens");
+        assertEquals(0, TextUtils.estimateTokens(null), "Null text should need no tokens");
+    }
+    
+    @Test
+    public void testEstimateTokens_ChineseAndEnglish() {
+        // Each CJK character counts as one token
+        assertEquals(4, TextUtils.estimateTokens("中文测试"), "CJK characters should count one token each");
+        // Latin text counts about four characters per token
+        assertEquals(3, TextUtils.estimateTokens("hello world!"), "English text should count ~4 chars per token");
+        // Mixed text combines both estimates
+        assertEquals(3, TextUtils.estimateTokens("测试test"), "Mixed text should combine both estimates");
+    }
 }